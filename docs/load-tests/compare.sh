@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Runs users-list.js against a platform-thread and a virtual-thread deployment of the service at
+# each concurrency level and prints throughput and latency side by side as a Markdown table.
+#
+# Usage: PLATFORM_URL=... VIRTUAL_URL=... TOKEN=<jwt> ./compare.sh [vus ...]
+# Both deployments must share the database, the Cerbos instance and the replica count. The k6
+# summaries are kept in results/<timestamp>/ next to this script.
+set -euo pipefail
+
+: "${PLATFORM_URL:?set PLATFORM_URL to the deployment without the virtual-threads profile}"
+: "${VIRTUAL_URL:?set VIRTUAL_URL to the Java 21 deployment with the virtual-threads profile}"
+: "${TOKEN:?set TOKEN to a bearer token allowed to list users and roles}"
+
+levels=("$@")
+if [ ${#levels[@]} -eq 0 ]; then
+	levels=(200 800 2000)
+fi
+
+here="$(cd "$(dirname "$0")" && pwd)"
+results="$here/results/$(date -u +%Y%m%dT%H%M%SZ)"
+mkdir -p "$results"
+
+for vus in "${levels[@]}"; do
+	for variant in platform virtual; do
+		if [ "$variant" = platform ]; then url="$PLATFORM_URL"; else url="$VIRTUAL_URL"; fi
+		k6 run --quiet -e BASE_URL="$url" -e TOKEN="$TOKEN" -e VUS="$vus" \
+			--summary-export "$results/$variant-$vus.json" "$here/users-list.js"
+	done
+done
+
+echo "| VUs | Threads | Requests/s | p50 ms | p99 ms | Failed |"
+echo "|---|---|---|---|---|---|"
+for vus in "${levels[@]}"; do
+	for variant in platform virtual; do
+		jq -r --arg vus "$vus" --arg variant "$variant" \
+			'"| \($vus) | \($variant) | \(.metrics.http_reqs.rate | floor)'\
+' | \(.metrics.http_req_duration["p(50)"] | floor)'\
+' | \(.metrics.http_req_duration["p(99)"] | floor)'\
+' | \(.metrics.http_req_failed.value * 100 | floor)% |"' \
+			"$results/$variant-$vus.json"
+	done
+done | tee "$results/summary.md"
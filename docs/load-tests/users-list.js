@@ -0,0 +1,25 @@
+// k6 load test used to compare the platform-thread and virtual-thread configurations.
+// Usage: k6 run -e BASE_URL=http://localhost:8080/um -e TOKEN=<jwt> -e VUS=800 users-list.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+export const options = {
+	scenarios: {
+		steady: {
+			executor: 'constant-vus',
+			vus: Number(__ENV.VUS || 800),
+			duration: __ENV.DURATION || '5m',
+		},
+	},
+	summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const params = { headers: { Authorization: `Bearer ${__ENV.TOKEN}` } };
+
+export default function () {
+	const responses = http.batch([
+		['GET', `${__ENV.BASE_URL}/api/v1/users?pageSize=50`, null, params],
+		['GET', `${__ENV.BASE_URL}/api/v1/roles`, null, params],
+	]);
+	responses.forEach((response) => check(response, { 'status 200': (r) => r.status === 200 }));
+}
@@ -0,0 +1,107 @@
+#!/usr/bin/env python3
+"""Records Cerbos PDP decisions for the cases in policy-decisions.yaml.
+
+Start a PDP that serves the policies shipped with the helm chart, using the same image as the
+deployment:
+
+    docker run --rm -p 3592:3592 \
+        -v "$PWD/helm/user-management/cerbos-policies:/policies" \
+        ghcr.io/cerbos/cerbos:0.24.0 server
+
+then, from the repository root:
+
+    python3 docs/policy-tests/record-policy-decisions.py          # rewrite the fixture
+    python3 docs/policy-tests/record-policy-decisions.py --check  # fail on any difference
+
+Each case is sent to POST /api/check/resources and the effects in the fixture are replaced with
+the effects the PDP returned. Requires PyYAML. CerbosPdpDecisionsTest runs the same check in the
+integration tests.
+"""
+
+import argparse
+import json
+import sys
+import urllib.request
+
+import yaml
+
+FIXTURE = "service/src/test/resources/cerbos/policy-decisions.yaml"
+HEADER = """\
+# Cerbos decisions for the policies in helm/user-management/cerbos-policies.
+#
+# Each case is a principal, a resource and the effect the PDP returns for each action.
+# Recorded with docs/policy-tests/record-policy-decisions.py against ghcr.io/cerbos/cerbos:0.24.0;
+# re-run it after any policy change.
+
+"""
+
+
+def check(pdp, index, case):
+    resource = case["resource"]
+    attr = resource.get("attr", {})
+    body = {
+        "requestId": "policy-decisions-%d" % index,
+        "principal": {"id": case["principal"]["id"], "roles": case["principal"]["roles"]},
+        "resources": [
+            {
+                "actions": list(case["effects"]),
+                "resource": {"kind": resource["kind"], "id": attr.get("id", "none"), "attr": attr},
+            }
+        ],
+    }
+    request = urllib.request.Request(
+        pdp + "/api/check/resources",
+        data=json.dumps(body).encode(),
+        headers={"Content-Type": "application/json"},
+    )
+    with urllib.request.urlopen(request) as response:
+        return json.load(response)["results"][0]["actions"]
+
+
+def flow(mapping):
+    return "{ " + ", ".join("%s: %s" % (k, flow_value(v)) for k, v in mapping.items()) + " }"
+
+
+def flow_value(value):
+    if isinstance(value, dict):
+        return flow(value)
+    if isinstance(value, list):
+        return "[" + ", ".join(value) + "]"
+    return value
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--pdp", default="http://localhost:3592")
+    parser.add_argument("--check", action="store_true", help="report differences only")
+    args = parser.parse_args()
+
+    with open(FIXTURE) as fixture:
+        cases = yaml.safe_load(fixture)
+
+    differences = []
+    for index, case in enumerate(cases):
+        recorded = check(args.pdp, index, case)
+        for action, expected in case["effects"].items():
+            if recorded[action] != expected:
+                differences.append(
+                    "%s %s %s: fixture %s, PDP %s"
+                    % (case["principal"], action, case["resource"], expected, recorded[action])
+                )
+        case["effects"] = {action: recorded[action] for action in case["effects"]}
+
+    print("\n".join(differences) or "No differences")
+    if args.check:
+        return 1 if differences else 0
+
+    with open(FIXTURE, "w") as fixture:
+        fixture.write(HEADER)
+        for case in cases:
+            fixture.write("- principal: %s\n" % flow(case["principal"]))
+            fixture.write("  resource: %s\n" % flow(case["resource"]))
+            fixture.write("  effects: %s\n\n" % flow(case["effects"]))
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,136 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.cerbos.models.Effect;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends every case in {@code cerbos/policy-decisions.yaml} to a Cerbos PDP serving the helm chart
+ * policies, and fails if the PDP, the recorded effect and the local engine disagree on any action.
+ * When it fails, re-record the fixture with {@code docs/policy-tests/record-policy-decisions.py}
+ * and fix the local engine if it still disagrees.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CerbosPdpDecisionsTest {
+    // The image the helm chart runs as the Cerbos sidecar.
+    private static final DockerImageName CERBOS_IMAGE =
+            DockerImageName.parse("ghcr.io/cerbos/cerbos:0.24.0");
+    private static final int HTTP_PORT = 3592;
+
+    @Container
+    private static final GenericContainer<?> CERBOS =
+            new GenericContainer<>(CERBOS_IMAGE)
+                    .withCopyFileToContainer(
+                            MountableFile.forHostPath(PolicyDecisionCases.findPolicyDirectory()),
+                            "/policies")
+                    .withCommand("server")
+                    .withExposedPorts(HTTP_PORT)
+                    .waitingFor(Wait.forHttp("/_cerbos/health").forPort(HTTP_PORT));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void pdpAndLocalEngineMatchRecordedDecisions() throws Exception {
+        CompiledPolicies policies = PolicyDecisionCases.compileShippedPolicies(objectMapper);
+        List<Map<String, Object>> cases = PolicyDecisionCases.load();
+
+        List<String> mismatches = new ArrayList<>();
+        for (int i = 0; i < cases.size(); i++) {
+            Map<String, Object> decision = cases.get(i);
+            Map<String, String> expected = PolicyDecisionCases.effects(decision);
+            Map<String, String> pdp = check("policy-decisions-" + i, decision);
+            PolicyRequest request = PolicyDecisionCases.toRequest(decision);
+
+            expected.forEach(
+                    (action, recorded) -> {
+                        Effect local = policies.evaluate(request, action);
+                        if (!recorded.equals(pdp.get(action)) || !recorded.equals(local.name())) {
+                            mismatches.add(
+                                    String.format(
+                                            "%s %s %s: recorded %s, PDP %s, local %s",
+                                            decision.get("principal"),
+                                            action,
+                                            decision.get("resource"),
+                                            recorded,
+                                            pdp.get(action),
+                                            local));
+                        }
+                    });
+        }
+
+        assertFalse(cases.isEmpty());
+        assertTrue(mismatches.isEmpty(), String.join("\n", mismatches));
+    }
+
+    // Same request shape as the recorder script: one resource per case, all its actions at once.
+    @SuppressWarnings("unchecked")
+    private Map<String, String> check(String requestId, Map<String, Object> decision)
+            throws Exception {
+        Map<String, Object> principal = (Map<String, Object>) decision.get("principal");
+        Map<String, Object> resource = (Map<String, Object>) decision.get("resource");
+        Map<String, Object> attributes =
+                (Map<String, Object>) resource.getOrDefault("attr", Map.of());
+        Map<String, Object> body =
+                Map.of(
+                        "requestId",
+                        requestId,
+                        "principal",
+                        Map.of("id", principal.get("id"), "roles", principal.get("roles")),
+                        "resources",
+                        List.of(
+                                Map.of(
+                                        "actions",
+                                        List.copyOf(PolicyDecisionCases.effects(decision).keySet()),
+                                        "resource",
+                                        Map.of(
+                                                "kind",
+                                                resource.get("kind"),
+                                                "id",
+                                                attributes.getOrDefault("id", "none"),
+                                                "attr",
+                                                attributes))));
+
+        HttpResponse<String> response =
+                httpClient.send(
+                        HttpRequest.newBuilder(
+                                        URI.create(
+                                                String.format(
+                                                        "http://%s:%d/api/check/resources",
+                                                        CERBOS.getHost(),
+                                                        CERBOS.getMappedPort(HTTP_PORT))))
+                                .header("Content-Type", "application/json")
+                                .POST(
+                                        HttpRequest.BodyPublishers.ofString(
+                                                objectMapper.writeValueAsString(body)))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+
+        Map<String, String> effects = new HashMap<>();
+        JsonNode actions = objectMapper.readTree(response.body()).at("/results/0/actions");
+        actions.fields()
+                .forEachRemaining(field -> effects.put(field.getKey(), field.getValue().asText()));
+        return effects;
+    }
+}
@@ -0,0 +1,201 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.PostgresIntegrationTest;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs archive chunks concurrently against PostgreSQL, where candidates are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}. Each test holds one transaction open while another archives,
+ * so the second would block on the first one's rows if they were not skipped.
+ */
+@TestPropertySource(properties = "users.archive.enabled=false")
+class UserArchivePostgresTest extends PostgresIntegrationTest {
+    private static final int USERS = 20;
+    private static final String ARCHIVED_IDS =
+            "SELECT id FROM user_table_archive WHERE identity_provider = 'archive-race'";
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserArchiveRepository userArchiveRepository;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final OffsetDateTime deletedOn = OffsetDateTime.now().minusDays(40);
+
+    private List<UUID> ids;
+
+    @BeforeEach
+    void setUp() {
+        final List<UserEntity> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            final UserEntity user = new UserEntity();
+            user.setExternalId("RACE-" + i);
+            user.setIdentityProvider("archive-race");
+            user.setEmail("race-" + i + "@example.com");
+            user.setUserType(UserType.PUBLIC);
+            users.add(user);
+        }
+        ids =
+                userService.createUsers(users).stream()
+                        .map(result -> result.getUser().getId())
+                        .collect(Collectors.toList());
+        jdbcTemplate.update(
+                "UPDATE user_table SET deleted = true, deleted_on = ?"
+                        + " WHERE identity_provider = 'archive-race'",
+                Timestamp.from(deletedOn.toInstant()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        jdbcTemplate.update(
+                "DELETE FROM user_table_archive WHERE identity_provider = 'archive-race'");
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'archive-race'");
+    }
+
+    @Test
+    void concurrentChunksClaimDisjointUsers() throws Exception {
+        final CountDownLatch firstClaimed = new CountDownLatch(1);
+        final CountDownLatch secondDone = new CountDownLatch(1);
+
+        final Future<Set<UUID>> first =
+                executor.submit(
+                        () ->
+                                inTransaction(
+                                        () -> {
+                                            final Set<UUID> claimed = archiveHalf();
+                                            firstClaimed.countDown();
+                                            // Keep the claimed rows locked until the second
+                                            // chunk has finished.
+                                            assertTrue(secondDone.await(30, TimeUnit.SECONDS));
+                                            return claimed;
+                                        }));
+        assertTrue(firstClaimed.await(30, TimeUnit.SECONDS));
+
+        final Set<UUID> second;
+        try {
+            second = inTransaction(this::archiveHalf);
+        } finally {
+            secondDone.countDown();
+        }
+        final Set<UUID> firstIds = first.get(30, TimeUnit.SECONDS);
+
+        assertEquals(USERS / 2, firstIds.size());
+        assertEquals(USERS / 2, second.size());
+        final Set<UUID> all = new HashSet<>(firstIds);
+        all.addAll(second);
+        assertEquals(Set.copyOf(ids), all);
+        assertEquals(Set.copyOf(ids), Set.copyOf(queryArchivedIds()));
+        assertEquals(
+                0,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_table WHERE identity_provider = 'archive-race'",
+                        Integer.class));
+    }
+
+    @Test
+    void rowsLockedByAnotherTransactionAreSkipped() throws Exception {
+        final UUID locked = ids.get(0);
+        final CountDownLatch lockHeld = new CountDownLatch(1);
+        final CountDownLatch archived = new CountDownLatch(1);
+
+        final Future<?> request =
+                executor.submit(
+                        () ->
+                                inTransaction(
+                                        () -> {
+                                            jdbcTemplate.queryForList(
+                                                    "SELECT id FROM user_table WHERE id = ?"
+                                                            + " FOR UPDATE",
+                                                    locked);
+                                            lockHeld.countDown();
+                                            assertTrue(archived.await(30, TimeUnit.SECONDS));
+                                            return null;
+                                        }));
+        assertTrue(lockHeld.await(30, TimeUnit.SECONDS));
+
+        final int moved;
+        try {
+            moved =
+                    userArchiveRepository.archiveChunk(
+                            deletedOn.plusSeconds(1), USERS, OffsetDateTime.now());
+        } finally {
+            archived.countDown();
+        }
+        request.get(30, TimeUnit.SECONDS);
+
+        assertEquals(USERS - 1, moved);
+        assertEquals(
+                List.of(locked),
+                jdbcTemplate.queryForList(
+                        "SELECT id FROM user_table WHERE identity_provider = 'archive-race'",
+                        UUID.class));
+    }
+
+    // Archives half of the users and returns the ids this transaction moved, which only it can see
+    // in the archive until it commits.
+    private Set<UUID> archiveHalf() {
+        assertEquals(
+                USERS / 2,
+                userArchiveRepository.archiveChunk(
+                        deletedOn.plusSeconds(1), USERS / 2, OffsetDateTime.now()));
+        return Set.copyOf(queryArchivedIds());
+    }
+
+    private List<UUID> queryArchivedIds() {
+        return jdbcTemplate.queryForList(ARCHIVED_IDS, UUID.class);
+    }
+
+    private <T> T inTransaction(TransactionWork<T> work) {
+        return new TransactionTemplate(transactionManager)
+                .execute(
+                        status -> {
+                            try {
+                                return work.run();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IllegalStateException(e);
+                            }
+                        });
+    }
+
+    @FunctionalInterface
+    private interface TransactionWork<T> {
+        T run() throws InterruptedException;
+    }
+}
@@ -0,0 +1,88 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.PostgresIntegrationTest;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Creates users in bulk against PostgreSQL, where the partial unique index on active identities
+ * exists and the insert skips users created by a concurrent request after the conflict check.
+ * {@code UserServiceTest} covers the same outcome with a mocked repository.
+ */
+class UserBatchCreationPostgresTest extends PostgresIntegrationTest {
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @SpyBean private UserRepository userRepository;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userService.createUsers(List.of(createNewUser("RACED")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'batch'");
+        jdbcTemplate.update("DELETE FROM change_outbox");
+    }
+
+    @Test
+    void usersCreatedSinceTheCheckAreReportedAsConflicts() {
+        // The check misses the user created in setUp, as it would one committed just after it.
+        doReturn(Set.of()).when(userRepository).findActiveExternalIds(any(), any());
+        final UserEntity raced = createNewUser("RACED");
+        final UserEntity fresh = createNewUser("FRESH");
+
+        final List<UserCreationResult> results = userService.createUsers(List.of(raced, fresh));
+
+        assertFalse(results.get(0).isCreated());
+        assertEquals(UserService.DUPLICATE_IDENTITY_MESSAGE, results.get(0).getConflict());
+        assertNull(raced.getId());
+        assertTrue(results.get(1).isCreated());
+        assertEquals(
+                2,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_table WHERE identity_provider = 'batch'",
+                        Integer.class));
+        assertEquals(
+                List.of(fresh.getId()),
+                jdbcTemplate.queryForList(
+                        "SELECT entity_id FROM change_outbox WHERE entity_id <> ?",
+                        UUID.class,
+                        jdbcTemplate.queryForObject(
+                                "SELECT id FROM user_table WHERE external_id = 'RACED'",
+                                UUID.class)));
+    }
+
+    private static UserEntity createNewUser(String externalId) {
+        final UserEntity user = new UserEntity();
+        user.setExternalId(externalId);
+        user.setIdentityProvider("batch");
+        user.setEmail(externalId + "@example.com");
+        user.setUserType(UserType.PUBLIC);
+        return user;
+    }
+}
@@ -0,0 +1,222 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.PostgresIntegrationTest;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserImportJobEntity;
+import io.nuvalence.user.management.api.service.enums.UserImportFormat;
+import io.nuvalence.user.management.api.service.enums.UserImportStatus;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.repository.UserImportChunkResult;
+import io.nuvalence.user.management.api.service.repository.UserImportJobRepository;
+import io.nuvalence.user.management.api.service.repository.UserImportStagingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs user imports against PostgreSQL, where chunks are staged with {@code COPY ... FROM STDIN}
+ * into {@code ON COMMIT DROP} temporary tables and role memberships are merged with
+ * {@code ON CONFLICT DO NOTHING}. {@code UserImportServiceTest} covers the same service on H2.
+ */
+@TestPropertySource(properties = "users.import.chunk-size=2")
+class UserImportPostgresTest extends PostgresIntegrationTest {
+    private static final String STAGING_TABLES =
+            "SELECT COUNT(*) FROM pg_class WHERE relpersistence = 't' AND relname IN"
+                    + " ('user_import_staging', 'user_import_role_staging',"
+                    + " 'user_import_member_staging')";
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserImportService userImportService;
+
+    @Autowired private UserImportStagingRepository userImportStagingRepository;
+
+    @Autowired private UserImportJobRepository userImportJobRepository;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update(
+                "INSERT INTO role (id, name, description)"
+                        + " VALUES (gen_random_uuid(), 'import-admin', ''),"
+                        + " (gen_random_uuid(), 'import-clerk', '')");
+
+        final UserEntity existing = new UserEntity();
+        existing.setExternalId("EXISTING");
+        existing.setIdentityProvider("import");
+        existing.setEmail("existing@example.com");
+        existing.setUserType(UserType.AGENCY);
+        userService.createUsers(List.of(existing));
+        jdbcTemplate.update(
+                "INSERT INTO user_role (user_id, role_id)"
+                        + " SELECT u.id, r.id FROM user_table u, role r"
+                        + " WHERE u.external_id = 'EXISTING' AND r.name = 'import-admin'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update(
+                "DELETE FROM user_role WHERE user_id IN"
+                        + " (SELECT id FROM user_table WHERE identity_provider = 'import')");
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'import'");
+        jdbcTemplate.update("DELETE FROM role WHERE name LIKE 'import-%'");
+        jdbcTemplate.update("DELETE FROM change_outbox");
+        userImportJobRepository.deleteAll();
+    }
+
+    @Test
+    void copiesQuotedValuesAndNullsVerbatim() throws Exception {
+        final String csv =
+                "externalId,identityProvider,email,firstName,middleName,lastName,userType,roles\n"
+                        + "Q1,import,q1@example.com,\"Ann, \"\"Nan\"\"\",,O'Neil,agency,"
+                        + "import-clerk\n"
+                        + "Q2,import,q2@example.com,Zo\u00eb,\\N,Str\u00f6m,public,\n"
+                        + "Q1,import,q1-again@example.com,Ann,,Again,agency,import-admin\n";
+
+        final UserImportJobEntity job = runImport(csv);
+
+        assertEquals(UserImportStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getImportedUsers());
+        assertEquals(1, job.getSkippedUsers());
+        assertEquals(
+                "Ann, \"Nan\"",
+                jdbcTemplate.queryForObject(
+                        "SELECT first_name FROM user_table WHERE external_id = 'Q1'",
+                        String.class));
+        assertNull(
+                jdbcTemplate.queryForObject(
+                        "SELECT middle_name FROM user_table WHERE external_id = 'Q1'",
+                        String.class));
+        assertEquals(
+                "\\N",
+                jdbcTemplate.queryForObject(
+                        "SELECT middle_name FROM user_table WHERE external_id = 'Q2'",
+                        String.class));
+        assertEquals(
+                "Zo\u00eb Str\u00f6m",
+                jdbcTemplate.queryForObject(
+                        "SELECT first_name || ' ' || last_name FROM user_table"
+                                + " WHERE external_id = 'Q2'",
+                        String.class));
+        assertEquals(Set.of("import-clerk", "import-admin"), queryRoles("Q1"));
+        assertEquals(0, countStagingTables());
+    }
+
+    @Test
+    void stagesChunksWithCopyAndDropsTheTablesAtCommit() {
+        final List<UserImportRecord> records =
+                List.of(record(1, "S1", "import-clerk"), record(2, "S2", "import-clerk"));
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        final Float staged =
+                transaction.execute(
+                        status -> {
+                            userImportStagingRepository.merge(records, OffsetDateTime.now());
+                            // Only the COPY path analyzes the staging table, recording its size.
+                            return jdbcTemplate.queryForObject(
+                                    "SELECT reltuples FROM pg_class WHERE oid ="
+                                            + " to_regclass('pg_temp.user_import_staging')",
+                                    Float.class);
+                        });
+
+        assertEquals(2f, staged);
+        assertEquals(0, countStagingTables());
+
+        // Staging the next chunk in the same way would fail if the tables had survived the commit.
+        transaction.executeWithoutResult(
+                status ->
+                        userImportStagingRepository.merge(
+                                List.of(record(3, "S3", "import-clerk")), OffsetDateTime.now()));
+        assertEquals(Set.of("import-clerk"), queryRoles("S3"));
+    }
+
+    @Test
+    void membershipsAlreadyHeldAreSkipped() {
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        final UserImportChunkResult result =
+                transaction.execute(
+                        status ->
+                                userImportStagingRepository.merge(
+                                        List.of(
+                                                record(1, "EXISTING", "import-admin"),
+                                                record(2, "EXISTING", "import-clerk")),
+                                        OffsetDateTime.now()));
+
+        assertEquals(0, result.getImportedUsers());
+        assertEquals(1, result.getImportedRoles());
+        assertEquals(Set.of("import-admin", "import-clerk"), queryRoles("EXISTING"));
+        assertEquals(
+                2,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_role WHERE user_id ="
+                                + " (SELECT id FROM user_table WHERE external_id = 'EXISTING')",
+                        Integer.class));
+    }
+
+    private static UserImportRecord record(long recordNumber, String externalId, String role) {
+        return UserImportRecord.builder()
+                .recordNumber(recordNumber)
+                .externalId(externalId)
+                .identityProvider("import")
+                .email(externalId.toLowerCase() + "@example.com")
+                .userType(UserType.PUBLIC)
+                .roleNames(List.of(role))
+                .build();
+    }
+
+    private UserImportJobEntity runImport(String content) throws Exception {
+        final UserImportJobEntity queued =
+                userImportService.startImport(
+                        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                        UserImportFormat.CSV);
+
+        final long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            final UserImportJobEntity job =
+                    userImportService.getJob(queued.getId()).orElseThrow();
+            if (job.getStatus() == UserImportStatus.COMPLETED
+                    || job.getStatus() == UserImportStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+
+        throw new AssertionError("Import did not finish in time");
+    }
+
+    private int countStagingTables() {
+        return jdbcTemplate.queryForObject(STAGING_TABLES, Integer.class);
+    }
+
+    private Set<String> queryRoles(String externalId) {
+        return Set.copyOf(
+                jdbcTemplate.queryForList(
+                        "SELECT r.name FROM user_role ur JOIN role r ON r.id = ur.role_id"
+                                + " JOIN user_table u ON u.id = ur.user_id"
+                                + " WHERE u.external_id = ?",
+                        String.class,
+                        externalId));
+    }
+}
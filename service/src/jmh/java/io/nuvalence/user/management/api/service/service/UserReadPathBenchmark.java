@@ -0,0 +1,168 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.OpenApiGeneratorApplication;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserView;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.mapper.MapperUtils;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reads one page of 100 users, each with two roles and preferences, the three ways the read path
+ * has worked: entities in a read-write transaction, entities in a read-only transaction, and the
+ * {@link UserView} projections {@link UserQueryService} now reads. Each returns the mapped DTOs.
+ *
+ * <p>Run with {@code ./gradlew :service:jmh}. The {@code gc} profiler is enabled in the build, so
+ * the bytes allocated per page are reported as {@code gc.alloc.rate.norm}. The application runs
+ * with the {@code test} profile against in-memory H2, so the numbers compare the paths rather
+ * than predict PostgreSQL latency.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class UserReadPathBenchmark {
+    private static final int USERS = 200;
+
+    private final UserSearchCriteria criteria =
+            UserSearchCriteria.builder().identityProvider("read-bench").build();
+    private final Pageable page = PageRequest.of(0, 100, Sort.by("email"));
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserQueryService userQueryService;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    /**
+     * Starts the application and adds the users, roles and preferences that are read.
+     */
+    @Setup
+    public void setUp() {
+        context =
+                new SpringApplicationBuilder(OpenApiGeneratorApplication.class)
+                        .profiles("test")
+                        .properties("server.port=0", "users.profile-cache.enabled=false")
+                        .initializers(
+                                applicationContext ->
+                                        applicationContext
+                                                .getBeanFactory()
+                                                .registerSingleton(
+                                                        "authorizationHandler",
+                                                        Mockito.mock(AuthorizationHandler.class)))
+                        .run();
+        userService = context.getBean(UserService.class);
+        userQueryService = context.getBean(UserQueryService.class);
+
+        final PlatformTransactionManager transactionManager =
+                context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        final JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(
+                "INSERT INTO role (id, name, description)"
+                        + " VALUES (?, 'read-bench-a', 'A'), (?, 'read-bench-b', 'B')",
+                UUID.randomUUID(),
+                UUID.randomUUID());
+
+        final List<UserEntity> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            final UserEntity user = new UserEntity();
+            user.setExternalId("READ-BENCH-" + i);
+            user.setIdentityProvider("read-bench");
+            user.setEmail("read-bench-" + i + "@example.com");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setUserType(UserType.PUBLIC);
+            users.add(user);
+        }
+        userService.createUsers(users);
+        jdbcTemplate.update(
+                "INSERT INTO user_role (user_id, role_id)"
+                        + " SELECT u.id, r.id FROM user_table u CROSS JOIN role r"
+                        + " WHERE u.identity_provider = 'read-bench'"
+                        + " AND r.name LIKE 'read-bench-%'");
+        jdbcTemplate.update(
+                "INSERT INTO user_preference"
+                        + " (user_id, preferred_language, preferred_communication_method)"
+                        + " SELECT id, 'en', 'email' FROM user_table"
+                        + " WHERE identity_provider = 'read-bench'");
+    }
+
+    /**
+     * Stops the application, dropping the in-memory database with it.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Loads the page as entities in a read-write transaction and maps them.
+     *
+     * @return mapped users
+     */
+    @Benchmark
+    public List<UserDTO> entitiesInReadWriteTransaction() {
+        return readWrite.execute(status -> readEntities());
+    }
+
+    /**
+     * Loads the page as entities in a read-only transaction and maps them.
+     *
+     * @return mapped users
+     */
+    @Benchmark
+    public List<UserDTO> entitiesInReadOnlyTransaction() {
+        return readOnly.execute(status -> readEntities());
+    }
+
+    /**
+     * Reads the page as projections.
+     *
+     * @return users
+     */
+    @Benchmark
+    public List<UserDTO> projections() {
+        return userQueryService.getUsers(criteria, page).stream()
+                .map(UserView::getUser)
+                .collect(Collectors.toList());
+    }
+
+    private List<UserDTO> readEntities() {
+        return userService.getUsersBySearchCriteria(criteria, page).stream()
+                .map(MapperUtils::mapUserEntityToUserDto)
+                .collect(Collectors.toList());
+    }
+}
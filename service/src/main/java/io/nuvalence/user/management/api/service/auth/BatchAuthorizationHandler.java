@@ -0,0 +1,90 @@
+package io.nuvalence.user.management.api.service.auth;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.cerbos.CerbosQueryPlanner;
+import io.nuvalence.user.management.api.service.cerbos.CerbosResourceSetAuthorizer;
+import io.nuvalence.user.management.api.service.cerbos.QueryPlanSpecification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Authorizes whole lists of resources. When a {@link CerbosResourceSetAuthorizer} is configured a
+ * page of resources costs one Cerbos round trip; otherwise each resource is checked through the
+ * {@link AuthorizationHandler} auth filter.
+ *
+ * <p>When a {@link CerbosQueryPlanner} is configured, queries can instead be restricted to the
+ * resources the principal may access, so that no page of resources needs filtering at all.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchAuthorizationHandler {
+    private final AuthorizationHandler authorizationHandler;
+    private final ObjectProvider<CerbosResourceSetAuthorizer> resourceSetAuthorizer;
+    private final ObjectProvider<CerbosQueryPlanner> queryPlanner;
+
+    /**
+     * Returns a specification that restricts a query to the entities the current principal may
+     * perform an action on.
+     *
+     * @param action action to check
+     * @param entityClass entity type
+     * @param attributes resource attributes that map to entity attributes of the same name
+     * @param <T> entity type
+     * @return specification, empty if query plans are not available or the plan cannot be
+     *     translated, in which case the results must be passed through {@link #filterAllowed}
+     */
+    public <T> Optional<QueryPlanSpecification<T>> getAuthSpecification(
+            String action, Class<T> entityClass, Set<String> attributes) {
+        final CerbosQueryPlanner planner = queryPlanner.getIfAvailable();
+        if (planner == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(
+                    QueryPlanSpecification.of(
+                            planner.plan(action, entityClass), entityClass, attributes));
+        } catch (IllegalArgumentException e) {
+            log.warn(
+                    "Query plan for {} on {} cannot be applied to the query, filtering results"
+                            + " instead: {}",
+                    action,
+                    entityClass.getSimpleName(),
+                    e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the resources the current principal may perform an action on, in their original
+     * order.
+     *
+     * @param action action to check
+     * @param resourceClass resource type
+     * @param resources resources to check
+     * @param <T> resource type
+     * @return allowed resources
+     */
+    public <T> List<T> filterAllowed(String action, Class<T> resourceClass, List<T> resources) {
+        if (resources.isEmpty()) {
+            return List.of();
+        }
+
+        final CerbosResourceSetAuthorizer authorizer = resourceSetAuthorizer.getIfAvailable();
+        if (authorizer != null) {
+            return authorizer.filterAllowed(action, resourceClass, resources);
+        }
+
+        return resources.stream()
+                .filter(authorizationHandler.getAuthFilter(action, resourceClass))
+                .collect(Collectors.toList());
+    }
+}
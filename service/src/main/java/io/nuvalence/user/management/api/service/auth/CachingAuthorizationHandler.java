@@ -0,0 +1,130 @@
+package io.nuvalence.user.management.api.service.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.cerbos.AccessResourceResolver;
+import lombok.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Caches type-level decisions of another {@link AuthorizationHandler} for a short time.
+ *
+ * <p>Type-level checks carry no resource attributes, so their outcome depends only on the
+ * principal's roles, the action and the resource kind, which together form the cache key.
+ * Instance-level checks and auth filters are always delegated. Hits and misses are published as
+ * the {@code cache.gets} metric of the {@value #CACHE_NAME} cache.</p>
+ */
+public class CachingAuthorizationHandler implements AuthorizationHandler {
+    static final String CACHE_NAME = "authorizationDecisions";
+
+    private final AuthorizationHandler delegate;
+    private final Cache<DecisionKey, Boolean> decisions;
+
+    /**
+     * Wraps an authorization handler.
+     *
+     * @param delegate handler that makes the decisions
+     * @param ttl how long a decision is kept
+     * @param maximumSize maximum number of cached decisions
+     * @param meterRegistry registry for the cache metrics
+     */
+    public CachingAuthorizationHandler(
+            AuthorizationHandler delegate,
+            Duration ttl,
+            long maximumSize,
+            MeterRegistry meterRegistry) {
+        this(delegate, ttl, maximumSize, meterRegistry, Ticker.systemTicker());
+    }
+
+    CachingAuthorizationHandler(
+            AuthorizationHandler delegate,
+            Duration ttl,
+            long maximumSize,
+            MeterRegistry meterRegistry,
+            Ticker ticker) {
+        this.delegate = delegate;
+        this.decisions =
+                Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .maximumSize(maximumSize)
+                        .ticker(ticker)
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decisions, CACHE_NAME);
+    }
+
+    @Override
+    public boolean isAllowed(String action, Class<?> resourceClass) {
+        return isAllowed(
+                action,
+                AccessResourceResolver.getKind(resourceClass),
+                () -> delegate.isAllowed(action, resourceClass));
+    }
+
+    @Override
+    public boolean isAllowed(String action, String resourceType) {
+        return isAllowed(action, resourceType, () -> delegate.isAllowed(action, resourceType));
+    }
+
+    @Override
+    public boolean isAllowedForInstance(String action, Object resource) {
+        return delegate.isAllowedForInstance(action, resource);
+    }
+
+    @Override
+    public <T> Predicate<T> getAuthFilter(String action, Class<T> resourceClass) {
+        return delegate.getAuthFilter(action, resourceClass);
+    }
+
+    private boolean isAllowed(String action, String resourceKind, Decision decision) {
+        final Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return decision.isAllowed();
+        }
+
+        final DecisionKey key =
+                new DecisionKey(
+                        authentication.getAuthorities().stream()
+                                .map(GrantedAuthority::getAuthority)
+                                .collect(Collectors.toCollection(TreeSet::new)),
+                        action,
+                        resourceKind);
+
+        // Not Cache.get(key, loader): the loader would run the remote check inside a map lock,
+        // which pins the carrier thread when requests run on virtual threads.
+        final Boolean cached = decisions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean allowed = decision.isAllowed();
+        decisions.put(key, allowed);
+
+        return allowed;
+    }
+
+    @FunctionalInterface
+    private interface Decision {
+        boolean isAllowed();
+    }
+
+    @Value
+    private static class DecisionKey {
+        Set<String> roles;
+        String action;
+        String resourceKind;
+    }
+}
@@ -0,0 +1,72 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.auth.access.AccessResource;
+import io.nuvalence.auth.access.cerbos.AccessResourceTranslator;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.BeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the Cerbos resource kind and attributes of {@link AccessResource} annotated objects.
+ *
+ * <p>Attributes are only resolved for resources whose {@link AccessResource} declares a
+ * translator; the translated object is converted to a map. The other resource policies are role
+ * based, so those resources are checked without attributes.</p>
+ */
+@RequiredArgsConstructor
+public class AccessResourceResolver {
+    private static final TypeReference<Map<String, Object>> ATTRIBUTES_TYPE =
+            new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final BeanFactory beanFactory;
+
+    private final Map<Class<? extends AccessResourceTranslator>, AccessResourceTranslator>
+            translators = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the resource kind of a class.
+     *
+     * @param resourceClass resource type
+     * @return the {@link AccessResource} value, or the class name if the class is not annotated
+     */
+    public static String getKind(Class<?> resourceClass) {
+        final AccessResource accessResource = resourceClass.getAnnotation(AccessResource.class);
+
+        return accessResource != null ? accessResource.value() : resourceClass.getName();
+    }
+
+    /**
+     * Returns the attributes of a resource.
+     *
+     * @param resource resource instance
+     * @return resource attributes, empty if the resource type has no translator
+     */
+    public Map<String, Object> getAttributes(Object resource) {
+        final AccessResource accessResource =
+                Hibernate.getClass(resource).getAnnotation(AccessResource.class);
+        if (accessResource == null
+                || accessResource.translator() == AccessResourceTranslator.class) {
+            return Map.of();
+        }
+
+        final AccessResourceTranslator translator =
+                translators.computeIfAbsent(accessResource.translator(), this::createTranslator);
+
+        return objectMapper.convertValue(translator.translate(resource), ATTRIBUTES_TYPE);
+    }
+
+    private AccessResourceTranslator createTranslator(
+            Class<? extends AccessResourceTranslator> translatorClass) {
+        final AccessResourceTranslator bean =
+                beanFactory.getBeanProvider(translatorClass).getIfAvailable();
+
+        return bean != null ? bean : BeanUtils.instantiateClass(translatorClass);
+    }
+}
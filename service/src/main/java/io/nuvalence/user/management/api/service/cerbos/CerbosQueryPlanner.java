@@ -0,0 +1,60 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilter;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilterKind;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesRequest;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesRequestResource;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesResponse;
+import io.nuvalence.user.management.api.service.cerbos.models.Principal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Asks Cerbos with a PlanResources call which resources of a kind the current principal may
+ * perform an action on. The answer is a filter over resource attributes rather than a decision,
+ * so it can be applied by the query that loads the resources.
+ */
+@RequiredArgsConstructor
+public class CerbosQueryPlanner {
+    private static final PlanResourcesFilter ALWAYS_DENIED =
+            PlanResourcesFilter.builder().kind(PlanResourcesFilterKind.KIND_ALWAYS_DENIED).build();
+
+    private final RestTemplate restTemplate;
+    private final String planUrl;
+
+    /**
+     * Returns the filter selecting the resources the current principal may perform an action on.
+     *
+     * @param action action to plan for
+     * @param resourceClass resource type
+     * @return query plan filter, always denied if the request is not authenticated
+     */
+    public PlanResourcesFilter plan(String action, Class<?> resourceClass) {
+        final Optional<Principal> principal = PrincipalResolver.current();
+        if (principal.isEmpty()) {
+            return ALWAYS_DENIED;
+        }
+
+        final PlanResourcesRequest request =
+                PlanResourcesRequest.builder()
+                        .requestId(UUID.randomUUID().toString())
+                        .action(action)
+                        .principal(principal.get())
+                        .resource(
+                                PlanResourcesRequestResource.builder()
+                                        .kind(AccessResourceResolver.getKind(resourceClass))
+                                        .policyVersion(PrincipalResolver.POLICY_VERSION)
+                                        .build())
+                        .build();
+
+        final PlanResourcesResponse response =
+                restTemplate.postForObject(planUrl, request, PlanResourcesResponse.class);
+
+        return response == null || response.getFilter() == null
+                ? ALWAYS_DENIED
+                : response.getFilter();
+    }
+}
@@ -0,0 +1,100 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.nuvalence.user.management.api.service.cerbos.models.AttributesMap;
+import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetRequest;
+import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetResponse;
+import io.nuvalence.user.management.api.service.cerbos.models.CheckResourceSetResponseActionEffectMap;
+import io.nuvalence.user.management.api.service.cerbos.models.Effect;
+import io.nuvalence.user.management.api.service.cerbos.models.Principal;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourceSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Checks a list of resources against Cerbos with one CheckResourceSet call per batch, instead of
+ * one check per resource. The principal and resource attributes are resolved by
+ * {@link PrincipalResolver} and {@link AccessResourceResolver}.
+ */
+@RequiredArgsConstructor
+public class CerbosResourceSetAuthorizer {
+    private final RestTemplate restTemplate;
+    private final String checkUrl;
+    private final int batchSize;
+    private final AccessResourceResolver accessResourceResolver;
+
+    /**
+     * Returns the resources the current principal may perform an action on, in their original
+     * order.
+     *
+     * @param action action to check
+     * @param resourceClass resource type
+     * @param resources resources to check
+     * @param <T> resource type
+     * @return allowed resources
+     */
+    public <T> List<T> filterAllowed(String action, Class<T> resourceClass, List<T> resources) {
+        final Optional<Principal> principal = PrincipalResolver.current();
+        if (principal.isEmpty()) {
+            return List.of();
+        }
+
+        final String kind = AccessResourceResolver.getKind(resourceClass);
+        final List<T> allowed = new ArrayList<>();
+        for (int from = 0; from < resources.size(); from += batchSize) {
+            final List<T> batch =
+                    resources.subList(from, Math.min(from + batchSize, resources.size()));
+            final Map<String, CheckResourceSetResponseActionEffectMap> effects =
+                    check(action, principal.get(), kind, batch);
+
+            for (int i = 0; i < batch.size(); i++) {
+                final CheckResourceSetResponseActionEffectMap effect =
+                        effects.get(String.valueOf(i));
+                if (effect != null
+                        && effect.getActions() != null
+                        && effect.getActions().get(action) == Effect.EFFECT_ALLOW) {
+                    allowed.add(batch.get(i));
+                }
+            }
+        }
+
+        return allowed;
+    }
+
+    private Map<String, CheckResourceSetResponseActionEffectMap> check(
+            String action, Principal principal, String kind, List<?> batch) {
+        // Instances are keyed by their position in the batch, so resources need no id.
+        final Map<String, AttributesMap> instances = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            final AttributesMap attributes = new AttributesMap();
+            attributes.setAttr(accessResourceResolver.getAttributes(batch.get(i)));
+            instances.put(String.valueOf(i), attributes);
+        }
+
+        final CheckResourceSetRequest request =
+                CheckResourceSetRequest.builder()
+                        .requestId(UUID.randomUUID().toString())
+                        .actions(new String[] {action})
+                        .principal(principal)
+                        .resource(
+                                ResourceSet.builder()
+                                        .kind(kind)
+                                        .policyVersion(PrincipalResolver.POLICY_VERSION)
+                                        .instances(instances)
+                                        .build())
+                        .build();
+
+        final CheckResourceSetResponse response =
+                restTemplate.postForObject(checkUrl, request, CheckResourceSetResponse.class);
+
+        return response == null || response.getResourceInstances() == null
+                ? Map.of()
+                : response.getResourceInstances();
+    }
+}
@@ -0,0 +1,50 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.nuvalence.auth.token.UserToken;
+import io.nuvalence.user.management.api.service.cerbos.models.Principal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Builds the Cerbos principal for the current authentication.
+ */
+public class PrincipalResolver {
+    static final String POLICY_VERSION = "default";
+
+    private PrincipalResolver() {
+        // private constructor
+    }
+
+    /**
+     * Returns the current principal: its application user id (or name) and its authorities as
+     * roles.
+     *
+     * @return principal, empty if the request is not authenticated
+     */
+    public static Optional<Principal> current() {
+        final Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Optional.empty();
+        }
+
+        String id = authentication.getName();
+        if (authentication instanceof UserToken
+                && ((UserToken) authentication).getApplicationUserId() != null) {
+            id = ((UserToken) authentication).getApplicationUserId();
+        }
+
+        return Optional.of(
+                Principal.builder()
+                        .id(id)
+                        .policyVersion(POLICY_VERSION)
+                        .roles(
+                                authentication.getAuthorities().stream()
+                                        .map(GrantedAuthority::getAuthority)
+                                        .toArray(String[]::new))
+                        .build());
+    }
+}
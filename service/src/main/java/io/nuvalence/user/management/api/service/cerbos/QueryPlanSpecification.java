@@ -0,0 +1,333 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesExpression;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilter;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilterKind;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesOperand;
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Translates the filter of a Cerbos query plan into a JPA specification.
+ *
+ * <p>Conditions may combine {@code and}, {@code or} and {@code not} with {@code eq}, {@code ne}
+ * and {@code in} comparisons of a resource attribute against a literal, or test a boolean
+ * attribute on its own. Only the given attributes are translated, and each must be an entity
+ * attribute of the same name holding a string, UUID, enum or boolean. Anything else is rejected
+ * when the filter is translated, so callers can fall back to checking each resource.</p>
+ *
+ * <p>A policy compares a missing attribute as unequal to every literal, whereas SQL compares a
+ * NULL column as unknown, and {@code not} of unknown drops the row. Comparisons of nullable
+ * attributes are therefore translated to predicates that are true or false for NULL too.</p>
+ *
+ * @param <T> entity type
+ */
+public final class QueryPlanSpecification<T> implements Specification<T> {
+    private static final long serialVersionUID = 4469420857618211353L;
+
+    private static final List<String> RESOURCE_ATTRIBUTE_PREFIXES =
+            List.of("request.resource.attr.", "R.attr.");
+
+    private final PredicateFactory predicateFactory;
+    private final boolean unrestricted;
+
+    private QueryPlanSpecification(PredicateFactory predicateFactory, boolean unrestricted) {
+        this.predicateFactory = predicateFactory;
+        this.unrestricted = unrestricted;
+    }
+
+    /**
+     * Translates a query plan filter.
+     *
+     * @param filter query plan filter
+     * @param entityClass entity type the specification applies to
+     * @param attributes resource attributes that map to entity attributes of the same name
+     * @param <T> entity type
+     * @return specification selecting the entities the filter allows
+     * @throws IllegalArgumentException if the filter cannot be translated
+     */
+    public static <T> QueryPlanSpecification<T> of(
+            PlanResourcesFilter filter, Class<T> entityClass, Set<String> attributes) {
+        final PlanResourcesFilterKind kind =
+                filter.getKind() == null
+                        ? PlanResourcesFilterKind.KIND_UNSPECIFIED
+                        : filter.getKind();
+        switch (kind) {
+            case KIND_ALWAYS_ALLOWED:
+                return new QueryPlanSpecification<>((root, cb) -> cb.conjunction(), true);
+            case KIND_ALWAYS_DENIED:
+                return new QueryPlanSpecification<>((root, cb) -> cb.disjunction(), false);
+            case KIND_CONDITIONAL:
+                return new QueryPlanSpecification<>(
+                        new Translator(entityClass, attributes).predicate(filter.getCondition()),
+                        false);
+            default:
+                throw new IllegalArgumentException("Unsupported query plan filter kind: " + kind);
+        }
+    }
+
+    /**
+     * Returns true if the plan allows every resource, so the specification filters nothing.
+     *
+     * @return whether the specification is unrestricted
+     */
+    public boolean isUnrestricted() {
+        return unrestricted;
+    }
+
+    @Override
+    public Predicate toPredicate(
+            Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        return toPredicate(root, criteriaBuilder);
+    }
+
+    /**
+     * Builds the predicate against any entity exposing the translated attributes, such as a view
+     * over the entity's table.
+     *
+     * @param root entity to filter
+     * @param criteriaBuilder criteria builder
+     * @return authorization predicate
+     */
+    public Predicate toPredicate(From<?, ?> root, CriteriaBuilder criteriaBuilder) {
+        return predicateFactory.create(root, criteriaBuilder);
+    }
+
+    @FunctionalInterface
+    private interface PredicateFactory extends Serializable {
+        Predicate create(From<?, ?> root, CriteriaBuilder criteriaBuilder);
+    }
+
+    private static final class Translator {
+        private final Class<?> entityClass;
+        private final Set<String> attributes;
+
+        private Translator(Class<?> entityClass, Set<String> attributes) {
+            this.entityClass = entityClass;
+            this.attributes = attributes;
+        }
+
+        private PredicateFactory predicate(PlanResourcesOperand operand) {
+            if (operand == null) {
+                throw new IllegalArgumentException("Conditional query plan has no condition");
+            }
+            if (operand.getExpression() != null) {
+                return expression(operand.getExpression());
+            }
+            if (operand.getVariable() != null) {
+                final String attribute = attribute(operand.getVariable());
+                if (attributeType(attribute) != Boolean.class) {
+                    throw new IllegalArgumentException(
+                            "Attribute used as a condition is not boolean: " + attribute);
+                }
+                return definite(attribute, (root, cb) -> cb.isTrue(root.get(attribute)), false);
+            }
+            if (operand.getValue() instanceof Boolean) {
+                return ((Boolean) operand.getValue())
+                        ? (root, cb) -> cb.conjunction()
+                        : (root, cb) -> cb.disjunction();
+            }
+
+            throw new IllegalArgumentException("Unsupported query plan condition");
+        }
+
+        private PredicateFactory expression(PlanResourcesExpression expression) {
+            final String operator = String.valueOf(expression.getOperator());
+            final List<PlanResourcesOperand> operands =
+                    expression.getOperands() == null ? List.of() : expression.getOperands();
+            switch (operator) {
+                case "and":
+                    return junction(operands, true);
+                case "or":
+                    return junction(operands, false);
+                case "not":
+                    return not(operands);
+                case "eq":
+                case "ne":
+                    return equality(operands, "ne".equals(operator));
+                case "in":
+                    return in(operands);
+                default:
+                    throw new IllegalArgumentException(
+                            "Unsupported query plan operator: " + operator);
+            }
+        }
+
+        private PredicateFactory junction(List<PlanResourcesOperand> operands, boolean and) {
+            if (operands.isEmpty()) {
+                throw new IllegalArgumentException("and/or takes at least one operand");
+            }
+
+            final List<PredicateFactory> factories = new ArrayList<>();
+            for (PlanResourcesOperand operand : operands) {
+                factories.add(predicate(operand));
+            }
+
+            return (root, cb) -> {
+                final Predicate[] predicates =
+                        factories.stream()
+                                .map(factory -> factory.create(root, cb))
+                                .toArray(Predicate[]::new);
+                return and ? cb.and(predicates) : cb.or(predicates);
+            };
+        }
+
+        private PredicateFactory not(List<PlanResourcesOperand> operands) {
+            if (operands.size() != 1) {
+                throw new IllegalArgumentException("not takes one operand");
+            }
+
+            final PredicateFactory negated = predicate(operands.get(0));
+            return (root, cb) -> cb.not(negated.create(root, cb));
+        }
+
+        private PredicateFactory equality(List<PlanResourcesOperand> operands, boolean negate) {
+            if (operands.size() != 2) {
+                throw new IllegalArgumentException("eq/ne take two operands");
+            }
+
+            // Cerbos may put the literal on either side.
+            final boolean variableFirst = operands.get(0).getVariable() != null;
+            final PlanResourcesOperand variable = operands.get(variableFirst ? 0 : 1);
+            final PlanResourcesOperand literal = operands.get(variableFirst ? 1 : 0);
+            if (variable.getVariable() == null
+                    || literal.getVariable() != null
+                    || literal.getExpression() != null) {
+                throw new IllegalArgumentException(
+                        "eq/ne must compare an attribute with a literal");
+            }
+
+            final String attribute = attribute(variable.getVariable());
+            if (literal.getValue() == null) {
+                return negate
+                        ? (root, cb) -> cb.isNotNull(root.get(attribute))
+                        : (root, cb) -> cb.isNull(root.get(attribute));
+            }
+
+            final Object value = convert(literal.getValue(), attributeType(attribute));
+            return negate
+                    ? definite(
+                            attribute, (root, cb) -> cb.notEqual(root.get(attribute), value), true)
+                    : definite(
+                            attribute, (root, cb) -> cb.equal(root.get(attribute), value), false);
+        }
+
+        private PredicateFactory in(List<PlanResourcesOperand> operands) {
+            if (operands.size() != 2
+                    || operands.get(0).getVariable() == null
+                    || !(operands.get(1).getValue() instanceof Collection)) {
+                throw new IllegalArgumentException("in must test an attribute against a list");
+            }
+
+            final String attribute = attribute(operands.get(0).getVariable());
+            final Class<?> type = attributeType(attribute);
+            final List<Object> values = new ArrayList<>();
+            for (Object value : (Collection<?>) operands.get(1).getValue()) {
+                values.add(convert(value, type));
+            }
+            if (values.isEmpty()) {
+                return (root, cb) -> cb.disjunction();
+            }
+
+            return definite(attribute, (root, cb) -> root.get(attribute).in(values), false);
+        }
+
+        /**
+         * Makes a comparison of a nullable attribute true or false, rather than unknown, when the
+         * attribute is NULL.
+         *
+         * @param attribute compared attribute
+         * @param comparison comparison of the attribute
+         * @param matchesNull whether the comparison holds for a NULL attribute
+         * @return comparison with a definite result for NULL
+         */
+        private PredicateFactory definite(
+                String attribute, PredicateFactory comparison, boolean matchesNull) {
+            if (!nullable(attribute)) {
+                return comparison;
+            }
+
+            return matchesNull
+                    ? (root, cb) ->
+                            cb.or(cb.isNull(root.get(attribute)), comparison.create(root, cb))
+                    : (root, cb) ->
+                            cb.and(cb.isNotNull(root.get(attribute)), comparison.create(root, cb));
+        }
+
+        private String attribute(String variable) {
+            for (String prefix : RESOURCE_ATTRIBUTE_PREFIXES) {
+                if (variable.startsWith(prefix)) {
+                    final String attribute = variable.substring(prefix.length());
+                    if (!attributes.contains(attribute)) {
+                        throw new IllegalArgumentException(
+                                "Attribute cannot be queried: " + attribute);
+                    }
+                    return attribute;
+                }
+            }
+
+            throw new IllegalArgumentException("Unsupported query plan variable: " + variable);
+        }
+
+        private Class<?> attributeType(String attribute) {
+            final Field field = ReflectionUtils.findField(entityClass, attribute);
+            if (field == null) {
+                throw new IllegalArgumentException(
+                        entityClass.getSimpleName() + " has no attribute " + attribute);
+            }
+
+            return field.getType() == boolean.class ? Boolean.class : field.getType();
+        }
+
+        private boolean nullable(String attribute) {
+            final Field field = ReflectionUtils.findField(entityClass, attribute);
+            if (field.getType().isPrimitive() || field.isAnnotationPresent(Id.class)) {
+                return false;
+            }
+
+            final Column column = field.getAnnotation(Column.class);
+            return column == null || column.nullable();
+        }
+
+        private static Object convert(Object value, Class<?> type) {
+            if (type == String.class && value instanceof String) {
+                return value;
+            }
+            if (type == Boolean.class && value instanceof Boolean) {
+                return value;
+            }
+            if (type == UUID.class && value instanceof String) {
+                return UUID.fromString((String) value);
+            }
+            if (type.isEnum() && value instanceof String) {
+                // Enums are translated to attributes by their text, as in the API models.
+                return Arrays.stream(type.getEnumConstants())
+                        .filter(constant -> constant.toString().equalsIgnoreCase((String) value))
+                        .findFirst()
+                        .orElseThrow(
+                                () ->
+                                        new IllegalArgumentException(
+                                                "Unknown " + type.getSimpleName() + ": " + value));
+            }
+
+            throw new IllegalArgumentException(
+                    "Cannot compare " + type.getSimpleName() + " attribute with " + value);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import io.nuvalence.user.management.api.service.cerbos.models.DerivedRoles;
+import io.nuvalence.user.management.api.service.cerbos.models.Effect;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourcePolicy;
+import io.nuvalence.user.management.api.service.cerbos.models.ResourceRule;
+import io.nuvalence.user.management.api.service.cerbos.models.RoleDef;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Cerbos resource policies compiled into lookup tables of rules by resource kind and action.
+ *
+ * <p>Evaluation follows Cerbos: a rule matches if the principal has one of its roles or derived
+ * roles and its condition holds; a matching deny rule wins over allow rules; and anything not
+ * explicitly allowed is denied. Only resource policies and derived roles of the default version
+ * and scope are supported; other policy types are rejected at compile time.</p>
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CompiledPolicies {
+    private static final String DEFAULT_VERSION = "default";
+    private static final String WILDCARD = "*";
+
+    private final Map<String, Map<String, List<CompiledRule>>> rulesByKindAndAction;
+
+    /**
+     * Compiles policy documents.
+     *
+     * @param policies resource policy and derived roles documents
+     * @return compiled policies
+     * @throws IllegalArgumentException if a policy uses unsupported features or references
+     *     unknown derived roles
+     */
+    public static CompiledPolicies compile(List<Policy> policies) {
+        final Map<String, Map<String, CompiledDerivedRole>> derivedRoleSets = new HashMap<>();
+        for (Policy policy : enabled(policies)) {
+            if (policy.getPrincipalPolicy() != null) {
+                throw new IllegalArgumentException("Principal policies are not supported");
+            }
+            if (policy.getVariables() != null && !policy.getVariables().isEmpty()) {
+                throw new IllegalArgumentException("Policy variables are not supported");
+            }
+            if (policy.getDerivedRoles() != null) {
+                final DerivedRoles derivedRoles = policy.getDerivedRoles();
+                derivedRoleSets.put(derivedRoles.getName(), compileDerivedRoles(derivedRoles));
+            }
+        }
+
+        final Map<String, Map<String, List<CompiledRule>>> rules = new HashMap<>();
+        for (Policy policy : enabled(policies)) {
+            final ResourcePolicy resourcePolicy = policy.getResourcePolicy();
+            if (resourcePolicy == null) {
+                continue;
+            }
+            final String scope = resourcePolicy.getScope();
+            if (!DEFAULT_VERSION.equals(resourcePolicy.getVersion())
+                    || (scope != null && !scope.isEmpty())) {
+                throw new IllegalArgumentException(
+                        "Only default version, unscoped policies are supported: "
+                                + resourcePolicy.getResource());
+            }
+            if (rules.containsKey(resourcePolicy.getResource())) {
+                throw new IllegalArgumentException(
+                        "Duplicate resource policy: " + resourcePolicy.getResource());
+            }
+
+            rules.put(
+                    resourcePolicy.getResource(),
+                    compileResourcePolicy(resourcePolicy, derivedRoleSets));
+        }
+
+        return new CompiledPolicies(Collections.unmodifiableMap(rules));
+    }
+
+    /**
+     * Decides whether a principal may perform an action on a resource.
+     *
+     * @param request principal and resource
+     * @param action action to perform
+     * @return {@link Effect#EFFECT_ALLOW} or {@link Effect#EFFECT_DENY}
+     */
+    public Effect evaluate(PolicyRequest request, String action) {
+        final Map<String, List<CompiledRule>> rulesByAction =
+                rulesByKindAndAction.get(request.getResourceKind());
+        if (rulesByAction == null) {
+            return Effect.EFFECT_DENY;
+        }
+
+        boolean allowed = false;
+        for (String key : new String[] {action, WILDCARD}) {
+            for (CompiledRule rule : rulesByAction.getOrDefault(key, List.of())) {
+                if (rule.matches(request)) {
+                    if (rule.effect == Effect.EFFECT_DENY) {
+                        return Effect.EFFECT_DENY;
+                    }
+                    allowed = true;
+                }
+            }
+        }
+
+        return allowed ? Effect.EFFECT_ALLOW : Effect.EFFECT_DENY;
+    }
+
+    private static List<Policy> enabled(List<Policy> policies) {
+        return policies.stream()
+                .filter(policy -> !Boolean.TRUE.equals(policy.getDisabled()))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, CompiledDerivedRole> compileDerivedRoles(DerivedRoles derivedRoles) {
+        final Map<String, CompiledDerivedRole> compiled = new HashMap<>();
+        for (RoleDef definition : derivedRoles.getDefinitions()) {
+            compiled.put(
+                    definition.getName(),
+                    new CompiledDerivedRole(
+                            Set.of(definition.getParentRoles()),
+                            ConditionCompiler.compile(definition.getCondition())));
+        }
+
+        return compiled;
+    }
+
+    private static Map<String, List<CompiledRule>> compileResourcePolicy(
+            ResourcePolicy resourcePolicy,
+            Map<String, Map<String, CompiledDerivedRole>> derivedRoleSets) {
+        final Map<String, CompiledDerivedRole> imported = new HashMap<>();
+        for (String name : nullToEmpty(resourcePolicy.getImportDerivedRoles())) {
+            if (!derivedRoleSets.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown derived roles: " + name);
+            }
+            imported.putAll(derivedRoleSets.get(name));
+        }
+
+        final Map<String, List<CompiledRule>> rulesByAction = new HashMap<>();
+        for (ResourceRule rule : nullToEmpty(resourcePolicy.getRules())) {
+            final List<CompiledDerivedRole> derivedRoles = new ArrayList<>();
+            for (String name : nullToEmpty(rule.getDerivedRoles())) {
+                if (!imported.containsKey(name)) {
+                    throw new IllegalArgumentException(
+                            "Derived role " + name + " is not imported by "
+                                    + resourcePolicy.getResource());
+                }
+                derivedRoles.add(imported.get(name));
+            }
+
+            final CompiledRule compiled =
+                    new CompiledRule(
+                            Set.of(nullToEmpty(rule.getRoles())),
+                            List.copyOf(derivedRoles),
+                            ConditionCompiler.compile(rule.getCondition()),
+                            rule.getEffect());
+            for (String action : nullToEmpty(rule.getActions())) {
+                rulesByAction.computeIfAbsent(action, a -> new ArrayList<>()).add(compiled);
+            }
+        }
+
+        return rulesByAction.entrySet().stream()
+                .collect(
+                        Collectors.toUnmodifiableMap(
+                                Map.Entry::getKey, entry -> List.copyOf(entry.getValue())));
+    }
+
+    private static String[] nullToEmpty(String[] values) {
+        return values == null ? new String[0] : values;
+    }
+
+    private static ResourceRule[] nullToEmpty(ResourceRule[] values) {
+        return values == null ? new ResourceRule[0] : values;
+    }
+
+    private static boolean hasAnyRole(Set<String> expected, Set<String> actual) {
+        return expected.contains(WILDCARD) || actual.stream().anyMatch(expected::contains);
+    }
+
+    @AllArgsConstructor
+    private static class CompiledDerivedRole {
+        private final Set<String> parentRoles;
+        private final Predicate<PolicyRequest> condition;
+
+        boolean isActive(PolicyRequest request) {
+            return hasAnyRole(parentRoles, request.getRoles()) && condition.test(request);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class CompiledRule {
+        private final Set<String> roles;
+        private final List<CompiledDerivedRole> derivedRoles;
+        private final Predicate<PolicyRequest> condition;
+        private final Effect effect;
+
+        boolean matches(PolicyRequest request) {
+            final boolean hasRole =
+                    hasAnyRole(roles, request.getRoles())
+                            || derivedRoles.stream().anyMatch(role -> role.isActive(request));
+
+            return hasRole && condition.test(request);
+        }
+    }
+}
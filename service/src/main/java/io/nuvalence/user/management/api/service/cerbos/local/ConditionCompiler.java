@@ -0,0 +1,173 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import io.nuvalence.user.management.api.service.cerbos.models.Condition;
+import io.nuvalence.user.management.api.service.cerbos.models.Match;
+import io.nuvalence.user.management.api.service.cerbos.models.MatchExprList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles Cerbos policy conditions into predicates.
+ *
+ * <p>Only the subset of CEL used by simple attribute checks is supported: {@code all}, {@code any}
+ * and {@code none} match lists, and expressions that are a single operand or compare two operands
+ * with {@code ==} or {@code !=}. An operand is a string, number or boolean literal, or one of
+ * {@code request.principal.id}, {@code request.principal.attr.*} and
+ * {@code request.resource.attr.*} (or their {@code P} and {@code R} shorthands). As in Cerbos, an
+ * expression that reads a missing attribute evaluates to false. Anything else is rejected when
+ * the policy is compiled.</p>
+ */
+class ConditionCompiler {
+    private static final String OPERAND = "(\"[^\"]*\"|'[^']*'|[A-Za-z0-9_.\\-]+)";
+    private static final Pattern EXPRESSION =
+            Pattern.compile("^\\s*" + OPERAND + "\\s*(?:(==|!=)\\s*" + OPERAND + ")?\\s*$");
+    private static final Pattern NUMBER = Pattern.compile("^-?\\d+(\\.\\d+)?$");
+
+    private ConditionCompiler() {
+        // private constructor
+    }
+
+    /**
+     * Compiles a rule or derived role condition.
+     *
+     * @param condition condition, may be null
+     * @return predicate that is always true when there is no condition
+     * @throws IllegalArgumentException if the condition uses unsupported features
+     */
+    static Predicate<PolicyRequest> compile(Condition condition) {
+        if (condition == null) {
+            return request -> true;
+        }
+        if (condition.getScript() != null) {
+            throw new IllegalArgumentException("Condition scripts are not supported");
+        }
+        if (condition.getMatch() == null) {
+            throw new IllegalArgumentException("Condition has no match");
+        }
+
+        return compile(condition.getMatch());
+    }
+
+    private static Predicate<PolicyRequest> compile(Match match) {
+        final long branches =
+                Stream.of(match.getAll(), match.getAny(), match.getNone(), match.getExpr())
+                        .filter(Objects::nonNull)
+                        .count();
+        if (branches != 1) {
+            throw new IllegalArgumentException(
+                    "A match must have exactly one of all, any, none or expr");
+        }
+
+        if (match.getExpr() != null) {
+            return compileExpression(match.getExpr());
+        }
+        if (match.getAll() != null) {
+            final List<Predicate<PolicyRequest>> all = compileAll(match.getAll());
+            return request -> all.stream().allMatch(p -> p.test(request));
+        }
+        if (match.getAny() != null) {
+            final List<Predicate<PolicyRequest>> any = compileAll(match.getAny());
+            return request -> any.stream().anyMatch(p -> p.test(request));
+        }
+
+        final List<Predicate<PolicyRequest>> none = compileAll(match.getNone());
+        return request -> none.stream().noneMatch(p -> p.test(request));
+    }
+
+    private static List<Predicate<PolicyRequest>> compileAll(MatchExprList list) {
+        if (list.getOf() == null || list.getOf().length == 0) {
+            throw new IllegalArgumentException("A match list must not be empty");
+        }
+
+        return Arrays.stream(list.getOf())
+                .map(ConditionCompiler::compile)
+                .collect(Collectors.toList());
+    }
+
+    private static Predicate<PolicyRequest> compileExpression(String expression) {
+        final Matcher matcher = EXPRESSION.matcher(expression);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Unsupported condition expression: " + expression);
+        }
+
+        final Function<PolicyRequest, Optional<Object>> left = compileOperand(matcher.group(1));
+        if (matcher.group(2) == null) {
+            return request -> left.apply(request).map(Boolean.TRUE::equals).orElse(false);
+        }
+
+        final Function<PolicyRequest, Optional<Object>> right = compileOperand(matcher.group(3));
+        final boolean negate = "!=".equals(matcher.group(2));
+
+        return request -> {
+            final Optional<Object> leftValue = left.apply(request);
+            final Optional<Object> rightValue = right.apply(request);
+            if (leftValue.isEmpty() || rightValue.isEmpty()) {
+                return false;
+            }
+
+            return negate != valuesEqual(leftValue.get(), rightValue.get());
+        };
+    }
+
+    private static Function<PolicyRequest, Optional<Object>> compileOperand(String operand) {
+        if (operand.startsWith("\"") || operand.startsWith("'")) {
+            final Optional<Object> value = Optional.of(operand.substring(1, operand.length() - 1));
+            return request -> value;
+        }
+        if ("true".equals(operand) || "false".equals(operand)) {
+            final Optional<Object> value = Optional.of(Boolean.valueOf(operand));
+            return request -> value;
+        }
+        if (NUMBER.matcher(operand).matches()) {
+            final Optional<Object> value = Optional.of(Double.valueOf(operand));
+            return request -> value;
+        }
+
+        final String path =
+                operand.replaceFirst("^P\\.", "request.principal.")
+                        .replaceFirst("^R\\.", "request.resource.");
+        if ("request.principal.id".equals(path)) {
+            return request -> Optional.ofNullable(request.getPrincipalId());
+        }
+        if (path.startsWith("request.principal.attr.")) {
+            final String[] keys = path.substring("request.principal.attr.".length()).split("\\.");
+            return request -> lookup(request.getPrincipalAttributes(), keys);
+        }
+        if (path.startsWith("request.resource.attr.")) {
+            final String[] keys = path.substring("request.resource.attr.".length()).split("\\.");
+            return request -> lookup(request.getResourceAttributes(), keys);
+        }
+
+        throw new IllegalArgumentException("Unsupported condition operand: " + operand);
+    }
+
+    private static Optional<Object> lookup(Map<String, Object> attributes, String[] keys) {
+        Object value = attributes;
+        for (String key : keys) {
+            if (!(value instanceof Map)) {
+                return Optional.empty();
+            }
+            value = ((Map<?, ?>) value).get(key);
+        }
+
+        return Optional.ofNullable(value);
+    }
+
+    private static boolean valuesEqual(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return ((Number) left).doubleValue() == ((Number) right).doubleValue();
+        }
+
+        return left.equals(right);
+    }
+}
@@ -0,0 +1,51 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.cerbos.AccessResourceResolver;
+import io.nuvalence.user.management.api.service.cerbos.PrincipalResolver;
+import io.nuvalence.user.management.api.service.cerbos.models.Effect;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * {@link AuthorizationHandler} that evaluates Cerbos policies in process, without a round trip
+ * to a policy decision point.
+ */
+@RequiredArgsConstructor
+public class LocalPolicyAuthorizationHandler implements AuthorizationHandler {
+    private final CompiledPolicies policies;
+    private final AccessResourceResolver accessResourceResolver;
+
+    @Override
+    public boolean isAllowed(String action, Class<?> resourceClass) {
+        return isAllowed(action, AccessResourceResolver.getKind(resourceClass), Map.of());
+    }
+
+    @Override
+    public boolean isAllowed(String action, String resourceType) {
+        return isAllowed(action, resourceType, Map.of());
+    }
+
+    @Override
+    public boolean isAllowedForInstance(String action, Object resource) {
+        return isAllowed(
+                action,
+                AccessResourceResolver.getKind(Hibernate.getClass(resource)),
+                accessResourceResolver.getAttributes(resource));
+    }
+
+    @Override
+    public <T> Predicate<T> getAuthFilter(String action, Class<T> resourceClass) {
+        return resource -> isAllowedForInstance(action, resource);
+    }
+
+    private boolean isAllowed(String action, String kind, Map<String, Object> attributes) {
+        return PrincipalResolver.current()
+                .map(principal -> PolicyRequest.of(principal, kind, attributes))
+                .map(request -> policies.evaluate(request, action) == Effect.EFFECT_ALLOW)
+                .orElse(false);
+    }
+}
@@ -0,0 +1,67 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads Cerbos policy documents from YAML files.
+ */
+public class PolicyLoader {
+
+    private PolicyLoader() {
+        // private constructor
+    }
+
+    /**
+     * Loads every {@code .yaml} and {@code .yml} file under a location, e.g.
+     * {@code file:/policies/} or {@code classpath:cerbos-policies/}.
+     *
+     * @param resourcePatternResolver resolver for the location
+     * @param location directory holding the policies
+     * @param objectMapper mapper used to bind the documents to the policy model
+     * @return policies, in file name order
+     * @throws IOException if the files cannot be read
+     * @throws IllegalArgumentException if no policies are found
+     */
+    public static List<Policy> load(
+            ResourcePatternResolver resourcePatternResolver,
+            String location,
+            ObjectMapper objectMapper)
+            throws IOException {
+        final String base = location.endsWith("/") ? location : location + "/";
+        final List<Resource> resources = new ArrayList<>();
+        resources.addAll(Arrays.asList(resourcePatternResolver.getResources(base + "**/*.yaml")));
+        resources.addAll(Arrays.asList(resourcePatternResolver.getResources(base + "**/*.yml")));
+        resources.sort(Comparator.comparing(Resource::getFilename));
+        if (resources.isEmpty()) {
+            throw new IllegalArgumentException("No Cerbos policies found in " + location);
+        }
+
+        final ObjectMapper reader =
+                objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        final List<Policy> policies = new ArrayList<>();
+        for (Resource resource : resources) {
+            try (InputStream inputStream = resource.getInputStream()) {
+                for (Object document : new Yaml().loadAll(inputStream)) {
+                    if (document instanceof Map) {
+                        policies.add(reader.convertValue(document, Policy.class));
+                    }
+                }
+            }
+        }
+
+        return policies;
+    }
+}
@@ -0,0 +1,38 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import io.nuvalence.user.management.api.service.cerbos.models.Principal;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Principal and resource a local policy decision is made for.
+ */
+@Value
+public class PolicyRequest {
+    String principalId;
+    Set<String> roles;
+    Map<String, Object> principalAttributes;
+    String resourceKind;
+    Map<String, Object> resourceAttributes;
+
+    /**
+     * Creates a request for a Cerbos principal.
+     *
+     * @param principal principal performing the action
+     * @param resourceKind kind of the resource
+     * @param resourceAttributes attributes of the resource
+     * @return policy request
+     */
+    public static PolicyRequest of(
+            Principal principal, String resourceKind, Map<String, Object> resourceAttributes) {
+        return new PolicyRequest(
+                principal.getId(),
+                principal.getRoles() == null ? Set.of() : Set.of(principal.getRoles()),
+                Objects.requireNonNullElse(principal.getAttr(), Map.of()),
+                resourceKind,
+                Objects.requireNonNullElse(resourceAttributes, Map.of()));
+    }
+}
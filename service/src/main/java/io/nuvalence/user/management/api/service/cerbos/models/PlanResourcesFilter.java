@@ -0,0 +1,24 @@
+package io.nuvalence.user.management.api.service.cerbos.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Filter that selects the resources the principal may perform the action on. The condition is
+ * only set when the kind is {@link PlanResourcesFilterKind#KIND_CONDITIONAL}.
+ */
+@Generated
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@Builder
+@Jacksonized
+public class PlanResourcesFilter {
+    private PlanResourcesFilterKind kind;
+
+    private PlanResourcesOperand condition;
+}
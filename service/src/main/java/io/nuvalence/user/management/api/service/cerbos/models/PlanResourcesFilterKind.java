@@ -0,0 +1,22 @@
+package io.nuvalence.user.management.api.service.cerbos.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Generated;
+
+/**
+ * The allowed query plan filter kinds for Cerbos.
+ */
+@Generated
+public enum PlanResourcesFilterKind {
+    @JsonProperty("KIND_UNSPECIFIED")
+    KIND_UNSPECIFIED,
+
+    @JsonProperty("KIND_ALWAYS_ALLOWED")
+    KIND_ALWAYS_ALLOWED,
+
+    @JsonProperty("KIND_ALWAYS_DENIED")
+    KIND_ALWAYS_DENIED,
+
+    @JsonProperty("KIND_CONDITIONAL")
+    KIND_CONDITIONAL
+}
@@ -0,0 +1,26 @@
+package io.nuvalence.user.management.api.service.cerbos.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Operand of a query plan condition. Exactly one of value, variable or expression is set; a
+ * literal null is an operand with none of them.
+ */
+@Generated
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@Builder
+@Jacksonized
+public class PlanResourcesOperand {
+    private Object value;
+
+    private String variable;
+
+    private PlanResourcesExpression expression;
+}
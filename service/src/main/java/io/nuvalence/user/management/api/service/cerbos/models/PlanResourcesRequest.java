@@ -0,0 +1,32 @@
+package io.nuvalence.user.management.api.service.cerbos.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Produce a query plan with conditions that must be satisfied for a principal to perform an action
+ * on resources of a kind.
+ */
+@Generated
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+@Builder
+@Jacksonized
+public class PlanResourcesRequest {
+    private String requestId;
+
+    private String action;
+
+    private Principal principal;
+
+    private PlanResourcesRequestResource resource;
+
+    private Boolean includeMeta;
+
+    private RequestAuxData auxData;
+}
@@ -1,40 +1,167 @@
 package io.nuvalence.user.management.api.service.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.cerbos.sdk.CerbosBlockingClient;
 import dev.cerbos.sdk.CerbosClientBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.nuvalence.auth.access.AuthorizationHandler;
 import io.nuvalence.auth.access.cerbos.CerbosAuthorizationHandler;
+import io.nuvalence.user.management.api.service.auth.CachingAuthorizationHandler;
+import io.nuvalence.user.management.api.service.cerbos.AccessResourceResolver;
+import io.nuvalence.user.management.api.service.cerbos.CerbosQueryPlanner;
+import io.nuvalence.user.management.api.service.cerbos.CerbosResourceSetAuthorizer;
+import io.nuvalence.user.management.api.service.cerbos.local.CompiledPolicies;
+import io.nuvalence.user.management.api.service.cerbos.local.LocalPolicyAuthorizationHandler;
+import io.nuvalence.user.management.api.service.cerbos.local.PolicyLoader;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.Scope;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.time.Duration;
 
 /**
- * Configures CerbosAuthorizationHandler.
+ * Configures the AuthorizationHandler. With {@code cerbos.mode: remote} (the default) decisions
+ * are made by the Cerbos PDP at {@code cerbos.uri}; with {@code cerbos.mode: local} the policies
+ * under {@code cerbos.local.policy-location} are evaluated in process. In remote mode, user
+ * searches are restricted in SQL with Cerbos query plans.
  */
 @Configuration
 @RequiredArgsConstructor
 @Profile("!test")
+@Slf4j
 public class CerbosConfig {
 
-    @Value("${cerbos.uri}")
+    @Value("${cerbos.uri:}")
     private String cerbosUri;
 
+    @Value("${cerbos.check-url:http://${cerbos.uri:}/api/check}")
+    private String cerbosCheckUrl;
+
+    @Value("${cerbos.plan-url:http://${cerbos.uri:}/api/plan/resources}")
+    private String cerbosPlanUrl;
+
+    @Value("${cerbos.batch-size:500}")
+    private int cerbosBatchSize;
+
+    @Value("${cerbos.decision-cache.enabled:true}")
+    private boolean decisionCacheEnabled;
+
+    @Value("${cerbos.decision-cache.ttl:PT30S}")
+    private Duration decisionCacheTtl;
+
+    @Value("${cerbos.decision-cache.maximum-size:10000}")
+    private long decisionCacheMaximumSize;
+
+    @Value("${cerbos.local.policy-location:file:/policies/}")
+    private String localPolicyLocation;
+
     /**
-     * Initializes a CerbosAuthorizationHandler as a singleton bean.
+     * Initializes a CerbosAuthorizationHandler as a singleton bean. Unless disabled with
+     * {@code cerbos.decision-cache.enabled}, type-level decisions are cached for a short time.
      *
+     * @param meterRegistry registry for the decision cache metrics
      * @return AuthorizationHandler
      * @throws CerbosClientBuilder.InvalidClientConfigurationException if cerbos URI is invalid
      */
     @Bean
     @Scope("singleton")
-    public AuthorizationHandler getAuthorizationHandler()
+    @ConditionalOnProperty(name = "cerbos.mode", havingValue = "remote", matchIfMissing = true)
+    public AuthorizationHandler getAuthorizationHandler(MeterRegistry meterRegistry)
             throws CerbosClientBuilder.InvalidClientConfigurationException {
         final CerbosBlockingClient cerbosClient =
                 new CerbosClientBuilder(cerbosUri).withPlaintext().buildBlockingClient();
+        final AuthorizationHandler authorizationHandler =
+                new CerbosAuthorizationHandler(cerbosClient);
+
+        if (!decisionCacheEnabled) {
+            return authorizationHandler;
+        }
+
+        return new CachingAuthorizationHandler(
+                authorizationHandler,
+                decisionCacheTtl,
+                decisionCacheMaximumSize,
+                meterRegistry);
+    }
+
+    /**
+     * Initializes the authorizer used to check lists of resources in batches.
+     *
+     * @param restTemplateBuilder builder configured with the application's message converters
+     * @param accessResourceResolver resolver for resource kinds and attributes
+     * @return CerbosResourceSetAuthorizer
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cerbos.mode", havingValue = "remote", matchIfMissing = true)
+    public CerbosResourceSetAuthorizer getResourceSetAuthorizer(
+            RestTemplateBuilder restTemplateBuilder,
+            AccessResourceResolver accessResourceResolver) {
+        return new CerbosResourceSetAuthorizer(
+                restTemplateBuilder.build(),
+                cerbosCheckUrl,
+                cerbosBatchSize,
+                accessResourceResolver);
+    }
+
+    /**
+     * Initializes the planner used to restrict list queries to the resources a principal may
+     * access.
+     *
+     * @param restTemplateBuilder builder configured with the application's message converters
+     * @return CerbosQueryPlanner
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cerbos.mode", havingValue = "remote", matchIfMissing = true)
+    public CerbosQueryPlanner getQueryPlanner(RestTemplateBuilder restTemplateBuilder) {
+        return new CerbosQueryPlanner(restTemplateBuilder.build(), cerbosPlanUrl);
+    }
+
+    /**
+     * Initializes an AuthorizationHandler that evaluates the Cerbos policies in process.
+     *
+     * @param resourcePatternResolver resolver for the policy location
+     * @param objectMapper mapper used to bind the policy documents
+     * @param accessResourceResolver resolver for resource kinds and attributes
+     * @return AuthorizationHandler
+     * @throws IOException if the policies cannot be read
+     * @throws IllegalArgumentException if the policies use features the local engine lacks
+     */
+    @Bean
+    @Scope("singleton")
+    @ConditionalOnProperty(name = "cerbos.mode", havingValue = "local")
+    public AuthorizationHandler getLocalAuthorizationHandler(
+            ResourcePatternResolver resourcePatternResolver,
+            ObjectMapper objectMapper,
+            AccessResourceResolver accessResourceResolver)
+            throws IOException {
+        final CompiledPolicies policies =
+                CompiledPolicies.compile(
+                        PolicyLoader.load(
+                                resourcePatternResolver, localPolicyLocation, objectMapper));
+        log.info("Evaluating Cerbos policies from {} in process", localPolicyLocation);
+
+        return new LocalPolicyAuthorizationHandler(policies, accessResourceResolver);
+    }
 
-        return new CerbosAuthorizationHandler(cerbosClient);
+    /**
+     * Initializes the resolver for Cerbos resource kinds and attributes.
+     *
+     * @param objectMapper mapper used to convert translated resources to attributes
+     * @param beanFactory factory used to look up access resource translators
+     * @return AccessResourceResolver
+     */
+    @Bean
+    public AccessResourceResolver getAccessResourceResolver(
+            ObjectMapper objectMapper, BeanFactory beanFactory) {
+        return new AccessResourceResolver(objectMapper, beanFactory);
     }
 }
@@ -0,0 +1,124 @@
+package io.nuvalence.user.management.api.service.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.nuvalence.user.management.api.service.datasource.ReplicaRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+
+/**
+ * Routes read-only transactions to the read replicas listed in {@code users.read-replicas.urls}
+ * when {@code users.read-replicas.enabled} is true. Without it the single
+ * {@code spring.datasource} serves all traffic.
+ *
+ * <p>The primary pool is configured from {@code spring.datasource}; each replica pool copies its
+ * settings and replaces the URL and, when set, the credentials.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.read-replicas.enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Value("${users.read-replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${users.read-replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${users.read-replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${users.read-replicas.max-lag:PT10S}")
+    private Duration maxLag;
+
+    @Value("${users.read-replicas.health-check-timeout:PT2S}")
+    private Duration healthCheckTimeout;
+
+    @Value("${users.read-replicas.read-your-writes-window:PT10S}")
+    private Duration readYourWritesWindow;
+
+    /**
+     * Initializes the connection pool of the primary database.
+     *
+     * @param properties {@code spring.datasource} properties
+     * @return primary pool
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Initializes the data source that chooses between the primary and the replicas.
+     *
+     * @param primaryDataSource primary pool
+     * @param meterRegistry registry for the healthy replica gauge
+     * @return routing data source
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        final Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            final String name = "replica-" + (i + 1);
+            final HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(name);
+            config.setJdbcUrl(replicaUrls.get(i));
+            config.setUsername(replicaUsername);
+            config.setPassword(replicaPassword);
+            // An unreachable replica must not stop the service from starting, and requests give
+            // up on it quickly and fall back to the primary.
+            config.setInitializationFailTimeout(-1);
+            config.setConnectionTimeout(
+                    Math.min(healthCheckTimeout.toMillis(), config.getConnectionTimeout()));
+            replicas.put(name, new HikariDataSource(config));
+        }
+        log.info("Routing read-only transactions to {} read replicas", replicas.size());
+
+        final ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(
+                        primaryDataSource,
+                        replicas,
+                        maxLag,
+                        healthCheckTimeout,
+                        readYourWritesWindow);
+        Gauge.builder(
+                        "db.read.replicas.healthy",
+                        routingDataSource,
+                        ReplicaRoutingDataSource::getHealthyReplicaCount)
+                .description("Read replicas currently receiving read-only transactions")
+                .register(meterRegistry);
+
+        return routingDataSource;
+    }
+
+    /**
+     * Exposes the routing data source to JPA and JDBC. Connections are fetched lazily, once the
+     * transaction's read-only flag is known.
+     *
+     * @param replicaRoutingDataSource routing data source
+     * @return application data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
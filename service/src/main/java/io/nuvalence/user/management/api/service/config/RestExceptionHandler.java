@@ -2,11 +2,13 @@ package io.nuvalence.user.management.api.service.config;
 
 import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
 import io.nuvalence.user.management.api.service.config.exception.InternalServerException;
+import io.nuvalence.user.management.api.service.config.exception.PreconditionFailedException;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.config.exception.TokenAuthorizationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -85,6 +87,32 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(new ApiError(ex.getMessage()), HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handles OptimisticLockingFailureException, raised when a row changed after it was read.
+     *
+     * @param ex Exception to be handled
+     * @return a response entity with correct code.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(Exception ex) {
+        log.error("{} {}", ERROR_MESSAGE_PREFIX, ex.getMessage());
+        return new ResponseEntity<>(
+                new ApiError("The resource was changed by another request, reload and retry."),
+                HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles PreconditionFailedException.
+     *
+     * @param ex Exception to be handled
+     * @return a response entity with correct code.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> handlePreconditionFailedException(Exception ex) {
+        log.error("{} {}", ERROR_MESSAGE_PREFIX, ex.getMessage());
+        return new ResponseEntity<>(new ApiError(ex.getMessage()), HttpStatus.PRECONDITION_FAILED);
+    }
+
     /**
      * Handles TokenAuthorizationException.
      *
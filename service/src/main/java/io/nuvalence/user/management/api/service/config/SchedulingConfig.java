@@ -0,0 +1,11 @@
+package io.nuvalence.user.management.api.service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} methods.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
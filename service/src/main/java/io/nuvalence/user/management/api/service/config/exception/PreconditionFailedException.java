@@ -0,0 +1,12 @@
+package io.nuvalence.user.management.api.service.config.exception;
+
+/**
+ * Custom exception for conditional requests whose precondition does not hold.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    private static final long serialVersionUID = -2417283061940529178L;
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
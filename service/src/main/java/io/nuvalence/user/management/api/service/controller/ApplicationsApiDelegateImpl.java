@@ -1,6 +1,7 @@
 package io.nuvalence.user.management.api.service.controller;
 
 import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.auth.BatchAuthorizationHandler;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import io.nuvalence.user.management.api.service.generated.controllers.ApplicationsApiDelegate;
@@ -25,12 +26,17 @@ public class ApplicationsApiDelegateImpl implements ApplicationsApiDelegate {
     private static final ApplicationEntityMapper mapper = ApplicationEntityMapper.INSTANCE;
     private final ApplicationService applicationService;
     private final AuthorizationHandler authorizationHandler;
+    private final BatchAuthorizationHandler batchAuthorizationHandler;
 
     @Override
     public ResponseEntity<List<ApplicationDTO>> getApplications() {
         List<ApplicationDTO> applications =
-                applicationService.getApplications().stream()
-                        .filter(authorizationHandler.getAuthFilter("view", ApplicationEntity.class))
+                batchAuthorizationHandler
+                        .filterAllowed(
+                                "view",
+                                ApplicationEntity.class,
+                                applicationService.getApplications())
+                        .stream()
                         .map(mapper::applicationEntityToApplicationDto)
                         .collect(Collectors.toList());
 
@@ -0,0 +1,84 @@
+package io.nuvalence.user.management.api.service.controller;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.ChangeOutboxEntity;
+import io.nuvalence.user.management.api.service.generated.controllers.ChangesApiDelegate;
+import io.nuvalence.user.management.api.service.generated.models.ChangePageDTO;
+import io.nuvalence.user.management.api.service.mapper.ChangeEntityMapper;
+import io.nuvalence.user.management.api.service.service.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Controller for the change feed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangesApiDelegateImpl implements ChangesApiDelegate {
+
+    // The wait is ended by the change feed; this only guards against a wait that is never ended.
+    private static final Duration RESPONSE_TIMEOUT_MARGIN = Duration.ofSeconds(10);
+
+    private final ChangeFeedService changeFeedService;
+    private final AuthorizationHandler authorizationHandler;
+
+    /**
+     * Returns the changes on the feed after a cursor. Access is granted to the feed as a whole, so
+     * a single check covers every change. A long poll is answered asynchronously, so it holds no
+     * request thread while it waits.
+     *
+     * @param since cursor returned by the previous call
+     * @param limit maximum number of changes
+     * @param waitSeconds how long to wait for a change when there is none
+     * @return page of changes and the next cursor, written once available
+     */
+    @Override
+    public ResponseEntity<ResponseBodyEmitter> getChanges(
+            Long since, Integer limit, Integer waitSeconds) {
+        if (!authorizationHandler.isAllowed("view", ChangeOutboxEntity.class)) {
+            throw new AccessDeniedException("You do not have permission to view this resource.");
+        }
+
+        final Duration wait = Duration.ofSeconds(waitSeconds);
+        final ResponseBodyEmitter emitter =
+                new ResponseBodyEmitter(wait.plus(RESPONSE_TIMEOUT_MARGIN).toMillis());
+        changeFeedService
+                .awaitChanges(since, limit, wait)
+                .whenComplete(
+                        (changes, error) -> {
+                            if (error != null) {
+                                emitter.completeWithError(error);
+                                return;
+                            }
+                            try {
+                                emitter.send(page(since, changes), MediaType.APPLICATION_JSON);
+                                emitter.complete();
+                            } catch (IOException e) {
+                                emitter.completeWithError(e);
+                            }
+                        });
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+
+    private static ChangePageDTO page(long since, List<ChangeOutboxEntity> changes) {
+        final long nextCursor =
+                changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+
+        return new ChangePageDTO()
+                .changes(
+                        changes.stream()
+                                .map(ChangeEntityMapper.INSTANCE::changeEntityToChangeDto)
+                                .collect(Collectors.toList()))
+                .nextCursor(nextCursor);
+    }
+}
@@ -5,15 +5,15 @@ import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoun
 import io.nuvalence.user.management.api.service.entity.LanguageEntity;
 import io.nuvalence.user.management.api.service.generated.controllers.LanguagesApiDelegate;
 import io.nuvalence.user.management.api.service.generated.models.LanguageDTO;
-import io.nuvalence.user.management.api.service.mapper.LanguageEntityMapper;
+import io.nuvalence.user.management.api.service.service.LanguageRegistry;
 import io.nuvalence.user.management.api.service.service.LanguageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Routes for languages supported by a given application(s).
@@ -26,20 +26,29 @@ public class LanguageApiDelegateImpl implements LanguagesApiDelegate {
 
     private final AuthorizationHandler authorizationHandler;
 
+    /**
+     * Returns the pre-serialized language list from the registry. Access to languages is granted
+     * per resource type, so a single check covers every entry. The response carries a strong ETag;
+     * a matching If-None-Match is answered with 304 Not Modified.
+     *
+     * @return supported languages
+     */
     @Override
     public ResponseEntity<List<LanguageDTO>> getSupportedLanguages() {
-        List<LanguageEntity> supportedLanguages = languageService.getLanguages();
+        LanguageRegistry registry = languageService.getRegistry();
 
-        if (supportedLanguages.isEmpty()) {
+        if (registry.isEmpty()) {
             throw new ResourceNotFoundException("No supported languages found");
         }
 
-        List<LanguageDTO> mappedLanguages =
-                supportedLanguages.stream()
-                        .filter(authorizationHandler.getAuthFilter("view", LanguageEntity.class))
-                        .map(LanguageEntityMapper.INSTANCE::languageEntityToLanguageDto)
-                        .collect(Collectors.toList());
+        if (!authorizationHandler.isAllowed("view", LanguageEntity.class)) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(List.of());
+        }
 
-        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(mappedLanguages);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(registry.getBody().getEtag())
+                .body(registry.getBody());
     }
 }
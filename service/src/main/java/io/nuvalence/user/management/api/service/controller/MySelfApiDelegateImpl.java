@@ -27,14 +27,14 @@ class MySelfApiDelegateImpl implements MyselfApiDelegate {
     @Override
     public ResponseEntity<UserDTO> getMySelf() {
         Optional<String> userId = currentUserService.getUserIdByAuthentication();
-        return userId.map(id -> usersApiDelegate.getUserById(UUID.fromString(id)))
+        return userId.map(id -> usersApiDelegate.getUserById(UUID.fromString(id), null))
                 .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND_EXCEPTION_MESSAGE));
     }
 
     @Override
     public ResponseEntity<UserDTO> updateMySelf(UserUpdateRequest body) {
         Optional<String> userId = currentUserService.getUserIdByAuthentication();
-        return userId.map(id -> usersApiDelegate.updateUserById(UUID.fromString(id), body))
+        return userId.map(id -> usersApiDelegate.updateUserById(UUID.fromString(id), body, null))
                 .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND_EXCEPTION_MESSAGE));
     }
 }
@@ -1,14 +1,21 @@
 package io.nuvalence.user.management.api.service.controller;
 
 import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.auth.BatchAuthorizationHandler;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.PermissionEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.SortOrder;
 import io.nuvalence.user.management.api.service.generated.controllers.PermissionApiDelegate;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdatePermissionDTO;
 import io.nuvalence.user.management.api.service.generated.models.PermissionDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserPageDTO;
 import io.nuvalence.user.management.api.service.mapper.MapperUtils;
+import io.nuvalence.user.management.api.service.mapper.PagingMetadataMapper;
 import io.nuvalence.user.management.api.service.mapper.PermissionEntityMapper;
 import io.nuvalence.user.management.api.service.service.PermissionService;
+import io.nuvalence.user.management.api.service.service.UserPageToken;
+import io.nuvalence.user.management.api.service.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -32,7 +39,10 @@ public class PermissionApiDelegateImpl implements PermissionApiDelegate {
     private static final String ACCESS_DENIED_MESSAGE =
             "You do not have permission to modify this resource";
     private final PermissionService permissionService;
+    private final UserService userService;
     private final AuthorizationHandler authorizationHandler;
+    private final BatchAuthorizationHandler batchAuthorizationHandler;
+    private final PagingMetadataMapper pagingMetadataMapper;
 
     @Override
     public Optional<NativeWebRequest> getRequest() {
@@ -64,9 +74,8 @@ public class PermissionApiDelegateImpl implements PermissionApiDelegate {
     @Override
     public ResponseEntity<List<PermissionDTO>> getAllPermissions() {
         List<PermissionEntity> permissions =
-                permissionService.getAllPermissions().stream()
-                        .filter(authorizationHandler.getAuthFilter("view", PermissionEntity.class))
-                        .collect(Collectors.toList());
+                batchAuthorizationHandler.filterAllowed(
+                        "view", PermissionEntity.class, permissionService.getAllPermissions());
 
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
@@ -102,4 +111,74 @@ public class PermissionApiDelegateImpl implements PermissionApiDelegate {
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(mapper.permissionEntityToPermissionDto(permission));
     }
+
+    @Override
+    public ResponseEntity<UserPageDTO> getPermissionUsers(
+            UUID id, Integer pageSize, String pageToken) {
+        PermissionEntity permission =
+                permissionService
+                        .getPermissionById(id)
+                        .filter(
+                                permissionEntity ->
+                                        authorizationHandler.isAllowedForInstance(
+                                                "view", permissionEntity))
+                        .orElseThrow(
+                                () ->
+                                        new ResourceNotFoundException(
+                                                "Could not find permission with ID '" + id + "'."));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(getUserPage(permission, pageSize, pageToken));
+    }
+
+    @Override
+    public ResponseEntity<UserPageDTO> getPermissionUsersByApplicationRole(
+            String applicationRole, Integer pageSize, String pageToken) {
+        PermissionEntity permission =
+                permissionService
+                        .getPermissionByApplicationRole(applicationRole)
+                        .filter(
+                                permissionEntity ->
+                                        authorizationHandler.isAllowedForInstance(
+                                                "view", permissionEntity))
+                        .orElseThrow(
+                                () ->
+                                        new ResourceNotFoundException(
+                                                "Could not find permission with application role '"
+                                                        + applicationRole
+                                                        + "'."));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(getUserPage(permission, pageSize, pageToken));
+    }
+
+    private UserPageDTO getUserPage(
+            PermissionEntity permission, Integer pageSize, String pageToken) {
+        // Fetch one extra row to learn whether another page exists without counting.
+        final List<UserEntity> fetched =
+                userService.getUsersWithPermissionAfter(
+                        permission.getId(),
+                        pageToken == null ? null : UserPageToken.decode(pageToken),
+                        pageSize + 1);
+        final boolean hasNext = fetched.size() > pageSize;
+        final List<UserEntity> content = hasNext ? fetched.subList(0, pageSize) : fetched;
+
+        final String nextPageToken =
+                hasNext
+                        ? UserPageToken.after(content.get(content.size() - 1), "id", SortOrder.ASC)
+                                .encode()
+                        : null;
+
+        final UserPageDTO userPageDTO = new UserPageDTO();
+        userPageDTO.setUsers(
+                batchAuthorizationHandler.filterAllowed("view", UserEntity.class, content).stream()
+                        .map(MapperUtils::mapUserEntityToUserDto)
+                        .collect(Collectors.toList()));
+        userPageDTO.setPagingMetadata(
+                pagingMetadataMapper.toPagingMetadata(pageSize, nextPageToken));
+
+        return userPageDTO;
+    }
 }
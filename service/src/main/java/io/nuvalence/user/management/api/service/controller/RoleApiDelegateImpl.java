@@ -18,7 +18,6 @@ import org.springframework.web.context.request.NativeWebRequest;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Controller for Roles API.
@@ -50,11 +49,11 @@ public class RoleApiDelegateImpl implements RolesApiDelegate {
 
     @Override
     public ResponseEntity<List<RoleDTO>> getAllRoles(String resource) {
+        // Role policies do not depend on role attributes, so one check covers every role.
         List<RoleDTO> roles =
-                roleService.getAllRoles().stream()
-                        .filter(authorizationHandler.getAuthFilter("view", RoleEntity.class))
-                        .map(RoleEntityMapper.INSTANCE::roleEntityToRoleDto)
-                        .collect(Collectors.toList());
+                authorizationHandler.isAllowed("view", RoleEntity.class)
+                        ? roleService.getAllRoleModels()
+                        : List.of();
 
         return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(roles);
     }
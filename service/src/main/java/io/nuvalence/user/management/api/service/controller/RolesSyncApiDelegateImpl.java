@@ -0,0 +1,46 @@
+package io.nuvalence.user.management.api.service.controller;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.generated.controllers.RolessyncApiDelegate;
+import io.nuvalence.user.management.api.service.generated.models.RoleSyncRequest;
+import io.nuvalence.user.management.api.service.generated.models.RoleSyncResultDTO;
+import io.nuvalence.user.management.api.service.repository.RoleSyncPlan;
+import io.nuvalence.user.management.api.service.service.RoleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+
+/**
+ * Controller for declarative role sync. A sync may create, update and delete roles, so the
+ * caller must be allowed to do all three.
+ */
+@Service
+@RequiredArgsConstructor
+class RolesSyncApiDelegateImpl implements RolessyncApiDelegate {
+    private final RoleService roleService;
+
+    private final AuthorizationHandler authorizationHandler;
+
+    @Override
+    public ResponseEntity<RoleSyncResultDTO> syncRoles(RoleSyncRequest body, Boolean dryRun) {
+        if (!authorizationHandler.isAllowed("update", RoleEntity.class)
+                || !authorizationHandler.isAllowed("delete", RoleEntity.class)) {
+            throw new AccessDeniedException("You do not have permission to modify this resource");
+        }
+
+        final boolean onlyPlan = Boolean.TRUE.equals(dryRun);
+        final RoleSyncPlan plan = roleService.syncRoles(body.getRoles(), onlyPlan);
+
+        return ResponseEntity.ok(
+                new RoleSyncResultDTO()
+                        .dryRun(onlyPlan)
+                        .created(new ArrayList<>(plan.getCreatedRoles().keySet()))
+                        .updated(new ArrayList<>(plan.getUpdatedRoles().keySet()))
+                        .deleted(new ArrayList<>(plan.getDeletedRoles().keySet()))
+                        .unchangedCount(plan.getUnchangedCount()));
+    }
+}
@@ -1,41 +1,75 @@
 package io.nuvalence.user.management.api.service.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.auth.BatchAuthorizationHandler;
+import io.nuvalence.user.management.api.service.cerbos.QueryPlanSpecification;
+import io.nuvalence.user.management.api.service.config.exception.InternalServerException;
+import io.nuvalence.user.management.api.service.config.exception.PreconditionFailedException;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
+import io.nuvalence.user.management.api.service.entity.UserAccessResourceTranslator;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserImportJobEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
+import io.nuvalence.user.management.api.service.entity.UserView;
 import io.nuvalence.user.management.api.service.enums.SortOrder;
+import io.nuvalence.user.management.api.service.enums.TotalCountMode;
+import io.nuvalence.user.management.api.service.enums.UserImportFormat;
 import io.nuvalence.user.management.api.service.generated.controllers.UsersApiDelegate;
+import io.nuvalence.user.management.api.service.generated.models.PagingMetadata;
 import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
 import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserImportJob;
 import io.nuvalence.user.management.api.service.generated.models.UserPageDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
 import io.nuvalence.user.management.api.service.mapper.MapperUtils;
 import io.nuvalence.user.management.api.service.mapper.PagingMetadataMapper;
 import io.nuvalence.user.management.api.service.mapper.UserEntityMapper;
+import io.nuvalence.user.management.api.service.mapper.UserImportJobMapper;
 import io.nuvalence.user.management.api.service.mapper.UserPreferenceEntityMapper;
+import io.nuvalence.user.management.api.service.service.UserImportService;
 import io.nuvalence.user.management.api.service.service.UserPreferenceService;
+import io.nuvalence.user.management.api.service.service.UserPageToken;
+import io.nuvalence.user.management.api.service.service.UserProfileCache;
+import io.nuvalence.user.management.api.service.service.UserQueryService;
 import io.nuvalence.user.management.api.service.service.UserSearchCriteria;
 import io.nuvalence.user.management.api.service.service.UserService;
+import io.nuvalence.user.management.api.service.util.web.EntityTags;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller for cloud function user actions.
@@ -49,14 +83,29 @@ class UsersApiDelegateImpl implements UsersApiDelegate {
     private static final String USER_NOT_FOUND_EXCEPTION_MESSAGE = "User not found!";
 
     private static final String VIEW_AUTHORIZATION = "view";
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
     private final UserService userService;
 
+    private final UserQueryService userQueryService;
+
     private final AuthorizationHandler authorizationHandler;
 
+    private final BatchAuthorizationHandler batchAuthorizationHandler;
+
     private final PagingMetadataMapper pagingMetadataMapper;
 
     private final UserPreferenceService userPreferenceService;
 
+    private final ObjectMapper objectMapper;
+
+    private final UserImportService userImportService;
+
+    private final UserProfileCache userProfileCache;
+
+    @Value("${users.export.chunk-size:500}")
+    private int exportChunkSize;
+
     @Override
     public ResponseEntity<UserDTO> addUser(UserCreationRequest body) {
         if (!authorizationHandler.isAllowed("create", UserEntity.class)) {
@@ -72,8 +121,7 @@ class UsersApiDelegateImpl implements UsersApiDelegate {
         } catch (RuntimeException e) {
             if (userService.isDuplicateExternalUserException(e)) {
                 throw new ConstraintViolationException(
-                        "A user already exists with this identityProvider and externalId",
-                        Collections.emptySet());
+                        UserService.DUPLICATE_IDENTITY_MESSAGE, Collections.emptySet());
             }
 
             throw e;
@@ -81,7 +129,7 @@ class UsersApiDelegateImpl implements UsersApiDelegate {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public ResponseEntity<UserPageDTO> getUserList(
             List<String> roleIds,
             String email,
@@ -94,15 +142,47 @@ class UsersApiDelegateImpl implements UsersApiDelegate {
             List<String> roleNames,
             String identityProvider,
             String userType,
-            Boolean includeDeleted) {
-        final Pageable pageable =
-                PageRequest.of(
-                        pageNumber,
-                        pageSize,
-                        (SortOrder.DESC.toString().equals(sortBy))
-                                ? Sort.by(sortBy).descending()
-                                : Sort.by(sortBy).ascending());
+            Boolean includeDeleted,
+            String pageToken,
+            String includeTotalCount) {
+        final UserSearchCriteria searchCriteria =
+                UserSearchCriteria.builder()
+                        .email(email)
+                        .externalId(externalId)
+                        .identityProvider(identityProvider)
+                        .userType(userType)
+                        .name(name)
+                        .includeDeleted(includeDeleted)
+                        .roleIds(roleIds)
+                        .roleNames(roleNames)
+                        .authorization(getViewableUsersSpecification().orElse(null))
+                        .build();
+
+        final UserPageDTO userPageDTO =
+                (pageToken != null)
+                        ? getUserPageAfter(
+                                searchCriteria, UserPageToken.decode(pageToken), pageSize)
+                        : getUserPage(
+                                searchCriteria,
+                                pageNumber,
+                                pageSize,
+                                sortOrder,
+                                sortBy,
+                                TotalCountMode.fromText(includeTotalCount));
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(userPageDTO);
+    }
 
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            List<String> roleIds,
+            String email,
+            String externalId,
+            String name,
+            List<String> roleNames,
+            String identityProvider,
+            String userType,
+            Boolean includeDeleted) {
         final UserSearchCriteria searchCriteria =
                 UserSearchCriteria.builder()
                         .email(email)
@@ -113,24 +193,157 @@ class UsersApiDelegateImpl implements UsersApiDelegate {
                         .includeDeleted(includeDeleted)
                         .roleIds(roleIds)
                         .roleNames(roleNames)
+                        .authorization(getViewableUsersSpecification().orElse(null))
                         .build();
 
-        final Page<UserEntity> userPage =
-                userService.getUsersBySearchCriteria(searchCriteria, pageable);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(outputStream -> writeExport(searchCriteria, outputStream));
+    }
 
-        final List<UserDTO> users =
-                userPage.stream()
-                        .filter(
-                                authorizationHandler.getAuthFilter(
-                                        VIEW_AUTHORIZATION, UserEntity.class))
-                        .map(this::mapUserEntity)
-                        .collect(Collectors.toList());
+    private void writeExport(UserSearchCriteria searchCriteria, OutputStream outputStream)
+            throws IOException {
+        final ObjectWriter writer =
+                objectMapper
+                        .writerFor(UserDTO.class)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        // Sync flush sends each chunk to the client as soon as it is written, so neither the
+        // compressor nor the response buffers more than one chunk.
+        try (GZIPOutputStream gzip =
+                        new GZIPOutputStream(outputStream, EXPORT_BUFFER_SIZE, true);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip)) {
+            generator.setRootValueSeparator(null);
+            userService.exportUsers(
+                    searchCriteria,
+                    exportChunkSize,
+                    users -> {
+                        try {
+                            for (UserDTO user : filterAndMapUsers(searchCriteria, users)) {
+                                writer.writeValue(generator, user);
+                                generator.writeRaw('\n');
+                            }
+                            generator.flush();
+                            gzip.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private UserPageDTO getUserPage(
+            UserSearchCriteria searchCriteria,
+            Integer pageNumber,
+            Integer pageSize,
+            String sortOrder,
+            String sortBy,
+            TotalCountMode totalCountMode) {
+        final SortOrder order = SortOrder.fromText(sortOrder);
+        final Pageable pageable =
+                PageRequest.of(
+                        pageNumber,
+                        pageSize,
+                        (order == SortOrder.DESC)
+                                ? Sort.by(sortBy).descending()
+                                : Sort.by(sortBy).ascending());
+
+        final Optional<Long> approximateTotalCount =
+                (totalCountMode == TotalCountMode.APPROXIMATE)
+                        ? userService.estimateUserCount(searchCriteria)
+                        : Optional.empty();
+
+        final Slice<UserView> userPage;
+        final PagingMetadata pagingMetadata;
+        if (totalCountMode == TotalCountMode.NONE || approximateTotalCount.isPresent()) {
+            final Slice<UserView> slice = userQueryService.getUsersSlice(searchCriteria, pageable);
+            userPage = slice;
+            pagingMetadata =
+                    approximateTotalCount
+                            .map(count -> pagingMetadataMapper.toPagingMetadata(slice, count))
+                            .orElseGet(() -> pagingMetadataMapper.toPagingMetadata(slice));
+        } else {
+            final Page<UserView> page = userQueryService.getUsers(searchCriteria, pageable);
+            userPage = page;
+            pagingMetadata = pagingMetadataMapper.toPagingMetadata(page);
+        }
 
         final UserPageDTO userPageDTO = new UserPageDTO();
-        userPageDTO.setUsers(users);
-        userPageDTO.setPagingMetadata(pagingMetadataMapper.toPagingMetadata(userPage));
+        userPageDTO.setUsers(filterViewableUsers(searchCriteria, userPage.getContent()));
+        userPageDTO.setPagingMetadata(pagingMetadata);
+
+        // Hand out a cursor as well so clients can switch to keyset paging after the first page.
+        if (userPage.hasNext()
+                && userPage.hasContent()
+                && UserPageToken.isSupportedSortField(sortBy)) {
+            final List<UserView> content = userPage.getContent();
+            userPageDTO
+                    .getPagingMetadata()
+                    .setNextPageToken(
+                            UserPageToken.after(content.get(content.size() - 1), sortBy, order)
+                                    .encode());
+        }
 
-        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(userPageDTO);
+        return userPageDTO;
+    }
+
+    private UserPageDTO getUserPageAfter(
+            UserSearchCriteria searchCriteria, UserPageToken pageToken, Integer pageSize) {
+        // Fetch one extra row to learn whether another page exists without counting.
+        final List<UserView> fetched =
+                userQueryService.getUsersAfter(searchCriteria, pageToken, pageSize + 1);
+        final boolean hasNext = fetched.size() > pageSize;
+        final List<UserView> content = hasNext ? fetched.subList(0, pageSize) : fetched;
+
+        final String nextPageToken =
+                hasNext
+                        ? UserPageToken.after(
+                                        content.get(content.size() - 1),
+                                        pageToken.getSortBy(),
+                                        pageToken.getSortOrder())
+                                .encode()
+                        : null;
+
+        final UserPageDTO userPageDTO = new UserPageDTO();
+        userPageDTO.setUsers(filterViewableUsers(searchCriteria, content));
+        userPageDTO.setPagingMetadata(
+                pagingMetadataMapper.toPagingMetadata(pageSize, nextPageToken));
+
+        return userPageDTO;
+    }
+
+    private Optional<QueryPlanSpecification<UserEntity>> getViewableUsersSpecification() {
+        return batchAuthorizationHandler.getAuthSpecification(
+                VIEW_AUTHORIZATION,
+                UserEntity.class,
+                UserAccessResourceTranslator.QUERYABLE_ATTRIBUTES);
+    }
+
+    private List<UserDTO> filterAndMapUsers(
+            UserSearchCriteria searchCriteria, List<UserEntity> users) {
+        // A search restricted by a query plan only returns users the caller may view.
+        final List<UserEntity> viewable =
+                searchCriteria.getAuthorization() != null
+                        ? users
+                        : batchAuthorizationHandler.filterAllowed(
+                                VIEW_AUTHORIZATION, UserEntity.class, users);
+
+        return viewable.stream().map(this::mapUserEntity).collect(Collectors.toList());
+    }
+
+    private List<UserDTO> filterViewableUsers(
+            UserSearchCriteria searchCriteria, List<UserView> users) {
+        // A search restricted by a query plan only returns users the caller may view.
+        final List<UserView> viewable =
+                searchCriteria.getAuthorization() != null
+                        ? users
+                        : batchAuthorizationHandler.filterAllowed(
+                                VIEW_AUTHORIZATION, UserView.class, users);
+
+        return viewable.stream().map(UserView::getUser).collect(Collectors.toList());
     }
 
     @Override
@@ -143,39 +356,142 @@ class UsersApiDelegateImpl implements UsersApiDelegate {
     }
 
     @Override
-    public ResponseEntity<UserDTO> getUserById(UUID id) {
+    public ResponseEntity<UserImportJob> importUsers(MultipartFile file, String format) {
+        if (!authorizationHandler.isAllowed("create", UserEntity.class)) {
+            throw new AccessDeniedException("You do not have permission to create this resource.");
+        }
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("The import file is empty.");
+        }
+
+        final UserImportFormat importFormat =
+                format != null
+                        ? UserImportFormat.fromText(format)
+                        : UserImportFormat.fromFileName(file.getOriginalFilename());
+        final UserImportJobEntity job;
+        try (InputStream content = file.getInputStream()) {
+            job = userImportService.startImport(content, importFormat);
+        } catch (IOException e) {
+            throw new InternalServerException("Unable to store the import file.", e);
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(UserImportJobMapper.INSTANCE.userImportJobEntityToModel(job));
+    }
+
+    @Override
+    public ResponseEntity<UserImportJob> getUserImport(UUID id) {
+        if (!authorizationHandler.isAllowed(VIEW_AUTHORIZATION, UserEntity.class)) {
+            throw new AccessDeniedException("You do not have permission to view this resource.");
+        }
+
+        return userImportService
+                .getJob(id)
+                .map(UserImportJobMapper.INSTANCE::userImportJobEntityToModel)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found."));
+    }
+
+    /**
+     * Returns a user, with the user's version as a strong ETag. When If-None-Match is given, the
+     * user row alone is read and authorized first, and a matching ETag is answered with 304 Not
+     * Modified without reading roles and preferences. Otherwise the user is served from the
+     * profile cache, which reads it as a {@link UserView}.
+     *
+     * @param id user id
+     * @param ifNoneMatch ETags of cached copies, if any
+     * @return the user, or 304 Not Modified
+     */
+    @Override
+    public ResponseEntity<UserDTO> getUserById(UUID id, String ifNoneMatch) {
+        UserEntity current = null;
+        if (ifNoneMatch != null) {
+            current = getViewableUser(userService.getUserById(id));
+            String etag = EntityTags.of(current.getVersion());
+            if (EntityTags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+
+        Optional<UserView> profile = userProfileCache.get(id, userQueryService::getUser);
+        if (current == null) {
+            profile =
+                    profile.filter(
+                            cached ->
+                                    authorizationHandler.isAllowedForInstance(
+                                            VIEW_AUTHORIZATION, cached));
+        } else if (isOlderThan(profile, current.getVersion())) {
+            // Changed on another instance since it was cached here; access was already checked
+            // against the current row.
+            userProfileCache.evict(id);
+            profile = userProfileCache.get(id, userQueryService::getUser);
+        }
+
+        UserView user =
+                profile.orElseThrow(
+                        () -> new ResourceNotFoundException(USER_NOT_FOUND_EXCEPTION_MESSAGE));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(EntityTags.of(user.getVersion()))
+                .body(user.getUser());
+    }
+
+    /**
+     * Gets the active user with an identity provider and external id. The provider arrives
+     * base64url encoded, so a provider URL never puts an encoded slash in the request path.
+     *
+     * @param provider base64url encoded identity provider
+     * @param externalId id of the user at the identity provider
+     * @return the user
+     */
+    @Override
+    public ResponseEntity<UserDTO> getUserByIdentity(String provider, String externalId) {
+        String identityProvider = decodeIdentityProvider(provider);
         UserEntity user =
-                userService
-                        .getUserByIdLoaded(id)
-                        .filter(
-                                userEntity ->
-                                        authorizationHandler.isAllowedForInstance(
-                                                VIEW_AUTHORIZATION, userEntity))
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                USER_NOT_FOUND_EXCEPTION_MESSAGE));
+                getViewableUser(userService.getUserByIdentity(identityProvider, externalId));
 
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(mapUserEntity(user));
     }
 
+    /**
+     * Updates a user. The user is read once, in the same transaction as the update, and written
+     * with an UPDATE conditioned on the version that was read. An If-Match header that does not
+     * list that version fails with 412 Precondition Failed; a concurrent change between the read
+     * and the UPDATE fails with 409 Conflict.
+     *
+     * @param id user id
+     * @param body changes to apply
+     * @param ifMatch ETag the user must still have, if any
+     * @return the updated user, with its new version as ETag
+     */
     @Override
-    public ResponseEntity<UserDTO> updateUserById(UUID id, UserUpdateRequest body) {
-        Optional<UserEntity> userEntityOptional = userService.getUserByIdLoaded(id);
+    @Transactional
+    public ResponseEntity<UserDTO> updateUserById(
+            UUID id, UserUpdateRequest body, String ifMatch) {
+        UserEntity userEntity =
+                userService
+                        .getUserByIdLoaded(id)
+                        .orElseThrow(
+                                () ->
+                                        new ResourceNotFoundException(
+                                                USER_NOT_FOUND_EXCEPTION_MESSAGE));
 
-        if (userEntityOptional.isEmpty()) {
-            throw new ResourceNotFoundException(USER_NOT_FOUND_EXCEPTION_MESSAGE);
-        }
-        if (!authorizationHandler.isAllowedForInstance("update", userEntityOptional.get())) {
+        if (!authorizationHandler.isAllowedForInstance("update", userEntity)) {
             throw new AccessDeniedException("You do not have permission to update this resource.");
         }
+        if (ifMatch != null
+                && !EntityTags.matchesIfMatch(ifMatch, EntityTags.of(userEntity.getVersion()))) {
+            throw new PreconditionFailedException("The user has changed since it was read.");
+        }
 
-        UserEntity user = userService.updateUserById(id, body);
+        UserEntity user = userService.updateUser(userEntity, body);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
+                .eTag(EntityTags.of(user.getVersion()))
                 .body(mapUserEntity(user));
     }
 
@@ -218,13 +534,27 @@ class UsersApiDelegateImpl implements UsersApiDelegate {
         return ResponseEntity.ok().build();
     }
 
+    private UserEntity getViewableUser(Optional<UserEntity> user) {
+        return user.filter(
+                        userEntity ->
+                                authorizationHandler.isAllowedForInstance(
+                                        VIEW_AUTHORIZATION, userEntity))
+                .orElseThrow(() -> new ResourceNotFoundException(USER_NOT_FOUND_EXCEPTION_MESSAGE));
+    }
+
+    private static boolean isOlderThan(Optional<UserView> profile, long version) {
+        return profile.map(cached -> cached.getVersion() < version).orElse(false);
+    }
+
     private UserDTO mapUserEntity(UserEntity user) {
-        UserDTO userDto = UserEntityMapper.INSTANCE.convertUserEntityToUserModel(user);
-        userDto.setAssignedRoles(MapperUtils.mapUserEntityToAssignedRoleList(user));
-        userDto.setPreferences(
-                UserPreferenceEntityMapper.INSTANCE.convertUserPreferenceEntityToUserModel(
-                        user.getUserPreference()));
+        return MapperUtils.mapUserEntityToUserDto(user);
+    }
 
-        return userDto;
+    private static String decodeIdentityProvider(String provider) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(provider), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("The provider must be base64url encoded.", e);
+        }
     }
 }
@@ -0,0 +1,67 @@
+package io.nuvalence.user.management.api.service.controller;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.generated.controllers.UsersbatchApiDelegate;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchCreationResponse;
+import io.nuvalence.user.management.api.service.generated.models.UserBatchCreationResult;
+import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
+import io.nuvalence.user.management.api.service.mapper.UserEntityMapper;
+import io.nuvalence.user.management.api.service.service.UserCreationResult;
+import io.nuvalence.user.management.api.service.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Controller for bulk user creation. The request size and every item are validated by the
+ * generated controller before this delegate is called.
+ */
+@Service
+@RequiredArgsConstructor
+class UsersBatchApiDelegateImpl implements UsersbatchApiDelegate {
+    private final UserService userService;
+
+    private final AuthorizationHandler authorizationHandler;
+
+    @Override
+    public ResponseEntity<UserBatchCreationResponse> addUsers(List<UserCreationRequest> body) {
+        if (!authorizationHandler.isAllowed("create", UserEntity.class)) {
+            throw new AccessDeniedException("You do not have permission to create this resource.");
+        }
+
+        final List<UserEntity> users =
+                body.stream()
+                        .map(UserEntityMapper.INSTANCE::convertUserCreationRequestToUserEntity)
+                        .collect(Collectors.toList());
+        // Conflicts, including users created concurrently by another request, come back per item.
+        final List<UserCreationResult> results = userService.createUsers(users);
+
+        final UserBatchCreationResponse response =
+                new UserBatchCreationResponse().results(new ArrayList<>(results.size()));
+        int created = 0;
+        for (int i = 0; i < results.size(); i++) {
+            final UserCreationResult result = results.get(i);
+            final UserBatchCreationResult item = new UserBatchCreationResult().index(i);
+            if (result.isCreated()) {
+                created++;
+                item.status(UserBatchCreationResult.StatusEnum.CREATED)
+                        .user(
+                                UserEntityMapper.INSTANCE.convertUserEntityToUserModel(
+                                        result.getUser()));
+            } else {
+                item.status(UserBatchCreationResult.StatusEnum.CONFLICT)
+                        .error(result.getConflict());
+            }
+            response.addResultsItem(item);
+        }
+
+        return ResponseEntity.ok(
+                response.createdCount(created).conflictCount(results.size() - created));
+    }
+}
@@ -0,0 +1,257 @@
+package io.nuvalence.user.management.api.service.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+/**
+ * Sends connections of read-only transactions to a read replica and everything else to the
+ * primary.
+ *
+ * <p>Replicas are used round robin while they pass the health check, which requires a valid
+ * connection and, on Postgres, a replay lag below {@code maxLag}. A replica that fails to hand out
+ * a connection is taken out of rotation until the next successful check, and the connection is
+ * taken from the primary instead. With no healthy replica all traffic goes to the primary.</p>
+ *
+ * <p>When an authenticated principal commits a read-write transaction, that principal's reads go
+ * to the primary for {@code readYourWritesWindow}, so a user never reads data older than their
+ * own last write.</p>
+ *
+ * <p>The routing decision is made when the connection is requested, so this data source must be
+ * wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that
+ * defers that request until the transaction's read-only flag is set.</p>
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final String REPLAY_LAG_QUERY =
+            "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()"
+                    + " THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())"
+                    + " END, 0)";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final Duration healthCheckTimeout;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Creates a routing data source.
+     *
+     * @param primary data source for writes, and for reads when no replica is healthy
+     * @param replicas replica data sources by name
+     * @param maxLag replay lag above which a Postgres replica is considered unhealthy
+     * @param healthCheckTimeout how long a health check waits for a replica
+     * @param readYourWritesWindow how long a principal's reads stay on the primary after a write
+     */
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            Map<String, DataSource> replicas,
+            Duration maxLag,
+            Duration healthCheckTimeout,
+            Duration readYourWritesWindow) {
+        this(
+                primary,
+                replicas,
+                maxLag,
+                healthCheckTimeout,
+                readYourWritesWindow,
+                Ticker.systemTicker());
+    }
+
+    ReplicaRoutingDataSource(
+            DataSource primary,
+            Map<String, DataSource> replicas,
+            Duration maxLag,
+            Duration healthCheckTimeout,
+            Duration readYourWritesWindow,
+            Ticker ticker) {
+        this.primary = primary;
+        this.replicas =
+                replicas.entrySet().stream()
+                        .map(entry -> new Replica(entry.getKey(), entry.getValue()))
+                        .collect(Collectors.toList());
+        this.maxLag = maxLag;
+        this.healthCheckTimeout = healthCheckTimeout;
+        this.recentWriters =
+                Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).ticker(ticker).build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final Replica replica = selectReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markHealthy(false, e.getMessage());
+            }
+        }
+
+        final Connection connection = primary.getConnection();
+        trackWrites();
+        return connection;
+    }
+
+    /**
+     * Gets a connection from the primary with the given credentials. Replicas only accept their
+     * own configured credentials, so these connections are never routed to a replica.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        final Connection connection = primary.getConnection(username, password);
+        trackWrites();
+        return connection;
+    }
+
+    /**
+     * Checks every replica and updates which ones receive reads.
+     */
+    @Scheduled(fixedDelayString = "${users.read-replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        replicas.forEach(
+                replica -> {
+                    try {
+                        check(replica.dataSource);
+                        replica.markHealthy(true, null);
+                    } catch (SQLException | IllegalStateException e) {
+                        replica.markHealthy(false, e.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * Returns the number of replicas currently receiving reads.
+     *
+     * @return healthy replica count
+     */
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+
+        final String principal = currentPrincipal();
+        if (principal != null && recentWriters.getIfPresent(principal) != null) {
+            return null;
+        }
+
+        final List<Replica> healthy =
+                replicas.stream().filter(replica -> replica.healthy).collect(Collectors.toList());
+        if (healthy.isEmpty()) {
+            return null;
+        }
+
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    private void trackWrites() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        final String principal = currentPrincipal();
+        if (principal == null) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(principal, Boolean.TRUE);
+                    }
+                });
+    }
+
+    private void check(DataSource dataSource) throws SQLException {
+        final int timeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(timeoutSeconds)) {
+                throw new IllegalStateException("connection is not valid");
+            }
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(timeoutSeconds);
+                try (ResultSet resultSet = statement.executeQuery(REPLAY_LAG_QUERY)) {
+                    resultSet.next();
+                    final Duration lag = Duration.ofMillis((long) (resultSet.getDouble(1) * 1000));
+                    if (lag.compareTo(maxLag) > 0) {
+                        throw new IllegalStateException("replay lag is " + lag);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String currentPrincipal() {
+        final Authentication authentication =
+                SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        return authentication.getName();
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markHealthy(boolean nowHealthy, String reason) {
+            if (healthy != nowHealthy) {
+                if (nowHealthy) {
+                    log.info("Read replica {} is healthy again, routing reads to it", name);
+                } else {
+                    log.warn("Read replica {} is unhealthy, reads fall back: {}", name, reason);
+                }
+            }
+            healthy = nowHealthy;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.nuvalence.user.management.api.service.entity;
+
+import io.nuvalence.user.management.api.service.enums.UserType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Represents a soft deleted user that has been moved out of {@code user_table} by the archival job.
+ * Rows are written and removed with plain SQL, so the entity is read only.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "user_table_archive")
+public class ArchivedUserEntity {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "external_id", nullable = false)
+    private String externalId;
+
+    @Column(name = "identity_provider", nullable = false)
+    private String identityProvider;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "middle_name")
+    private String middleName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Column(name = "full_name")
+    private String fullName;
+
+    @Column(name = "phone_number")
+    private String phoneNumber;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "user_type", nullable = false)
+    private UserType userType;
+
+    @Column(name = "deleted_on")
+    private OffsetDateTime deletedOn;
+
+    @Column(name = "preferred_language")
+    private String preferredLanguage;
+
+    @Column(name = "preferred_communication_method")
+    private String preferredCommunicationMethod;
+
+    @Column(name = "archived_at", nullable = false)
+    private OffsetDateTime archivedAt;
+
+    @JoinTable(
+            name = "user_role_archive",
+            joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
+            inverseJoinColumns = @JoinColumn(name = "role_id"))
+    @OneToMany
+    private List<RoleEntity> roles;
+
+    /**
+     * Rebuilds the user as it was before archival, so it can be returned wherever users are. The
+     * result is not managed and must not be saved.
+     *
+     * @return detached user with roles and preferences
+     */
+    public UserEntity toUserEntity() {
+        final UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setExternalId(externalId);
+        user.setIdentityProvider(identityProvider);
+        user.setFirstName(firstName);
+        user.setMiddleName(middleName);
+        user.setLastName(lastName);
+        user.setFullName(fullName);
+        user.setPhoneNumber(phoneNumber);
+        user.setEmail(email);
+        user.setCreatedAt(createdAt);
+        user.setUserType(userType);
+        user.setDeleted(true);
+        user.setDeletedOn(deletedOn);
+        user.setRoles(new ArrayList<>(roles));
+
+        if (preferredLanguage != null || preferredCommunicationMethod != null) {
+            final UserPreferenceEntity preference = new UserPreferenceEntity();
+            preference.setUserId(id);
+            preference.setUser(user);
+            preference.setPreferredLanguage(preferredLanguage);
+            preference.setPreferredCommunicationMethod(preferredCommunicationMethod);
+            user.setUserPreference(preference);
+        }
+
+        return user;
+    }
+}
@@ -0,0 +1,54 @@
+package io.nuvalence.user.management.api.service.entity;
+
+import io.nuvalence.auth.access.AccessResource;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Represents one change on the change feed. Rows are written in the transaction of the change
+ * they describe, and only read through this entity. A row joins the feed when the relay assigns
+ * its sequence number, after the transaction that wrote it has committed.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@AccessResource("change")
+@Table(name = "change_outbox")
+public class ChangeOutboxEntity {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private long id;
+
+    @Column(name = "sequence")
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, updatable = false)
+    private ChangeEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false, updatable = false)
+    private UUID entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, updatable = false)
+    private ChangeOperation operation;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private OffsetDateTime changedAt;
+}
@@ -8,12 +8,31 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 /**
  * User Translator Class.
  */
 @Component
 public class UserAccessResourceTranslator
         implements AccessResourceTranslator, ApplicationContextAware {
+    /**
+     * Attributes of a translated user that are also {@link UserEntity} and
+     * {@link UserSearchEntity} attributes of the same name, so policy conditions on them can be
+     * applied by user queries.
+     */
+    public static final Set<String> QUERYABLE_ATTRIBUTES =
+            Set.of(
+                    "id",
+                    "externalId",
+                    "identityProvider",
+                    "firstName",
+                    "middleName",
+                    "lastName",
+                    "email",
+                    "userType",
+                    "deleted");
+
     private static ApplicationContext applicationContext;
 
     @Override
@@ -36,6 +55,11 @@ public class UserAccessResourceTranslator
 
             return mapper.convertUserEntityToUserModel(user);
         }
+        if (resource instanceof UserView) {
+            final UserEntityMapper mapper = applicationContext.getBean(UserEntityMapper.class);
+
+            return mapper.copyUserAttributes(((UserView) resource).getUser());
+        }
 
         return resource;
     }
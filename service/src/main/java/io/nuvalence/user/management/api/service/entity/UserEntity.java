@@ -16,6 +16,7 @@ import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -24,11 +25,8 @@ import org.hibernate.annotations.Generated;
 import org.hibernate.annotations.GenerationTime;
 
 import java.time.OffsetDateTime;
-import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Represents a single User Entity.
@@ -71,6 +69,10 @@ public class UserEntity {
     @Column(name = "full_name")
     private String fullName;
 
+    @Generated(GenerationTime.ALWAYS)
+    @Column(name = "search_name")
+    private String searchName;
+
     @Column(name = "phone_number")
     private String phoneNumber;
 
@@ -89,6 +91,14 @@ public class UserEntity {
     @Column(name = "deleted_On")
     private OffsetDateTime deletedOn;
 
+    /**
+     * Optimistic lock version, served as the user's ETag. Role and preference changes, which do
+     * not touch this row, increment it with {@code UserRepository.incrementVersion}.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @JoinTable(
             name = "user_role",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
@@ -98,16 +108,4 @@ public class UserEntity {
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
     private UserPreferenceEntity userPreference;
-
-    /**
-     * Gets a list of permissions based on this user's roles.
-     *
-     * @return list of permissions that this user has
-     */
-    public Set<PermissionEntity> getPermissions() {
-        return this.roles.stream()
-                .map(RoleEntity::getPermissions)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
-    }
 }
@@ -0,0 +1,29 @@
+package io.nuvalence.user.management.api.service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A record of a user import that could not be loaded, or one of its role names that does not
+ * exist.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class UserImportError {
+
+    /**
+     * 1-based position of the record in the file, not counting the CSV header.
+     */
+    @Column(name = "record_number", nullable = false)
+    private long recordNumber;
+
+    @Column(name = "message", nullable = false)
+    private String message;
+}
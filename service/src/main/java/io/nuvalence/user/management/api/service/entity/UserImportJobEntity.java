@@ -0,0 +1,87 @@
+package io.nuvalence.user.management.api.service.entity;
+
+import io.nuvalence.user.management.api.service.enums.UserImportFormat;
+import io.nuvalence.user.management.api.service.enums.UserImportStatus;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Represents a bulk user import and its progress.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_import_job")
+public class UserImportJobEntity {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private UserImportStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, updatable = false)
+    private UserImportFormat format;
+
+    @Column(name = "processed_records", nullable = false)
+    private long processedRecords;
+
+    @Column(name = "imported_users", nullable = false)
+    private long importedUsers;
+
+    @Column(name = "skipped_users", nullable = false)
+    private long skippedUsers;
+
+    @Column(name = "imported_roles", nullable = false)
+    private long importedRoles;
+
+    @Column(name = "error_count", nullable = false)
+    private long errorCount;
+
+    @Column(name = "failure_message")
+    private String failureMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+
+    /**
+     * Last time the instance holding the job reported it alive, while it is queued or running.
+     */
+    @Column(name = "heartbeat_at")
+    private OffsetDateTime heartbeatAt;
+
+    /**
+     * The first errors of the job, in record order; {@link #errorCount} has the total.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "user_import_job_error", joinColumns = @JoinColumn(name = "job_id"))
+    private List<UserImportError> errors = new ArrayList<>();
+}
@@ -0,0 +1,77 @@
+package io.nuvalence.user.management.api.service.entity;
+
+import io.nuvalence.user.management.api.service.enums.UserType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Synchronize;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Searchable user columns of both active and archived users, read through the {@code user_search}
+ * view. Attribute names match {@link UserEntity} so the same search criteria and sort orders apply
+ * to either. {@code @Synchronize} lists the tables behind the views, so pending changes to users
+ * are flushed before a search reads them.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Immutable
+@Synchronize({"user_table", "user_table_archive", "user_role", "user_role_archive"})
+@Table(name = "user_search")
+public class UserSearchEntity {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "external_id")
+    private String externalId;
+
+    @Column(name = "identity_provider")
+    private String identityProvider;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "middle_name")
+    private String middleName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Column(name = "search_name")
+    private String searchName;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "user_type")
+    private UserType userType;
+
+    @Column(name = "deleted")
+    private boolean deleted;
+
+    @Column(name = "deleted_on")
+    private OffsetDateTime deletedOn;
+
+    @JoinTable(
+            name = "user_role_search",
+            joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
+            inverseJoinColumns = @JoinColumn(name = "role_id"))
+    @OneToMany
+    private List<RoleEntity> roles;
+}
@@ -0,0 +1,20 @@
+package io.nuvalence.user.management.api.service.entity;
+
+import io.nuvalence.auth.access.AccessResource;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A user as the read endpoints return it, loaded by projection rather than as a
+ * {@link UserEntity}. It carries the creation time and version, which the DTO does not, for page
+ * tokens and ETags, and is authorized as the same {@code user} resource with the same attributes.
+ */
+@Value
+@AccessResource(value = "user", translator = UserAccessResourceTranslator.class)
+public class UserView {
+    UserDTO user;
+    OffsetDateTime createdAt;
+    long version;
+}
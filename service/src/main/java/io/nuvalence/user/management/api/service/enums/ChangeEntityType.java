@@ -0,0 +1,24 @@
+package io.nuvalence.user.management.api.service.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Kinds of entities whose changes are published on the change feed.
+ */
+public enum ChangeEntityType {
+    USER("user"),
+    USER_PREFERENCE("user-preference"),
+    ROLE("role"),
+    PERMISSION("permission");
+
+    @JsonValue private final String value;
+
+    ChangeEntityType(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
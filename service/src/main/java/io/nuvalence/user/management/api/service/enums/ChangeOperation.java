@@ -0,0 +1,23 @@
+package io.nuvalence.user.management.api.service.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Kinds of changes published on the change feed.
+ */
+public enum ChangeOperation {
+    CREATED("created"),
+    UPDATED("updated"),
+    DELETED("deleted");
+
+    @JsonValue private final String value;
+
+    ChangeOperation(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+}
@@ -0,0 +1,39 @@
+package io.nuvalence.user.management.api.service.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * How the total number of matching results is computed for a paginated search.
+ */
+public enum TotalCountMode {
+    EXACT("true"),
+    NONE("false"),
+    APPROXIMATE("approximate");
+
+    @JsonValue private final String value;
+
+    TotalCountMode(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+
+    /**
+     * Converts between strings and TotalCountMode enum.
+     *
+     * @param text the text representation of the enum.
+     * @return an enum value.
+     */
+    public static TotalCountMode fromText(String text) {
+        for (TotalCountMode mode : TotalCountMode.values()) {
+            if (mode.toString().equalsIgnoreCase(text)) {
+                return mode;
+            }
+        }
+
+        return EXACT;
+    }
+}
@@ -0,0 +1,62 @@
+package io.nuvalence.user.management.api.service.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by user imports.
+ */
+public enum UserImportFormat {
+    CSV("csv"),
+    NDJSON("ndjson");
+
+    @JsonValue private final String value;
+
+    UserImportFormat(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+
+    /**
+     * Converts between strings and UserImportFormat enum.
+     *
+     * @param text the text representation of the enum.
+     * @return an enum value.
+     * @throws IllegalArgumentException if the text is not a supported format
+     */
+    public static UserImportFormat fromText(String text) {
+        for (UserImportFormat format : UserImportFormat.values()) {
+            if (format.toString().equalsIgnoreCase(text)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported import format: " + text);
+    }
+
+    /**
+     * Infers the format from a file name extension; {@code .jsonl} is read as NDJSON.
+     *
+     * @param fileName uploaded file name
+     * @return an enum value.
+     * @throws IllegalArgumentException if the extension is missing or not supported
+     */
+    public static UserImportFormat fromFileName(String fileName) {
+        final String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+
+        throw new IllegalArgumentException(
+                "Cannot infer the import format from the file name; pass format=csv or"
+                        + " format=ndjson");
+    }
+}
@@ -0,0 +1,22 @@
+package io.nuvalence.user.management.api.service.mapper;
+
+import io.nuvalence.user.management.api.service.entity.ChangeOutboxEntity;
+import io.nuvalence.user.management.api.service.generated.models.ChangeDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps change feed entries to the API model.
+ */
+@Mapper
+public interface ChangeEntityMapper {
+    ChangeEntityMapper INSTANCE = Mappers.getMapper(ChangeEntityMapper.class);
+
+    /**
+     * Maps a change feed entry to the API model.
+     *
+     * @param change change as stored in the outbox.
+     * @return change model.
+     */
+    ChangeDTO changeEntityToChangeDto(ChangeOutboxEntity change);
+}
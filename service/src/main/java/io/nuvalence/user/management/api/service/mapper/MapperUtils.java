@@ -6,6 +6,7 @@ import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.generated.models.AssignedRoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.PermissionDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collections;
@@ -72,4 +73,19 @@ public class MapperUtils {
     public static List<AssignedRoleDTO> mapUserEntityToAssignedRoleList(UserEntity user) {
         return mapRoleEntitiesToAssignedRoleList(user.getRoles());
     }
+
+    /**
+     * Maps a user, with its assigned roles and preferences, to a UserDTO.
+     * @param user a UserEntity with roles and preferences loaded
+     * @return a UserDTO
+     */
+    public static UserDTO mapUserEntityToUserDto(UserEntity user) {
+        UserDTO userDto = UserEntityMapper.INSTANCE.convertUserEntityToUserModel(user);
+        userDto.setAssignedRoles(mapUserEntityToAssignedRoleList(user));
+        userDto.setPreferences(
+                UserPreferenceEntityMapper.INSTANCE.convertUserPreferenceEntityToUserModel(
+                        user.getUserPreference()));
+
+        return userDto;
+    }
 }
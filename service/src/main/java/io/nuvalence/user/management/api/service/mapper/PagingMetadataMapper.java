@@ -6,6 +6,7 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MultiValueMapAdapter;
 import org.springframework.web.context.request.RequestContextHolder;
@@ -46,15 +47,53 @@ public class PagingMetadataMapper {
      * @return paging metadata
      */
     public <T> PagingMetadata toPagingMetadata(Page<T> page) {
-        var nextPageUri = buildNextPageUri(page.nextPageable());
+        return toPagingMetadata((Slice<T>) page).totalCount(page.getTotalElements());
+    }
+
+    /**
+     * Converts a slice from the repository to api paging metadata, without a total count.
+     * @param slice slice object
+     * @param <T> slice item type
+     * @return paging metadata
+     */
+    public <T> PagingMetadata toPagingMetadata(Slice<T> slice) {
+        var nextPageUri = buildNextPageUri(slice.nextPageable());
         var nextPage = nextPageUri == null ? null : nextPageUri.toString();
         return new PagingMetadata()
-                .pageNumber(page.getNumber())
-                .pageSize(page.getSize())
-                .totalCount(page.getTotalElements())
+                .pageNumber(slice.getNumber())
+                .pageSize(slice.getSize())
+                .hasNext(slice.hasNext())
                 .nextPage(nextPage);
     }
 
+    /**
+     * Converts a slice from the repository to api paging metadata, reporting an estimated total.
+     * @param slice slice object
+     * @param approximateTotalCount estimated number of matching items
+     * @param <T> slice item type
+     * @return paging metadata
+     */
+    public <T> PagingMetadata toPagingMetadata(Slice<T> slice, long approximateTotalCount) {
+        return toPagingMetadata(slice)
+                .totalCount(approximateTotalCount)
+                .totalCountApproximate(true);
+    }
+
+    /**
+     * Converts a keyset page to api paging metadata. No total count or next page URI is produced;
+     * callers continue with the returned token.
+     *
+     * @param pageSize requested page size
+     * @param nextPageToken token for the next page, or null if this is the last page
+     * @return paging metadata
+     */
+    public PagingMetadata toPagingMetadata(int pageSize, String nextPageToken) {
+        return new PagingMetadata()
+                .pageSize(pageSize)
+                .hasNext(nextPageToken != null)
+                .nextPageToken(nextPageToken);
+    }
+
     /**
      * Builds the next page uri.
      *
@@ -29,6 +29,17 @@ public interface UserEntityMapper extends LazyLoadingAwareMapper {
     @Mapping(target = "displayName", expression = "java(createDisplayname(userEntity))")
     UserDTO convertUserEntityToUserModel(UserEntity userEntity);
 
+    /**
+     * Copies the attributes of a {@link UserDTO} without its roles and preferences, as
+     * {@link #convertUserEntityToUserModel} maps them from a {@link UserEntity}.
+     *
+     * @param user user model
+     * @return copy of the user's own attributes
+     */
+    @Mapping(target = "preferences", ignore = true)
+    @Mapping(target = "assignedRoles", ignore = true)
+    UserDTO copyUserAttributes(UserDTO user);
+
     /**
      * Maps {@link UserDTO} to
      * {@link UserEntity}.
@@ -40,7 +51,6 @@ public interface UserEntityMapper extends LazyLoadingAwareMapper {
     @Mapping(target = "roles", ignore = true)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "userPreference", ignore = true)
-    @Mapping(target = "permissions", ignore = true)
     UserEntity convertUserModelToUserEntity(UserDTO user);
 
     /**
@@ -54,7 +64,6 @@ public interface UserEntityMapper extends LazyLoadingAwareMapper {
     @Mapping(target = "roles", ignore = true)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "userPreference", ignore = true)
-    @Mapping(target = "permissions", ignore = true)
     UserEntity convertUserCreationRequestToUserEntity(UserCreationRequest user);
 
     /**
@@ -87,9 +96,20 @@ public interface UserEntityMapper extends LazyLoadingAwareMapper {
      * @return string value for the display name
      */
     default String createDisplayname(UserEntity user) {
-        return Objects.toString(user.getFirstName(), "")
+        return createDisplayname(user.getFirstName(), user.getLastName());
+    }
+
+    /**
+     * create display name from a user's first and last name.
+     *
+     * @param firstName first name, may be null
+     * @param lastName last name, may be null
+     * @return string value for the display name
+     */
+    default String createDisplayname(String firstName, String lastName) {
+        return Objects.toString(firstName, "")
                 .concat(" ")
-                .concat(Objects.toString(user.getLastName(), ""))
+                .concat(Objects.toString(lastName, ""))
                 .trim();
     }
 }
@@ -0,0 +1,34 @@
+package io.nuvalence.user.management.api.service.mapper;
+
+import io.nuvalence.user.management.api.service.entity.UserImportError;
+import io.nuvalence.user.management.api.service.entity.UserImportJobEntity;
+import io.nuvalence.user.management.api.service.generated.models.UserImportJob;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps user import job entities to the API model.
+ */
+@Mapper
+public interface UserImportJobMapper {
+    UserImportJobMapper INSTANCE = Mappers.getMapper(UserImportJobMapper.class);
+
+    /**
+     * Maps a user import job entity to the API model.
+     *
+     * @param job job as an entity.
+     * @return job model.
+     */
+    UserImportJob userImportJobEntityToModel(UserImportJobEntity job);
+
+    /**
+     * Maps an import error to the API model.
+     *
+     * @param error error as stored with the job.
+     * @return error model.
+     */
+    @Mapping(source = "recordNumber", target = "record")
+    io.nuvalence.user.management.api.service.generated.models.UserImportError
+            userImportErrorToModel(UserImportError error);
+}
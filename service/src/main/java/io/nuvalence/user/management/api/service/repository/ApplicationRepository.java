@@ -2,6 +2,7 @@ package io.nuvalence.user.management.api.service.repository;
 
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,4 +17,25 @@ import java.util.UUID;
 public interface ApplicationRepository extends JpaRepository<ApplicationEntity, UUID> {
     @Query(value = "SELECT * FROM application WHERE name = :name", nativeQuery = true)
     Optional<ApplicationEntity> getApplicationByName(@Param("name") String name);
+
+    /**
+     * Returns the hash of the roles last registered for an application.
+     *
+     * @param name application name
+     * @return roles hash, if the application exists and its roles were registered since they
+     *     were last edited directly
+     */
+    @Query(value = "SELECT roles_hash FROM application WHERE name = :name", nativeQuery = true)
+    Optional<String> findRolesHashByName(@Param("name") String name);
+
+    /**
+     * Forgets the hash of the registered roles of an application whose permissions were edited
+     * directly, so that the next registration is applied.
+     *
+     * @param id application id
+     * @return number of applications updated
+     */
+    @Modifying
+    @Query(value = "UPDATE application SET roles_hash = NULL WHERE id = :id", nativeQuery = true)
+    int clearRolesHash(@Param("id") UUID id);
 }
@@ -0,0 +1,24 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Permissions inserted and updated by a registration of application roles.
+ */
+@Value
+public class ApplicationRoleChanges {
+    List<UUID> createdPermissions;
+    List<UUID> updatedPermissions;
+
+    /**
+     * Returns true if the registration changed nothing.
+     *
+     * @return whether no permission was inserted or updated
+     */
+    public boolean isEmpty() {
+        return createdPermissions.isEmpty() && updatedPermissions.isEmpty();
+    }
+}
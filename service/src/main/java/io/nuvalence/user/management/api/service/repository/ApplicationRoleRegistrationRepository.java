@@ -0,0 +1,216 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.generated.models.PermissionDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Applies a registration of application roles to {@code application}, {@code permission} and
+ * {@code application_permission} as a diff: only permissions that are new, changed, reactivated
+ * or no longer registered are written, each kind with one batched statement.
+ *
+ * <p>On PostgreSQL the registration holds a transaction-scoped advisory lock on the application
+ * name, so replicas registering the same application at startup apply it one after the other, and
+ * all but the first find the roles hash already stored and write nothing. Other databases (H2 in
+ * tests) are not locked.</p>
+ */
+@Repository
+public class ApplicationRoleRegistrationRepository {
+    /** First key of the advisory locks taken here; the second is a hash of the name. */
+    private static final int LOCK_NAMESPACE = 0x61707072;
+
+    private static final String LOCK = "SELECT pg_advisory_xact_lock(?, hashtext(?))";
+    private static final String SELECT_APPLICATION =
+            "SELECT id, roles_hash FROM application WHERE name = ?";
+    private static final String INSERT_APPLICATION =
+            "INSERT INTO application (id, name, display_name) VALUES (?, ?, ?)";
+    private static final String SELECT_PERMISSIONS =
+            "SELECT id, application_role, name, description, permission_group, active"
+                    + " FROM permission WHERE application_id = ?";
+    private static final String INSERT_PERMISSION =
+            "INSERT INTO permission (id, application_id, application_role, name, description,"
+                    + " permission_group, active) VALUES (?, ?, ?, ?, ?, ?, true)";
+    private static final String INSERT_APPLICATION_PERMISSION =
+            "INSERT INTO application_permission (application_id, permission_id) VALUES (?, ?)";
+    private static final String UPDATE_PERMISSION =
+            "UPDATE permission SET name = ?, description = ?, permission_group = ?, active = true"
+                    + " WHERE id = ?";
+    private static final String DEACTIVATE_PERMISSION =
+            "UPDATE permission SET active = false WHERE id = ?";
+    private static final String UPDATE_ROLES_HASH =
+            "UPDATE application SET roles_hash = ? WHERE id = ?";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    /**
+     * Registers the roles of an application, creating the application if needed. Registered
+     * permissions are inserted or updated and activated; the application's other permissions are
+     * deactivated.
+     *
+     * @param name application name
+     * @param roles roles to register, at most one per application role
+     * @param rolesHash hash of the roles, stored with the application
+     * @return permissions inserted and updated; empty if the stored hash already matched
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ApplicationRoleChanges register(
+            String name, Collection<PermissionDTO> roles, String rolesHash) {
+        return entityManager
+                .unwrap(Session.class)
+                .doReturningWork(connection -> register(connection, name, roles, rolesHash));
+    }
+
+    private static ApplicationRoleChanges register(
+            Connection connection, String name, Collection<PermissionDTO> roles, String rolesHash)
+            throws SQLException {
+        if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            try (PreparedStatement statement = connection.prepareStatement(LOCK)) {
+                statement.setInt(1, LOCK_NAMESPACE);
+                statement.setString(2, name);
+                statement.execute();
+            }
+        }
+
+        UUID applicationId = null;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_APPLICATION)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    if (rolesHash.equals(resultSet.getString(2))) {
+                        // Registered by another caller while this one waited for the lock.
+                        return new ApplicationRoleChanges(List.of(), List.of());
+                    }
+                    applicationId = resultSet.getObject(1, UUID.class);
+                }
+            }
+        }
+
+        if (applicationId == null) {
+            applicationId = UUID.randomUUID();
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_APPLICATION)) {
+                statement.setObject(1, applicationId);
+                statement.setString(2, name);
+                statement.setString(3, name);
+                statement.executeUpdate();
+            }
+        }
+
+        final Map<String, StoredPermission> stored = findPermissions(connection, applicationId);
+        final List<UUID> created = new ArrayList<>();
+        final List<UUID> updated = new ArrayList<>();
+        try (PreparedStatement inserts = connection.prepareStatement(INSERT_PERMISSION);
+                PreparedStatement links =
+                        connection.prepareStatement(INSERT_APPLICATION_PERMISSION);
+                PreparedStatement updates = connection.prepareStatement(UPDATE_PERMISSION);
+                PreparedStatement deactivations =
+                        connection.prepareStatement(DEACTIVATE_PERMISSION)) {
+            for (PermissionDTO role : roles) {
+                final StoredPermission permission = stored.remove(role.getApplicationRole());
+                if (permission == null) {
+                    final UUID id = UUID.randomUUID();
+                    inserts.setObject(1, id);
+                    inserts.setObject(2, applicationId);
+                    inserts.setString(3, role.getApplicationRole());
+                    inserts.setString(4, role.getName());
+                    inserts.setString(5, role.getDescription());
+                    inserts.setString(6, role.getGroup());
+                    inserts.addBatch();
+                    links.setObject(1, applicationId);
+                    links.setObject(2, id);
+                    links.addBatch();
+                    created.add(id);
+                } else if (!permission.matches(role)) {
+                    updates.setString(1, role.getName());
+                    updates.setString(2, role.getDescription());
+                    updates.setString(3, role.getGroup());
+                    updates.setObject(4, permission.id);
+                    updates.addBatch();
+                    updated.add(permission.id);
+                }
+            }
+            // Whatever is left was not registered this time.
+            for (StoredPermission permission : stored.values()) {
+                if (permission.active) {
+                    deactivations.setObject(1, permission.id);
+                    deactivations.addBatch();
+                    updated.add(permission.id);
+                }
+            }
+
+            inserts.executeBatch();
+            links.executeBatch();
+            updates.executeBatch();
+            deactivations.executeBatch();
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_ROLES_HASH)) {
+            statement.setString(1, rolesHash);
+            statement.setObject(2, applicationId);
+            statement.executeUpdate();
+        }
+
+        return new ApplicationRoleChanges(created, updated);
+    }
+
+    private static Map<String, StoredPermission> findPermissions(
+            Connection connection, UUID applicationId) throws SQLException {
+        final Map<String, StoredPermission> permissions = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_PERMISSIONS)) {
+            statement.setObject(1, applicationId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    permissions.put(
+                            resultSet.getString(2),
+                            new StoredPermission(
+                                    resultSet.getObject(1, UUID.class),
+                                    resultSet.getString(3),
+                                    resultSet.getString(4),
+                                    resultSet.getString(5),
+                                    resultSet.getBoolean(6)));
+                }
+            }
+        }
+
+        return permissions;
+    }
+
+    private static final class StoredPermission {
+        private final UUID id;
+        private final String name;
+        private final String description;
+        private final String group;
+        private final boolean active;
+
+        private StoredPermission(
+                UUID id, String name, String description, String group, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.group = group;
+            this.active = active;
+        }
+
+        private boolean matches(PermissionDTO role) {
+            return active
+                    && Objects.equals(name, role.getName())
+                    && Objects.equals(description, role.getDescription())
+                    && Objects.equals(group, role.getGroup());
+        }
+    }
+}
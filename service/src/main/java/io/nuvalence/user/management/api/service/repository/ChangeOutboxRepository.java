@@ -0,0 +1,75 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.ChangeOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Repository for the change feed outbox. Rows are appended through
+ * {@link ChangeOutboxRepositoryCustom#appendAll(List)} and join the feed when
+ * {@link ChangeOutboxRepositoryCustom#sequencePending(int)} numbers them.
+ */
+@Repository
+public interface ChangeOutboxRepository
+        extends JpaRepository<ChangeOutboxEntity, Long>, ChangeOutboxRepositoryCustom {
+
+    /**
+     * Returns the changes following a sequence number, in sequence order. Changes not yet numbered
+     * are left out.
+     *
+     * @param sequence sequence number to read after
+     * @param pageable maximum number of changes to return
+     * @return changes
+     */
+    List<ChangeOutboxEntity> findBySequenceGreaterThanOrderBySequence(
+            long sequence, Pageable pageable);
+
+    /**
+     * Deletes up to {@code limit} changes made before the cutoff that a later change of the same
+     * entity supersedes, oldest first.
+     *
+     * @param before changes made before this time are compacted
+     * @param limit maximum number of changes to delete
+     * @return number of changes deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(
+            value =
+                    "DELETE FROM change_outbox WHERE sequence IN (SELECT c.sequence"
+                            + " FROM change_outbox c WHERE c.changed_at < :before"
+                            + " AND c.sequence IS NOT NULL"
+                            + " AND EXISTS (SELECT 1 FROM change_outbox n"
+                            + " WHERE n.entity_type = c.entity_type"
+                            + " AND n.entity_id = c.entity_id AND n.sequence > c.sequence)"
+                            + " ORDER BY c.sequence LIMIT :limit)",
+            nativeQuery = true)
+    int deleteSupersededChunk(
+            @Param("before") OffsetDateTime before, @Param("limit") int limit);
+
+    /**
+     * Deletes up to {@code limit} deletions made before the cutoff, oldest first.
+     *
+     * @param before deletions made before this time are removed
+     * @param limit maximum number of changes to delete
+     * @return number of changes deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(
+            value =
+                    "DELETE FROM change_outbox WHERE sequence IN (SELECT sequence"
+                            + " FROM change_outbox WHERE operation = 'DELETED'"
+                            + " AND changed_at < :before AND sequence IS NOT NULL"
+                            + " ORDER BY sequence LIMIT :limit)",
+            nativeQuery = true)
+    int deleteDeletionsChunk(@Param("before") OffsetDateTime before, @Param("limit") int limit);
+}
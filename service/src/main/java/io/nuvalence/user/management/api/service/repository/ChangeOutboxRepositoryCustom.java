@@ -0,0 +1,38 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.ChangeOutboxEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Change outbox writes that cannot be expressed through annotated repository methods.
+ */
+public interface ChangeOutboxRepositoryCustom {
+
+    /**
+     * Appends changes to the outbox with batched inserts, without sequence numbers. They join the
+     * feed once {@link #sequencePending(int)} runs after the transaction commits.
+     *
+     * @param changes changes to append; their ids and sequence numbers are ignored
+     */
+    void appendAll(List<ChangeOutboxEntity> changes);
+
+    /**
+     * Assigns the next sequence numbers to up to {@code limit} committed changes that have none,
+     * in append order, in its own transaction. Concurrent calls run one after the other.
+     *
+     * @param limit maximum number of changes to number
+     * @return number of changes numbered
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    int sequencePending(int limit);
+
+    /**
+     * Returns the highest sequence number assigned so far, including to changes since compacted.
+     *
+     * @return last sequence number, 0 if none was assigned
+     */
+    long findLastSequence();
+}
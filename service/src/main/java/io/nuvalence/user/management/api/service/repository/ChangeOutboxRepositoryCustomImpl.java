@@ -0,0 +1,173 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.ChangeOutboxEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC backed implementation of {@link ChangeOutboxRepositoryCustom}.
+ *
+ * <p>Writers insert changes with no sequence number and take no lock, so they never wait on each
+ * other. {@link #sequencePending(int)}, the relay, numbers the changes it can see, which are only
+ * committed ones, under the single {@code change_outbox_lock} row. Relays therefore run one after
+ * the other and each numbers after the last, and a reader that sees a sequence number knows no
+ * lower one can appear later, however long the transaction that wrote a change ran.</p>
+ */
+public class ChangeOutboxRepositoryCustomImpl implements ChangeOutboxRepositoryCustom {
+    private static final int DEFAULT_INSERT_BATCH_SIZE = 100;
+    private static final String INSERT_CHANGE =
+            "INSERT INTO change_outbox (entity_type, entity_id, operation, changed_at)"
+                    + " VALUES (?, ?, ?, ?)";
+    private static final String SELECT_ANY_PENDING =
+            "SELECT id FROM change_outbox WHERE sequence IS NULL LIMIT 1";
+    private static final String LOCK_RELAY =
+            "SELECT id FROM change_outbox_lock WHERE id = 1 FOR UPDATE";
+    private static final String SELECT_PENDING =
+            "SELECT id FROM change_outbox WHERE sequence IS NULL ORDER BY id LIMIT ?";
+    private static final String ASSIGN_SEQUENCE =
+            "UPDATE change_outbox SET sequence = ? WHERE id = ?";
+    private static final String SAVE_LAST_SEQUENCE =
+            "UPDATE change_outbox_lock SET last_sequence = ? WHERE id = 1";
+    private static final String SELECT_LAST_SEQUENCE =
+            "SELECT last_sequence FROM change_outbox_lock WHERE id = 1";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Override
+    public void appendAll(List<ChangeOutboxEntity> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        final Session session = entityManager.unwrap(Session.class);
+        final int batchSize = insertBatchSize(session);
+        session.doWork(
+                connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(INSERT_CHANGE)) {
+                        int pending = 0;
+                        for (ChangeOutboxEntity change : changes) {
+                            statement.setString(1, change.getEntityType().name());
+                            statement.setObject(2, change.getEntityId());
+                            statement.setString(3, change.getOperation().name());
+                            statement.setTimestamp(
+                                    4, Timestamp.from(change.getChangedAt().toInstant()));
+                            statement.addBatch();
+                            if (++pending == batchSize) {
+                                statement.executeBatch();
+                                pending = 0;
+                            }
+                        }
+                        if (pending > 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public int sequencePending(int limit) {
+        final Session session = entityManager.unwrap(Session.class);
+        final int batchSize = insertBatchSize(session);
+        return session.doReturningWork(connection -> sequencePending(connection, limit, batchSize));
+    }
+
+    @Override
+    public long findLastSequence() {
+        return entityManager
+                .unwrap(Session.class)
+                .doReturningWork(
+                        connection -> {
+                            try (PreparedStatement statement =
+                                            connection.prepareStatement(SELECT_LAST_SEQUENCE);
+                                    ResultSet resultSet = statement.executeQuery()) {
+                                return lockRowValue(resultSet);
+                            }
+                        });
+    }
+
+    private static int sequencePending(Connection connection, int limit, int batchSize)
+            throws SQLException {
+        // Checked without the lock, so that idle relays on every instance do not queue on it.
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ANY_PENDING);
+                ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                return 0;
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(LOCK_RELAY);
+                ResultSet resultSet = statement.executeQuery()) {
+            lockRowValue(resultSet);
+        }
+
+        // Read after the lock is held, so it includes the numbers of the relay that held it last.
+        long sequence;
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_LAST_SEQUENCE);
+                ResultSet resultSet = statement.executeQuery()) {
+            sequence = lockRowValue(resultSet);
+        }
+
+        final List<Long> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_PENDING)) {
+            statement.setInt(1, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(ASSIGN_SEQUENCE)) {
+            int pending = 0;
+            for (long id : ids) {
+                statement.setLong(1, ++sequence);
+                statement.setLong(2, id);
+                statement.addBatch();
+                if (++pending == batchSize) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(SAVE_LAST_SEQUENCE)) {
+            statement.setLong(1, sequence);
+            statement.executeUpdate();
+        }
+
+        return ids.size();
+    }
+
+    private static long lockRowValue(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) {
+            throw new IllegalStateException("change_outbox_lock has no row");
+        }
+
+        return resultSet.getLong(1);
+    }
+
+    private static int insertBatchSize(Session session) {
+        final int configuredBatchSize =
+                session.getSessionFactory()
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getSessionFactoryOptions()
+                        .getJdbcBatchSize();
+        return configuredBatchSize > 1 ? configuredBatchSize : DEFAULT_INSERT_BATCH_SIZE;
+    }
+}
@@ -0,0 +1,15 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import lombok.Value;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Desired state of a role in a role sync.
+ */
+@Value
+public class RoleDefinition {
+    String description;
+    Set<UUID> permissionIds;
+}
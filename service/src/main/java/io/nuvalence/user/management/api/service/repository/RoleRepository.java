@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,4 +17,9 @@ public interface RoleRepository extends JpaRepository<RoleEntity, UUID> {
 
     @Query("select r from RoleEntity r where r.name = ?1")
     Optional<RoleEntity> findByName(String name);
+
+    @Query(
+            "select r from RoleEntity r left join fetch r.permissions p"
+                    + " left join fetch p.application")
+    List<RoleEntity> findAllWithPermissions();
 }
@@ -0,0 +1,34 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import lombok.Value;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Changes that make the stored roles match a role sync, as computed by
+ * {@link RoleSyncRepository#plan}. Role ids are keyed by role name, in name order.
+ */
+@Value
+public class RoleSyncPlan {
+    Map<String, UUID> createdRoles;
+    Map<String, UUID> updatedRoles;
+    Map<String, UUID> deletedRoles;
+    int unchangedCount;
+
+    /** Descriptions of the created roles and of the updated roles whose description changed. */
+    Map<UUID, String> descriptions;
+
+    Map<UUID, Set<UUID>> addedPermissions;
+    Map<UUID, Set<UUID>> removedPermissions;
+
+    /**
+     * Returns true if the stored roles already match.
+     *
+     * @return whether no role is created, updated or deleted
+     */
+    public boolean isEmpty() {
+        return createdRoles.isEmpty() && updatedRoles.isEmpty() && deletedRoles.isEmpty();
+    }
+}
@@ -0,0 +1,217 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Makes {@code role} and {@code role_permission} match a declared set of roles. The stored roles
+ * and their permission links are read with two queries and diffed by name; the diff is then
+ * written with one batched statement per kind of change.
+ *
+ * <p>On PostgreSQL planning takes a transaction-scoped advisory lock, so concurrent syncs are
+ * applied one after the other and each diffs against the roles the previous one left. Other
+ * databases (H2 in tests) are not locked.</p>
+ */
+@Repository
+public class RoleSyncRepository {
+    /** Key of the advisory lock taken by a sync. */
+    private static final long LOCK_KEY = 0x726f6c6573796e63L;
+
+    private static final String LOCK = "SELECT pg_advisory_xact_lock(?)";
+    private static final String SELECT_ROLES = "SELECT id, name, description FROM role";
+    private static final String SELECT_ROLE_PERMISSIONS =
+            "SELECT role_id, permission_id FROM role_permission";
+    private static final String DELETE_USER_ROLES = "DELETE FROM user_role WHERE role_id = ?";
+    private static final String DELETE_ROLE_PERMISSIONS =
+            "DELETE FROM role_permission WHERE role_id = ?";
+    private static final String DELETE_ROLE = "DELETE FROM role WHERE id = ?";
+    private static final String INSERT_ROLE =
+            "INSERT INTO role (id, name, description) VALUES (?, ?, ?)";
+    private static final String UPDATE_DESCRIPTION = "UPDATE role SET description = ? WHERE id = ?";
+    private static final String INSERT_ROLE_PERMISSION =
+            "INSERT INTO role_permission (role_id, permission_id) VALUES (?, ?)";
+    private static final String DELETE_ROLE_PERMISSION =
+            "DELETE FROM role_permission WHERE role_id = ? AND permission_id = ?";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    /**
+     * Diffs the declared roles against the stored ones. Roles that are not declared are deleted.
+     *
+     * @param roles declared roles by uppercase name
+     * @return changes to apply
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public RoleSyncPlan plan(Map<String, RoleDefinition> roles) {
+        return entityManager
+                .unwrap(Session.class)
+                .doReturningWork(connection -> plan(connection, roles));
+    }
+
+    /**
+     * Applies a plan computed in the same transaction. Deleted roles lose their user assignments.
+     *
+     * @param plan changes to apply
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(RoleSyncPlan plan) {
+        entityManager.unwrap(Session.class).doWork(connection -> apply(connection, plan));
+    }
+
+    private static RoleSyncPlan plan(Connection connection, Map<String, RoleDefinition> roles)
+            throws SQLException {
+        if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            try (PreparedStatement statement = connection.prepareStatement(LOCK)) {
+                statement.setLong(1, LOCK_KEY);
+                statement.execute();
+            }
+        }
+
+        final Map<String, UUID> storedIds = new HashMap<>();
+        final Map<UUID, String> storedDescriptions = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ROLES);
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                final UUID id = resultSet.getObject(1, UUID.class);
+                storedIds.put(resultSet.getString(2), id);
+                storedDescriptions.put(id, resultSet.getString(3));
+            }
+        }
+        final Map<UUID, Set<UUID>> storedPermissions = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ROLE_PERMISSIONS);
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                storedPermissions
+                        .computeIfAbsent(resultSet.getObject(1, UUID.class), id -> new HashSet<>())
+                        .add(resultSet.getObject(2, UUID.class));
+            }
+        }
+
+        final Map<String, UUID> created = new TreeMap<>();
+        final Map<String, UUID> updated = new TreeMap<>();
+        final Map<UUID, String> descriptions = new HashMap<>();
+        final Map<UUID, Set<UUID>> added = new HashMap<>();
+        final Map<UUID, Set<UUID>> removed = new HashMap<>();
+        int unchanged = 0;
+        for (Map.Entry<String, RoleDefinition> entry : roles.entrySet()) {
+            final RoleDefinition role = entry.getValue();
+            final UUID id = storedIds.remove(entry.getKey());
+            if (id == null) {
+                final UUID newId = UUID.randomUUID();
+                created.put(entry.getKey(), newId);
+                descriptions.put(newId, role.getDescription());
+                if (!role.getPermissionIds().isEmpty()) {
+                    added.put(newId, role.getPermissionIds());
+                }
+                continue;
+            }
+
+            final Set<UUID> current = storedPermissions.getOrDefault(id, Set.of());
+            final Set<UUID> toAdd = new HashSet<>(role.getPermissionIds());
+            toAdd.removeAll(current);
+            final Set<UUID> toRemove = new HashSet<>(current);
+            toRemove.removeAll(role.getPermissionIds());
+            final boolean describedAlike =
+                    Objects.equals(storedDescriptions.get(id), role.getDescription());
+            if (describedAlike && toAdd.isEmpty() && toRemove.isEmpty()) {
+                unchanged++;
+                continue;
+            }
+
+            updated.put(entry.getKey(), id);
+            if (!describedAlike) {
+                descriptions.put(id, role.getDescription());
+            }
+            if (!toAdd.isEmpty()) {
+                added.put(id, toAdd);
+            }
+            if (!toRemove.isEmpty()) {
+                removed.put(id, toRemove);
+            }
+        }
+
+        // Whatever is left was not declared.
+        return new RoleSyncPlan(
+                created,
+                updated,
+                new TreeMap<>(storedIds),
+                unchanged,
+                descriptions,
+                added,
+                removed);
+    }
+
+    private static void apply(Connection connection, RoleSyncPlan plan) throws SQLException {
+        try (PreparedStatement userRoles = connection.prepareStatement(DELETE_USER_ROLES);
+                PreparedStatement rolePermissions =
+                        connection.prepareStatement(DELETE_ROLE_PERMISSIONS);
+                PreparedStatement deletions = connection.prepareStatement(DELETE_ROLE)) {
+            for (UUID id : plan.getDeletedRoles().values()) {
+                userRoles.setObject(1, id);
+                userRoles.addBatch();
+                rolePermissions.setObject(1, id);
+                rolePermissions.addBatch();
+                deletions.setObject(1, id);
+                deletions.addBatch();
+            }
+            userRoles.executeBatch();
+            rolePermissions.executeBatch();
+            deletions.executeBatch();
+        }
+
+        try (PreparedStatement inserts = connection.prepareStatement(INSERT_ROLE);
+                PreparedStatement updates = connection.prepareStatement(UPDATE_DESCRIPTION)) {
+            for (Map.Entry<String, UUID> role : plan.getCreatedRoles().entrySet()) {
+                inserts.setObject(1, role.getValue());
+                inserts.setString(2, role.getKey());
+                inserts.setString(3, plan.getDescriptions().get(role.getValue()));
+                inserts.addBatch();
+            }
+            for (UUID id : plan.getUpdatedRoles().values()) {
+                if (plan.getDescriptions().containsKey(id)) {
+                    updates.setString(1, plan.getDescriptions().get(id));
+                    updates.setObject(2, id);
+                    updates.addBatch();
+                }
+            }
+            inserts.executeBatch();
+            updates.executeBatch();
+        }
+
+        try (PreparedStatement unlinks = connection.prepareStatement(DELETE_ROLE_PERMISSION);
+                PreparedStatement links = connection.prepareStatement(INSERT_ROLE_PERMISSION)) {
+            for (Map.Entry<UUID, Set<UUID>> role : plan.getRemovedPermissions().entrySet()) {
+                for (UUID permissionId : role.getValue()) {
+                    unlinks.setObject(1, role.getKey());
+                    unlinks.setObject(2, permissionId);
+                    unlinks.addBatch();
+                }
+            }
+            for (Map.Entry<UUID, Set<UUID>> role : plan.getAddedPermissions().entrySet()) {
+                for (UUID permissionId : role.getValue()) {
+                    links.setObject(1, role.getKey());
+                    links.setObject(2, permissionId);
+                    links.addBatch();
+                }
+            }
+            unlinks.executeBatch();
+            links.executeBatch();
+        }
+    }
+}
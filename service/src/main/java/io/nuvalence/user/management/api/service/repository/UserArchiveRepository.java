@@ -0,0 +1,135 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves soft deleted users, with their role memberships and preferences, from {@code user_table}
+ * into {@code user_table_archive} and {@code user_role_archive}.
+ *
+ * <p>Each call moves one bounded chunk in its own short transaction. On PostgreSQL the chunk is
+ * claimed with {@code FOR UPDATE SKIP LOCKED}, so instances archiving at the same time take
+ * different users and never wait on each other or on a request that holds one of the rows.</p>
+ */
+@Repository
+public class UserArchiveRepository {
+    private static final String SELECT_CANDIDATES =
+            "SELECT id FROM user_table WHERE deleted = true AND deleted_on < ?"
+                    + " ORDER BY deleted_on LIMIT ?";
+    private static final String ARCHIVE_USERS =
+            "INSERT INTO user_table_archive (id, external_id, identity_provider, first_name,"
+                    + " middle_name, last_name, phone_number, email, created_at, user_type,"
+                    + " deleted, deleted_on, preferred_language, preferred_communication_method,"
+                    + " archived_at)"
+                    + " SELECT u.id, u.external_id, u.identity_provider, u.first_name,"
+                    + " u.middle_name, u.last_name, u.phone_number, u.email, u.created_at,"
+                    + " u.user_type, true, u.deleted_on, p.preferred_language,"
+                    + " p.preferred_communication_method, ?"
+                    + " FROM user_table u LEFT JOIN user_preference p ON p.user_id = u.id"
+                    + " WHERE u.id IN (%s)";
+    private static final String ARCHIVE_ROLES =
+            "INSERT INTO user_role_archive (user_id, role_id)"
+                    + " SELECT user_id, role_id FROM user_role WHERE user_id IN (%s)";
+    private static final List<String> DELETES =
+            List.of(
+                    "DELETE FROM user_role WHERE user_id IN (%s)",
+                    "DELETE FROM user_preference WHERE user_id IN (%s)",
+                    "DELETE FROM user_table WHERE id IN (%s)");
+
+    @PersistenceContext private EntityManager entityManager;
+
+    /**
+     * Archives up to {@code limit} users deleted before the cutoff, oldest deletions first.
+     *
+     * @param deletedBefore users deleted before this time are archived
+     * @param limit maximum number of users to archive
+     * @param archivedAt archival time recorded on the archived rows
+     * @return number of users archived
+     */
+    @Transactional
+    public int archiveChunk(OffsetDateTime deletedBefore, int limit, OffsetDateTime archivedAt) {
+        return entityManager
+                .unwrap(Session.class)
+                .doReturningWork(
+                        connection -> archiveChunk(connection, deletedBefore, limit, archivedAt));
+    }
+
+    private static int archiveChunk(
+            Connection connection,
+            OffsetDateTime deletedBefore,
+            int limit,
+            OffsetDateTime archivedAt)
+            throws SQLException {
+        final List<UUID> ids = claimCandidates(connection, deletedBefore, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        final String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        try (PreparedStatement statement =
+                connection.prepareStatement(String.format(ARCHIVE_USERS, placeholders))) {
+            statement.setTimestamp(1, Timestamp.from(archivedAt.toInstant()));
+            bindIds(statement, 2, ids);
+            statement.executeUpdate();
+        }
+
+        executeForIds(connection, ARCHIVE_ROLES, placeholders, ids);
+        for (String delete : DELETES) {
+            executeForIds(connection, delete, placeholders, ids);
+        }
+
+        return ids.size();
+    }
+
+    private static List<UUID> claimCandidates(
+            Connection connection, OffsetDateTime deletedBefore, int limit) throws SQLException {
+        final boolean postgres =
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        final String sql =
+                postgres ? SELECT_CANDIDATES + " FOR UPDATE SKIP LOCKED" : SELECT_CANDIDATES;
+
+        final List<UUID> ids = new ArrayList<>(limit);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setTimestamp(1, Timestamp.from(deletedBefore.toInstant()));
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getObject(1, UUID.class));
+                }
+            }
+        }
+
+        return ids;
+    }
+
+    private static void executeForIds(
+            Connection connection, String sql, String placeholders, List<UUID> ids)
+            throws SQLException {
+        try (PreparedStatement statement =
+                connection.prepareStatement(String.format(sql, placeholders))) {
+            bindIds(statement, 1, ids);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void bindIds(PreparedStatement statement, int firstIndex, List<UUID> ids)
+            throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            statement.setObject(firstIndex + i, ids.get(i));
+        }
+    }
+}
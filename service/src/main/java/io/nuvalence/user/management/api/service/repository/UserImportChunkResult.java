@@ -0,0 +1,17 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.UserImportError;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of merging one chunk of import records.
+ */
+@Value
+public class UserImportChunkResult {
+    long importedUsers;
+    long skippedUsers;
+    long importedRoles;
+    List<UserImportError> unknownRoles;
+}
@@ -0,0 +1,58 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.UserImportJobEntity;
+import io.nuvalence.user.management.api.service.enums.UserImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Repository for user import jobs.
+ */
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJobEntity, UUID> {
+
+    /**
+     * Refreshes the heartbeat of jobs held by this instance.
+     *
+     * @param ids ids of the jobs
+     * @param heartbeatAt time of the heartbeat
+     * @return number of jobs updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserImportJobEntity j SET j.heartbeatAt = :heartbeatAt WHERE j.id IN :ids")
+    int updateHeartbeat(
+            @Param("ids") Collection<UUID> ids, @Param("heartbeatAt") OffsetDateTime heartbeatAt);
+
+    /**
+     * Fails jobs in the given statuses whose heartbeat, or creation if they have none, is older
+     * than a cutoff.
+     *
+     * @param statuses statuses of the jobs to fail
+     * @param before jobs last heard from before this time are failed
+     * @param failed status to set
+     * @param message failure message
+     * @param finishedAt time the jobs are marked finished
+     * @return number of jobs failed
+     */
+    @Transactional
+    @Modifying
+    @Query(
+            "UPDATE UserImportJobEntity j SET j.status = :failed, j.failureMessage = :message,"
+                    + " j.finishedAt = :finishedAt WHERE j.status IN :statuses"
+                    + " AND COALESCE(j.heartbeatAt, j.createdAt) < :before")
+    int failStale(
+            @Param("statuses") Collection<UserImportStatus> statuses,
+            @Param("before") OffsetDateTime before,
+            @Param("failed") UserImportStatus failed,
+            @Param("message") String message,
+            @Param("finishedAt") OffsetDateTime finishedAt);
+}
@@ -0,0 +1,291 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.UserImportError;
+import io.nuvalence.user.management.api.service.service.UserImportRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Loads chunks of import records into {@code user_table} and {@code user_role} through
+ * transaction-scoped staging tables.
+ *
+ * <p>On PostgreSQL a chunk is staged with {@code COPY ... FROM STDIN}; elsewhere (H2 in tests) it
+ * is staged with batched inserts. Either way the merge into the real tables is a pair of
+ * set-based statements:</p>
+ * <ul>
+ *   <li>Users are inserted unless an active user has the same identity provider and external id,
+ *   or an earlier record of the chunk does. The {@code identity_provider, external_id, deleted,
+ *   deleted_on} unique constraint cannot do this on its own, since {@code deleted_on} is null for
+ *   every active user.</li>
+ *   <li>Role memberships are added for every record whose user is active after the insert,
+ *   including users that already existed, and skipped when already held.</li>
+ * </ul>
+ *
+ * <p>The merge also appends to the change feed outbox: a creation for each inserted user and an
+ * update for each existing user gaining a role. Like every append they carry no sequence number;
+ * the relay numbers them once the chunk commits, as described on
+ * {@link ChangeOutboxRepositoryCustomImpl}.</p>
+ */
+@Repository
+public class UserImportStagingRepository {
+    private static final String USER_STAGING_COLUMNS =
+            "record_number bigint, id uuid, external_id varchar(255),"
+                    + " identity_provider varchar(255), email varchar(255),"
+                    + " first_name varchar(255), middle_name varchar(255),"
+                    + " last_name varchar(255), phone_number varchar(255), user_type varchar(255)";
+    private static final String ROLE_STAGING_COLUMNS =
+            "record_number bigint, identity_provider varchar(255), external_id varchar(255),"
+                    + " role_name varchar(255)";
+    private static final String USER_STAGING_INSERT =
+            "user_import_staging (record_number, id, external_id, identity_provider, email,"
+                    + " first_name, middle_name, last_name, phone_number, user_type)";
+    private static final String ROLE_STAGING_INSERT =
+            "user_import_role_staging (record_number, identity_provider, external_id, role_name)";
+    private static final String MERGE_USERS =
+            "INSERT INTO user_table (id, external_id, identity_provider, email, first_name,"
+                    + " middle_name, last_name, phone_number, user_type, created_at, deleted)"
+                    + " SELECT s.id, s.external_id, s.identity_provider, s.email, s.first_name,"
+                    + " s.middle_name, s.last_name, s.phone_number, s.user_type, ?, false"
+                    + " FROM (SELECT staged.*, ROW_NUMBER() OVER"
+                    + " (PARTITION BY staged.identity_provider, staged.external_id"
+                    + " ORDER BY staged.record_number) AS occurrence"
+                    + " FROM user_import_staging staged) s"
+                    + " WHERE s.occurrence = 1 AND NOT EXISTS (SELECT 1 FROM user_table u"
+                    + " WHERE u.identity_provider = s.identity_provider"
+                    + " AND u.external_id = s.external_id AND u.deleted = false)";
+    private static final String MERGE_ROLES =
+            "INSERT INTO user_role (user_id, role_id)"
+                    + " SELECT DISTINCT u.id, r.id FROM user_import_role_staging s"
+                    + " JOIN user_table u ON u.identity_provider = s.identity_provider"
+                    + " AND u.external_id = s.external_id AND u.deleted = false"
+                    + " JOIN role r ON r.name = s.role_name"
+                    + " ON CONFLICT DO NOTHING";
+    private static final String BUMP_ROLE_MEMBER_VERSIONS =
+            "UPDATE user_table SET version = version + 1 WHERE id IN (SELECT u.id"
+                    + " FROM user_import_role_staging s"
+                    + " JOIN user_table u ON u.identity_provider = s.identity_provider"
+                    + " AND u.external_id = s.external_id AND u.deleted = false"
+                    + " JOIN role r ON r.name = s.role_name"
+                    + " WHERE NOT EXISTS (SELECT 1 FROM user_role ur"
+                    + " WHERE ur.user_id = u.id AND ur.role_id = r.id))";
+    private static final String STAGE_ROLE_MEMBERS =
+            "INSERT INTO user_import_member_staging (id)"
+                    + " SELECT u.id FROM user_table u"
+                    + " WHERE u.id IN (SELECT u.id FROM user_import_role_staging s"
+                    + " JOIN user_table u ON u.identity_provider = s.identity_provider"
+                    + " AND u.external_id = s.external_id AND u.deleted = false"
+                    + " JOIN role r ON r.name = s.role_name"
+                    + " WHERE NOT EXISTS (SELECT 1 FROM user_role ur"
+                    + " WHERE ur.user_id = u.id AND ur.role_id = r.id))"
+                    + " AND NOT EXISTS (SELECT 1 FROM user_import_staging staged"
+                    + " WHERE staged.id = u.id)";
+    private static final String RECORD_ROLE_MEMBERS =
+            "INSERT INTO change_outbox (entity_type, entity_id, operation, changed_at)"
+                    + " SELECT 'USER', id, 'UPDATED', ? FROM user_import_member_staging";
+    private static final String RECORD_CREATED_USERS =
+            "INSERT INTO change_outbox (entity_type, entity_id, operation, changed_at)"
+                    + " SELECT 'USER', s.id, 'CREATED', ? FROM user_import_staging s"
+                    + " WHERE EXISTS (SELECT 1 FROM user_table u WHERE u.id = s.id)";
+    private static final String UNKNOWN_ROLES =
+            "SELECT s.record_number, s.role_name FROM user_import_role_staging s"
+                    + " WHERE NOT EXISTS (SELECT 1 FROM role r WHERE r.name = s.role_name)"
+                    + " ORDER BY s.record_number, s.role_name";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    /**
+     * Stages and merges a chunk of records in one transaction.
+     *
+     * @param records valid records, in file order
+     * @param createdAt creation time of the imported users
+     * @return counts of imported and skipped rows and the role names that do not exist
+     */
+    @Transactional
+    public UserImportChunkResult merge(List<UserImportRecord> records, OffsetDateTime createdAt) {
+        return entityManager
+                .unwrap(Session.class)
+                .doReturningWork(connection -> merge(connection, records, createdAt));
+    }
+
+    private static UserImportChunkResult merge(
+            Connection connection, List<UserImportRecord> records, OffsetDateTime createdAt)
+            throws SQLException {
+        final boolean postgres =
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(
+                    createStagingTable(postgres, "user_import_staging", USER_STAGING_COLUMNS));
+            statement.execute(
+                    createStagingTable(postgres, "user_import_role_staging", ROLE_STAGING_COLUMNS));
+            statement.execute(
+                    createStagingTable(postgres, "user_import_member_staging", "id uuid"));
+        }
+
+        if (postgres) {
+            copyStaging(connection, records);
+        } else {
+            insertStaging(connection, records);
+        }
+
+        final long importedUsers;
+        try (PreparedStatement statement = connection.prepareStatement(MERGE_USERS)) {
+            statement.setTimestamp(1, Timestamp.from(createdAt.toInstant()));
+            importedUsers = statement.executeUpdate();
+        }
+
+        final long importedRoles;
+        try (Statement statement = connection.createStatement()) {
+            // Existing users gaining a role are noted for the outbox before the roles are merged.
+            statement.executeUpdate(STAGE_ROLE_MEMBERS);
+            // Users gaining a role get a new version, and with it a new ETag.
+            statement.executeUpdate(BUMP_ROLE_MEMBER_VERSIONS);
+            importedRoles = statement.executeUpdate(MERGE_ROLES);
+        }
+
+        final List<UserImportError> unknownRoles = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(UNKNOWN_ROLES)) {
+            while (resultSet.next()) {
+                unknownRoles.add(
+                        new UserImportError(
+                                resultSet.getLong(1),
+                                "Role does not exist: " + resultSet.getString(2)));
+            }
+        }
+
+        final Timestamp changedAt = Timestamp.from(OffsetDateTime.now().toInstant());
+        for (String recordChanges : List.of(RECORD_ROLE_MEMBERS, RECORD_CREATED_USERS)) {
+            try (PreparedStatement statement = connection.prepareStatement(recordChanges)) {
+                statement.setTimestamp(1, changedAt);
+                statement.executeUpdate();
+            }
+        }
+
+        return new UserImportChunkResult(
+                importedUsers, records.size() - importedUsers, importedRoles, unknownRoles);
+    }
+
+    private static String createStagingTable(boolean postgres, String name, String columns) {
+        // H2 commits the open transaction on DDL unless the temporary table is TRANSACTIONAL.
+        return postgres
+                ? "CREATE TEMPORARY TABLE " + name + " (" + columns + ") ON COMMIT DROP"
+                : "CREATE LOCAL TEMPORARY TABLE " + name + " (" + columns + ")"
+                        + " ON COMMIT DROP TRANSACTIONAL";
+    }
+
+    private static void copyStaging(Connection connection, List<UserImportRecord> records)
+            throws SQLException {
+        final StringBuilder users = new StringBuilder(records.size() * 160);
+        final StringBuilder roles = new StringBuilder();
+        for (UserImportRecord importRecord : records) {
+            appendCsvRow(
+                    users,
+                    String.valueOf(importRecord.getRecordNumber()),
+                    UUID.randomUUID().toString(),
+                    importRecord.getExternalId(),
+                    importRecord.getIdentityProvider(),
+                    importRecord.getEmail(),
+                    importRecord.getFirstName(),
+                    importRecord.getMiddleName(),
+                    importRecord.getLastName(),
+                    importRecord.getPhoneNumber(),
+                    importRecord.getUserType().toString());
+            for (String roleName : importRecord.getRoleNames()) {
+                appendCsvRow(
+                        roles,
+                        String.valueOf(importRecord.getRecordNumber()),
+                        importRecord.getIdentityProvider(),
+                        importRecord.getExternalId(),
+                        roleName);
+            }
+        }
+
+        try {
+            final CopyManager copyApi = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyApi.copyIn(
+                    "COPY " + USER_STAGING_INSERT + " FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(users.toString()));
+            copyApi.copyIn(
+                    "COPY " + ROLE_STAGING_INSERT + " FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(roles.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Temporary tables are never analyzed automatically; without statistics the planner
+        // assumes a tiny table and may pick nested loops for the merge.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE user_import_staging");
+            statement.execute("ANALYZE user_import_role_staging");
+        }
+    }
+
+    private static void insertStaging(Connection connection, List<UserImportRecord> records)
+            throws SQLException {
+        try (PreparedStatement users =
+                        connection.prepareStatement(
+                                "INSERT INTO " + USER_STAGING_INSERT
+                                        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+                PreparedStatement roles =
+                        connection.prepareStatement(
+                                "INSERT INTO " + ROLE_STAGING_INSERT + " VALUES (?, ?, ?, ?)")) {
+            for (UserImportRecord importRecord : records) {
+                users.setLong(1, importRecord.getRecordNumber());
+                users.setObject(2, UUID.randomUUID());
+                users.setString(3, importRecord.getExternalId());
+                users.setString(4, importRecord.getIdentityProvider());
+                users.setString(5, importRecord.getEmail());
+                users.setString(6, importRecord.getFirstName());
+                users.setString(7, importRecord.getMiddleName());
+                users.setString(8, importRecord.getLastName());
+                users.setString(9, importRecord.getPhoneNumber());
+                users.setString(10, importRecord.getUserType().toString());
+                users.addBatch();
+                for (String roleName : importRecord.getRoleNames()) {
+                    roles.setLong(1, importRecord.getRecordNumber());
+                    roles.setString(2, importRecord.getIdentityProvider());
+                    roles.setString(3, importRecord.getExternalId());
+                    roles.setString(4, roleName);
+                    roles.addBatch();
+                }
+            }
+            users.executeBatch();
+            roles.executeBatch();
+        }
+    }
+
+    /**
+     * Appends a row in the CSV dialect of {@code COPY}: every value is quoted, so only a missing,
+     * unquoted value reads as null.
+     */
+    private static void appendCsvRow(StringBuilder csv, String... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            if (values[i] != null) {
+                csv.append('"').append(values[i].replace("\"", "\"\"")).append('"');
+            }
+        }
+        csv.append('\n');
+    }
+}
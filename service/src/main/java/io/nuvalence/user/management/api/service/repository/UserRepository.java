@@ -6,11 +6,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -18,7 +22,9 @@ import java.util.UUID;
  */
 @Repository
 public interface UserRepository
-        extends JpaRepository<UserEntity, UUID>, JpaSpecificationExecutor<UserEntity> {
+        extends JpaRepository<UserEntity, UUID>,
+                JpaSpecificationExecutor<UserEntity>,
+                UserRepositoryCustom {
 
     String EXTERNAL_ID = "externalId";
     String EMAIL = "email";
@@ -31,6 +37,64 @@ public interface UserRepository
     @Query("select e from UserEntity e where e.id = :id")
     Optional<UserEntity> findByIdLoaded(@Param("id") UUID id);
 
+    /**
+     * Fetches the active user with an identity, together with roles and preferences, in one
+     * statement served by the {@code ux_user_table_active_identity} partial unique index.
+     *
+     * @param identityProvider identity provider
+     * @param externalId id of the user at the identity provider
+     * @return active user, if any
+     */
+    @EntityGraph(value = "user.complete")
+    @Query(
+            "select e from UserEntity e where e.identityProvider = :identityProvider"
+                    + " and e.externalId = :externalId and e.deleted = false")
+    Optional<UserEntity> findActiveByIdentityLoaded(
+            @Param("identityProvider") String identityProvider,
+            @Param("externalId") String externalId);
+
     @Query("SELECT u FROM UserEntity u")
     Page<UserEntity> findAll(Pageable pageable);
+
+    @Query(
+            "SELECT u.externalId FROM UserEntity u WHERE u.identityProvider = :identityProvider"
+                    + " AND u.externalId IN :externalIds AND u.deleted = false")
+    Set<String> findActiveExternalIds(
+            @Param("identityProvider") String identityProvider,
+            @Param("externalIds") Collection<String> externalIds);
+
+    /**
+     * Increments the version of a user whose roles or preferences changed, so that the user's ETag
+     * changes with its profile.
+     *
+     * @param id user id
+     * @return number of users updated
+     */
+    @Modifying
+    @Query("update UserEntity u set u.version = u.version + 1 where u.id = :id")
+    int incrementVersion(@Param("id") UUID id);
+
+    /**
+     * Increments the version of every user holding a role, whose name and description are part of
+     * those users' profiles.
+     *
+     * @param roleId role id
+     * @return number of users updated
+     */
+    @Modifying
+    @Query(
+            value =
+                    "UPDATE user_table SET version = version + 1 WHERE id IN"
+                            + " (SELECT user_id FROM user_role WHERE role_id = :roleId)",
+            nativeQuery = true)
+    int incrementVersionOfRoleMembers(@Param("roleId") UUID roleId);
+
+    /**
+     * Returns the ids of the users holding a role.
+     *
+     * @param roleId role id
+     * @return ids of the role's users
+     */
+    @Query("SELECT u.id FROM UserEntity u JOIN u.roles r WHERE r.id = :roleId")
+    List<UUID> findIdsByRoleId(@Param("roleId") UUID roleId);
 }
@@ -0,0 +1,161 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.service.UserPageToken;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Custom user queries that cannot be expressed through derived or annotated repository methods.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Fetches a page of users matching a specification, with roles and preferences loaded.
+     *
+     * @param specification filters to apply
+     * @param pageable page number, size and sort
+     * @return page of users
+     */
+    Page<UserEntity> findPage(Specification<UserEntity> specification, Pageable pageable);
+
+    /**
+     * Fetches the ids of a page of users matching a specification, in the order of
+     * {@link #findPage}.
+     *
+     * @param specification filters to apply
+     * @param pageable page number, size and sort
+     * @return page of user ids
+     */
+    Page<UUID> findIdPage(Specification<UserEntity> specification, Pageable pageable);
+
+    /**
+     * Fetches users matching a specification that sort after the position captured by a page token,
+     * using a keyset (seek) predicate rather than an offset so the cost does not grow with depth.
+     *
+     * @param specification filters to apply
+     * @param pageToken position to resume after; determines sort field and order
+     * @param limit maximum number of users to return
+     * @return users following the token position, in sort order
+     */
+    List<UserEntity> findAllAfter(
+            Specification<UserEntity> specification, UserPageToken pageToken, int limit);
+
+    /**
+     * Fetches the ids of the users {@link #findAllAfter} returns, in the same order.
+     *
+     * @param specification filters to apply
+     * @param pageToken position to resume after; determines sort field and order
+     * @param limit maximum number of ids to return
+     * @return ids of the users following the token position, in sort order
+     */
+    List<UUID> findIdsAfter(
+            Specification<UserEntity> specification, UserPageToken pageToken, int limit);
+
+    /**
+     * Fetches a page of users matching a specification without counting the total number of
+     * matches. One extra row is read to determine whether a further page exists.
+     *
+     * @param specification filters to apply
+     * @param pageable page number, size and sort
+     * @return slice of users
+     */
+    Slice<UserEntity> findSlice(Specification<UserEntity> specification, Pageable pageable);
+
+    /**
+     * Fetches the ids of a slice of users matching a specification, in the order of
+     * {@link #findSlice}, without counting the total number of matches.
+     *
+     * @param specification filters to apply
+     * @param pageable page number, size and sort
+     * @return slice of user ids
+     */
+    Slice<UUID> findIdSlice(Specification<UserEntity> specification, Pageable pageable);
+
+    /**
+     * Loads the users with the given ids together with their roles and preferences, in a single
+     * statement regardless of how many ids are given. Ids not found in {@code user_table} are
+     * looked up in the archive, and archived users are returned as detached entities.
+     *
+     * @param ids user ids, in the order the users should be returned
+     * @return users in id order; ids without a user are skipped
+     */
+    List<UserEntity> findAllLoaded(List<UUID> ids);
+
+    /**
+     * Streams the users matching a specification, in id order, to a consumer in chunks of
+     * {@code chunkSize}, with roles and preferences loaded. Ids are read through a forward-only
+     * cursor with the same JDBC fetch size, and the persistence context is cleared after each
+     * chunk, so memory use does not grow with the number of users. Must be called within a
+     * transaction.
+     *
+     * @param specification filters to apply
+     * @param chunkSize number of users per chunk and rows per fetch
+     * @param consumer receives each chunk of users
+     */
+    void forEachChunk(
+            Specification<UserEntity> specification,
+            int chunkSize,
+            Consumer<List<UserEntity>> consumer);
+
+    /**
+     * Estimates the number of users from database planner statistics, without scanning the table.
+     *
+     * @param includeDeleted whether soft deleted and archived users are counted
+     * @return estimated count, or empty if the database provides no usable statistics
+     */
+    Optional<Long> estimateCount(boolean includeDeleted);
+
+    /**
+     * Inserts new users with JDBC batching, bypassing the persistence context. Statements are sent
+     * in batches of {@code hibernate.jdbc.batch_size}. Ids and creation timestamps must already be
+     * set, and roles and preferences are not written.
+     *
+     * <p>On PostgreSQL a user is skipped, rather than failing the whole insert, when an active user
+     * with the same identity provider and external id exists by the time the row is written.</p>
+     *
+     * @param users users to insert
+     * @return ids of the users inserted
+     */
+    Set<UUID> insertAll(List<UserEntity> users);
+
+    /**
+     * Assigns a role to a user by inserting the {@code user_role} row directly. Assigning a role
+     * the user already has is a no-op, also when concurrent requests assign it at the same time.
+     *
+     * @param userId user id
+     * @param roleId role id
+     */
+    void addRole(UUID userId, UUID roleId);
+
+    /**
+     * Returns the ids of active users holding a permission through any of their roles that follow
+     * an id, in id order, with a single {@code role_permission} / {@code user_role} /
+     * {@code user_table} join. The permission's roles are found through the primary key of
+     * {@code role_permission} and their users through the {@code (role_id, user_id)} unique
+     * constraint of {@code user_role}.
+     *
+     * @param permissionId permission id
+     * @param after id to resume after
+     * @param limit maximum number of ids to return
+     * @return user ids
+     */
+    List<UUID> findIdsByPermissionAfter(UUID permissionId, UUID after, int limit);
+
+    /**
+     * Removes a role from a user by deleting the {@code user_role} row directly.
+     *
+     * @param userId user id
+     * @param roleId role id
+     * @return whether the user had the role
+     */
+    boolean removeRole(UUID userId, UUID roleId);
+}
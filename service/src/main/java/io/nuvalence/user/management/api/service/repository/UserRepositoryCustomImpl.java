@@ -0,0 +1,548 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.ArchivedUserEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserSearchEntity;
+import io.nuvalence.user.management.api.service.service.UserPageToken;
+import io.nuvalence.user.management.api.service.service.UserSearchCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Criteria API backed implementation of {@link UserRepositoryCustom}.
+ *
+ * <p>Search queries run in two phases: the filtered, sorted and paged query selects user ids only,
+ * then the users for those ids are loaded together with their roles and preferences in a single
+ * statement. This keeps a page of N users from issuing per-row selects for its lazy and inverse
+ * associations. Role permissions are not loaded; they are resolved from the {@code RoleCatalog}
+ * snapshot when needed.</p>
+ *
+ * <p>Searches that include deleted users select ids from the {@code user_search} view, which adds
+ * the archived users to {@code user_table}. Ids that are not in {@code user_table} are then loaded
+ * from the archive.</p>
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final Set<String> NULLABLE_SORT_FIELDS = Set.of("firstName", "lastName");
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+    private static final int DEFAULT_INSERT_BATCH_SIZE = 100;
+    private static final String INSERT_USER_INTO =
+            "INSERT INTO user_table (id, external_id, identity_provider, first_name, middle_name,"
+                    + " last_name, phone_number, email, created_at, user_type, deleted) VALUES ";
+    private static final String INSERT_USER_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)";
+    private static final int INSERT_USER_PARAMETERS = 10;
+    private static final String SELECT_PERMISSION_HOLDERS =
+            "SELECT DISTINCT ur.user_id FROM role_permission rp"
+                    + " JOIN user_role ur ON ur.role_id = rp.role_id"
+                    + " JOIN user_table u ON u.id = ur.user_id"
+                    + " WHERE rp.permission_id = ? AND ur.user_id > ? AND u.deleted = false"
+                    + " ORDER BY ur.user_id LIMIT ?";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Page<UserEntity> findPage(Specification<UserEntity> specification, Pageable pageable) {
+        final Page<UUID> ids = findIdPage(specification, pageable);
+
+        return new PageImpl<>(
+                findAllLoaded(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    @Override
+    public Page<UUID> findIdPage(Specification<UserEntity> specification, Pageable pageable) {
+        final TypedQuery<UUID> idQuery = createIdQuery(specification, pageable);
+        if (pageable.isPaged()) {
+            idQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(
+                idQuery.getResultList(), pageable, () -> count(specification));
+    }
+
+    @Override
+    public List<UserEntity> findAllAfter(
+            Specification<UserEntity> specification, UserPageToken pageToken, int limit) {
+        return findAllLoaded(findIdsAfter(specification, pageToken, limit));
+    }
+
+    @Override
+    public List<UUID> findIdsAfter(
+            Specification<UserEntity> specification, UserPageToken pageToken, int limit) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<UUID> query = criteriaBuilder.createQuery(UUID.class);
+        final Root<?> root = searchRoot(query, specification);
+
+        final Path<UUID> id = root.get("id");
+        final Expression<? extends Comparable<?>> sortKey =
+                getSortKey(root, criteriaBuilder, pageToken.getSortBy());
+        final Predicate filter = toPredicate(specification, root, query, criteriaBuilder);
+        final Predicate seek = seekPredicate(criteriaBuilder, sortKey, id, pageToken);
+
+        query.select(id)
+                .where(filter == null ? seek : criteriaBuilder.and(filter, seek))
+                .orderBy(
+                        pageToken.isAscending()
+                                ? List.of(criteriaBuilder.asc(sortKey), criteriaBuilder.asc(id))
+                                : List.of(
+                                        criteriaBuilder.desc(sortKey), criteriaBuilder.desc(id)));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Slice<UserEntity> findSlice(
+            Specification<UserEntity> specification, Pageable pageable) {
+        final Slice<UUID> ids = findIdSlice(specification, pageable);
+
+        return new SliceImpl<>(findAllLoaded(ids.getContent()), pageable, ids.hasNext());
+    }
+
+    @Override
+    public Slice<UUID> findIdSlice(Specification<UserEntity> specification, Pageable pageable) {
+        final TypedQuery<UUID> idQuery = createIdQuery(specification, pageable);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(idQuery.getResultList(), pageable, false);
+        }
+
+        final List<UUID> ids =
+                idQuery.setFirstResult((int) pageable.getOffset())
+                        .setMaxResults(pageable.getPageSize() + 1)
+                        .getResultList();
+        final boolean hasNext = ids.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(
+                hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
+
+    @Override
+    public List<UserEntity> findAllLoaded(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        final Map<UUID, UserEntity> users =
+                entityManager
+                        .createQuery(
+                                "select u from UserEntity u"
+                                        + " left join fetch u.roles"
+                                        + " left join fetch u.userPreference"
+                                        + " where u.id in :ids",
+                                UserEntity.class)
+                        .setParameter("ids", ids)
+                        .getResultList()
+                        .stream()
+                        .collect(
+                                Collectors.toMap(
+                                        UserEntity::getId,
+                                        Function.identity(),
+                                        (first, second) -> first));
+        if (users.size() < ids.size()) {
+            findArchived(ids, users);
+        }
+
+        return ids.stream()
+                .distinct()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void forEachChunk(
+            Specification<UserEntity> specification,
+            int chunkSize,
+            Consumer<List<UserEntity>> consumer) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<UUID> query = criteriaBuilder.createQuery(UUID.class);
+        final Root<?> root = searchRoot(query, specification);
+
+        final Predicate filter = toPredicate(specification, root, query, criteriaBuilder);
+        query.select(root.get("id")).orderBy(criteriaBuilder.asc(root.get("id")));
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        // Only ids come through the cursor, so clearing the persistence context between chunks
+        // does not disturb it.
+        try (ScrollableResults<UUID> ids =
+                entityManager
+                        .unwrap(Session.class)
+                        .createQuery(query)
+                        .setFetchSize(chunkSize)
+                        .setReadOnly(true)
+                        .scroll(ScrollMode.FORWARD_ONLY)) {
+            final List<UUID> chunk = new ArrayList<>(chunkSize);
+            while (ids.next()) {
+                chunk.add(ids.get());
+                if (chunk.size() == chunkSize) {
+                    consumeChunk(chunk, consumer);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                consumeChunk(chunk, consumer);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Long> estimateCount(boolean includeDeleted) {
+        if (!isPostgres()) {
+            return Optional.empty();
+        }
+
+        // The first line of a text plan carries the planner's row estimate for the whole query,
+        // e.g. "Seq Scan on user_table  (cost=0.00..1.05 rows=5 width=16)", or "Append" for the
+        // union of user_table and its archive.
+        final String sql =
+                includeDeleted
+                        ? "EXPLAIN SELECT id FROM user_search"
+                        : "EXPLAIN SELECT id FROM user_table WHERE deleted = false";
+        final List<?> plan = entityManager.createNativeQuery(sql).getResultList();
+        if (plan.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final Matcher matcher = PLAN_ROWS.matcher(String.valueOf(plan.get(0)));
+        return matcher.find() ? Optional.of(Long.parseLong(matcher.group(1))) : Optional.empty();
+    }
+
+    @Override
+    public Set<UUID> insertAll(List<UserEntity> users) {
+        if (users.isEmpty()) {
+            return Set.of();
+        }
+
+        final Session session = entityManager.unwrap(Session.class);
+        final int configuredBatchSize =
+                session.getSessionFactory()
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getSessionFactoryOptions()
+                        .getJdbcBatchSize();
+        final int batchSize =
+                configuredBatchSize > 1 ? configuredBatchSize : DEFAULT_INSERT_BATCH_SIZE;
+
+        return session.doReturningWork(
+                connection ->
+                        "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                                ? insertSkippingConflicts(connection, users, batchSize)
+                                : insertBatched(connection, users, batchSize));
+    }
+
+    @Override
+    public List<UUID> findIdsByPermissionAfter(UUID permissionId, UUID after, int limit) {
+        return entityManager
+                .unwrap(Session.class)
+                .doReturningWork(
+                        connection -> {
+                            final List<UUID> ids = new ArrayList<>(limit);
+                            try (PreparedStatement statement =
+                                    connection.prepareStatement(SELECT_PERMISSION_HOLDERS)) {
+                                statement.setObject(1, permissionId);
+                                statement.setObject(2, after);
+                                statement.setInt(3, limit);
+                                try (ResultSet resultSet = statement.executeQuery()) {
+                                    while (resultSet.next()) {
+                                        ids.add(resultSet.getObject(1, UUID.class));
+                                    }
+                                }
+                            }
+
+                            return ids;
+                        });
+    }
+
+    @Override
+    public void addRole(UUID userId, UUID roleId) {
+        entityManager
+                .createNativeQuery(
+                        "INSERT INTO user_role (user_id, role_id) VALUES (:userId, :roleId)"
+                                + " ON CONFLICT DO NOTHING")
+                .setParameter("userId", userId)
+                .setParameter("roleId", roleId)
+                .executeUpdate();
+    }
+
+    @Override
+    public boolean removeRole(UUID userId, UUID roleId) {
+        return entityManager
+                        .createNativeQuery(
+                                "DELETE FROM user_role WHERE user_id = :userId"
+                                        + " AND role_id = :roleId")
+                        .setParameter("userId", userId)
+                        .setParameter("roleId", roleId)
+                        .executeUpdate()
+                > 0;
+    }
+
+    private void findArchived(List<UUID> ids, Map<UUID, UserEntity> users) {
+        final List<UUID> missing =
+                ids.stream()
+                        .filter(id -> !users.containsKey(id))
+                        .distinct()
+                        .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        entityManager
+                .createQuery(
+                        "select u from ArchivedUserEntity u left join fetch u.roles"
+                                + " where u.id in :ids",
+                        ArchivedUserEntity.class)
+                .setParameter("ids", missing)
+                .getResultList()
+                .forEach(archived -> users.put(archived.getId(), archived.toUserEntity()));
+    }
+
+    private Root<?> searchRoot(CriteriaQuery<?> query, Specification<UserEntity> specification) {
+        if (specification instanceof UserSearchCriteria
+                && ((UserSearchCriteria) specification).isSearchingArchive()) {
+            return query.from(UserSearchEntity.class);
+        }
+
+        return query.from(UserEntity.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate toPredicate(
+            Specification<UserEntity> specification,
+            Root<?> root,
+            CriteriaQuery<?> query,
+            CriteriaBuilder criteriaBuilder) {
+        if (root.getJavaType() == UserSearchEntity.class) {
+            return ((UserSearchCriteria) specification).toPredicate(root, query, criteriaBuilder);
+        }
+
+        return specification.toPredicate((Root<UserEntity>) root, query, criteriaBuilder);
+    }
+
+    private void consumeChunk(List<UUID> ids, Consumer<List<UserEntity>> consumer) {
+        consumer.accept(findAllLoaded(ids));
+        ids.clear();
+        entityManager.clear();
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            final String databaseName =
+                    entityManager
+                            .unwrap(Session.class)
+                            .doReturningWork(
+                                    connection ->
+                                            connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(databaseName);
+        }
+
+        return postgres;
+    }
+
+    /**
+     * Sends each batch as one multi-row insert. Users whose identity an active user gained after
+     * the caller's conflict check, possibly in a transaction that commits while the insert waits
+     * on it, are skipped by {@code ON CONFLICT DO NOTHING}; {@code RETURNING} reports the rest.
+     */
+    private static Set<UUID> insertSkippingConflicts(
+            Connection connection, List<UserEntity> users, int batchSize) throws SQLException {
+        final Set<UUID> inserted = new HashSet<>();
+        for (int from = 0; from < users.size(); from += batchSize) {
+            final List<UserEntity> batch =
+                    users.subList(from, Math.min(from + batchSize, users.size()));
+            final String sql =
+                    INSERT_USER_INTO
+                            + String.join(", ", Collections.nCopies(batch.size(), INSERT_USER_ROW))
+                            + " ON CONFLICT DO NOTHING RETURNING id";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    bindInsert(statement, i * INSERT_USER_PARAMETERS, batch.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        inserted.add(resultSet.getObject(1, UUID.class));
+                    }
+                }
+            }
+        }
+
+        return inserted;
+    }
+
+    // Without the active identity index (H2) no insert can conflict, so every user is inserted.
+    private static Set<UUID> insertBatched(
+            Connection connection, List<UserEntity> users, int batchSize) throws SQLException {
+        try (PreparedStatement statement =
+                connection.prepareStatement(INSERT_USER_INTO + INSERT_USER_ROW)) {
+            int pending = 0;
+            for (UserEntity user : users) {
+                bindInsert(statement, 0, user);
+                statement.addBatch();
+                if (++pending == batchSize) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+
+        return users.stream().map(UserEntity::getId).collect(Collectors.toSet());
+    }
+
+    private static void bindInsert(PreparedStatement statement, int offset, UserEntity user)
+            throws SQLException {
+        statement.setObject(offset + 1, user.getId());
+        statement.setString(offset + 2, user.getExternalId());
+        statement.setString(offset + 3, user.getIdentityProvider());
+        statement.setString(offset + 4, user.getFirstName());
+        statement.setString(offset + 5, user.getMiddleName());
+        statement.setString(offset + 6, user.getLastName());
+        statement.setString(offset + 7, user.getPhoneNumber());
+        statement.setString(offset + 8, user.getEmail());
+        statement.setTimestamp(offset + 9, Timestamp.from(user.getCreatedAt().toInstant()));
+        statement.setString(offset + 10, user.getUserType().toString());
+    }
+
+    private TypedQuery<UUID> createIdQuery(
+            Specification<UserEntity> specification, Pageable pageable) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<UUID> query = criteriaBuilder.createQuery(UUID.class);
+        final Root<?> root = searchRoot(query, specification);
+
+        final Predicate filter = toPredicate(specification, root, query, criteriaBuilder);
+        query.select(root.get("id"));
+        if (filter != null) {
+            query.where(filter);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Orders an offset page the way {@link #findAllAfter} seeks: keyset sort fields by the same
+     * sort key expression, followed by the id in the direction of the last field. A page token
+     * taken from an offset page therefore continues exactly where the page ended.
+     */
+    private List<Order> toOrders(Sort sort, Root<?> root, CriteriaBuilder criteriaBuilder) {
+        final List<Order> orders = new ArrayList<>();
+        boolean ascending = true;
+        boolean sortedById = false;
+        for (Sort.Order order : sort) {
+            if (!UserPageToken.isSupportedSortField(order.getProperty())) {
+                orders.addAll(QueryUtils.toOrders(Sort.by(order), root, criteriaBuilder));
+                continue;
+            }
+
+            final Expression<?> sortKey = getSortKey(root, criteriaBuilder, order.getProperty());
+            ascending = order.isAscending();
+            sortedById |= "id".equals(order.getProperty());
+            orders.add(ascending ? criteriaBuilder.asc(sortKey) : criteriaBuilder.desc(sortKey));
+        }
+        if (!sortedById) {
+            final Path<UUID> id = root.get("id");
+            orders.add(ascending ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id));
+        }
+
+        return orders;
+    }
+
+    private long count(Specification<UserEntity> specification) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        final Root<?> root = searchRoot(query, specification);
+
+        final Predicate filter = toPredicate(specification, root, query, criteriaBuilder);
+        query.select(criteriaBuilder.count(root));
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Builds {@code key > :key OR (key = :key AND id > :id)} (reversed for descending order), which
+     * lets the database seek directly into the (key, id) index.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(
+            CriteriaBuilder criteriaBuilder,
+            Expression sortKey,
+            Path<UUID> id,
+            UserPageToken pageToken) {
+        final boolean ascending = pageToken.isAscending();
+        final Predicate pastId =
+                ascending
+                        ? criteriaBuilder.greaterThan(id, pageToken.getId())
+                        : criteriaBuilder.lessThan(id, pageToken.getId());
+
+        if ("id".equals(pageToken.getSortBy())) {
+            return pastId;
+        }
+
+        final Comparable value = pageToken.getTypedValue();
+        final Predicate pastKey =
+                ascending
+                        ? criteriaBuilder.greaterThan(sortKey, value)
+                        : criteriaBuilder.lessThan(sortKey, value);
+
+        return criteriaBuilder.or(
+                pastKey, criteriaBuilder.and(criteriaBuilder.equal(sortKey, value), pastId));
+    }
+
+    private Expression<? extends Comparable<?>> getSortKey(
+            Root<?> root, CriteriaBuilder criteriaBuilder, String sortBy) {
+        // Nullable columns are compared through COALESCE so that NULLs take part in the ordering.
+        // The empty string is rendered as a literal (not bound) so the expression matches the
+        // expression indexes defined in the liquibase changelog.
+        if (NULLABLE_SORT_FIELDS.contains(sortBy)) {
+            return criteriaBuilder.coalesce(root.<String>get(sortBy), criteriaBuilder.literal(""));
+        }
+
+        return root.get(sortBy);
+    }
+}
@@ -0,0 +1,223 @@
+package io.nuvalence.user.management.api.service.repository;
+
+import io.nuvalence.user.management.api.service.entity.UserView;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.generated.models.AssignedRoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
+import io.nuvalence.user.management.api.service.mapper.UserEntityMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reads users straight into {@link UserView}s with JDBC row mappers, without loading entities.
+ *
+ * <p>A page of users costs two statements: one reads the users with their preferences, the other
+ * their role ids. Roles are not joined; the caller resolves the ids, usually from the
+ * {@code RoleCatalog} snapshot. Ids that are not in {@code user_table} are read from
+ * {@code user_table_archive} and {@code user_role_archive} the same way. The DTOs match what
+ * {@code MapperUtils.mapUserEntityToUserDto} returns for the same rows.</p>
+ */
+@Repository
+public class UserViewRepository {
+    private static final String SELECT_USERS =
+            "SELECT u.id, u.external_id, u.identity_provider, u.first_name, u.middle_name,"
+                    + " u.last_name, u.phone_number, u.email, u.created_at, u.user_type,"
+                    + " u.deleted, u.deleted_on, u.version, p.preferred_language,"
+                    + " p.preferred_communication_method, p.user_id IS NOT NULL"
+                    + " FROM user_table u LEFT JOIN user_preference p ON p.user_id = u.id"
+                    + " WHERE u.id IN (%s)";
+    private static final String SELECT_ARCHIVED_USERS =
+            "SELECT id, external_id, identity_provider, first_name, middle_name, last_name,"
+                    + " phone_number, email, created_at, user_type, deleted, deleted_on, 0,"
+                    + " preferred_language, preferred_communication_method,"
+                    + " preferred_language IS NOT NULL"
+                    + " OR preferred_communication_method IS NOT NULL"
+                    + " FROM user_table_archive WHERE id IN (%s)";
+    private static final String SELECT_ROLE_IDS =
+            "SELECT user_id, role_id FROM user_role WHERE user_id IN (%s)";
+    private static final String SELECT_ARCHIVED_ROLE_IDS =
+            "SELECT user_id, role_id FROM user_role_archive WHERE user_id IN (%s)";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    /**
+     * Reads the users with the given ids, with their preferences and assigned roles.
+     *
+     * @param ids user ids, in the order the users should be returned
+     * @param assignedRoles resolves the ids of all roles held by the users to the roles to show;
+     *     ids it leaves out are not shown
+     * @return users in id order; ids without a user are skipped
+     */
+    public List<UserView> findAll(
+            List<UUID> ids, Function<Set<UUID>, Map<UUID, AssignedRoleDTO>> assignedRoles) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        final List<UUID> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+        final Map<UUID, Row> rows =
+                entityManager
+                        .unwrap(Session.class)
+                        .doReturningWork(connection -> findRows(connection, distinctIds));
+
+        final Set<UUID> roleIds = new LinkedHashSet<>();
+        rows.values().forEach(row -> roleIds.addAll(row.roleIds));
+        final Map<UUID, AssignedRoleDTO> roles =
+                roleIds.isEmpty() ? Map.of() : assignedRoles.apply(roleIds);
+
+        final List<UserView> users = new ArrayList<>(rows.size());
+        for (UUID id : distinctIds) {
+            final Row row = rows.get(id);
+            if (row == null) {
+                continue;
+            }
+
+            row.user.setAssignedRoles(
+                    row.roleIds.stream()
+                            .map(roles::get)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList()));
+            users.add(new UserView(row.user, row.createdAt, row.version));
+        }
+
+        return users;
+    }
+
+    private static Map<UUID, Row> findRows(Connection connection, List<UUID> ids)
+            throws SQLException {
+        final Map<UUID, Row> rows = new LinkedHashMap<>();
+        readUsers(connection, SELECT_USERS, ids, rows);
+        readRoleIds(connection, SELECT_ROLE_IDS, ids, rows);
+
+        final List<UUID> missing =
+                ids.stream().filter(id -> !rows.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            final Map<UUID, Row> archived = new LinkedHashMap<>();
+            readUsers(connection, SELECT_ARCHIVED_USERS, missing, archived);
+            if (!archived.isEmpty()) {
+                readRoleIds(
+                        connection,
+                        SELECT_ARCHIVED_ROLE_IDS,
+                        new ArrayList<>(archived.keySet()),
+                        archived);
+                rows.putAll(archived);
+            }
+        }
+
+        return rows;
+    }
+
+    private static void readUsers(
+            Connection connection, String sql, List<UUID> ids, Map<UUID, Row> rows)
+            throws SQLException {
+        try (PreparedStatement statement = prepareForIds(connection, sql, ids);
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                final Row row = mapRow(resultSet);
+                rows.put(row.user.getId(), row);
+            }
+        }
+    }
+
+    private static void readRoleIds(
+            Connection connection, String sql, List<UUID> ids, Map<UUID, Row> rows)
+            throws SQLException {
+        try (PreparedStatement statement = prepareForIds(connection, sql, ids);
+                ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                final Row row = rows.get(resultSet.getObject(1, UUID.class));
+                if (row != null) {
+                    row.roleIds.add(resultSet.getObject(2, UUID.class));
+                }
+            }
+        }
+    }
+
+    private static PreparedStatement prepareForIds(
+            Connection connection, String sql, List<UUID> ids) throws SQLException {
+        final String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        final PreparedStatement statement =
+                connection.prepareStatement(String.format(sql, placeholders));
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                statement.setObject(i + 1, ids.get(i));
+            }
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+
+        return statement;
+    }
+
+    private static Row mapRow(ResultSet resultSet) throws SQLException {
+        final String firstName = resultSet.getString(4);
+        final String lastName = resultSet.getString(6);
+        final UserDTO user =
+                new UserDTO()
+                        .id(resultSet.getObject(1, UUID.class))
+                        .externalId(resultSet.getString(2))
+                        .identityProvider(resultSet.getString(3))
+                        .firstName(firstName)
+                        .middleName(resultSet.getString(5))
+                        .lastName(lastName)
+                        .displayName(
+                                UserEntityMapper.INSTANCE.createDisplayname(firstName, lastName))
+                        .phoneNumber(resultSet.getString(7))
+                        .email(resultSet.getString(8))
+                        .userType(UserType.fromText(resultSet.getString(10)).toString())
+                        .deleted(resultSet.getBoolean(11))
+                        .deletedOn(toOffsetDateTime(resultSet.getTimestamp(12)));
+
+        if (resultSet.getBoolean(16)) {
+            user.setPreferences(
+                    new UserPreferenceDTO()
+                            .preferredLanguage(resultSet.getString(14))
+                            .preferredCommunicationMethod(resultSet.getString(15)));
+        }
+
+        return new Row(user, toOffsetDateTime(resultSet.getTimestamp(9)), resultSet.getLong(13));
+    }
+
+    // Read the way Hibernate reads OffsetDateTime attributes from these timestamp columns.
+    private static OffsetDateTime toOffsetDateTime(Timestamp timestamp) {
+        return timestamp == null
+                ? null
+                : OffsetDateTime.ofInstant(timestamp.toInstant(), ZoneId.systemDefault());
+    }
+
+    private static final class Row {
+        private final UserDTO user;
+        private final OffsetDateTime createdAt;
+        private final long version;
+        private final List<UUID> roleIds = new ArrayList<>();
+
+        private Row(UserDTO user, OffsetDateTime createdAt, long version) {
+            this.user = user;
+            this.createdAt = createdAt;
+            this.version = version;
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package io.nuvalence.user.management.api.service.service;
 
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
-import io.nuvalence.user.management.api.service.entity.PermissionEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
 import io.nuvalence.user.management.api.service.generated.models.PermissionDTO;
 import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import io.nuvalence.user.management.api.service.repository.ApplicationRoleChanges;
+import io.nuvalence.user.management.api.service.repository.ApplicationRoleRegistrationRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.UUID;
 
 /**
@@ -23,6 +29,9 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ApplicationService {
     private final ApplicationRepository applicationRepository;
+    private final ApplicationRoleRegistrationRepository applicationRoleRegistrationRepository;
+    private final RoleCatalogService roleCatalogService;
+    private final ChangeFeedService changeFeedService;
 
     /**
      * Returns a list of all applications.
@@ -43,60 +52,84 @@ public class ApplicationService {
     }
 
     /**
-     * Updates permissions for an application.
+     * Updates permissions for an application. Registrations are identified by a hash of their
+     * content: registering the roles stored last returns without writing anything, and any other
+     * registration writes only the permissions that differ. Permissions of the application that
+     * are not registered are deactivated.
      *
      * @param name application name
-     * @param newPermissions updated permissions
+     * @param newPermissions updated permissions; the last one wins for a repeated application role
      */
     public void setApplicationRoles(String name, List<PermissionDTO> newPermissions) {
-        // Either fetch an existing application, or create a new one.
-        ApplicationEntity application =
-                applicationRepository.getApplicationByName(name).orElse(new ApplicationEntity());
-
-        application.setName(name);
+        final Map<String, PermissionDTO> roles = new TreeMap<>();
+        for (PermissionDTO permission : newPermissions) {
+            roles.put(permission.getApplicationRole(), permission);
+        }
 
-        // In case we're creating a new application.
-        if (application.getPermissions() == null) {
-            application.setPermissions(new ArrayList<>());
-            application.setDisplayName(name);
+        final String rolesHash = hash(roles);
+        if (applicationRepository.findRolesHashByName(name).filter(rolesHash::equals).isPresent()) {
+            return;
         }
 
-        Map<String, PermissionEntity> permissions = new HashMap<>();
+        final ApplicationRoleChanges changes =
+                applicationRoleRegistrationRepository.register(name, roles.values(), rolesHash);
+        if (changes.isEmpty()) {
+            return;
+        }
 
-        // Mark all permissions as inactive; if they're in the request's permission list, then it'll
-        // be marked as active again.
-        for (PermissionEntity permission : application.getPermissions()) {
-            permission.setActive(false);
-            permissions.put(permission.getApplicationRole(), permission);
+        for (UUID id : changes.getCreatedPermissions()) {
+            changeFeedService.record(ChangeEntityType.PERMISSION, id, ChangeOperation.CREATED);
         }
+        for (UUID id : changes.getUpdatedPermissions()) {
+            changeFeedService.record(ChangeEntityType.PERMISSION, id, ChangeOperation.UPDATED);
+        }
+        roleCatalogService.invalidate();
+    }
 
-        for (PermissionDTO newPermission : newPermissions) {
-            // Check if the permission already exists for this application.
-            PermissionEntity permission = permissions.get(newPermission.getApplicationRole());
-            boolean isNewPermission = false;
+    /**
+     * Forgets the registered roles of an application whose permissions were edited directly, so
+     * that its next registration is applied even if it repeats the last one.
+     *
+     * @param id application id
+     */
+    public void invalidateRegisteredRoles(UUID id) {
+        applicationRepository.clearRolesHash(id);
+    }
 
-            // Permission does not exist; create a new one.
-            if (permission == null) {
-                permission = new PermissionEntity();
-                permission.setApplication(application);
-                permission.setApplicationId(application.getId());
+    private static String hash(Map<String, PermissionDTO> roles) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
 
-                isNewPermission = true;
-            }
+        for (PermissionDTO role : roles.values()) {
+            update(digest, role.getApplicationRole());
+            update(digest, role.getName());
+            update(digest, role.getDescription());
+            update(digest, role.getGroup());
+        }
 
-            permission.setActive(true);
-            permission.setApplicationRole(newPermission.getApplicationRole());
-            permission.setDescription(newPermission.getDescription());
-            permission.setName(newPermission.getName());
-            permission.setGroup(newPermission.getGroup());
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
-            // In case we're not modifying an existing permission, add it to the of permissions. If
-            // we're just modifying a permission then it already exists.
-            if (isNewPermission) {
-                application.getPermissions().add(permission);
-            }
+    /** Adds a value with a length prefix, so that no two lists of values hash alike. */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
         }
 
-        applicationRepository.save(application);
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(
+                new byte[] {
+                    (byte) (bytes.length >>> 24),
+                    (byte) (bytes.length >>> 16),
+                    (byte) (bytes.length >>> 8),
+                    (byte) bytes.length
+                });
+        digest.update(bytes);
     }
 }
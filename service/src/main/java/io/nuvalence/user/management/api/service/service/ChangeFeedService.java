@@ -0,0 +1,370 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.ChangeOutboxEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
+import io.nuvalence.user.management.api.service.repository.ChangeOutboxRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed of users, user preferences, roles and permissions, backed by the
+ * {@code change_outbox} table.
+ *
+ * <p>Every mutation records a change in its transaction, so a change reaches the feed only if it
+ * commits. Consumers read the feed after the last sequence number they saw and refetch
+ * each changed entity; a change names the entity, not its new state.</p>
+ *
+ * <p>Changes recorded in a transaction are kept in memory and appended to the outbox just before
+ * it commits, without a sequence number and without any lock shared with other writers. The relay
+ * then numbers committed changes in its own transaction, one relay at a time (see
+ * {@link ChangeOutboxRepository#sequencePending}); it runs as soon as a transaction of this
+ * instance commits, and every {@code users.changes.poll-interval} for changes appended elsewhere,
+ * such as by user imports. Once a reader sees a sequence number, no lower one can appear later,
+ * so readers skip gaps at once.</p>
+ *
+ * <p>The compaction job removes changes older than {@code users.changes.compaction.age} that a
+ * later change of the same entity supersedes, and deletions older than
+ * {@code users.changes.compaction.deletion-retention}. A consumer that falls further behind than
+ * the deletion retention must resynchronize from {@code GET /users}.</p>
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeFeedService {
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private final AtomicBoolean relayRequested = new AtomicBoolean();
+    private final ExecutorService relayExecutor =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, "change-feed-relay");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastSequence = new AtomicLong();
+    private final ChangeOutboxRepository changeOutboxRepository;
+    private final UserRepository userRepository;
+
+    @Value("${users.changes.relay-chunk-size:1000}")
+    private int relayChunkSize;
+
+    @Value("${users.changes.compaction.enabled:true}")
+    private boolean compactionEnabled;
+
+    @Value("${users.changes.compaction.age:PT1H}")
+    private Duration compactionAge;
+
+    @Value("${users.changes.compaction.deletion-retention:P7D}")
+    private Duration deletionRetention;
+
+    @Value("${users.changes.compaction.chunk-size:1000}")
+    private int compactionChunkSize;
+
+    /**
+     * Records a change in the current transaction. It is appended to the feed when the transaction
+     * commits.
+     *
+     * @param entityType type of the changed entity
+     * @param entityId id of the changed entity
+     * @param operation operation performed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeEntityType entityType, UUID entityId, ChangeOperation operation) {
+        pendingChanges().add(entityType, entityId, operation);
+    }
+
+    /**
+     * Records a change of each user in the current transaction.
+     *
+     * @param userIds ids of the changed users
+     * @param operation operation performed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUsers(List<UUID> userIds, ChangeOperation operation) {
+        final PendingChanges pending = pendingChanges();
+        userIds.forEach(userId -> pending.add(ChangeEntityType.USER, userId, operation));
+    }
+
+    /**
+     * Records an update of every current member of a role in the current transaction. Members are
+     * read now, so the role may be deleted later in the transaction.
+     *
+     * @param roleId id of the role
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRoleMembers(UUID roleId) {
+        recordUsers(userRepository.findIdsByRoleId(roleId), ChangeOperation.UPDATED);
+    }
+
+    /**
+     * Returns the changes on the feed following a sequence number.
+     *
+     * @param since sequence number of the last change seen, 0 to read from the start
+     * @param limit maximum number of changes to return
+     * @return changes in sequence order, possibly empty
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ChangeOutboxEntity> getChanges(long since, int limit) {
+        return changeOutboxRepository.findBySequenceGreaterThanOrderBySequence(
+                since, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Returns the changes on the feed following a sequence number, or when there are none, the
+     * changes that reach the feed within {@code wait}. The wait holds no thread and no database
+     * connection: changes relayed by this instance complete it at once, changes relayed by others
+     * within {@code users.changes.poll-interval}, and the timeout completes it with no changes.
+     *
+     * @param since sequence number of the last change seen, 0 to read from the start
+     * @param limit maximum number of changes to return
+     * @param wait how long to wait for a change
+     * @return changes in sequence order, possibly empty
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<List<ChangeOutboxEntity>> awaitChanges(
+            long since, int limit, Duration wait) {
+        final List<ChangeOutboxEntity> changes = getChanges(since, limit);
+        if (!changes.isEmpty() || wait.isZero() || wait.isNegative()) {
+            return CompletableFuture.completedFuture(changes);
+        }
+
+        final Waiter waiter = new Waiter(since, limit);
+        waiters.add(waiter);
+        waiter.result.whenComplete((result, error) -> waiters.remove(waiter));
+        waiter.result.completeOnTimeout(List.of(), wait.toNanos(), TimeUnit.NANOSECONDS);
+
+        // A relay that finished after the read above woke the waiters before this one was added.
+        final long last = lastSequence.get();
+        if (last > since) {
+            wakeWaiters(last);
+        }
+
+        return waiter.result;
+    }
+
+    /**
+     * Numbers committed changes that are not on the feed yet, in chunks of their own
+     * transactions, then wakes waiting readers.
+     *
+     * @return number of changes numbered
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int relay() {
+        int relayed = 0;
+        int chunk;
+        do {
+            chunk = changeOutboxRepository.sequencePending(relayChunkSize);
+            relayed += chunk;
+        } while (chunk == relayChunkSize);
+
+        if (relayed > 0 && !waiters.isEmpty()) {
+            wakeWaiters(changeOutboxRepository.findLastSequence());
+        }
+
+        return relayed;
+    }
+
+    /**
+     * Runs the relay on its schedule, for changes appended by other instances and by user imports,
+     * and wakes waiting readers for changes other instances relayed.
+     */
+    @Scheduled(fixedDelayString = "${users.changes.poll-interval:PT1S}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void relayOnSchedule() {
+        if (relay() == 0 && !waiters.isEmpty()) {
+            wakeWaiters(changeOutboxRepository.findLastSequence());
+        }
+    }
+
+    /**
+     * Stops the relay thread and answers waiting readers with no changes.
+     */
+    @PreDestroy
+    public void stopRelay() {
+        relayExecutor.shutdownNow();
+        waiters.forEach(waiter -> waiter.result.complete(List.of()));
+    }
+
+    /**
+     * Runs the compaction job on its schedule.
+     */
+    @Scheduled(
+            initialDelayString = "${users.changes.compaction.interval:PT15M}",
+            fixedDelayString = "${users.changes.compaction.interval:PT15M}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void compactOnSchedule() {
+        if (compactionEnabled) {
+            compact();
+        }
+    }
+
+    /**
+     * Removes superseded changes and expired deletions, in chunks of their own transactions.
+     *
+     * @return number of changes removed
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int compact() {
+        final OffsetDateTime now = OffsetDateTime.now(clock);
+        final OffsetDateTime supersededBefore = now.minus(compactionAge);
+        final OffsetDateTime deletedBefore = now.minus(deletionRetention);
+
+        int removed = 0;
+        int chunk;
+        do {
+            chunk =
+                    changeOutboxRepository.deleteSupersededChunk(
+                            supersededBefore, compactionChunkSize);
+            removed += chunk;
+        } while (chunk == compactionChunkSize);
+        do {
+            chunk = changeOutboxRepository.deleteDeletionsChunk(deletedBefore, compactionChunkSize);
+            removed += chunk;
+        } while (chunk == compactionChunkSize);
+
+        if (removed > 0) {
+            log.info("Compacted {} changes from the change feed", removed);
+        }
+
+        return removed;
+    }
+
+    /**
+     * Completes the waiters behind a sequence number with the changes following theirs. Waiters
+     * at the same position share one read.
+     *
+     * @param last highest sequence number known to be assigned
+     */
+    private void wakeWaiters(long last) {
+        lastSequence.accumulateAndGet(last, Math::max);
+        final Map<Long, List<Waiter>> behind =
+                waiters.stream()
+                        .filter(waiter -> waiter.since < last)
+                        .collect(Collectors.groupingBy(waiter -> waiter.since));
+        behind.forEach(
+                (since, group) -> {
+                    final int limit =
+                            group.stream().mapToInt(waiter -> waiter.limit).max().orElse(1);
+                    try {
+                        final List<ChangeOutboxEntity> changes = getChanges(since, limit);
+                        if (!changes.isEmpty()) {
+                            group.forEach(waiter -> waiter.complete(changes));
+                        }
+                    } catch (RuntimeException e) {
+                        group.forEach(waiter -> waiter.result.completeExceptionally(e));
+                    }
+                });
+    }
+
+    /**
+     * Runs the relay on its own thread soon. Requests made before the relay starts are served by
+     * that one run.
+     */
+    private void requestRelay() {
+        if (relayRequested.getAndSet(true)) {
+            return;
+        }
+
+        try {
+            relayExecutor.execute(
+                    () -> {
+                        relayRequested.set(false);
+                        try {
+                            relay();
+                        } catch (RuntimeException e) {
+                            // The scheduled relay numbers these changes instead.
+                            log.warn("Could not relay change feed changes", e);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            relayRequested.set(false);
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        // Synchronizations, unlike bound resources, are suspended with their transaction.
+        for (TransactionSynchronization synchronization :
+                TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges) {
+                return (PendingChanges) synchronization;
+            }
+        }
+
+        final PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * Changes recorded in one transaction, appended to the outbox when it commits.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+        private final List<ChangeOutboxEntity> changes = new ArrayList<>();
+
+        void add(ChangeEntityType entityType, UUID entityId, ChangeOperation operation) {
+            changes.add(new ChangeOutboxEntity(0, null, entityType, entityId, operation, null));
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            final OffsetDateTime now = OffsetDateTime.now(clock);
+            changes.forEach(change -> change.setChangedAt(now));
+            changeOutboxRepository.appendAll(changes);
+        }
+
+        @Override
+        public void afterCommit() {
+            requestRelay();
+        }
+    }
+
+    /**
+     * Reader waiting for changes following a sequence number.
+     */
+    private static final class Waiter {
+        private final long since;
+        private final int limit;
+        private final CompletableFuture<List<ChangeOutboxEntity>> result =
+                new CompletableFuture<>();
+
+        private Waiter(long since, int limit) {
+            this.since = since;
+            this.limit = limit;
+        }
+
+        void complete(List<ChangeOutboxEntity> changes) {
+            result.complete(List.copyOf(changes.subList(0, Math.min(limit, changes.size()))));
+        }
+    }
+}
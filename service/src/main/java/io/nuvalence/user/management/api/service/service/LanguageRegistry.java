@@ -0,0 +1,90 @@
+package io.nuvalence.user.management.api.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.entity.LanguageEntity;
+import io.nuvalence.user.management.api.service.generated.models.LanguageDTO;
+import io.nuvalence.user.management.api.service.mapper.LanguageEntityMapper;
+import io.nuvalence.user.management.api.service.util.web.PreSerializedJsonList;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the supported languages, keyed by ISO 639-1 id, together with the
+ * pre-serialized body served by GET /languages.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LanguageRegistry {
+    Instant loadedAt;
+    Map<String, LanguageEntity> languagesByStandardId;
+    PreSerializedJsonList<LanguageDTO> body;
+
+    /**
+     * Builds a registry from the given languages, keeping their order.
+     *
+     * @param loadedAt time the languages were read
+     * @param languages all supported languages
+     * @param objectMapper mapper used to serialize the languages
+     * @return language registry
+     */
+    public static LanguageRegistry of(
+            Instant loadedAt, List<LanguageEntity> languages, ObjectMapper objectMapper) {
+        final Map<String, LanguageEntity> byStandardId = new LinkedHashMap<>();
+        languages.forEach(
+                language -> byStandardId.put(language.getLanguageStandardId(), copy(language)));
+
+        return new LanguageRegistry(
+                loadedAt,
+                Collections.unmodifiableMap(byStandardId),
+                PreSerializedJsonList.of(
+                        byStandardId.values().stream()
+                                .map(LanguageEntityMapper.INSTANCE::languageEntityToLanguageDto)
+                                .collect(Collectors.toList()),
+                        objectMapper));
+    }
+
+    /**
+     * Looks up a language. A new entity is returned on each call so callers cannot alter the
+     * registry.
+     *
+     * @param standardId ISO 639-1 id
+     * @return language, if supported
+     */
+    public Optional<LanguageEntity> getLanguage(String standardId) {
+        return Optional.ofNullable(standardId)
+                .map(languagesByStandardId::get)
+                .map(LanguageRegistry::copy);
+    }
+
+    /**
+     * Returns copies of all supported languages.
+     *
+     * @return supported languages
+     */
+    public List<LanguageEntity> getLanguages() {
+        return languagesByStandardId.values().stream()
+                .map(LanguageRegistry::copy)
+                .collect(Collectors.toList());
+    }
+
+    public boolean isEmpty() {
+        return languagesByStandardId.isEmpty();
+    }
+
+    private static LanguageEntity copy(LanguageEntity language) {
+        return new LanguageEntity(
+                language.getId(),
+                language.getLanguageName(),
+                language.getLanguageStandardId(),
+                language.getLocalName());
+    }
+}
@@ -1,33 +1,80 @@
 package io.nuvalence.user.management.api.service.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nuvalence.user.management.api.service.entity.LanguageEntity;
 import io.nuvalence.user.management.api.service.repository.LanguageRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Service for Language.
+ * Service for Language. Languages are read from a {@link LanguageRegistry} that is loaded when
+ * the scheduler starts (or on first use, if that comes earlier) and reloaded every
+ * {@code languages.refresh-interval}.
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class LanguageService {
 
     private final LanguageRepository languageRepository;
 
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<LanguageRegistry> registry = new AtomicReference<>();
+
     /**
      * Simple method to retrieve a language entity by the standardId.
      * @param standardId standard if for a language.
-     * @return an authenticated userId.
+     * @return the language, if supported.
      */
-    // to be done implement cache for this method
     public Optional<LanguageEntity> getLanguageByStandardId(String standardId) {
-        return languageRepository.findByLanguageStandardId(standardId);
+        return getRegistry().getLanguage(standardId);
     }
 
     public List<LanguageEntity> getLanguages() {
-        return languageRepository.findAll();
+        return getRegistry().getLanguages();
+    }
+
+    /**
+     * Returns the current registry, loading it if this is the first use.
+     *
+     * @return language registry
+     */
+    public LanguageRegistry getRegistry() {
+        final LanguageRegistry current = registry.get();
+
+        return current != null ? current : load();
+    }
+
+    /**
+     * Reloads the registry from the database.
+     */
+    @Scheduled(fixedDelayString = "${languages.refresh-interval:PT10M}")
+    public void refresh() {
+        load();
+    }
+
+    private LanguageRegistry load() {
+        final LanguageRegistry loaded =
+                LanguageRegistry.of(
+                        Instant.now(),
+                        languageRepository.findAll(Sort.by("languageStandardId")),
+                        objectMapper);
+        registry.set(loaded);
+
+        log.debug(
+                "Loaded {} languages, etag {}",
+                loaded.getLanguagesByStandardId().size(),
+                loaded.getBody().getEtag());
+
+        return loaded;
     }
 }
@@ -4,6 +4,8 @@ import io.nuvalence.user.management.api.service.config.exception.BusinessLogicEx
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import io.nuvalence.user.management.api.service.entity.PermissionEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdatePermissionDTO;
 import io.nuvalence.user.management.api.service.repository.PermissionRepository;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +31,10 @@ public class PermissionService {
 
     private final ApplicationService applicationService;
 
+    private final RoleCatalogService roleCatalogService;
+
+    private final ChangeFeedService changeFeedService;
+
     /**
      * Adds a permission to the database.
      *
@@ -65,9 +71,14 @@ public class PermissionService {
             }
 
             newPermission.setApplication(requestedApplication.get());
+            invalidateRegisteredRoles(permission.getApplication());
         }
 
-        return permissionRepository.save(newPermission);
+        roleCatalogService.invalidate();
+        final PermissionEntity saved = permissionRepository.save(newPermission);
+        changeFeedService.record(
+                ChangeEntityType.PERMISSION, saved.getId(), ChangeOperation.CREATED);
+        return saved;
     }
 
     /**
@@ -88,6 +99,7 @@ public class PermissionService {
 
         permissionEntity.setName(permissionRequest.getName());
         permissionEntity.setDescription(permissionRequest.getDescription());
+        invalidateRegisteredRoles(permissionEntity.getApplicationId());
 
         // Check in case the applications field is omitted; it is technically not required.
         if (permissionRequest.getApplication() != null) {
@@ -102,8 +114,12 @@ public class PermissionService {
                                                             + "."));
 
             permissionEntity.setApplication(application);
+            invalidateRegisteredRoles(application.getId());
         }
 
+        roleCatalogService.invalidate();
+        changeFeedService.record(
+                ChangeEntityType.PERMISSION, permissionId, ChangeOperation.UPDATED);
         return permissionRepository.save(permissionEntity);
     }
 
@@ -139,7 +155,11 @@ public class PermissionService {
                                                 "There is no permission that exists with this"
                                                         + " ID."));
 
+        invalidateRegisteredRoles(permissionEntity.getApplicationId());
         permissionRepository.delete(permissionEntity);
+        roleCatalogService.invalidate();
+        changeFeedService.record(
+                ChangeEntityType.PERMISSION, permissionId, ChangeOperation.DELETED);
     }
 
     /**
@@ -151,4 +171,24 @@ public class PermissionService {
     public Optional<PermissionEntity> getPermissionById(UUID permissionId) {
         return permissionRepository.findById(permissionId);
     }
+
+    /**
+     * Returns a permission by its application role.
+     *
+     * @param applicationRole is a permission's application role
+     * @return a permission, if one exists.
+     */
+    public Optional<PermissionEntity> getPermissionByApplicationRole(String applicationRole) {
+        return permissionRepository.findByApplicationRole(applicationRole);
+    }
+
+    /**
+     * Direct edits make the permissions of an application differ from its last registration, which
+     * must then be applied again even if it is repeated unchanged.
+     */
+    private void invalidateRegisteredRoles(UUID applicationId) {
+        if (applicationId != null) {
+            applicationService.invalidateRegisteredRoles(applicationId);
+        }
+    }
 }
@@ -0,0 +1,222 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
+import io.nuvalence.user.management.api.service.entity.PermissionEntity;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.generated.models.AssignedRoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, versioned snapshot of the role, permission and application catalog.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RoleCatalog {
+    long version;
+    Instant builtAt;
+    Map<UUID, RoleEntry> roles;
+    Map<String, RoleEntry> rolesByName;
+    Map<UUID, PermissionEntry> permissions;
+    Map<UUID, ApplicationEntry> applications;
+
+    /**
+     * Builds a snapshot from the given entities. Permissions referenced by roles are added to the
+     * snapshot even if they are missing from the permission list.
+     *
+     * @param version version of the catalog the entities were read at
+     * @param builtAt time the entities were read
+     * @param roles all roles, with their permissions loaded
+     * @param permissions all permissions
+     * @param applications all applications
+     * @return catalog snapshot
+     */
+    public static RoleCatalog of(
+            long version,
+            Instant builtAt,
+            List<RoleEntity> roles,
+            List<PermissionEntity> permissions,
+            List<ApplicationEntity> applications) {
+        final Map<UUID, PermissionEntry> permissionEntries = new LinkedHashMap<>();
+        permissions.forEach(p -> permissionEntries.put(p.getId(), PermissionEntry.of(p)));
+
+        final Map<UUID, RoleEntry> roleEntries = new LinkedHashMap<>();
+        for (RoleEntity role : roles) {
+            final List<PermissionEntity> rolePermissions =
+                    Objects.requireNonNullElse(role.getPermissions(), List.of());
+            rolePermissions.forEach(
+                    p -> permissionEntries.putIfAbsent(p.getId(), PermissionEntry.of(p)));
+            roleEntries.put(
+                    role.getId(),
+                    new RoleEntry(
+                            role.getId(),
+                            role.getName(),
+                            role.getDescription(),
+                            rolePermissions.stream()
+                                    .map(PermissionEntity::getId)
+                                    .collect(Collectors.toUnmodifiableList())));
+        }
+
+        return new RoleCatalog(
+                version,
+                builtAt,
+                Collections.unmodifiableMap(roleEntries),
+                roleEntries.values().stream()
+                        .collect(
+                                Collectors.toUnmodifiableMap(
+                                        RoleEntry::getName,
+                                        Function.identity(),
+                                        (first, second) -> first)),
+                Collections.unmodifiableMap(permissionEntries),
+                applications.stream()
+                        .map(ApplicationEntry::of)
+                        .collect(
+                                Collectors.toUnmodifiableMap(
+                                        ApplicationEntry::getId, Function.identity())));
+    }
+
+    public Optional<RoleEntry> getRole(UUID id) {
+        return Optional.ofNullable(roles.get(id));
+    }
+
+    public Optional<RoleEntry> getRoleByName(String name) {
+        return Optional.ofNullable(rolesByName.get(name));
+    }
+
+    /**
+     * Creates a detached role entity, with its permissions and their applications, from a role in
+     * this snapshot. A new instance is returned on each call so callers cannot alter the snapshot.
+     *
+     * @param role role in this snapshot
+     * @return detached role entity
+     */
+    public RoleEntity toRoleEntity(RoleEntry role) {
+        final List<PermissionEntity> rolePermissions = new ArrayList<>();
+        for (UUID permissionId : role.getPermissionIds()) {
+            rolePermissions.add(toPermissionEntity(permissions.get(permissionId)));
+        }
+
+        return new RoleEntity(
+                role.getId(), role.getName(), role.getDescription(), null, rolePermissions);
+    }
+
+    /**
+     * Creates the model of a role in this snapshot, with its permissions by application role, as
+     * {@code RoleEntityMapper} maps the role entity.
+     *
+     * @param role role in this snapshot
+     * @return role model
+     */
+    public RoleDTO toRoleDto(RoleEntry role) {
+        return new RoleDTO()
+                .id(role.getId())
+                .name(role.getName())
+                .description(role.getDescription())
+                .permissions(
+                        role.getPermissionIds().stream()
+                                .map(permissions::get)
+                                .map(PermissionEntry::getApplicationRole)
+                                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Creates the model of a role in this snapshot as it is listed among a user's roles.
+     *
+     * @param role role in this snapshot
+     * @return assigned role model
+     */
+    public AssignedRoleDTO toAssignedRoleDto(RoleEntry role) {
+        return new AssignedRoleDTO()
+                .id(role.getId())
+                .roleName(role.getName())
+                .description(role.getDescription());
+    }
+
+    private PermissionEntity toPermissionEntity(PermissionEntry permission) {
+        final PermissionEntity entity = new PermissionEntity();
+        entity.setId(permission.getId());
+        entity.setApplicationId(permission.getApplicationId());
+        entity.setApplicationRole(permission.getApplicationRole());
+        entity.setName(permission.getName());
+        entity.setDescription(permission.getDescription());
+        entity.setGroup(permission.getGroup());
+        entity.setActive(permission.isActive());
+
+        final ApplicationEntry application = applications.get(permission.getApplicationId());
+        if (application != null) {
+            entity.setApplication(
+                    new ApplicationEntity(
+                            application.getId(),
+                            application.getDisplayName(),
+                            application.getName(),
+                            null));
+        }
+
+        return entity;
+    }
+
+    /**
+     * Role in the catalog.
+     */
+    @Value
+    public static class RoleEntry {
+        UUID id;
+        String name;
+        String description;
+        List<UUID> permissionIds;
+    }
+
+    /**
+     * Permission in the catalog.
+     */
+    @Value
+    public static class PermissionEntry {
+        UUID id;
+        UUID applicationId;
+        String applicationRole;
+        String name;
+        String description;
+        String group;
+        boolean active;
+
+        static PermissionEntry of(PermissionEntity permission) {
+            return new PermissionEntry(
+                    permission.getId(),
+                    permission.getApplicationId(),
+                    permission.getApplicationRole(),
+                    permission.getName(),
+                    permission.getDescription(),
+                    permission.getGroup(),
+                    permission.isActive());
+        }
+    }
+
+    /**
+     * Application in the catalog.
+     */
+    @Value
+    public static class ApplicationEntry {
+        UUID id;
+        String name;
+        String displayName;
+
+        static ApplicationEntry of(ApplicationEntity application) {
+            return new ApplicationEntry(
+                    application.getId(), application.getName(), application.getDisplayName());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import io.nuvalence.user.management.api.service.repository.PermissionRepository;
+import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link RoleCatalog} snapshot. The snapshot is rebuilt on the first read after
+ * a write to roles, permissions or applications, and at least every max-age so that writes made
+ * by other instances are picked up.
+ *
+ * <p>One thread rebuilds at a time. While it does, other readers are served the previous snapshot,
+ * and only wait when there is none yet. A transaction that has written to the catalog reads a
+ * snapshot of its own that is never shared, so uncommitted writes are not served to others.</p>
+ */
+@Component
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RoleCatalogService {
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+    private final ApplicationRepository applicationRepository;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<RoleCatalog> snapshot = new AtomicReference<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Clock clock = Clock.systemUTC();
+
+    @Value("${role-catalog.max-age:PT5M}")
+    private Duration maxAge = Duration.ofMinutes(5);
+
+    /**
+     * Returns the current snapshot, rebuilding it if it is stale and no other thread already is.
+     *
+     * @return role catalog snapshot
+     */
+    public RoleCatalog getSnapshot() {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return build();
+        }
+
+        final RoleCatalog current = snapshot.get();
+        if (isFresh(current)) {
+            return current;
+        }
+
+        if (current == null) {
+            rebuildLock.lock();
+        } else if (!rebuildLock.tryLock()) {
+            return current;
+        }
+
+        try {
+            return rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot containing the given roles. A snapshot that misses any of them, as one
+     * built before another instance created a role does, is rebuilt once; roles still missing
+     * after that no longer exist.
+     *
+     * @param roleIds ids of the roles the caller needs
+     * @return role catalog snapshot
+     */
+    public RoleCatalog getSnapshotWithRoles(Collection<UUID> roleIds) {
+        final RoleCatalog current = getSnapshot();
+        if (current.getRoles().keySet().containsAll(roleIds)) {
+            return current;
+        }
+
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return current;
+        }
+
+        // Wait for the rebuild rather than being served the snapshot that missed the roles.
+        version.incrementAndGet();
+        rebuildLock.lock();
+        try {
+            return rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the snapshot as stale. When called inside a transaction, reads in that transaction
+     * build their own snapshot until it completes, and the shared snapshot is invalidated again
+     * once it does, so a snapshot built from uncommitted or rolled back data is never kept.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            TransactionSynchronizationManager.unbindResourceIfPossible(
+                                    RoleCatalogService.this);
+                            version.incrementAndGet();
+                        }
+                    });
+        }
+    }
+
+    private boolean isFresh(RoleCatalog catalog) {
+        return catalog != null
+                && catalog.getVersion() == version.get()
+                && catalog.getBuiltAt().plus(maxAge).isAfter(clock.instant());
+    }
+
+    // Called with the rebuild lock held.
+    private RoleCatalog rebuild() {
+        final RoleCatalog current = snapshot.get();
+        if (isFresh(current)) {
+            return current;
+        }
+
+        final RoleCatalog rebuilt = build();
+
+        // Only publish if no write happened while building; otherwise the next read rebuilds.
+        if (rebuilt.getVersion() == version.get()) {
+            snapshot.set(rebuilt);
+        }
+
+        return rebuilt;
+    }
+
+    private RoleCatalog build() {
+        final long buildVersion = version.get();
+        final Instant builtAt = clock.instant();
+        final RoleCatalog catalog =
+                RoleCatalog.of(
+                        buildVersion,
+                        builtAt,
+                        roleRepository.findAllWithPermissions(),
+                        permissionRepository.findAll(),
+                        applicationRepository.findAll());
+
+        log.debug(
+                "Built role catalog version {} with {} roles",
+                buildVersion,
+                catalog.getRoles().size());
+
+        return catalog;
+    }
+}
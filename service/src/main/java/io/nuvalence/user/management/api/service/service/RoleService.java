@@ -4,20 +4,34 @@ import io.nuvalence.user.management.api.service.config.exception.BusinessLogicEx
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.PermissionEntity;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
+import io.nuvalence.user.management.api.service.generated.models.DesiredRole;
+import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.RoleUpsertRequest;
 import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
 import io.nuvalence.user.management.api.service.repository.PermissionRepository;
+import io.nuvalence.user.management.api.service.repository.RoleDefinition;
 import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import io.nuvalence.user.management.api.service.repository.RoleSyncPlan;
+import io.nuvalence.user.management.api.service.repository.RoleSyncRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,23 +48,32 @@ public class RoleService {
     private final RoleRepository roleRepository;
     private final ApplicationRepository applicationRepository;
     private final PermissionRepository permissionRepository;
+    private final RoleCatalogService roleCatalogService;
+    private final UserProfileCache userProfileCache;
+    private final UserRepository userRepository;
+    private final ChangeFeedService changeFeedService;
+    private final RoleSyncRepository roleSyncRepository;
 
     /**
-     * Gets a role, if it exists.
+     * Gets a role, if it exists. The role is read from the role catalog snapshot and is detached.
      * @param id Role ID.
      * @return role with ID.
      */
+    @Transactional(readOnly = true)
     public Optional<RoleEntity> getRole(UUID id) {
-        return roleRepository.findById(id);
+        final RoleCatalog catalog = roleCatalogService.getSnapshot();
+        return catalog.getRole(id).map(catalog::toRoleEntity);
     }
 
     /**
-     * Gets a role, if it exists.
+     * Gets a role, if it exists. The role is read from the role catalog snapshot and is detached.
      * @param name Role name.
      * @return role with name.
      */
+    @Transactional(readOnly = true)
     public Optional<RoleEntity> getRoleByName(String name) {
-        return roleRepository.findByName(name);
+        final RoleCatalog catalog = roleCatalogService.getSnapshot();
+        return catalog.getRoleByName(name).map(catalog::toRoleEntity);
     }
 
     /**
@@ -93,7 +116,10 @@ public class RoleService {
         // Validate permissions
         newRole.setPermissions(validatePermissions(request.getPermissions()));
 
-        return roleRepository.save(newRole);
+        roleCatalogService.invalidate();
+        final RoleEntity saved = roleRepository.save(newRole);
+        changeFeedService.record(ChangeEntityType.ROLE, saved.getId(), ChangeOperation.CREATED);
+        return saved;
     }
 
     /**
@@ -114,15 +140,38 @@ public class RoleService {
         // Validate the permissions
         role.setPermissions(validatePermissions(request.getPermissions()));
 
+        roleCatalogService.invalidate();
+        // Assigned roles in user profiles carry the role name and description.
+        userRepository.incrementVersionOfRoleMembers(roleId);
+        userProfileCache.evictAll();
+        changeFeedService.record(ChangeEntityType.ROLE, roleId, ChangeOperation.UPDATED);
+        changeFeedService.recordRoleMembers(roleId);
         return roleRepository.save(role);
     }
 
     /**
-     * Fetches a list of all roles that exist.
+     * Fetches a list of all roles that exist, from the role catalog snapshot.
      * @return a list of all the roles.
      */
+    @Transactional(readOnly = true)
     public List<RoleEntity> getAllRoles() {
-        return roleRepository.findAll();
+        final RoleCatalog catalog = roleCatalogService.getSnapshot();
+        return catalog.getRoles().values().stream()
+                .map(catalog::toRoleEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets all roles as models, straight from the role catalog snapshot.
+     *
+     * @return a list of all the roles.
+     */
+    @Transactional(readOnly = true)
+    public List<RoleDTO> getAllRoleModels() {
+        final RoleCatalog catalog = roleCatalogService.getSnapshot();
+        return catalog.getRoles().values().stream()
+                .map(catalog::toRoleDto)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -140,7 +189,92 @@ public class RoleService {
                                         new ResourceNotFoundException(
                                                 "There is no role that exists with this id."));
 
+        userRepository.incrementVersionOfRoleMembers(roleId);
+        changeFeedService.recordRoleMembers(roleId);
+        changeFeedService.record(ChangeEntityType.ROLE, roleId, ChangeOperation.DELETED);
         roleRepository.delete(roleEntity);
+        roleCatalogService.invalidate();
+        userProfileCache.evictAll();
+    }
+
+    /**
+     * Makes the stored roles match a declared set in one transaction. Roles are matched by
+     * uppercase name; roles that are not declared are deleted along with their user assignments.
+     * Every permission reference is checked with a single query before anything is written.
+     *
+     * @param roles declared roles
+     * @param dryRun whether to only compute the changes
+     * @return changes made, or that would be made on a dry run
+     *
+     * @throws IllegalArgumentException if a role is declared twice.
+     * @throws BusinessLogicException if a permission does not exist.
+     */
+    public RoleSyncPlan syncRoles(List<DesiredRole> roles, boolean dryRun) {
+        final Map<String, DesiredRole> byName = new LinkedHashMap<>();
+        final Set<String> applicationRoles = new HashSet<>();
+        for (DesiredRole role : roles) {
+            final String name = role.getName().toUpperCase(Locale.US);
+            if (byName.put(name, role) != null) {
+                throw new IllegalArgumentException("The role '" + name + "' is declared twice.");
+            }
+            applicationRoles.addAll(role.getPermissions());
+        }
+
+        final Map<String, Set<UUID>> permissionIds = new HashMap<>();
+        if (!applicationRoles.isEmpty()) {
+            for (PermissionEntity permission :
+                    permissionRepository.findAllByApplicationRole(applicationRoles)) {
+                permissionIds
+                        .computeIfAbsent(permission.getApplicationRole(), key -> new HashSet<>())
+                        .add(permission.getId());
+            }
+        }
+        final Set<String> missing = new TreeSet<>(applicationRoles);
+        missing.removeAll(permissionIds.keySet());
+        if (!missing.isEmpty()) {
+            throw new BusinessLogicException(
+                    "The provided permissions " + String.join(", ", missing) + " are invalid.");
+        }
+
+        final Map<String, RoleDefinition> definitions = new LinkedHashMap<>();
+        byName.forEach(
+                (name, role) -> {
+                    final Set<UUID> ids = new HashSet<>();
+                    role.getPermissions().forEach(key -> ids.addAll(permissionIds.get(key)));
+                    definitions.put(name, new RoleDefinition(role.getDescription(), ids));
+                });
+
+        final RoleSyncPlan plan = roleSyncRepository.plan(definitions);
+        if (dryRun || plan.isEmpty()) {
+            return plan;
+        }
+
+        // Assigned roles in user profiles carry the role name and description; members of
+        // deleted roles are recorded before they lose the role.
+        final List<UUID> affected = new ArrayList<>(plan.getUpdatedRoles().values());
+        affected.addAll(plan.getDeletedRoles().values());
+        for (UUID roleId : affected) {
+            userRepository.incrementVersionOfRoleMembers(roleId);
+            changeFeedService.recordRoleMembers(roleId);
+        }
+
+        roleSyncRepository.apply(plan);
+
+        recordRoles(plan.getCreatedRoles(), ChangeOperation.CREATED);
+        recordRoles(plan.getUpdatedRoles(), ChangeOperation.UPDATED);
+        recordRoles(plan.getDeletedRoles(), ChangeOperation.DELETED);
+        roleCatalogService.invalidate();
+        if (!affected.isEmpty()) {
+            userProfileCache.evictAll();
+        }
+
+        return plan;
+    }
+
+    private void recordRoles(Map<String, UUID> roles, ChangeOperation operation) {
+        for (UUID roleId : roles.values()) {
+            changeFeedService.record(ChangeEntityType.ROLE, roleId, operation);
+        }
     }
 
     private List<PermissionEntity> validatePermissions(List<String> expectedPermissions) {
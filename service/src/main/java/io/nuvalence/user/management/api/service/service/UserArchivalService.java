@@ -0,0 +1,97 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.repository.UserArchiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Moves users that were soft deleted more than {@code users.archive.retention} ago out of
+ * {@code user_table} into the archive tables, so active-user queries stop paying for them.
+ *
+ * <p>A run archives chunks of {@code users.archive.chunk-size} users, each in its own transaction,
+ * and sleeps {@code users.archive.pause} between chunks to leave room for request traffic. It stops
+ * when no candidates are left or after {@code users.archive.max-chunks-per-run} chunks; the rest
+ * is picked up by the next run. Archived users still show up in searches with
+ * {@code includeDeleted=true}, but not in lookups by id.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserArchivalService {
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private final UserArchiveRepository userArchiveRepository;
+
+    @Value("${users.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${users.archive.retention:P30D}")
+    private Duration retention;
+
+    @Value("${users.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${users.archive.pause:PT0.2S}")
+    private Duration pause;
+
+    @Value("${users.archive.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    /**
+     * Runs the archival job on its schedule.
+     */
+    @Scheduled(
+            initialDelayString = "${users.archive.interval:PT5M}",
+            fixedDelayString = "${users.archive.interval:PT5M}")
+    public void archiveOnSchedule() {
+        if (enabled) {
+            archiveDeletedUsers();
+        }
+    }
+
+    /**
+     * Archives users deleted before the retention period, in throttled chunks.
+     *
+     * @return number of users archived
+     */
+    public int archiveDeletedUsers() {
+        final OffsetDateTime now = OffsetDateTime.now(clock);
+        final OffsetDateTime deletedBefore = now.minus(retention);
+
+        int archived = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            final int moved = userArchiveRepository.archiveChunk(deletedBefore, chunkSize, now);
+            archived += moved;
+            if (moved < chunkSize || !pause()) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} users deleted before {}", archived, deletedBefore);
+        }
+
+        return archived;
+    }
+
+    private boolean pause() {
+        if (pause.isZero()) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Outcome of creating one user of a bulk creation request.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class UserCreationResult {
+    UserEntity user;
+    String conflict;
+
+    public static UserCreationResult created(UserEntity user) {
+        return new UserCreationResult(user, null);
+    }
+
+    public static UserCreationResult conflict(UserEntity user, String reason) {
+        return new UserCreationResult(user, reason);
+    }
+
+    public boolean isCreated() {
+        return conflict == null;
+    }
+}
@@ -0,0 +1,186 @@
+package io.nuvalence.user.management.api.service.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.nuvalence.user.management.api.service.enums.UserImportFormat;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the records of a user import file, one at a time, and validates them.
+ *
+ * <p>CSV files need a header row naming the columns; role names are separated by semicolons.
+ * NDJSON files hold one object per line; roles are an array of role names. Unknown columns and
+ * fields are ignored. A record that fails validation is reported and reading goes on; a file that
+ * cannot be parsed at all ends the read with an {@link IOException}.</p>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class UserImportReader {
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final String CSV_ROLE_SEPARATOR = ";";
+    private static final List<String> REQUIRED_FIELDS =
+            List.of("externalId", "identityProvider", "email", "userType");
+    private static final List<String> TEXT_FIELDS =
+            List.of(
+                    "externalId",
+                    "identityProvider",
+                    "email",
+                    "firstName",
+                    "middleName",
+                    "lastName",
+                    "phoneNumber");
+    private static final CsvMapper CSV_MAPPER =
+            CsvMapper.builder()
+                    .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                    .enable(CsvParser.Feature.TRIM_SPACES)
+                    .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+                    .build();
+
+    /**
+     * Receives the records of a file in order.
+     */
+    public interface RecordHandler {
+        /**
+         * Called for each valid record.
+         *
+         * @param importRecord the record
+         */
+        void onRecord(UserImportRecord importRecord);
+
+        /**
+         * Called for each record that failed validation.
+         *
+         * @param recordNumber 1-based position of the record
+         * @param message what is wrong with it
+         */
+        void onInvalidRecord(long recordNumber, String message);
+    }
+
+    /**
+     * Reads every record of a file.
+     *
+     * @param reader file contents
+     * @param format file format
+     * @param objectMapper mapper used to parse NDJSON
+     * @param handler receiver of the records
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public static void read(
+            Reader reader,
+            UserImportFormat format,
+            ObjectMapper objectMapper,
+            RecordHandler handler)
+            throws IOException {
+        try (MappingIterator<Map<String, Object>> values = open(reader, format, objectMapper)) {
+            long recordNumber = 0;
+            while (values.hasNextValue()) {
+                final Map<String, Object> value = values.nextValue();
+                recordNumber++;
+                final String error = validate(value);
+                if (error == null) {
+                    handler.onRecord(toRecord(recordNumber, value));
+                } else {
+                    handler.onInvalidRecord(recordNumber, error);
+                }
+            }
+        }
+    }
+
+    private static MappingIterator<Map<String, Object>> open(
+            Reader reader, UserImportFormat format, ObjectMapper objectMapper) throws IOException {
+        if (format == UserImportFormat.CSV) {
+            return CSV_MAPPER
+                    .readerFor(Map.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader);
+        }
+
+        return objectMapper.readerFor(Map.class).readValues(reader);
+    }
+
+    private static String validate(Map<String, Object> value) {
+        final List<String> problems = new ArrayList<>();
+        final List<String> missing =
+                REQUIRED_FIELDS.stream()
+                        .filter(field -> text(value, field) == null)
+                        .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            problems.add("missing " + String.join(", ", missing));
+        }
+
+        final String userType = text(value, "userType");
+        if (userType != null && UserType.fromText(userType) == UserType.UNKNOWN) {
+            problems.add("userType must be agency or public");
+        }
+
+        for (String field : TEXT_FIELDS) {
+            final String text = text(value, field);
+            if (text != null && text.length() > MAX_COLUMN_LENGTH) {
+                problems.add(field + " is longer than " + MAX_COLUMN_LENGTH + " characters");
+            }
+        }
+
+        final Object roles = value.get("roles");
+        if (roles != null && !(roles instanceof String) && !(roles instanceof Collection)) {
+            problems.add("roles must be a list of role names");
+        }
+
+        return problems.isEmpty() ? null : String.join("; ", problems);
+    }
+
+    private static UserImportRecord toRecord(long recordNumber, Map<String, Object> value) {
+        return UserImportRecord.builder()
+                .recordNumber(recordNumber)
+                .externalId(text(value, "externalId"))
+                .identityProvider(text(value, "identityProvider"))
+                .email(text(value, "email"))
+                .firstName(text(value, "firstName"))
+                .middleName(text(value, "middleName"))
+                .lastName(text(value, "lastName"))
+                .phoneNumber(text(value, "phoneNumber"))
+                .userType(UserType.fromText(text(value, "userType")))
+                .roleNames(roleNames(value.get("roles")))
+                .build();
+    }
+
+    private static List<String> roleNames(Object roles) {
+        final Collection<?> names =
+                roles instanceof String
+                        ? Arrays.asList(((String) roles).split(CSV_ROLE_SEPARATOR))
+                        : (Collection<?>) roles;
+        if (names == null) {
+            return List.of();
+        }
+
+        return names.stream()
+                .filter(Objects::nonNull)
+                .map(name -> name.toString().trim())
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static String text(Map<String, Object> value, String field) {
+        final Object text = value.get(field);
+        if (text == null) {
+            return null;
+        }
+
+        final String trimmed = text.toString().trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
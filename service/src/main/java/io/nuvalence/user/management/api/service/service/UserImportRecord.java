@@ -0,0 +1,25 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.enums.UserType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A validated record of a user import file.
+ */
+@Value
+@Builder
+public class UserImportRecord {
+    long recordNumber;
+    String externalId;
+    String identityProvider;
+    String email;
+    String firstName;
+    String middleName;
+    String lastName;
+    String phoneNumber;
+    UserType userType;
+    List<String> roleNames;
+}
@@ -0,0 +1,298 @@
+package io.nuvalence.user.management.api.service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
+import io.nuvalence.user.management.api.service.entity.UserImportError;
+import io.nuvalence.user.management.api.service.entity.UserImportJobEntity;
+import io.nuvalence.user.management.api.service.enums.UserImportFormat;
+import io.nuvalence.user.management.api.service.enums.UserImportStatus;
+import io.nuvalence.user.management.api.service.repository.UserImportChunkResult;
+import io.nuvalence.user.management.api.service.repository.UserImportJobRepository;
+import io.nuvalence.user.management.api.service.repository.UserImportStagingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for bulk user imports.
+ *
+ * <p>An upload is spooled to a temporary file and loaded in the background by a small, dedicated
+ * pool, so long imports hold neither a request thread nor the shared task executor. Records are
+ * read one at a time and merged in chunks of {@code users.import.chunk-size}, each chunk in its own
+ * transaction; the job row is updated after every chunk so its progress can be polled. A failed
+ * import leaves the chunks before the failure in place. Importing the same file again is safe:
+ * existing users are skipped and role memberships already held are left alone.</p>
+ *
+ * <p>Queued and running jobs live only in the memory and temporary files of the instance that
+ * accepted them. That instance refreshes their heartbeat every
+ * {@code users.import.heartbeat-interval}; every instance, at startup and on the same schedule,
+ * fails queued or running jobs whose heartbeat is older than {@code users.import.stale-after},
+ * since the instance holding them has stopped and they will never finish.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+    private static final String ABANDONED_MESSAGE =
+            "The instance running this import stopped before it finished. Upload the file again;"
+                    + " users and roles already imported are skipped.";
+
+    private final Clock clock = Clock.systemDefaultZone();
+    private final UserImportJobRepository userImportJobRepository;
+    private final UserImportStagingRepository userImportStagingRepository;
+    private final UserProfileCache userProfileCache;
+    private final ObjectMapper objectMapper;
+
+    @Value("${users.import.chunk-size:50000}")
+    private int chunkSize;
+
+    @Value("${users.import.concurrency:2}")
+    private int concurrency;
+
+    @Value("${users.import.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${users.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    @Value("${users.import.stale-after:PT5M}")
+    private Duration staleAfter;
+
+    private final Set<UUID> heldJobs = ConcurrentHashMap.newKeySet();
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void startExecutor() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("user-import-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdown();
+    }
+
+    /**
+     * Spools an import file and queues it for loading.
+     *
+     * @param content file contents
+     * @param format file format
+     * @return the queued job
+     * @throws IOException if the file cannot be spooled
+     * @throws BusinessLogicException if too many imports are already queued
+     */
+    public UserImportJobEntity startImport(InputStream content, UserImportFormat format)
+            throws IOException {
+        final Path file = Files.createTempFile("user-import-", "." + format);
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+
+        final UserImportJobEntity job = new UserImportJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setStatus(UserImportStatus.QUEUED);
+        job.setFormat(format);
+        job.setCreatedAt(OffsetDateTime.now(clock));
+        job.setHeartbeatAt(job.getCreatedAt());
+        final UserImportJobEntity saved = userImportJobRepository.save(job);
+
+        heldJobs.add(saved.getId());
+        try {
+            executor.execute(() -> run(saved.getId(), file, format));
+        } catch (TaskRejectedException e) {
+            heldJobs.remove(saved.getId());
+            deleteQuietly(file);
+            userImportJobRepository.deleteById(saved.getId());
+            throw new BusinessLogicException("Too many imports are running; try again later.");
+        }
+
+        return saved;
+    }
+
+    public Optional<UserImportJobEntity> getJob(UUID id) {
+        return userImportJobRepository.findById(id);
+    }
+
+    /**
+     * Refreshes the heartbeat of the jobs this instance holds, then fails abandoned jobs. Runs at
+     * startup and every {@code users.import.heartbeat-interval}.
+     */
+    @Scheduled(fixedDelayString = "${users.import.heartbeat-interval:PT30S}")
+    public void heartbeatOnSchedule() {
+        final OffsetDateTime now = OffsetDateTime.now(clock);
+        if (!heldJobs.isEmpty()) {
+            userImportJobRepository.updateHeartbeat(Set.copyOf(heldJobs), now);
+        }
+        failAbandonedJobs(now.minus(staleAfter));
+    }
+
+    /**
+     * Fails queued and running jobs whose heartbeat is older than a cutoff.
+     *
+     * @param before jobs last heard from before this time are failed
+     * @return number of jobs failed
+     */
+    public int failAbandonedJobs(OffsetDateTime before) {
+        final int failed =
+                userImportJobRepository.failStale(
+                        List.of(UserImportStatus.QUEUED, UserImportStatus.RUNNING),
+                        before,
+                        UserImportStatus.FAILED,
+                        ABANDONED_MESSAGE,
+                        OffsetDateTime.now(clock));
+        if (failed > 0) {
+            log.warn("Failed {} user imports abandoned by a stopped instance", failed);
+        }
+
+        return failed;
+    }
+
+    /**
+     * Loads a spooled file, recording progress on the job. Runs on the import pool.
+     *
+     * @param jobId job to run
+     * @param file spooled file, deleted once loaded
+     * @param format file format
+     */
+    void run(UUID jobId, Path file, UserImportFormat format) {
+        final ImportRun importRun = new ImportRun(userImportJobRepository.findById(jobId).orElseThrow());
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            importRun.start();
+            UserImportReader.read(reader, format, objectMapper, importRun);
+            importRun.finish();
+        } catch (IOException | RuntimeException e) {
+            log.error("User import {} failed", jobId, e);
+            importRun.fail(e);
+        } finally {
+            heldJobs.remove(jobId);
+            deleteQuietly(file);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete import file {}", file, e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_MESSAGE_LENGTH
+                ? message
+                : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    /**
+     * State of one running import: the job as last saved and the chunk being filled.
+     */
+    private final class ImportRun implements UserImportReader.RecordHandler {
+        private final List<UserImportRecord> chunk = new ArrayList<>(chunkSize);
+        private UserImportJobEntity job;
+        private OffsetDateTime createdAt;
+
+        ImportRun(UserImportJobEntity job) {
+            this.job = job;
+        }
+
+        void start() {
+            createdAt = OffsetDateTime.now(clock);
+            job.setStatus(UserImportStatus.RUNNING);
+            job.setStartedAt(createdAt);
+            save();
+        }
+
+        @Override
+        public void onRecord(UserImportRecord importRecord) {
+            job.setProcessedRecords(job.getProcessedRecords() + 1);
+            chunk.add(importRecord);
+            if (chunk.size() == chunkSize) {
+                mergeChunk();
+            }
+        }
+
+        @Override
+        public void onInvalidRecord(long recordNumber, String message) {
+            job.setProcessedRecords(job.getProcessedRecords() + 1);
+            addError(new UserImportError(recordNumber, message));
+        }
+
+        void finish() {
+            if (!chunk.isEmpty()) {
+                mergeChunk();
+            }
+            job.setStatus(UserImportStatus.COMPLETED);
+            job.setFinishedAt(OffsetDateTime.now(clock));
+            save();
+        }
+
+        void fail(Exception e) {
+            job.setStatus(UserImportStatus.FAILED);
+            job.setFailureMessage(
+                    truncate(e.getMessage() == null ? e.getClass().getName() : e.getMessage()));
+            job.setFinishedAt(OffsetDateTime.now(clock));
+            save();
+        }
+
+        private void mergeChunk() {
+            final UserImportChunkResult result =
+                    userImportStagingRepository.merge(chunk, createdAt);
+            chunk.clear();
+            if (result.getImportedRoles() > 0) {
+                // Roles may have been added to existing users, which are not known by id here.
+                userProfileCache.evictAll();
+            }
+
+            job.setImportedUsers(job.getImportedUsers() + result.getImportedUsers());
+            job.setSkippedUsers(job.getSkippedUsers() + result.getSkippedUsers());
+            job.setImportedRoles(job.getImportedRoles() + result.getImportedRoles());
+            result.getUnknownRoles().forEach(this::addError);
+            save();
+        }
+
+        private void save() {
+            // Saving writes the loaded heartbeat back; move it forward, never back.
+            job.setHeartbeatAt(OffsetDateTime.now(clock));
+            job = userImportJobRepository.save(job);
+        }
+
+        private void addError(UserImportError error) {
+            job.setErrorCount(job.getErrorCount() + 1);
+            if (job.getErrors().size() < maxReportedErrors) {
+                error.setMessage(truncate(error.getMessage()));
+                job.getErrors().add(error);
+            }
+        }
+    }
+}
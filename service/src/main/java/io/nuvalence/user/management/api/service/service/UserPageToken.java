@@ -0,0 +1,161 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserView;
+import io.nuvalence.user.management.api.service.enums.SortOrder;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor for user pages. Captures the sort key and id of the last user on a page so the
+ * next page can be fetched by seeking past it instead of skipping an offset.
+ */
+@Value
+public class UserPageToken {
+    private static final String SEPARATOR = "|";
+
+    private static final Map<String, Function<UserEntity, Object>> SORT_KEYS =
+            Map.of(
+                    "id", UserEntity::getId,
+                    "externalId", UserEntity::getExternalId,
+                    "email", UserEntity::getEmail,
+                    "createdAt", UserEntity::getCreatedAt,
+                    "firstName", user -> Objects.toString(user.getFirstName(), ""),
+                    "lastName", user -> Objects.toString(user.getLastName(), ""));
+
+    private static final Map<String, Function<UserView, Object>> VIEW_SORT_KEYS =
+            Map.of(
+                    "id", view -> view.getUser().getId(),
+                    "externalId", view -> view.getUser().getExternalId(),
+                    "email", view -> view.getUser().getEmail(),
+                    "createdAt", UserView::getCreatedAt,
+                    "firstName", view -> Objects.toString(view.getUser().getFirstName(), ""),
+                    "lastName", view -> Objects.toString(view.getUser().getLastName(), ""));
+
+    String sortBy;
+    SortOrder sortOrder;
+    UUID id;
+    String value;
+
+    /**
+     * Creates a token pointing just past the given user.
+     *
+     * @param user last user of the current page
+     * @param sortBy field the page is sorted by
+     * @param sortOrder direction the page is sorted in
+     * @return page token
+     *
+     * @throws IllegalArgumentException if the sort field is not supported
+     */
+    public static UserPageToken after(UserEntity user, String sortBy, SortOrder sortOrder) {
+        final Object key = getSortKeyExtractor(sortBy).apply(user);
+        return new UserPageToken(sortBy, sortOrder, user.getId(), Objects.toString(key, ""));
+    }
+
+    /**
+     * Creates a token pointing just past the given user, read as a {@link UserView}.
+     *
+     * @param user last user of the current page
+     * @param sortBy field the page is sorted by
+     * @param sortOrder direction the page is sorted in
+     * @return page token
+     *
+     * @throws IllegalArgumentException if the sort field is not supported
+     */
+    public static UserPageToken after(UserView user, String sortBy, SortOrder sortOrder) {
+        getSortKeyExtractor(sortBy);
+        final Object key = VIEW_SORT_KEYS.get(sortBy).apply(user);
+        return new UserPageToken(
+                sortBy, sortOrder, user.getUser().getId(), Objects.toString(key, ""));
+    }
+
+    /**
+     * Parses a token previously produced by {@link #encode()}.
+     *
+     * @param token encoded token
+     * @return page token
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static UserPageToken decode(String token) {
+        try {
+            final String decoded =
+                    new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final String[] parts = decoded.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid page token.");
+            }
+
+            getSortKeyExtractor(parts[0]);
+            return new UserPageToken(
+                    parts[0], SortOrder.valueOf(parts[1]), UUID.fromString(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token.", e);
+        }
+    }
+
+    /**
+     * Returns true if the given field can be used for keyset paging.
+     *
+     * @param sortBy field name
+     * @return whether the field is supported
+     */
+    public static boolean isSupportedSortField(String sortBy) {
+        return SORT_KEYS.containsKey(sortBy);
+    }
+
+    /**
+     * Encodes this token as an opaque, URL safe string.
+     *
+     * @return encoded token
+     */
+    public String encode() {
+        final String raw = String.join(SEPARATOR, sortBy, sortOrder.name(), id.toString(), value);
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the sort key as the type of the underlying column, for use in query predicates.
+     *
+     * @return typed sort key
+     *
+     * @throws IllegalArgumentException if the stored key cannot be converted
+     */
+    public Comparable<?> getTypedValue() {
+        switch (sortBy) {
+            case "id":
+                return id;
+            case "createdAt":
+                try {
+                    return OffsetDateTime.parse(value);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid page token.", e);
+                }
+            default:
+                return value;
+        }
+    }
+
+    public boolean isAscending() {
+        return sortOrder != SortOrder.DESC;
+    }
+
+    private static Function<UserEntity, Object> getSortKeyExtractor(String sortBy) {
+        final Function<UserEntity, Object> extractor = SORT_KEYS.get(sortBy);
+        if (extractor == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        }
+
+        return extractor;
+    }
+}
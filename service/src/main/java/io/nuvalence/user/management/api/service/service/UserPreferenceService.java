@@ -4,9 +4,12 @@ import io.nuvalence.user.management.api.service.config.exception.BusinessLogicEx
 import io.nuvalence.user.management.api.service.entity.LanguageEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
 import io.nuvalence.user.management.api.service.enums.PreferredCommunicationMethod;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
 import io.nuvalence.user.management.api.service.repository.UserPreferencesRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -26,6 +29,9 @@ public class UserPreferenceService {
 
     private final UserPreferencesRepository userPreferencesRepository;
     private final LanguageService languageService;
+    private final UserProfileCache userProfileCache;
+    private final UserRepository userRepository;
+    private final ChangeFeedService changeFeedService;
 
     /**
      * Returns user preferences, optionally by application.
@@ -33,6 +39,7 @@ public class UserPreferenceService {
      * @param userId user's id.
      * @return User Preferences.
      */
+    @Transactional(readOnly = true)
     public Optional<UserPreferenceEntity> getUserPreferences(UUID userId) {
         return userPreferencesRepository.findByUserId(userId);
     }
@@ -68,6 +75,11 @@ public class UserPreferenceService {
         preferenceEntity.setPreferredLanguage(updatedPreferences.getPreferredLanguage());
         preferenceEntity.setPreferredCommunicationMethod(
                 updatedPreferences.getPreferredCommunicationMethod());
+        userRepository.incrementVersion(user.getId());
+        userProfileCache.evict(user.getId());
+        // Preferences are keyed by their user on the change feed.
+        changeFeedService.record(
+                ChangeEntityType.USER_PREFERENCE, user.getId(), ChangeOperation.UPDATED);
         return userPreferencesRepository.save(preferenceEntity);
     }
 }
@@ -0,0 +1,122 @@
+package io.nuvalence.user.management.api.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.nuvalence.user.management.api.service.entity.UserView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of user profiles, keyed by user id, for {@code GET /users/{id}} and
+ * {@code GET /myself}. Profiles are kept as {@link UserView}s, which each read authorizes
+ * before returning.
+ *
+ * <p>Writes to a user, its preferences or its roles evict the user; writes to roles evict every
+ * user. An eviction made inside a transaction is repeated once the transaction completes, and a
+ * profile loaded while any eviction happened is returned but not cached, so a profile read from
+ * uncommitted or outdated data is never kept. Writes made by other instances are only seen once
+ * entries expire after {@code users.profile-cache.ttl}. Hit and miss counts are published as the
+ * {@code userProfiles} cache metrics.</p>
+ */
+@Component
+public class UserProfileCache {
+    static final String CACHE_NAME = "userProfiles";
+
+    private final boolean enabled;
+    private final Cache<UUID, UserView> profiles;
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Creates the cache.
+     *
+     * @param enabled whether profiles are cached at all
+     * @param ttl how long a profile is kept
+     * @param maximumSize maximum number of cached profiles
+     * @param meterRegistry registry for the cache metrics
+     */
+    public UserProfileCache(
+            @Value("${users.profile-cache.enabled:true}") boolean enabled,
+            @Value("${users.profile-cache.ttl:PT1M}") Duration ttl,
+            @Value("${users.profile-cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.profiles =
+                Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .maximumSize(maximumSize)
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached profile of a user, loading and caching it on a miss. Users that do not
+     * exist are not cached.
+     *
+     * @param userId user id
+     * @param loader loads the profile from the database
+     * @return user profile, if the user exists
+     */
+    public Optional<UserView> get(UUID userId, Function<UUID, Optional<UserView>> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+
+        final UserView cached = profiles.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Not Cache.get(key, loader): the loader queries the database inside a map lock, which
+        // pins the carrier thread when requests run on virtual threads.
+        final long loadVersion = version.get();
+        final Optional<UserView> loaded = loader.apply(userId);
+        if (loaded.isPresent() && loadVersion == version.get()) {
+            profiles.put(userId, loaded.get());
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Evicts the profile of a user after it was changed.
+     *
+     * @param userId user id
+     */
+    public void evict(UUID userId) {
+        evict(() -> profiles.invalidate(userId));
+    }
+
+    /**
+     * Evicts every profile, after a change that can affect any user, such as renaming a role.
+     */
+    public void evictAll() {
+        evict(profiles::invalidateAll);
+    }
+
+    private void evict(Runnable eviction) {
+        version.incrementAndGet();
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            version.incrementAndGet();
+                            eviction.run();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.nuvalence.user.management.api.service.service;
+
+import io.nuvalence.user.management.api.service.entity.UserView;
+import io.nuvalence.user.management.api.service.generated.models.AssignedRoleDTO;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.repository.UserViewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read side of users for the endpoints that return them. Matching ids are found with the same
+ * queries {@link UserService} uses, and the users are then read as {@link UserView}s by
+ * {@link UserViewRepository}, with their roles taken from the {@link RoleCatalog} snapshot, so no
+ * entity is loaded, tracked or mapped.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class UserQueryService {
+    private final UserRepository userRepository;
+    private final UserViewRepository userViewRepository;
+    private final RoleCatalogService roleCatalogService;
+
+    /**
+     * Returns a user, including an archived one.
+     *
+     * @param userId user id
+     * @return user, if it exists
+     */
+    public Optional<UserView> getUser(UUID userId) {
+        return findAll(List.of(userId)).stream().findFirst();
+    }
+
+    /**
+     * Returns a page of users matching the search criteria.
+     *
+     * @param searchCriteria filters to apply
+     * @param pageable the pagination information (page number, size, and sort)
+     * @return page of users
+     */
+    public Page<UserView> getUsers(UserSearchCriteria searchCriteria, Pageable pageable) {
+        final Page<UUID> ids = userRepository.findIdPage(searchCriteria, pageable);
+        return new PageImpl<>(
+                findAll(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Returns a page of users matching the search criteria without counting all matches.
+     *
+     * @param searchCriteria filters to apply
+     * @param pageable the pagination information (page number, size, and sort)
+     * @return slice of users
+     */
+    public Slice<UserView> getUsersSlice(UserSearchCriteria searchCriteria, Pageable pageable) {
+        final Slice<UUID> ids = userRepository.findIdSlice(searchCriteria, pageable);
+        return new SliceImpl<>(findAll(ids.getContent()), ids.getPageable(), ids.hasNext());
+    }
+
+    /**
+     * Returns users matching the search criteria that follow the position of a page token.
+     *
+     * @param searchCriteria filters to apply
+     * @param pageToken position to resume after
+     * @param limit maximum number of users to return
+     * @return list of users in the token's sort order
+     */
+    public List<UserView> getUsersAfter(
+            UserSearchCriteria searchCriteria, UserPageToken pageToken, int limit) {
+        return findAll(userRepository.findIdsAfter(searchCriteria, pageToken, limit));
+    }
+
+    private List<UserView> findAll(List<UUID> ids) {
+        return userViewRepository.findAll(ids, this::findAssignedRoles);
+    }
+
+    private Map<UUID, AssignedRoleDTO> findAssignedRoles(Set<UUID> roleIds) {
+        final RoleCatalog catalog = roleCatalogService.getSnapshotWithRoles(roleIds);
+
+        final Map<UUID, AssignedRoleDTO> roles = new LinkedHashMap<>();
+        for (UUID roleId : roleIds) {
+            catalog.getRole(roleId)
+                    .ifPresent(role -> roles.put(roleId, catalog.toAssignedRoleDto(role)));
+        }
+
+        return roles;
+    }
+}
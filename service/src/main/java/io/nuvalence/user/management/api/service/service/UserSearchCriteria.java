@@ -1,13 +1,17 @@
 package io.nuvalence.user.management.api.service.service;
 
+import io.nuvalence.user.management.api.service.cerbos.QueryPlanSpecification;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.enums.UserType;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.Builder;
 import lombok.Value;
 import org.apache.commons.lang3.StringUtils;
@@ -35,10 +39,60 @@ public class UserSearchCriteria implements Specification<UserEntity> {
     List<String> roleIds;
     List<String> roleNames;
 
-    @SuppressWarnings("checkstyle:CyclomaticComplexity")
+    /**
+     * Restricts the search to the users the caller may view; null when results are authorized
+     * after loading.
+     */
+    QueryPlanSpecification<UserEntity> authorization;
+
+    /**
+     * Returns true if any filter other than the deleted flag is set. A restricting authorization
+     * counts as a filter.
+     *
+     * @return whether the criteria narrows the search beyond deleted users
+     */
+    public boolean hasFilters() {
+        return StringUtils.isNotBlank(email)
+                || StringUtils.isNotBlank(externalId)
+                || StringUtils.isNotBlank(name)
+                || StringUtils.isNotBlank(identityProvider)
+                || userType != null
+                || (roleIds != null && !roleIds.isEmpty())
+                || (roleNames != null && !roleNames.isEmpty())
+                || (authorization != null && !authorization.isUnrestricted());
+    }
+
+    /**
+     * Returns true if the search also covers archived users, which live outside
+     * {@code user_table} and are searched through the {@code user_search} view.
+     *
+     * @return whether deleted and archived users are included
+     */
+    public boolean isSearchingArchive() {
+        return includeDeleted != null && includeDeleted;
+    }
+
     @Override
     public Predicate toPredicate(
             Root<UserEntity> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        return toPredicate((From<?, ?>) root, (CommonAbstractCriteria) query, criteriaBuilder);
+    }
+
+    /**
+     * Builds the search predicate against any entity exposing the searchable {@link UserEntity}
+     * attributes and its {@code roles} association, such as the {@code user_search} view.
+     *
+     * <p>Role filters match the user's id against a subquery over the user's roles rather than
+     * joining them, so a user holding several matching roles is still selected once.</p>
+     *
+     * @param root entity to filter
+     * @param query query the predicate is added to, for the role subqueries
+     * @param criteriaBuilder criteria builder
+     * @return search predicate
+     */
+    @SuppressWarnings("checkstyle:CyclomaticComplexity")
+    public Predicate toPredicate(
+            From<?, ?> root, CommonAbstractCriteria query, CriteriaBuilder criteriaBuilder) {
         List<Predicate> predicates = new ArrayList<>();
 
         if (StringUtils.isNotBlank(email)) {
@@ -50,21 +104,14 @@ public class UserSearchCriteria implements Specification<UserEntity> {
         }
 
         if (StringUtils.isNotBlank(name)) {
+            final String prefix = name.toLowerCase(Locale.ROOT) + "%";
 
-            Predicate startsWithEmail =
-                    criteriaBuilder.like(
-                            criteriaBuilder.lower(root.get("email")),
-                            name.toLowerCase(Locale.ROOT) + "%");
+            // searchName is the lower-cased "first last" name, so a prefix match on it covers
+            // both full name and first name searches. Each branch is backed by an index.
+            Predicate startsWithName = criteriaBuilder.like(root.get("searchName"), prefix);
 
-            Predicate startsWithFullName =
-                    criteriaBuilder.like(
-                            criteriaBuilder.lower(root.get("fullName")),
-                            name.toLowerCase(Locale.ROOT) + "%");
-
-            Predicate startsWithFirstName =
-                    criteriaBuilder.like(
-                            criteriaBuilder.lower(root.get("firstName")),
-                            name.toLowerCase(Locale.ROOT) + "%");
+            Predicate startsWithEmail =
+                    criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), prefix);
 
             Predicate startsWithLastName =
                     criteriaBuilder.like(
@@ -73,11 +120,7 @@ public class UserSearchCriteria implements Specification<UserEntity> {
                                     + "%");
 
             predicates.add(
-                    criteriaBuilder.or(
-                            startsWithFullName,
-                            startsWithEmail,
-                            startsWithFirstName,
-                            startsWithLastName));
+                    criteriaBuilder.or(startsWithName, startsWithEmail, startsWithLastName));
         }
 
         if (StringUtils.isNotBlank(identityProvider)) {
@@ -92,35 +135,41 @@ public class UserSearchCriteria implements Specification<UserEntity> {
                             enumUserType.toString()));
         }
 
-        if (includeDeleted != null && includeDeleted) {
+        if (isSearchingArchive()) {
             predicates.add(criteriaBuilder.or(root.get("deleted").in(false, true)));
         } else {
             predicates.add(criteriaBuilder.equal(root.get("deleted"), false));
         }
 
         if (roleIds != null && !roleIds.isEmpty()) {
-            Join<RoleEntity, UserEntity> roleUserJoin = root.joinList("roles");
-            predicates.add(
-                    criteriaBuilder.or(
-                            roleIds.stream()
-                                    .map(
-                                            roleId ->
-                                                    criteriaBuilder.equal(
-                                                            roleUserJoin.get("id"),
-                                                            UUID.fromString(roleId)))
-                                    .toArray(Predicate[]::new)));
+            final Subquery<UUID> holders = query.subquery(UUID.class);
+            final Join<?, RoleEntity> role = joinHolderRoles(holders, root);
+            holders.where(
+                    role.get("id")
+                            .in(roleIds.stream().map(UUID::fromString).toArray(Object[]::new)));
+            predicates.add(root.get("id").in(holders));
         } else if (roleNames != null && !roleNames.isEmpty()) {
-            Join<RoleEntity, UserEntity> roleUserJoin = root.joinList("roles");
-            predicates.add(
-                    criteriaBuilder.or(
-                            roleNames.stream()
-                                    .map(
-                                            roleName ->
-                                                    criteriaBuilder.equal(
-                                                            roleUserJoin.get("name"), roleName))
-                                    .toArray(Predicate[]::new)));
+            final Subquery<UUID> holders = query.subquery(UUID.class);
+            final Join<?, RoleEntity> role = joinHolderRoles(holders, root);
+            holders.where(role.get("name").in(roleNames.toArray()));
+            predicates.add(root.get("id").in(holders));
+        }
+
+        if (authorization != null) {
+            predicates.add(authorization.toPredicate(root, criteriaBuilder));
         }
 
         return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
     }
+
+    /**
+     * Makes the subquery select the ids of entities of the same kind as {@code root} and joins
+     * their roles, for the caller to restrict.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Join<?, RoleEntity> joinHolderRoles(Subquery<UUID> holders, From<?, ?> root) {
+        final Root<?> holder = holders.from((Class) root.getJavaType());
+        holders.select(holder.get("id"));
+        return holder.joinList("roles");
+    }
 }
@@ -2,8 +2,9 @@ package io.nuvalence.user.management.api.service.service;
 
 import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
-import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
 import io.nuvalence.user.management.api.service.repository.RoleRepository;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
@@ -13,18 +14,27 @@ import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
- * Service for User.
+ * Service for User. Reads run in read-only transactions: Hibernate loads their entities without
+ * the snapshots used for dirty checking and never flushes them.
  */
 @Service
 @Transactional
@@ -32,11 +42,23 @@ import java.util.stream.Collectors;
 @Slf4j
 @SuppressWarnings("checkstyle:ClassFanOutComplexity")
 public class UserService {
+    public static final String DUPLICATE_IDENTITY_MESSAGE =
+            "A user already exists with this identityProvider and externalId";
+    private static final Set<String> DUPLICATE_IDENTITY_CONSTRAINTS =
+            Set.of(
+                    "user_table_identity_provider_external_id_deleted_deleted_on_key",
+                    "ux_user_table_active_identity");
+
+    /** The smallest UUID; every user id sorts after it. */
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
     private final Clock clock = Clock.systemDefaultZone();
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserPreferenceService userPreferenceService;
     private final RoleService roleService;
+    private final UserProfileCache userProfileCache;
+    private final ChangeFeedService changeFeedService;
 
     /**
      * Creates a User Entity from a user model.
@@ -46,7 +68,58 @@ public class UserService {
      */
     @SuppressWarnings("checkstyle:CyclomaticComplexity")
     public UserEntity createUser(UserEntity user) {
-        return userRepository.save(user);
+        final UserEntity saved = userRepository.save(user);
+        changeFeedService.record(ChangeEntityType.USER, saved.getId(), ChangeOperation.CREATED);
+        return saved;
+    }
+
+    /**
+     * Creates users in bulk. Users whose identity provider and external id belong to an active
+     * user, or to an earlier user of the same list, are reported as conflicts; the others are
+     * inserted with JDBC batching. On PostgreSQL this includes active users created by a
+     * concurrent request after the conflict check.
+     *
+     * @param users users to create
+     * @return one result per user, in the order given
+     */
+    public List<UserCreationResult> createUsers(List<UserEntity> users) {
+        final OffsetDateTime now = OffsetDateTime.now(clock);
+        final Map<String, Set<String>> takenExternalIds = findTakenExternalIds(users);
+
+        final List<UserCreationResult> results = new ArrayList<>(users.size());
+        final List<UserEntity> inserts = new ArrayList<>(users.size());
+        for (UserEntity user : users) {
+            if (!takenExternalIds
+                    .computeIfAbsent(user.getIdentityProvider(), provider -> new HashSet<>())
+                    .add(user.getExternalId())) {
+                results.add(UserCreationResult.conflict(user, DUPLICATE_IDENTITY_MESSAGE));
+                continue;
+            }
+
+            user.setId(UUID.randomUUID());
+            user.setCreatedAt(now);
+            inserts.add(user);
+            results.add(UserCreationResult.created(user));
+        }
+
+        // Users created by a concurrent request since the check above are skipped by the insert.
+        final Set<UUID> inserted = userRepository.insertAll(inserts);
+        for (int i = 0; i < results.size(); i++) {
+            final UserEntity user = results.get(i).getUser();
+            if (results.get(i).isCreated() && !inserted.contains(user.getId())) {
+                user.setId(null);
+                user.setCreatedAt(null);
+                results.set(i, UserCreationResult.conflict(user, DUPLICATE_IDENTITY_MESSAGE));
+            }
+        }
+        changeFeedService.recordUsers(
+                inserts.stream()
+                        .map(UserEntity::getId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()),
+                ChangeOperation.CREATED);
+
+        return results;
     }
 
     /**
@@ -70,12 +143,32 @@ public class UserService {
                         .findByIdLoaded(userId)
                         .orElseThrow(() -> new ResourceNotFoundException("User not found."));
 
+        return updateUser(userEntity, updateRequest);
+    }
+
+    /**
+     * Updates a user loaded in the current transaction. The change is flushed with an UPDATE
+     * conditioned on the version the user was loaded with, so the returned user carries its new
+     * version.
+     *
+     * @param userEntity user loaded in the current transaction
+     * @param updateRequest is a user update request with changes to be made
+     * @return the updated UserEntity object
+     *
+     * @throws BusinessLogicException if the user's email is already in use
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the user was
+     *     changed after it was loaded
+     */
+    public UserEntity updateUser(UserEntity userEntity, UserUpdateRequest updateRequest) {
         // Update email if provided
         updateNames(userEntity, updateRequest);
         updateEmail(userEntity, updateRequest);
         userEntity.setPhoneNumber(updateRequest.getPhoneNumber());
 
-        return userRepository.save(userEntity);
+        userProfileCache.evict(userEntity.getId());
+        changeFeedService.record(
+                ChangeEntityType.USER, userEntity.getId(), ChangeOperation.UPDATED);
+        return userRepository.saveAndFlush(userEntity);
     }
 
     /**
@@ -88,58 +181,46 @@ public class UserService {
         userEntity.setDeleted(true);
         userEntity.setDeletedOn(now);
         userRepository.save(userEntity);
+        userProfileCache.evict(userId);
+        changeFeedService.record(ChangeEntityType.USER, userId, ChangeOperation.DELETED);
     }
 
     /**
-     * Assigns a role to a particular user using its ID.
+     * Assigns a role to a particular user using its ID. The user's role collection is not loaded;
+     * assigning a role the user already has does nothing.
      *
      * @param userId is the user's ID.
      * @param roleId is the role's ID.
      */
     public void assignRoleToUser(UUID userId, UUID roleId) {
-        UserEntity userEntity = getUserEntityById(userId);
-        RoleEntity roleEntity = getRoleEntityById(roleId);
+        assertUserExists(userId);
+        assertRoleExists(roleId);
 
-        userEntity.getRoles().add(roleEntity);
-        userRepository.save(userEntity);
+        userRepository.addRole(userId, roleId);
+        userRepository.incrementVersion(userId);
+        userProfileCache.evict(userId);
+        changeFeedService.record(ChangeEntityType.USER, userId, ChangeOperation.UPDATED);
     }
 
     /**
-     * Deletes role for a particular user.
+     * Deletes role for a particular user. The user's role collection is not loaded.
      *
      * @param userId is the user's ID.
      * @param roleId is the role's ID.
      *
-     * @throws BusinessLogicException if the role does not exist
+     * @throws BusinessLogicException if the user does not have the role
      */
     public void removeRoleFromUser(UUID userId, UUID roleId) {
-        // Safely handle a missing User ID or Role ID.
-        UserEntity userEntity = getUserEntityById(userId);
-        getRoleEntityById(roleId);
-
-        if (userEntity.getRoles() == null) {
-            userEntity.setRoles(new ArrayList<>());
-        }
+        assertUserExists(userId);
+        assertRoleExists(roleId);
 
-        int initialLength = userEntity.getRoles().size();
-
-        // Only bother removing if there is something to remove.
-        if (initialLength > 0) {
-            userEntity.setRoles(
-                    userEntity.getRoles().stream()
-                            .filter(role -> role.getId() != roleId)
-                            .collect(Collectors.toList()));
-        }
-
-        int updatedLength = userEntity.getRoles().size();
-
-        // Either the roles did not change, or we're removing a role from an empty list.
-        if (initialLength == updatedLength) {
+        if (!userRepository.removeRole(userId, roleId)) {
             throw new BusinessLogicException(
-                    String.format("The role requested does not exist: %s.", userEntity.getId()));
+                    String.format("The role requested does not exist: %s.", userId));
         }
-
-        userRepository.save(userEntity);
+        userRepository.incrementVersion(userId);
+        userProfileCache.evict(userId);
+        changeFeedService.record(ChangeEntityType.USER, userId, ChangeOperation.UPDATED);
     }
 
     /**
@@ -148,6 +229,7 @@ public class UserService {
      * @param pageable the pagination information (page number, size, and sort)
      * @return a list of UserDTOs
      */
+    @Transactional(readOnly = true)
     public Page<UserEntity> getUserList(Pageable pageable) {
         return userRepository.findAll(pageable);
     }
@@ -158,17 +240,125 @@ public class UserService {
      * @param userId is the user's id.
      * @return a UserEntity.
      */
+    @Transactional(readOnly = true)
     public Optional<UserEntity> getUserById(UUID userId) {
         return userRepository.findById(userId);
     }
 
+    @Transactional(readOnly = true)
     public Optional<UserEntity> getUserByIdLoaded(UUID userId) {
         return userRepository.findByIdLoaded(userId);
     }
 
+    /**
+     * Returns the active user with an identity, with roles and preferences loaded.
+     *
+     * @param identityProvider identity provider
+     * @param externalId id of the user at the identity provider
+     * @return active user, if any
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> getUserByIdentity(String identityProvider, String externalId) {
+        return userRepository.findActiveByIdentityLoaded(identityProvider, externalId);
+    }
+
+    /**
+     * Returns a page of users matching the search criteria, with roles and preferences loaded.
+     *
+     * @param searchCriteria filters to apply
+     * @param pageable the pagination information (page number, size, and sort)
+     * @return page of users
+     */
+    @Transactional(readOnly = true)
     public Page<UserEntity> getUsersBySearchCriteria(
             UserSearchCriteria searchCriteria, Pageable pageable) {
-        return userRepository.findAll(searchCriteria, pageable);
+        return userRepository.findPage(searchCriteria, pageable);
+    }
+
+    /**
+     * Returns a page of users matching the search criteria without counting all matches.
+     *
+     * @param searchCriteria filters to apply
+     * @param pageable the pagination information (page number, size, and sort)
+     * @return slice of users
+     */
+    @Transactional(readOnly = true)
+    public Slice<UserEntity> getUsersBySearchCriteriaSlice(
+            UserSearchCriteria searchCriteria, Pageable pageable) {
+        return userRepository.findSlice(searchCriteria, pageable);
+    }
+
+    /**
+     * Estimates the number of users matching the search criteria from database statistics. Only
+     * searches that filter on nothing but the deleted flag can be estimated.
+     *
+     * @param searchCriteria filters to apply
+     * @return estimated count, or empty if no estimate is available for these criteria
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> estimateUserCount(UserSearchCriteria searchCriteria) {
+        if (searchCriteria.hasFilters()) {
+            return Optional.empty();
+        }
+
+        return userRepository.estimateCount(
+                Boolean.TRUE.equals(searchCriteria.getIncludeDeleted()));
+    }
+
+    /**
+     * Returns users matching the search criteria that follow the position of a page token.
+     *
+     * @param searchCriteria filters to apply
+     * @param pageToken position to resume after
+     * @param limit maximum number of users to return
+     * @return list of users in the token's sort order
+     */
+    @Transactional(readOnly = true)
+    public List<UserEntity> getUsersBySearchCriteriaAfter(
+            UserSearchCriteria searchCriteria, UserPageToken pageToken, int limit) {
+        return userRepository.findAllAfter(searchCriteria, pageToken, limit);
+    }
+
+    /**
+     * Returns the active users holding a permission through any of their roles, in id order,
+     * following the position of a page token.
+     *
+     * @param permissionId permission id
+     * @param pageToken position to resume after; null to start from the beginning
+     * @param limit maximum number of users to return
+     * @return users with roles and preferences loaded
+     *
+     * @throws IllegalArgumentException if the token was not issued for a page in id order
+     */
+    @Transactional(readOnly = true)
+    public List<UserEntity> getUsersWithPermissionAfter(
+            UUID permissionId, UserPageToken pageToken, int limit) {
+        UUID after = FIRST_ID;
+        if (pageToken != null) {
+            if (!"id".equals(pageToken.getSortBy()) || !pageToken.isAscending()) {
+                throw new IllegalArgumentException("Invalid page token.");
+            }
+            after = pageToken.getId();
+        }
+
+        return userRepository.findAllLoaded(
+                userRepository.findIdsByPermissionAfter(permissionId, after, limit));
+    }
+
+    /**
+     * Streams all users matching the search criteria, in id order, in chunks with roles and
+     * preferences loaded. Entities of a chunk are detached once the consumer returns.
+     *
+     * @param searchCriteria filters to apply
+     * @param chunkSize number of users per chunk
+     * @param consumer receives each chunk of users
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(
+            UserSearchCriteria searchCriteria,
+            int chunkSize,
+            Consumer<List<UserEntity>> consumer) {
+        userRepository.forEachChunk(searchCriteria, chunkSize, consumer);
     }
 
     /**
@@ -181,13 +371,28 @@ public class UserService {
     public boolean isDuplicateExternalUserException(final RuntimeException e) {
         return ExceptionInspectionUtility.findCauseOfType(e, ConstraintViolationException.class)
                 .map(ConstraintViolationException.class::cast)
-                .map(
-                        cve ->
-                                "user_table_identity_provider_external_id_deleted_deleted_on_key"
-                                        .equals(cve.getConstraintName()))
+                .map(cve -> DUPLICATE_IDENTITY_CONSTRAINTS.contains(cve.getConstraintName()))
                 .orElse(false);
     }
 
+    private Map<String, Set<String>> findTakenExternalIds(List<UserEntity> users) {
+        final Map<String, Set<String>> taken = new HashMap<>();
+        users.stream()
+                .collect(
+                        Collectors.groupingBy(
+                                UserEntity::getIdentityProvider,
+                                Collectors.mapping(UserEntity::getExternalId, Collectors.toSet())))
+                .forEach(
+                        (identityProvider, externalIds) ->
+                                taken.put(
+                                        identityProvider,
+                                        new HashSet<>(
+                                                userRepository.findActiveExternalIds(
+                                                        identityProvider, externalIds))));
+
+        return taken;
+    }
+
     private void updateNames(UserEntity userEntity, UserUpdateRequest updateRequest) {
         userEntity.setFirstName(updateRequest.getFirstName());
         userEntity.setMiddleName(updateRequest.getMiddleName());
@@ -200,13 +405,16 @@ public class UserService {
         }
     }
 
-    private RoleEntity getRoleEntityById(UUID roleId) {
-        return roleRepository
-                .findById(roleId)
-                .orElseThrow(
-                        () ->
-                                new ResourceNotFoundException(
-                                        "Role with ID '" + roleId + "' not found."));
+    private void assertRoleExists(UUID roleId) {
+        if (!roleRepository.existsById(roleId)) {
+            throw new ResourceNotFoundException("Role with ID '" + roleId + "' not found.");
+        }
+    }
+
+    private void assertUserExists(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User with ID '" + userId + "' not found.");
+        }
     }
 
     private UserEntity getUserEntityById(UUID userId) {
@@ -0,0 +1,67 @@
+package io.nuvalence.user.management.api.service.util.web;
+
+/**
+ * Formats entity versions as ETags and evaluates the {@code If-Match} and {@code If-None-Match}
+ * request headers against them.
+ */
+public final class EntityTags {
+
+    // Private constructor to prevent instantiation
+    private EntityTags() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Returns the strong ETag of an entity version.
+     *
+     * @param version entity version
+     * @return quoted ETag
+     */
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header, which uses the weak comparison: a {@code W/} prefix
+     * is ignored.
+     *
+     * @param ifNoneMatch header value
+     * @param etag current ETag
+     * @return true if the header lists the current ETag or is {@code *}
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        return matches(ifNoneMatch, etag, true);
+    }
+
+    /**
+     * Checks an {@code If-Match} header, which uses the strong comparison: weak ETags never match.
+     *
+     * @param ifMatch header value
+     * @param etag current ETag
+     * @return true if the header lists the current ETag or is {@code *}
+     */
+    public static boolean matchesIfMatch(String ifMatch, String etag) {
+        return matches(ifMatch, etag, false);
+    }
+
+    private static boolean matches(String header, String etag, boolean weakComparison) {
+        if ("*".equals(header.trim())) {
+            return true;
+        }
+
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                if (!weakComparison) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package io.nuvalence.user.management.api.service.util.web;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link PreSerializedJsonList} by copying its stored JSON to the response.
+ */
+public class PreSerializedJsonHttpMessageConverter
+        extends AbstractHttpMessageConverter<PreSerializedJsonList<?>> {
+
+    public PreSerializedJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PreSerializedJsonList.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PreSerializedJsonList<?> readInternal(
+            Class<? extends PreSerializedJsonList<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException(
+                "Pre-serialized JSON cannot be read", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(PreSerializedJsonList<?> list, MediaType contentType) {
+        return (long) list.getJsonLength();
+    }
+
+    @Override
+    protected void writeInternal(PreSerializedJsonList<?> list, HttpOutputMessage outputMessage)
+            throws IOException {
+        outputMessage.getBody().write(list.getJson());
+    }
+}
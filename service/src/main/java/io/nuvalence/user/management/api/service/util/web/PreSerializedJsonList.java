@@ -0,0 +1,77 @@
+package io.nuvalence.user.management.api.service.util.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.util.DigestUtils;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Immutable list that carries its own JSON representation, serialized once at construction.
+ * {@link PreSerializedJsonHttpMessageConverter} writes the stored bytes as the response body;
+ * without that converter the list is serialized like any other list.
+ *
+ * @param <T> element type
+ */
+public final class PreSerializedJsonList<T> extends AbstractList<T> {
+    private final List<T> items;
+    private final byte[] json;
+    private final String etag;
+
+    private PreSerializedJsonList(List<T> items, byte[] json) {
+        this.items = items;
+        this.json = json;
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+
+    /**
+     * Serializes the given items.
+     *
+     * @param items list elements
+     * @param objectMapper mapper used to serialize the list
+     * @param <T> element type
+     * @return list holding a copy of the items and their JSON representation
+     * @throws IllegalStateException if the items cannot be serialized
+     */
+    public static <T> PreSerializedJsonList<T> of(List<T> items, ObjectMapper objectMapper) {
+        final List<T> copy = List.copyOf(items);
+        try {
+            return new PreSerializedJsonList<>(copy, objectMapper.writeValueAsBytes(copy));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize list", e);
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Returns the JSON representation. The array is shared and must not be modified.
+     *
+     * @return serialized list
+     */
+    byte[] getJson() {
+        return json;
+    }
+
+    public int getJsonLength() {
+        return json.length;
+    }
+
+    /**
+     * Returns a strong entity tag for the JSON representation, quoted as it appears in headers.
+     *
+     * @return entity tag
+     */
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,24 @@
+package io.nuvalence.user.management.api.service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Stands in for the virtual thread configuration in the Java 17 build, which cannot start virtual
+ * threads. Activating the {@code virtual-threads} profile here fails startup instead of silently
+ * running on Tomcat's platform worker pool.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig {
+
+    /**
+     * Fails startup.
+     */
+    public VirtualThreadConfig() {
+        throw new IllegalStateException(
+                "The virtual-threads profile requires the Java 21 build (-PjavaVersion=21),"
+                        + " running the Java 17 build on "
+                        + Runtime.version());
+    }
+}
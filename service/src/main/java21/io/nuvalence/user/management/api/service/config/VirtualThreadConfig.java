@@ -0,0 +1,89 @@
+package io.nuvalence.user.management.api.service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs request handling on virtual threads when the {@code virtual-threads} profile is active.
+ * Only the Java 21 build ({@code -PjavaVersion=21}) contains this configuration; the Java 17 build
+ * has one of the same name that fails startup when the profile is active.
+ *
+ * <p>Tomcat hands every request to a new virtual thread, so the Cerbos checks made while handling
+ * it, which block the calling thread, park a virtual thread instead of holding a platform thread.
+ * Concurrency is then bounded by the Hikari pool rather than by Tomcat's worker pool; see
+ * {@code application-virtual-threads.yml} for the pool settings.</p>
+ */
+@Configuration
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadConfig {
+
+    /**
+     * Executor that starts a new virtual thread per task. Threads are named {@code vt-<n>} so
+     * they can be told apart in logs and thread dumps.
+     *
+     * @return virtual thread executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("vt-", 0).factory());
+    }
+
+    /**
+     * Replaces Tomcat's worker pool with the virtual thread executor.
+     *
+     * @param virtualThreadExecutor virtual thread executor
+     * @return protocol handler customizer
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Runs async MVC handlers and {@code @Async} methods on virtual threads too.
+     *
+     * @param virtualThreadExecutor virtual thread executor
+     * @return application task executor
+     */
+    @Bean(
+            name = {
+                TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+                "taskExecutor"
+            })
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    /**
+     * Logs the connection pool limits at startup, since they now cap request concurrency.
+     *
+     * @param dataSource application data source
+     * @return startup runner
+     */
+    @Bean
+    public ApplicationRunner connectionPoolReport(ObjectProvider<HikariDataSource> dataSource) {
+        return args ->
+                dataSource.ifAvailable(
+                        pool ->
+                                log.info(
+                                        "Virtual threads enabled; at most {} requests hold a"
+                                                + " database connection at once, others wait up"
+                                                + " to {} ms",
+                                        pool.getMaximumPoolSize(),
+                                        pool.getConnectionTimeout()));
+    }
+}
@@ -0,0 +1,131 @@
+package io.nuvalence.user.management.api.service.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ExtendWith(MockitoExtension.class)
+class CachingAuthorizationHandlerTest {
+    @Mock private AuthorizationHandler delegate;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CachingAuthorizationHandler handler;
+
+    @BeforeEach
+    void setup() {
+        Ticker ticker = nanos::get;
+        handler =
+                new CachingAuthorizationHandler(
+                        delegate, Duration.ofSeconds(30), 100, meterRegistry, ticker);
+        authenticate("user-1", "admin", "reader");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void decisionsAreSharedByPrincipalsWithTheSameRoles() {
+        when(delegate.isAllowed("create", UserEntity.class)).thenReturn(true);
+
+        assertTrue(handler.isAllowed("create", UserEntity.class));
+        authenticate("user-2", "reader", "admin");
+        assertTrue(handler.isAllowed("create", UserEntity.class));
+
+        verify(delegate, times(1)).isAllowed("create", UserEntity.class);
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void decisionsAreKeyedByRolesActionAndResourceKind() {
+        when(delegate.isAllowed("view", RoleEntity.class)).thenReturn(true);
+        when(delegate.isAllowed("delete", RoleEntity.class)).thenReturn(false);
+
+        assertTrue(handler.isAllowed("view", RoleEntity.class));
+        assertFalse(handler.isAllowed("delete", RoleEntity.class));
+        // Class and kind name checks share the same entries.
+        assertTrue(handler.isAllowed("view", "role"));
+        authenticate("user-3", "basic");
+        handler.isAllowed("view", RoleEntity.class);
+
+        verify(delegate, times(2)).isAllowed("view", RoleEntity.class);
+        verify(delegate, times(1)).isAllowed("delete", RoleEntity.class);
+    }
+
+    @Test
+    void decisionsExpireAfterTtl() {
+        when(delegate.isAllowed("view", RoleEntity.class)).thenReturn(true);
+
+        handler.isAllowed("view", RoleEntity.class);
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        handler.isAllowed("view", RoleEntity.class);
+
+        verify(delegate, times(2)).isAllowed("view", RoleEntity.class);
+    }
+
+    @Test
+    void instanceChecksAreNotCached() {
+        UserEntity user = new UserEntity();
+        when(delegate.isAllowedForInstance("view", user)).thenReturn(true);
+
+        handler.isAllowedForInstance("view", user);
+        handler.isAllowedForInstance("view", user);
+
+        verify(delegate, times(2)).isAllowedForInstance("view", user);
+    }
+
+    @Test
+    void unauthenticatedChecksAreNotCached() {
+        SecurityContextHolder.clearContext();
+        when(delegate.isAllowed("view", RoleEntity.class)).thenReturn(false);
+
+        handler.isAllowed("view", RoleEntity.class);
+        handler.isAllowed("view", RoleEntity.class);
+
+        verify(delegate, times(2)).isAllowed("view", RoleEntity.class);
+    }
+
+    private void authenticate(String name, String... roles) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(
+                                name,
+                                null,
+                                List.of(roles).stream().map(SimpleGrantedAuthority::new).toList()));
+    }
+
+    private double gets(String result) {
+        return meterRegistry
+                .get("cache.gets")
+                .tag("cache", CachingAuthorizationHandler.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,86 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesExpression;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilter;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilterKind;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+class CerbosQueryPlannerTest {
+    private static final String PLAN_URL = "http://cerbos/api/plan/resources";
+
+    private MockRestServiceServer server;
+    private CerbosQueryPlanner planner;
+
+    @BeforeEach
+    void setup() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        planner = new CerbosQueryPlanner(restTemplate, PLAN_URL);
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(
+                                "user-1", null, List.of(new SimpleGrantedAuthority("basic"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void planIsRequestedForTheResourceKind() {
+        server.expect(once(), requestTo(PLAN_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.action").value("view"))
+                .andExpect(jsonPath("$.principal.id").value("user-1"))
+                .andExpect(jsonPath("$.principal.roles[0]").value("basic"))
+                .andExpect(jsonPath("$.resource.kind").value("user"))
+                .andExpect(jsonPath("$.resource.policyVersion").value("default"))
+                .andRespond(
+                        withSuccess(
+                                "{\"filter\":{\"kind\":\"KIND_CONDITIONAL\",\"condition\":"
+                                        + "{\"expression\":{\"operator\":\"eq\",\"operands\":["
+                                        + "{\"variable\":\"request.resource.attr.id\"},"
+                                        + "{\"value\":\"user-1\"}]}}}}",
+                                MediaType.APPLICATION_JSON));
+
+        PlanResourcesFilter filter = planner.plan("view", UserEntity.class);
+
+        server.verify();
+        assertEquals(PlanResourcesFilterKind.KIND_CONDITIONAL, filter.getKind());
+        PlanResourcesExpression expression = filter.getCondition().getExpression();
+        assertEquals("eq", expression.getOperator());
+        assertEquals("request.resource.attr.id", expression.getOperands().get(0).getVariable());
+        assertEquals("user-1", expression.getOperands().get(1).getValue());
+    }
+
+    @Test
+    void unauthenticatedPrincipalIsDeniedWithoutRequest() {
+        SecurityContextHolder.clearContext();
+
+        assertEquals(
+                PlanResourcesFilterKind.KIND_ALWAYS_DENIED,
+                planner.plan("view", UserEntity.class).getKind());
+        server.verify();
+    }
+}
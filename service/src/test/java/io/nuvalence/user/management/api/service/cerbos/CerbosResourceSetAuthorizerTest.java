@@ -0,0 +1,160 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.auth.access.AccessResource;
+import io.nuvalence.auth.access.cerbos.AccessResourceTranslator;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class CerbosResourceSetAuthorizerTest {
+    private static final String CHECK_URL = "http://cerbos/api/check";
+
+    private MockRestServiceServer server;
+    private CerbosResourceSetAuthorizer authorizer;
+
+    @BeforeEach
+    void setup() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        authorizer =
+                new CerbosResourceSetAuthorizer(
+                        restTemplate,
+                        CHECK_URL,
+                        100,
+                        new AccessResourceResolver(
+                                new ObjectMapper(), new DefaultListableBeanFactory()));
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(
+                                "user-1", null, List.of(new SimpleGrantedAuthority("reader"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resourcesAreCheckedInBatchesAndFilteredByEffect() {
+        List<RoleEntity> roles = createRoles(200);
+        server.expect(times(2), requestTo(CHECK_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.actions[0]").value("view"))
+                .andExpect(jsonPath("$.principal.id").value("user-1"))
+                .andExpect(jsonPath("$.principal.roles[0]").value("reader"))
+                .andExpect(jsonPath("$.resource.kind").value("role"))
+                .andExpect(jsonPath("$.resource.instances['99']").exists())
+                .andRespond(
+                        withSuccess(
+                                effects(100, i -> i % 2 == 0 ? "EFFECT_ALLOW" : "EFFECT_DENY"),
+                                MediaType.APPLICATION_JSON));
+
+        List<RoleEntity> allowed = authorizer.filterAllowed("view", RoleEntity.class, roles);
+
+        server.verify();
+        assertEquals(100, allowed.size());
+        assertEquals(roles.get(0), allowed.get(0));
+        assertEquals(roles.get(102), allowed.get(51));
+    }
+
+    @Test
+    void missingInstancesAreDenied() {
+        server.expect(once(), requestTo(CHECK_URL))
+                .andRespond(withSuccess("{\"resourceInstances\":{}}", MediaType.APPLICATION_JSON));
+
+        assertTrue(authorizer.filterAllowed("view", RoleEntity.class, createRoles(3)).isEmpty());
+        server.verify();
+    }
+
+    @Test
+    void translatedResourcesAreSentWithAttributes() {
+        server.expect(once(), requestTo(CHECK_URL))
+                .andExpect(jsonPath("$.resource.kind").value("thing"))
+                .andExpect(jsonPath("$.resource.instances['0'].attr.id").value("a"))
+                .andExpect(jsonPath("$.resource.instances['1'].attr.id").value("b"))
+                .andRespond(
+                        withSuccess(
+                                effects(2, i -> i == 1 ? "EFFECT_ALLOW" : "EFFECT_DENY"),
+                                MediaType.APPLICATION_JSON));
+
+        List<Thing> allowed =
+                authorizer.filterAllowed(
+                        "view", Thing.class, List.of(new Thing("a"), new Thing("b")));
+
+        server.verify();
+        assertEquals(1, allowed.size());
+        assertEquals("b", allowed.get(0).name);
+    }
+
+    @Test
+    void unauthenticatedPrincipalIsDeniedWithoutRequest() {
+        SecurityContextHolder.clearContext();
+
+        assertTrue(authorizer.filterAllowed("view", RoleEntity.class, createRoles(3)).isEmpty());
+        server.verify();
+    }
+
+    private List<RoleEntity> createRoles(int count) {
+        List<RoleEntity> roles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            roles.add(new RoleEntity(UUID.randomUUID(), "ROLE_" + i, null, null, null));
+        }
+        return roles;
+    }
+
+    private String effects(int count, IntFunction<String> effect) {
+        return "{\"resourceInstances\":{"
+                + IntStream.range(0, count)
+                        .mapToObj(
+                                i ->
+                                        String.format(
+                                                "\"%d\":{\"actions\":{\"view\":\"%s\"}}",
+                                                i, effect.apply(i)))
+                        .collect(Collectors.joining(","))
+                + "}}";
+    }
+
+    @AccessResource(value = "thing", translator = ThingTranslator.class)
+    static class Thing {
+        private final String name;
+
+        Thing(String name) {
+            this.name = name;
+        }
+    }
+
+    static class ThingTranslator implements AccessResourceTranslator {
+        @Override
+        public Object translate(Object resource) {
+            return Map.of("id", ((Thing) resource).name);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.nuvalence.user.management.api.service.cerbos;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesExpression;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilter;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilterKind;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesOperand;
+import io.nuvalence.user.management.api.service.entity.UserAccessResourceTranslator;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class QueryPlanSpecificationTest {
+
+    @Test
+    void onlyAlwaysAllowedPlansAreUnrestricted() {
+        assertTrue(translate(filter(PlanResourcesFilterKind.KIND_ALWAYS_ALLOWED)).isUnrestricted());
+        assertFalse(translate(filter(PlanResourcesFilterKind.KIND_ALWAYS_DENIED)).isUnrestricted());
+        assertFalse(
+                translate(conditional(comparison("eq", "email", "a@example.com")))
+                        .isUnrestricted());
+    }
+
+    @Test
+    void unsupportedOperatorsAreRejected() {
+        final PlanResourcesFilter filter = conditional(comparison("lt", "email", "m"));
+
+        assertThrows(IllegalArgumentException.class, () -> translate(filter));
+    }
+
+    @Test
+    void attributesWithoutAColumnAreRejected() {
+        final PlanResourcesFilter filter = conditional(comparison("eq", "displayName", "Ada"));
+
+        assertThrows(IllegalArgumentException.class, () -> translate(filter));
+    }
+
+    @Test
+    void literalsMustFitTheAttributeType() {
+        final PlanResourcesFilter unknownUserType =
+                conditional(comparison("eq", "userType", "robot"));
+        final PlanResourcesFilter nonBooleanCondition =
+                conditional(
+                        PlanResourcesOperand.builder()
+                                .variable("request.resource.attr.email")
+                                .build());
+
+        assertThrows(IllegalArgumentException.class, () -> translate(unknownUserType));
+        assertThrows(IllegalArgumentException.class, () -> translate(nonBooleanCondition));
+    }
+
+    private static QueryPlanSpecification<UserEntity> translate(PlanResourcesFilter filter) {
+        return QueryPlanSpecification.of(
+                filter, UserEntity.class, UserAccessResourceTranslator.QUERYABLE_ATTRIBUTES);
+    }
+
+    private static PlanResourcesFilter filter(PlanResourcesFilterKind kind) {
+        return PlanResourcesFilter.builder().kind(kind).build();
+    }
+
+    private static PlanResourcesFilter conditional(PlanResourcesOperand condition) {
+        return PlanResourcesFilter.builder()
+                .kind(PlanResourcesFilterKind.KIND_CONDITIONAL)
+                .condition(condition)
+                .build();
+    }
+
+    private static PlanResourcesOperand comparison(
+            String operator, String attribute, Object value) {
+        return PlanResourcesOperand.builder()
+                .expression(
+                        PlanResourcesExpression.builder()
+                                .operator(operator)
+                                .operands(
+                                        List.of(
+                                                PlanResourcesOperand.builder()
+                                                        .variable(
+                                                                "request.resource.attr."
+                                                                        + attribute)
+                                                        .build(),
+                                                PlanResourcesOperand.builder()
+                                                        .value(value)
+                                                        .build()))
+                                .build())
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.user.management.api.service.cerbos.models.Effect;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks the local policy engine against the Cerbos decisions listed in
+ * {@code cerbos/policy-decisions.yaml} for the policies shipped with the helm chart.
+ * {@code CerbosPdpDecisionsTest} checks the same decisions against a Cerbos PDP.
+ */
+class CompiledPoliciesTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shippedPoliciesMatchRecordedDecisions() throws IOException {
+        CompiledPolicies policies = PolicyDecisionCases.compileShippedPolicies(objectMapper);
+        List<Map<String, Object>> cases = PolicyDecisionCases.load();
+
+        List<String> mismatches = new ArrayList<>();
+        for (Map<String, Object> decision : cases) {
+            PolicyRequest request = PolicyDecisionCases.toRequest(decision);
+            PolicyDecisionCases.effects(decision)
+                    .forEach(
+                            (action, expected) -> {
+                                Effect actual = policies.evaluate(request, action);
+                                if (actual != Effect.valueOf(expected)) {
+                                    mismatches.add(
+                                            String.format(
+                                                    "%s %s %s: expected %s, was %s",
+                                                    decision.get("principal"),
+                                                    action,
+                                                    decision.get("resource"),
+                                                    expected,
+                                                    actual));
+                                }
+                            });
+        }
+
+        assertTrue(mismatches.isEmpty(), String.join("\n", mismatches));
+        assertFalse(cases.isEmpty());
+    }
+
+    @Test
+    void denyRulesOverrideAllowRulesAndWildcardsMatch() {
+        CompiledPolicies policies =
+                compile(
+                        "resourcePolicy:\n"
+                                + "  version: default\n"
+                                + "  resource: document\n"
+                                + "  rules:\n"
+                                + "    - actions: ['*']\n"
+                                + "      roles: [editor]\n"
+                                + "      effect: EFFECT_ALLOW\n"
+                                + "    - actions: [delete]\n"
+                                + "      roles: ['*']\n"
+                                + "      condition:\n"
+                                + "        match:\n"
+                                + "          any:\n"
+                                + "            of:\n"
+                                + "              - expr: R.attr.locked == true\n"
+                                + "              - expr: request.resource.attr.owner.id != P.id\n"
+                                + "      effect: EFFECT_DENY\n");
+
+        PolicyRequest owner =
+                request("editor", Map.of("locked", false, "owner", Map.of("id", "user-1")));
+        PolicyRequest locked =
+                request("editor", Map.of("locked", true, "owner", Map.of("id", "user-1")));
+
+        assertEquals(Effect.EFFECT_ALLOW, policies.evaluate(owner, "edit"));
+        assertEquals(Effect.EFFECT_ALLOW, policies.evaluate(owner, "delete"));
+        assertEquals(Effect.EFFECT_DENY, policies.evaluate(locked, "delete"));
+        assertEquals(Effect.EFFECT_DENY, policies.evaluate(request("viewer", Map.of()), "edit"));
+    }
+
+    @Test
+    void missingAttributesFailConditions() {
+        CompiledPolicies policies =
+                compile(
+                        "resourcePolicy:\n"
+                                + "  version: default\n"
+                                + "  resource: document\n"
+                                + "  rules:\n"
+                                + "    - actions: [view]\n"
+                                + "      roles: [viewer]\n"
+                                + "      condition:\n"
+                                + "        match:\n"
+                                + "          expr: R.attr.owner != 'nobody'\n"
+                                + "      effect: EFFECT_ALLOW\n");
+
+        assertEquals(Effect.EFFECT_DENY, policies.evaluate(request("viewer", Map.of()), "view"));
+        assertEquals(
+                Effect.EFFECT_ALLOW,
+                policies.evaluate(request("viewer", Map.of("owner", "user-1")), "view"));
+    }
+
+    @Test
+    void unsupportedPoliciesAreRejected() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> compile("principalPolicy:\n  principal: user-1\n  version: default\n"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        compile(
+                                "resourcePolicy:\n"
+                                        + "  version: default\n"
+                                        + "  resource: document\n"
+                                        + "  importDerivedRoles: [missing]\n"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        compile(
+                                "resourcePolicy:\n"
+                                        + "  version: default\n"
+                                        + "  resource: document\n"
+                                        + "  rules:\n"
+                                        + "    - actions: [view]\n"
+                                        + "      roles: [viewer]\n"
+                                        + "      condition:\n"
+                                        + "        match:\n"
+                                        + "          expr: R.attr.tags.exists(t, t == 'x')\n"
+                                        + "      effect: EFFECT_ALLOW\n"));
+    }
+
+    private CompiledPolicies compile(String policy) {
+        return CompiledPolicies.compile(
+                List.of(objectMapper.convertValue(new Yaml().load(policy), Policy.class)));
+    }
+
+    private PolicyRequest request(String role, Map<String, Object> attributes) {
+        return new PolicyRequest("user-1", Set.of(role), Map.of(), "document", attributes);
+    }
+}
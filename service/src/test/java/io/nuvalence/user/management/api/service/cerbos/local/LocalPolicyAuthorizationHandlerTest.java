@@ -0,0 +1,131 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.auth.access.AccessResource;
+import io.nuvalence.auth.access.cerbos.AccessResourceTranslator;
+import io.nuvalence.user.management.api.service.cerbos.AccessResourceResolver;
+import io.nuvalence.user.management.api.service.cerbos.models.Policy;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class LocalPolicyAuthorizationHandlerTest {
+    private static final String POLICIES =
+            "resourcePolicy:\n"
+                    + "  version: default\n"
+                    + "  resource: role\n"
+                    + "  rules:\n"
+                    + "    - actions: [view]\n"
+                    + "      roles: [admin]\n"
+                    + "      effect: EFFECT_ALLOW\n"
+                    + "---\n"
+                    + "resourcePolicy:\n"
+                    + "  version: default\n"
+                    + "  resource: note\n"
+                    + "  importDerivedRoles: [owners]\n"
+                    + "  rules:\n"
+                    + "    - actions: [view]\n"
+                    + "      derivedRoles: [owner]\n"
+                    + "      effect: EFFECT_ALLOW\n"
+                    + "---\n"
+                    + "derivedRoles:\n"
+                    + "  name: owners\n"
+                    + "  definitions:\n"
+                    + "    - name: owner\n"
+                    + "      parentRoles: [basic]\n"
+                    + "      condition:\n"
+                    + "        match:\n"
+                    + "          expr: request.resource.attr.owner == request.principal.id\n";
+
+    private LocalPolicyAuthorizationHandler handler;
+
+    @BeforeEach
+    void setup() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Policy> policies = new ArrayList<>();
+        for (Object document : new Yaml().loadAll(POLICIES)) {
+            policies.add(objectMapper.convertValue(document, Policy.class));
+        }
+
+        handler =
+                new LocalPolicyAuthorizationHandler(
+                        CompiledPolicies.compile(policies),
+                        new AccessResourceResolver(objectMapper, new DefaultListableBeanFactory()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void typeLevelChecksUseTheResourceKind() {
+        authenticate("admin-1", "admin");
+
+        assertTrue(handler.isAllowed("view", RoleEntity.class));
+        assertTrue(handler.isAllowed("view", "role"));
+        assertFalse(handler.isAllowed("update", RoleEntity.class));
+    }
+
+    @Test
+    void instanceChecksUseTranslatedAttributes() {
+        authenticate("user-1", "basic");
+        List<Note> notes = List.of(new Note("user-1"), new Note("user-2"), new Note("user-1"));
+
+        assertTrue(handler.isAllowedForInstance("view", notes.get(0)));
+        assertFalse(handler.isAllowedForInstance("view", notes.get(1)));
+        assertEquals(
+                2,
+                notes.stream()
+                        .filter(handler.getAuthFilter("view", Note.class))
+                        .collect(Collectors.toList())
+                        .size());
+    }
+
+    @Test
+    void unauthenticatedRequestsAreDenied() {
+        assertFalse(handler.isAllowed("view", RoleEntity.class));
+    }
+
+    private void authenticate(String name, String... roles) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(
+                                name,
+                                null,
+                                List.of(roles).stream()
+                                        .map(SimpleGrantedAuthority::new)
+                                        .collect(Collectors.toList())));
+    }
+
+    @AccessResource(value = "note", translator = NoteTranslator.class)
+    static class Note {
+        private final String owner;
+
+        Note(String owner) {
+            this.owner = owner;
+        }
+    }
+
+    static class NoteTranslator implements AccessResourceTranslator {
+        @Override
+        public Object translate(Object resource) {
+            return Map.of("owner", ((Note) resource).owner);
+        }
+    }
+}
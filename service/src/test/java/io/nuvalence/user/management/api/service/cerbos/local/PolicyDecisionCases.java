@@ -0,0 +1,69 @@
+package io.nuvalence.user.management.api.service.cerbos.local;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The decisions in {@code cerbos/policy-decisions.yaml} and the helm chart policies they were
+ * recorded for. Shared by the local engine test and the integration test that checks them against
+ * a Cerbos PDP.
+ */
+final class PolicyDecisionCases {
+    static final String POLICY_DIRECTORY = "helm/user-management/cerbos-policies";
+
+    private PolicyDecisionCases() {}
+
+    static List<Map<String, Object>> load() throws IOException {
+        try (InputStream inputStream =
+                PolicyDecisionCases.class.getResourceAsStream("/cerbos/policy-decisions.yaml")) {
+            return new Yaml().load(inputStream);
+        }
+    }
+
+    static CompiledPolicies compileShippedPolicies(ObjectMapper objectMapper) throws IOException {
+        return CompiledPolicies.compile(
+                PolicyLoader.load(
+                        new PathMatchingResourcePatternResolver(),
+                        findPolicyDirectory().toUri().toString(),
+                        objectMapper));
+    }
+
+    @SuppressWarnings("unchecked")
+    static PolicyRequest toRequest(Map<String, Object> decision) {
+        Map<String, Object> principal = (Map<String, Object>) decision.get("principal");
+        Map<String, Object> resource = (Map<String, Object>) decision.get("resource");
+        return new PolicyRequest(
+                (String) principal.get("id"),
+                Set.copyOf((List<String>) principal.get("roles")),
+                Map.of(),
+                (String) resource.get("kind"),
+                (Map<String, Object>) resource.getOrDefault("attr", Map.of()));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, String> effects(Map<String, Object> decision) {
+        return (Map<String, String>) decision.get("effects");
+    }
+
+    static Path findPolicyDirectory() {
+        for (Path directory = Path.of("").toAbsolutePath();
+                directory != null;
+                directory = directory.getParent()) {
+            Path candidate = directory.resolve(POLICY_DIRECTORY);
+            if (Files.isDirectory(candidate)) {
+                return candidate;
+            }
+        }
+
+        throw new IllegalStateException(POLICY_DIRECTORY + " not found");
+    }
+}
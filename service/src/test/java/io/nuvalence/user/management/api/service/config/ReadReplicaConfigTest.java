@@ -0,0 +1,88 @@
+package io.nuvalence.user.management.api.service.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.datasource.ReplicaRoutingDataSource;
+import io.nuvalence.user.management.api.service.service.UserSearchCriteria;
+import io.nuvalence.user.management.api.service.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs JPA transactions through the routing data source. The test database doubles as the
+ * replica, whose connections set a session variable so that the two can be told apart.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+        properties = {
+            "users.read-replicas.enabled=true",
+            "users.read-replicas.urls=jdbc:h2:mem:db;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;"
+                    + "INIT=CREATE TYPE IF NOT EXISTS \"JSONB\" AS text\\\\;SET @REPLICA = TRUE"
+        })
+@ActiveProfiles("test")
+class ReadReplicaConfigTest {
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private UserService userService;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @Test
+    void routesReadOnlyJpaTransactionsToTheReplica() {
+        assertEquals(1, replicaRoutingDataSource.getHealthyReplicaCount());
+        assertEquals(Boolean.TRUE, servedByReplica(true));
+        assertNull(servedByReplica(false));
+    }
+
+    @Test
+    void servesUserSearchesFromTheReplica() {
+        final long count =
+                userService
+                        .getUsersBySearchCriteria(
+                                UserSearchCriteria.builder().build(), PageRequest.of(0, 10))
+                        .getTotalElements();
+
+        assertEquals(
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_table WHERE deleted = false", Long.class),
+                count);
+    }
+
+    private Boolean servedByReplica(boolean readOnly) {
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+
+        return transaction.execute(
+                status ->
+                        (Boolean)
+                                entityManager
+                                        .createNativeQuery("SELECT @REPLICA")
+                                        .getSingleResult());
+    }
+}
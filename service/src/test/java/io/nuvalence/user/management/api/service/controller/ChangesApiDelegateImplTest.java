@@ -0,0 +1,105 @@
+package io.nuvalence.user.management.api.service.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.ChangeOutboxEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
+import io.nuvalence.user.management.api.service.service.ChangeFeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ChangesApiDelegateImplTest {
+    @Autowired private MockMvc mockMvc;
+
+    @MockBean private ChangeFeedService changeFeedService;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @BeforeEach
+    void setup() {
+        when(authorizationHandler.isAllowed(any(), (Class<?>) any())).thenReturn(true);
+    }
+
+    @Test
+    @WithMockUser
+    void longPollIsAnsweredOnceTheFeedCompletesIt() throws Exception {
+        final CompletableFuture<List<ChangeOutboxEntity>> changes = new CompletableFuture<>();
+        when(changeFeedService.awaitChanges(eq(5L), eq(10), eq(Duration.ofSeconds(20))))
+                .thenReturn(changes);
+
+        final MvcResult result =
+                mockMvc.perform(
+                                get("/api/v1/changes")
+                                        .param("since", "5")
+                                        .param("limit", "10")
+                                        .param("waitSeconds", "20"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        final UUID userId = UUID.randomUUID();
+        changes.complete(
+                List.of(
+                        new ChangeOutboxEntity(
+                                1,
+                                6L,
+                                ChangeEntityType.USER,
+                                userId,
+                                ChangeOperation.CREATED,
+                                OffsetDateTime.now())));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].entityId").value(userId.toString()))
+                .andExpect(jsonPath("$.nextCursor").value(6));
+    }
+
+    @Test
+    @WithMockUser
+    void longPollThatEndsEmptyKeepsTheCursor() throws Exception {
+        when(changeFeedService.awaitChanges(anyLong(), anyInt(), any()))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        final MvcResult result =
+                mockMvc.perform(get("/api/v1/changes").param("since", "5"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor").value(5));
+    }
+}
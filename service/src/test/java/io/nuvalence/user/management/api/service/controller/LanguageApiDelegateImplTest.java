@@ -3,13 +3,17 @@ package io.nuvalence.user.management.api.service.controller;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nuvalence.auth.access.AuthorizationHandler;
 import io.nuvalence.user.management.api.service.entity.LanguageEntity;
 import io.nuvalence.user.management.api.service.generated.models.LanguageDTO;
 import io.nuvalence.user.management.api.service.mapper.LanguageEntityMapper;
+import io.nuvalence.user.management.api.service.service.LanguageRegistry;
 import io.nuvalence.user.management.api.service.service.LanguageService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,12 +22,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -35,6 +41,8 @@ import java.util.stream.Collectors;
 class LanguageApiDelegateImplTest {
     @Autowired private MockMvc mockMvc;
 
+    @Autowired private ObjectMapper objectMapper;
+
     @MockBean private LanguageService languageService;
 
     @MockBean private AuthorizationHandler authorizationHandler;
@@ -66,7 +74,8 @@ class LanguageApiDelegateImplTest {
                                 "it",
                                 "Italiano"));
 
-        when(languageService.getLanguages()).thenReturn(languages);
+        LanguageRegistry registry = LanguageRegistry.of(Instant.now(), languages, objectMapper);
+        when(languageService.getRegistry()).thenReturn(registry);
 
         List<LanguageDTO> mappedLanguages =
                 languages.stream()
@@ -75,9 +84,47 @@ class LanguageApiDelegateImplTest {
 
         mockMvc.perform(get("/api/v1/languages/").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, registry.getBody().getEtag()))
+                .andExpect(
+                        header().longValue(
+                                        HttpHeaders.CONTENT_LENGTH,
+                                        registry.getBody().getJsonLength()))
+                .andExpect(jsonPath("$.length()").value(languages.size()))
                 .andExpect(
                         jsonPath("$[0].languageStandardId")
-                                .value(mappedLanguages.get(0).getLanguageStandardId()));
+                                .value(mappedLanguages.get(0).getLanguageStandardId()))
+                .andExpect(jsonPath("$[2].localName").value("中文"));
+    }
+
+    @Test
+    @WithMockUser
+    void getSupportedLanguagesNotModified() throws Exception {
+        LanguageRegistry registry =
+                LanguageRegistry.of(
+                        Instant.now(),
+                        List.of(
+                                createLanguage(
+                                        "4e6ba44a-5446-4be9-a4a2-1090a9cca41a",
+                                        "English",
+                                        "en",
+                                        "English")),
+                        objectMapper);
+        when(languageService.getRegistry()).thenReturn(registry);
+
+        mockMvc.perform(
+                        get("/api/v1/languages/")
+                                .header(HttpHeaders.IF_NONE_MATCH, registry.getBody().getEtag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser
+    void getSupportedLanguagesNotFound() throws Exception {
+        when(languageService.getRegistry())
+                .thenReturn(LanguageRegistry.of(Instant.now(), List.of(), objectMapper));
+
+        mockMvc.perform(get("/api/v1/languages/")).andExpect(status().isNotFound());
     }
 
     private LanguageEntity createLanguage(
@@ -8,8 +8,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import io.nuvalence.auth.access.AuthorizationHandler;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserView;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
+import io.nuvalence.user.management.api.service.mapper.MapperUtils;
 import io.nuvalence.user.management.api.service.service.CurrentUserService;
+import io.nuvalence.user.management.api.service.service.UserQueryService;
 import io.nuvalence.user.management.api.service.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,6 +40,7 @@ class MySelfApiDelegateImplTest {
 
     @MockBean private CurrentUserService currentUserService;
     @MockBean private UserService userService;
+    @MockBean private UserQueryService userQueryService;
 
     private final String mySelfEndpoint = "/api/v1/myself";
 
@@ -60,13 +64,18 @@ class MySelfApiDelegateImplTest {
         return user;
     }
 
+    private static UserView view(UserEntity user) {
+        return new UserView(
+                MapperUtils.mapUserEntityToUserDto(user), user.getCreatedAt(), user.getVersion());
+    }
+
     @Test
     void testGetMySelfWithValidUserId() throws Exception {
         UserEntity user = createMockUser();
-        when(authorizationHandler.isAllowedForInstance("view", user)).thenReturn(true);
+        when(authorizationHandler.isAllowedForInstance("view", view(user))).thenReturn(true);
         when(currentUserService.getUserIdByAuthentication())
                 .thenReturn(Optional.ofNullable(user.getId().toString()));
-        when(userService.getUserByIdLoaded(user.getId())).thenReturn(Optional.of(user));
+        when(userQueryService.getUser(user.getId())).thenReturn(Optional.of(view(user)));
 
         mockMvc.perform(get(mySelfEndpoint))
                 .andExpect(status().isOk())
@@ -76,9 +85,9 @@ class MySelfApiDelegateImplTest {
     @Test
     void testGetMySelfWithInvalidUserId() throws Exception {
         UserEntity user = createMockUser();
-        when(authorizationHandler.isAllowedForInstance("view", user)).thenReturn(true);
+        when(authorizationHandler.isAllowedForInstance("view", view(user))).thenReturn(true);
         when(currentUserService.getUserIdByAuthentication()).thenReturn(Optional.empty());
-        when(userService.getUserByIdLoaded(user.getId())).thenReturn(Optional.of(user));
+        when(userQueryService.getUser(user.getId())).thenReturn(Optional.of(view(user)));
 
         mockMvc.perform(get(mySelfEndpoint)).andExpect(status().isNotFound());
     }
@@ -90,7 +99,7 @@ class MySelfApiDelegateImplTest {
         when(authorizationHandler.isAllowedForInstance("update", user)).thenReturn(true);
         when(currentUserService.getUserIdByAuthentication())
                 .thenReturn(Optional.ofNullable(user.getId().toString()));
-        when(userService.updateUserById(user.getId(), new UserUpdateRequest())).thenReturn(user);
+        when(userService.updateUser(user, new UserUpdateRequest())).thenReturn(user);
 
         mockMvc.perform(put(mySelfEndpoint).content("{}").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -104,7 +113,7 @@ class MySelfApiDelegateImplTest {
         when(authorizationHandler.isAllowedForInstance("update", user)).thenReturn(true);
         when(currentUserService.getUserIdByAuthentication())
                 .thenReturn(Optional.ofNullable(user.getId().toString()));
-        when(userService.updateUserById(user.getId(), new UserUpdateRequest())).thenReturn(user);
+        when(userService.updateUser(user, new UserUpdateRequest())).thenReturn(user);
 
         mockMvc.perform(put(mySelfEndpoint).content("{}").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
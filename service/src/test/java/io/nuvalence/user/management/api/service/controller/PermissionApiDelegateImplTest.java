@@ -2,6 +2,8 @@ package io.nuvalence.user.management.api.service.controller;
 
 import static io.nuvalence.user.management.api.service.utils.TestUtils.createMockPermission;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -13,9 +15,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nuvalence.auth.access.AuthorizationHandler;
 import io.nuvalence.user.management.api.service.entity.PermissionEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.SortOrder;
+import io.nuvalence.user.management.api.service.enums.UserType;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdatePermissionDTO;
 import io.nuvalence.user.management.api.service.repository.PermissionRepository;
 import io.nuvalence.user.management.api.service.service.PermissionService;
+import io.nuvalence.user.management.api.service.service.UserPageToken;
+import io.nuvalence.user.management.api.service.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,6 +52,8 @@ class PermissionApiDelegateImplTest {
 
     @MockBean private PermissionService permissionService;
 
+    @MockBean private UserService userService;
+
     @MockBean private AuthorizationHandler authorizationHandler;
 
     @BeforeEach
@@ -120,6 +129,51 @@ class PermissionApiDelegateImplTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser
+    void getPermissionUsers() throws Exception {
+        PermissionEntity permissionEntity = createMockPermission();
+        final UserEntity first = createUserEntity("EXT-1");
+        when(permissionService.getPermissionById(permissionEntity.getId()))
+                .thenReturn(Optional.of(permissionEntity));
+        when(userService.getUsersWithPermissionAfter(eq(permissionEntity.getId()), isNull(), eq(2)))
+                .thenReturn(List.of(first, createUserEntity("EXT-2")));
+
+        mockMvc.perform(
+                        get("/api/v1/permission/" + permissionEntity.getId() + "/users")
+                                .param("pageSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].externalId").value("EXT-1"))
+                .andExpect(jsonPath("$.pagingMetadata.hasNext").value(true))
+                .andExpect(
+                        jsonPath("$.pagingMetadata.nextPageToken")
+                                .value(
+                                        UserPageToken.after(first, "id", SortOrder.ASC)
+                                                .encode()));
+    }
+
+    @Test
+    @WithMockUser
+    void getPermissionUsersByApplicationRole_notFound() throws Exception {
+        when(permissionService.getPermissionByApplicationRole("um:missing"))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/permission/by-application-role/um:missing/users"))
+                .andExpect(status().isNotFound());
+    }
+
+    private UserEntity createUserEntity(String externalId) {
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setExternalId(externalId);
+        user.setIdentityProvider("test");
+        user.setEmail(externalId.toLowerCase() + "@example.com");
+        user.setUserType(UserType.PUBLIC);
+        user.setRoles(List.of());
+        return user;
+    }
+
     private CreateOrUpdatePermissionDTO createOrUpdatePermissionModel() {
         CreateOrUpdatePermissionDTO permission = new CreateOrUpdatePermissionDTO();
         permission.setName("test_perm");
@@ -4,6 +4,8 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -76,9 +78,9 @@ class RoleApiDelegateImplTest {
     @Test
     @WithMockUser
     void getAllRoles() throws Exception {
-        List<RoleEntity> roles = List.of(createMockRoleEntity());
+        List<RoleDTO> roles = List.of(createMockRoleDto());
 
-        when(roleService.getAllRoles()).thenReturn(roles);
+        when(roleService.getAllRoleModels()).thenReturn(roles);
 
         mockMvc.perform(
                         get("/api/v1/roles?resource=default_resource")
@@ -87,6 +89,20 @@ class RoleApiDelegateImplTest {
                 .andExpect(jsonPath("$[0].name").value(roles.get(0).getName()));
     }
 
+    @Test
+    @WithMockUser
+    void getAllRolesIsEmptyWhenTheCallerCannotViewRoles() throws Exception {
+        when(authorizationHandler.isAllowed("view", RoleEntity.class)).thenReturn(false);
+
+        mockMvc.perform(
+                        get("/api/v1/roles?resource=default_resource")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        verify(roleService, never()).getAllRoleModels();
+    }
+
     @Test
     @WithMockUser
     void deleteRoleById() throws Exception {
@@ -158,11 +174,4 @@ class RoleApiDelegateImplTest {
         role.setId(UUID.randomUUID());
         return role;
     }
-
-    private RoleEntity createMockRoleEntity() {
-        RoleEntity entity = new RoleEntity();
-        entity.setName("ROLE_TO_TEST");
-        entity.setId(UUID.randomUUID());
-        return entity;
-    }
 }
@@ -0,0 +1,105 @@
+package io.nuvalence.user.management.api.service.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.generated.models.DesiredRole;
+import io.nuvalence.user.management.api.service.generated.models.RoleSyncRequest;
+import io.nuvalence.user.management.api.service.repository.RoleSyncPlan;
+import io.nuvalence.user.management.api.service.service.RoleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class RolesSyncApiDelegateImplTest {
+    @Autowired private MockMvc mockMvc;
+
+    @MockBean private RoleService roleService;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setup() {
+        when(authorizationHandler.isAllowed(any(), (Class<?>) any())).thenReturn(true);
+    }
+
+    @Test
+    @WithMockUser
+    void syncRolesReportsTheChanges() throws Exception {
+        when(roleService.syncRoles(any(), eq(true)))
+                .thenReturn(
+                        new RoleSyncPlan(
+                                Map.of("AUDITOR", UUID.randomUUID()),
+                                Map.of(),
+                                Map.of("LEGACY", UUID.randomUUID()),
+                                2,
+                                Map.of(),
+                                Map.of(),
+                                Map.of()));
+
+        mockMvc.perform(
+                        put("/api/v1/roles:sync")
+                                .param("dryRun", "true")
+                                .content(objectMapper.writeValueAsString(createRequest()))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dryRun").value(true))
+                .andExpect(jsonPath("$.created[0]").value("AUDITOR"))
+                .andExpect(jsonPath("$.updated").isEmpty())
+                .andExpect(jsonPath("$.deleted[0]").value("LEGACY"))
+                .andExpect(jsonPath("$.unchangedCount").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void syncRolesRequiresDeletePermission() throws Exception {
+        when(authorizationHandler.isAllowed("delete", RoleEntity.class)).thenReturn(false);
+
+        mockMvc.perform(
+                        put("/api/v1/roles:sync")
+                                .content(objectMapper.writeValueAsString(createRequest()))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+
+        verify(roleService, never()).syncRoles(any(), anyBoolean());
+    }
+
+    private RoleSyncRequest createRequest() {
+        return new RoleSyncRequest()
+                .roles(
+                        List.of(
+                                new DesiredRole()
+                                        .name("auditor")
+                                        .description("Auditor")
+                                        .permissions(List.of("um:reader"))));
+    }
+}
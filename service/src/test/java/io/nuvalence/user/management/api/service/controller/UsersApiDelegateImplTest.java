@@ -1,28 +1,48 @@
 package io.nuvalence.user.management.api.service.controller;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nuvalence.auth.access.AuthorizationHandler;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserImportError;
+import io.nuvalence.user.management.api.service.entity.UserImportJobEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
+import io.nuvalence.user.management.api.service.entity.UserView;
+import io.nuvalence.user.management.api.service.enums.SortOrder;
+import io.nuvalence.user.management.api.service.enums.UserImportFormat;
+import io.nuvalence.user.management.api.service.enums.UserImportStatus;
 import io.nuvalence.user.management.api.service.enums.UserType;
 import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
+import io.nuvalence.user.management.api.service.mapper.MapperUtils;
 import io.nuvalence.user.management.api.service.mapper.UserPreferenceEntityMapper;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
+import io.nuvalence.user.management.api.service.service.UserImportService;
 import io.nuvalence.user.management.api.service.service.UserPreferenceService;
+import io.nuvalence.user.management.api.service.service.UserPageToken;
+import io.nuvalence.user.management.api.service.service.UserQueryService;
 import io.nuvalence.user.management.api.service.service.UserSearchCriteria;
 import io.nuvalence.user.management.api.service.service.UserService;
 import org.hamcrest.Description;
@@ -42,22 +62,35 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -70,8 +103,11 @@ class UsersApiDelegateImplTest {
     @MockBean private UserRepository userRepository;
 
     @MockBean private UserService userService;
+    @MockBean private UserQueryService userQueryService;
     @MockBean private UserPreferenceService userPreferenceService;
 
+    @MockBean private UserImportService userImportService;
+
     @MockBean private AuthorizationHandler authorizationHandler;
 
     @BeforeEach
@@ -151,7 +187,7 @@ class UsersApiDelegateImplTest {
     void getUserById_NotFound() throws Exception {
         UUID userId = UUID.randomUUID();
 
-        when(userService.getUserByIdLoaded(userId)).thenReturn(Optional.empty());
+        when(userQueryService.getUser(userId)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/v1/users/" + userId)).andExpect(status().isNotFound());
     }
@@ -165,19 +201,88 @@ class UsersApiDelegateImplTest {
         userEntity.setLastName(null);
         userEntity.setPhoneNumber(null);
 
-        when(userService.getUserByIdLoaded(userEntity.getId())).thenReturn(Optional.of(userEntity));
+        when(userQueryService.getUser(userEntity.getId()))
+
+                .thenReturn(Optional.of(view(userEntity)));
         mockMvc.perform(get("/api/v1/users/" + userEntity.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstName").value(nullValue()));
     }
 
+    @Test
+    @WithMockUser
+    void getUserByIdServesRepeatedReadsFromTheProfileCache() throws Exception {
+        UserEntity userEntity = createMockUser();
+        when(userQueryService.getUser(userEntity.getId()))
+                .thenReturn(Optional.of(view(userEntity)));
+
+        mockMvc.perform(get("/api/v1/users/" + userEntity.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/users/" + userEntity.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(userEntity.getEmail()));
+
+        verify(userQueryService, times(1)).getUser(userEntity.getId());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserByIdAuthorizesCachedProfiles() throws Exception {
+        UserEntity userEntity = createMockUser();
+        when(userQueryService.getUser(userEntity.getId()))
+                .thenReturn(Optional.of(view(userEntity)));
+
+        mockMvc.perform(get("/api/v1/users/" + userEntity.getId())).andExpect(status().isOk());
+        when(authorizationHandler.isAllowedForInstance("view", view(userEntity)))
+                .thenReturn(false);
+
+        mockMvc.perform(get("/api/v1/users/" + userEntity.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserByIdentityDecodesTheProvider() throws Exception {
+        UserEntity userEntity = createMockUser();
+        userEntity.setExternalId("tenant/EXT-1");
+        when(userService.getUserByIdentity(
+                        userEntity.getIdentityProvider(), userEntity.getExternalId()))
+                .thenReturn(Optional.of(userEntity));
+
+        mockMvc.perform(
+                        get("/api/v1/users/by-identity/" + encode(userEntity.getIdentityProvider()))
+                                .param("externalId", userEntity.getExternalId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(userEntity.getId().toString()))
+                .andExpect(jsonPath("$.pagingMetadata").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserByIdentityRejectsAProviderThatIsNotBase64Url() throws Exception {
+        mockMvc.perform(get("/api/v1/users/by-identity/a.b").param("externalId", "EXT-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserByIdentityHidesUsersTheCallerCannotView() throws Exception {
+        UserEntity userEntity = createMockUser();
+        when(userService.getUserByIdentity("idp", "EXT-1")).thenReturn(Optional.of(userEntity));
+        when(authorizationHandler.isAllowedForInstance("view", userEntity)).thenReturn(false);
+
+        mockMvc.perform(
+                        get("/api/v1/users/by-identity/" + encode("idp"))
+                                .param("externalId", "EXT-1"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser
     void updateUserById() throws Exception {
         UserEntity userEntity = createMockUser();
         when(userService.getUserByIdLoaded(userEntity.getId())).thenReturn(Optional.of(userEntity));
         when(authorizationHandler.isAllowedForInstance("update", userEntity)).thenReturn(true);
-        when(userService.updateUserById(userEntity.getId(), new UserUpdateRequest()))
+        when(userService.updateUser(userEntity, new UserUpdateRequest()))
                 .thenReturn(userEntity);
 
         mockMvc.perform(
@@ -198,7 +303,7 @@ class UsersApiDelegateImplTest {
         userEntity.setPhoneNumber(null);
         when(userService.getUserByIdLoaded(userEntity.getId())).thenReturn(Optional.of(userEntity));
         when(authorizationHandler.isAllowedForInstance("update", userEntity)).thenReturn(true);
-        when(userService.updateUserById(userEntity.getId(), new UserUpdateRequest()))
+        when(userService.updateUser(userEntity, new UserUpdateRequest()))
                 .thenReturn(userEntity);
 
         mockMvc.perform(
@@ -210,6 +315,121 @@ class UsersApiDelegateImplTest {
                 .andExpect(jsonPath("$.firstName").value(nullValue()));
     }
 
+    @Test
+    @WithMockUser
+    void getUserByIdReturnsTheVersionAsETag() throws Exception {
+        UserEntity userEntity = createMockUser();
+        userEntity.setVersion(3);
+        when(userQueryService.getUser(userEntity.getId()))
+                .thenReturn(Optional.of(view(userEntity)));
+
+        mockMvc.perform(get("/api/v1/users/" + userEntity.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserByIdAnswersCurrentETagWithNotModified() throws Exception {
+        UserEntity userEntity = createMockUser();
+        userEntity.setVersion(3);
+        when(userService.getUserById(userEntity.getId())).thenReturn(Optional.of(userEntity));
+
+        mockMvc.perform(
+                        get("/api/v1/users/" + userEntity.getId())
+                                .header("If-None-Match", "W/\"2\", \"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(userQueryService, times(0)).getUser(userEntity.getId());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserByIdReloadsProfilesOlderThanTheCurrentVersion() throws Exception {
+        UserEntity cached = createMockUser();
+        UserEntity changed = createMockUser();
+        changed.setId(cached.getId());
+        changed.setEmail("changed@example.com");
+        changed.setVersion(1);
+        when(userQueryService.getUser(cached.getId()))
+                .thenReturn(Optional.of(view(cached)), Optional.of(view(changed)));
+        when(userService.getUserById(cached.getId())).thenReturn(Optional.of(changed));
+
+        mockMvc.perform(get("/api/v1/users/" + cached.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/users/" + cached.getId()).header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.email").value("changed@example.com"));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserByIdHidesUsersTheCallerCannotViewBeforeComparingETags() throws Exception {
+        UserEntity userEntity = createMockUser();
+        when(userService.getUserById(userEntity.getId())).thenReturn(Optional.of(userEntity));
+        when(authorizationHandler.isAllowedForInstance("view", userEntity)).thenReturn(false);
+
+        mockMvc.perform(get("/api/v1/users/" + userEntity.getId()).header("If-None-Match", "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void updateUserByIdWithCurrentIfMatch() throws Exception {
+        UserEntity userEntity = createMockUser();
+        userEntity.setVersion(4);
+        UserEntity updated = createMockUser();
+        updated.setVersion(5);
+        when(userService.getUserByIdLoaded(userEntity.getId())).thenReturn(Optional.of(userEntity));
+        when(userService.updateUser(userEntity, new UserUpdateRequest())).thenReturn(updated);
+
+        mockMvc.perform(
+                        put("/api/v1/users/" + userEntity.getId())
+                                .header("If-Match", "\"4\"")
+                                .content("{}")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+
+        verify(userService, times(1)).getUserByIdLoaded(userEntity.getId());
+    }
+
+    @Test
+    @WithMockUser
+    void updateUserByIdWithStaleIfMatchFailsPrecondition() throws Exception {
+        UserEntity userEntity = createMockUser();
+        userEntity.setVersion(4);
+        when(userService.getUserByIdLoaded(userEntity.getId())).thenReturn(Optional.of(userEntity));
+
+        mockMvc.perform(
+                        put("/api/v1/users/" + userEntity.getId())
+                                .header("If-Match", "\"3\", W/\"4\"")
+                                .content("{}")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(userService, times(0)).updateUser(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void updateUserByIdReportsConcurrentChangesAsConflict() throws Exception {
+        UserEntity userEntity = createMockUser();
+        when(userService.getUserByIdLoaded(userEntity.getId())).thenReturn(Optional.of(userEntity));
+        when(userService.updateUser(userEntity, new UserUpdateRequest()))
+                .thenThrow(
+                        new ObjectOptimisticLockingFailureException(
+                                UserEntity.class, userEntity.getId()));
+
+        mockMvc.perform(
+                        put("/api/v1/users/" + userEntity.getId())
+                                .content("{}")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     private UserCreationRequest createNewUserModel() {
         UserCreationRequest user = new UserCreationRequest();
         user.setIdentityProvider("https://securetoken.google.com/my-project");
@@ -239,6 +459,140 @@ class UsersApiDelegateImplTest {
         return user;
     }
 
+    // Export users tests
+    @Test
+    @WithMockUser
+    @SuppressWarnings("unchecked")
+    void exportUsersStreamsGzippedNdjson() throws Exception {
+        final UserEntity first = createMockUser();
+        final UserEntity second = createMockUser();
+        final UserEntity hidden = createMockUser();
+        when(authorizationHandler.getAuthFilter("view", UserEntity.class))
+                .thenReturn(user -> user != hidden);
+        Mockito.doAnswer(
+                        invocation -> {
+                            final Consumer<List<UserEntity>> consumer = invocation.getArgument(2);
+                            consumer.accept(List.of(first, hidden));
+                            consumer.accept(List.of(second));
+                            return null;
+                        })
+                .when(userService)
+                .exportUsers(
+                        eq(UserSearchCriteria.builder().email("Rdawg@gmail.com").build()),
+                        anyInt(),
+                        any());
+
+        final MvcResult result =
+                mockMvc.perform(get("/api/v1/users/export").param("email", "Rdawg@gmail.com"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+
+        final List<String> lines;
+        try (BufferedReader reader =
+                new BufferedReader(
+                        new InputStreamReader(
+                                new GZIPInputStream(
+                                        new ByteArrayInputStream(
+                                                result.getResponse().getContentAsByteArray())),
+                                StandardCharsets.UTF_8))) {
+            lines = reader.lines().collect(Collectors.toList());
+        }
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(2, lines.size());
+        assertEquals(
+                first.getId().toString(), objectMapper.readTree(lines.get(0)).get("id").asText());
+        assertEquals(
+                second.getId().toString(), objectMapper.readTree(lines.get(1)).get("id").asText());
+    }
+
+    // Import users tests
+    @Test
+    @WithMockUser
+    void importUsersQueuesJob() throws Exception {
+        final UserImportJobEntity job = new UserImportJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setStatus(UserImportStatus.QUEUED);
+        job.setFormat(UserImportFormat.CSV);
+        job.setCreatedAt(OffsetDateTime.now());
+        when(userImportService.startImport(any(), eq(UserImportFormat.CSV))).thenReturn(job);
+
+        mockMvc.perform(
+                        multipart("/api/v1/users/imports")
+                                .file(
+                                        new MockMultipartFile(
+                                                "file",
+                                                "users.csv",
+                                                "text/csv",
+                                                "externalId\nA\n".getBytes(UTF_8))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(job.getId().toString()))
+                .andExpect(jsonPath("$.status").value("queued"))
+                .andExpect(jsonPath("$.format").value("csv"));
+    }
+
+    @Test
+    @WithMockUser
+    void importUsers_UnknownFormat() throws Exception {
+        mockMvc.perform(
+                        multipart("/api/v1/users/imports")
+                                .file(
+                                        new MockMultipartFile(
+                                                "file",
+                                                "users.xlsx",
+                                                "application/octet-stream",
+                                                new byte[] {1})))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    @WithMockUser
+    void importUsers_Forbidden() throws Exception {
+        when(authorizationHandler.isAllowed("create", UserEntity.class)).thenReturn(false);
+
+        mockMvc.perform(
+                        multipart("/api/v1/users/imports")
+                                .file(
+                                        new MockMultipartFile(
+                                                "file", "users.csv", "text/csv", new byte[] {1})))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserImport() throws Exception {
+        final UserImportJobEntity job = new UserImportJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setStatus(UserImportStatus.COMPLETED);
+        job.setFormat(UserImportFormat.NDJSON);
+        job.setImportedUsers(2);
+        job.setErrorCount(1);
+        job.getErrors().add(new UserImportError(3, "missing email"));
+        when(userImportService.getJob(job.getId())).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/api/v1/users/imports/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("completed"))
+                .andExpect(jsonPath("$.importedUsers").value(2))
+                .andExpect(jsonPath("$.errors[0].record").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("missing email"));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserImport_NotFound() throws Exception {
+        when(userImportService.getJob(any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/users/imports/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
     // List all users tests
     @Test
     @WithMockUser
@@ -246,9 +600,9 @@ class UsersApiDelegateImplTest {
         List<UserEntity> users = Arrays.asList(createMockUser(), createMockUser());
         Page<UserEntity> userPage = new PageImpl<>(users);
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(UserSearchCriteria.builder().build()), any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(get("/api/v1/users"))
                 .andExpect(status().isOk())
@@ -261,10 +615,10 @@ class UsersApiDelegateImplTest {
         UserEntity user = createMockUser();
         List<UserEntity> users = Collections.singletonList(user);
         Page<UserEntity> userPage = new PageImpl<>(users);
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(UserSearchCriteria.builder().email(user.getEmail()).build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(get("/api/v1/users").param("email", user.getEmail()))
                 .andExpect(status().isOk())
@@ -279,10 +633,10 @@ class UsersApiDelegateImplTest {
         List<UserEntity> users = Collections.singletonList(user);
         Page<UserEntity> userPage = new PageImpl<>(users);
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(UserSearchCriteria.builder().externalId(user.getExternalId()).build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(get("/api/v1/users").param("externalId", user.getExternalId()))
                 .andExpect(status().isOk())
@@ -299,14 +653,14 @@ class UsersApiDelegateImplTest {
         UUID roleId = UUID.randomUUID();
         UUID missedRoleId = UUID.randomUUID();
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(
                                 UserSearchCriteria.builder()
                                         .roleIds(
                                                 List.of(roleId.toString(), missedRoleId.toString()))
                                         .build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(get("/api/v1/users").param("roleIds", roleId + "," + missedRoleId))
                 .andExpect(status().isOk())
@@ -320,14 +674,14 @@ class UsersApiDelegateImplTest {
         List<UserEntity> users = Collections.singletonList(user);
         Page<UserEntity> userPage = new PageImpl<>(users);
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(
                                 UserSearchCriteria.builder()
                                         .email(user.getEmail())
                                         .externalId(user.getExternalId())
                                         .build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(
                         get("/api/v1/users")
@@ -348,7 +702,7 @@ class UsersApiDelegateImplTest {
         UUID roleId = UUID.randomUUID();
         UUID missedRoleId = UUID.randomUUID();
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(
                                 UserSearchCriteria.builder()
                                         .email(user.getEmail())
@@ -356,7 +710,7 @@ class UsersApiDelegateImplTest {
                                                 List.of(roleId.toString(), missedRoleId.toString()))
                                         .build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(
                         get("/api/v1/users")
@@ -375,14 +729,14 @@ class UsersApiDelegateImplTest {
         Page<UserEntity> userPage = new PageImpl<>(users);
         UUID roleId = UUID.randomUUID();
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(
                                 UserSearchCriteria.builder()
                                         .externalId(user.getExternalId())
                                         .roleIds(List.of(roleId.toString()))
                                         .build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(
                         get("/api/v1/users")
@@ -402,7 +756,7 @@ class UsersApiDelegateImplTest {
         UUID roleId2 = UUID.randomUUID();
         String roleIdsString = roleId1 + "," + roleId2;
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(
                                 UserSearchCriteria.builder()
                                         .email(user.getEmail())
@@ -410,7 +764,7 @@ class UsersApiDelegateImplTest {
                                         .roleIds(List.of(roleId1.toString(), roleId2.toString()))
                                         .build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(
                         get("/api/v1/users")
@@ -439,9 +793,9 @@ class UsersApiDelegateImplTest {
         List<UserEntity> users = List.of(userOne, userTwo, userThree);
         Page<UserEntity> userPage = new PageImpl<>(users, userPageable, totalUsers);
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(UserSearchCriteria.builder().build()), any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(
                         get("/api/v1/users")
@@ -451,7 +805,117 @@ class UsersApiDelegateImplTest {
                 .andExpect(jsonPath("$.users.length()").value(users.size()))
                 .andExpect(jsonPath("$.pagingMetadata.totalCount").value(totalUsers))
                 .andExpect(jsonPath("$.pagingMetadata.pageNumber").value(currentPage))
-                .andExpect(jsonPath("$.pagingMetadata.pageSize").value(pageSize));
+                .andExpect(jsonPath("$.pagingMetadata.pageSize").value(pageSize))
+                .andExpect(jsonPath("$.pagingMetadata.nextPageToken").exists());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserListWithoutTotalCount() throws Exception {
+        List<UserEntity> users = List.of(createMockUser(), createMockUser());
+
+        when(userQueryService.getUsersSlice(
+                        eq(UserSearchCriteria.builder().build()), any(Pageable.class)))
+                .thenReturn(views(new SliceImpl<>(users, PageRequest.of(0, 2), true)));
+
+        mockMvc.perform(
+                        get("/api/v1/users")
+                                .queryParam("pageSize", "2")
+                                .queryParam("includeTotalCount", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(2))
+                .andExpect(jsonPath("$.pagingMetadata.hasNext").value(true))
+                .andExpect(jsonPath("$.pagingMetadata.totalCount").doesNotExist());
+
+        Mockito.verify(userQueryService, Mockito.never()).getUsers(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserListWithApproximateTotalCount() throws Exception {
+        UserSearchCriteria criteria = UserSearchCriteria.builder().build();
+        List<UserEntity> users = List.of(createMockUser(), createMockUser());
+
+        when(userService.estimateUserCount(criteria)).thenReturn(Optional.of(1000L));
+        when(userQueryService.getUsersSlice(eq(criteria), any(Pageable.class)))
+                .thenReturn(views(new SliceImpl<>(users, PageRequest.of(0, 2), true)));
+
+        mockMvc.perform(
+                        get("/api/v1/users")
+                                .queryParam("pageSize", "2")
+                                .queryParam("includeTotalCount", "approximate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagingMetadata.totalCount").value(1000))
+                .andExpect(jsonPath("$.pagingMetadata.totalCountApproximate").value(true))
+                .andExpect(jsonPath("$.pagingMetadata.hasNext").value(true));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserListWithApproximateTotalCountFallsBackToExactCount() throws Exception {
+        UserSearchCriteria criteria = UserSearchCriteria.builder().email("a@b.com").build();
+        List<UserEntity> users = List.of(createMockUser());
+
+        when(userService.estimateUserCount(criteria)).thenReturn(Optional.empty());
+        when(userQueryService.getUsers(eq(criteria), any(Pageable.class)))
+                .thenReturn(views(new PageImpl<>(users, PageRequest.of(0, 50), 1)));
+
+        mockMvc.perform(
+                        get("/api/v1/users")
+                                .queryParam("email", "a@b.com")
+                                .queryParam("includeTotalCount", "approximate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagingMetadata.totalCount").value(1))
+                .andExpect(jsonPath("$.pagingMetadata.totalCountApproximate").doesNotExist())
+                .andExpect(jsonPath("$.pagingMetadata.hasNext").value(false));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserListWithPageToken() throws Exception {
+        UserEntity previous = createMockUser();
+        List<UserEntity> users = List.of(createMockUser(), createMockUser(), createMockUser());
+        UserPageToken token = UserPageToken.after(previous, "email", SortOrder.ASC);
+
+        when(userQueryService.getUsersAfter(
+                        UserSearchCriteria.builder().build(), token, 3))
+                .thenReturn(views(users));
+
+        mockMvc.perform(
+                        get("/api/v1/users")
+                                .queryParam("pageToken", token.encode())
+                                .queryParam("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(2))
+                .andExpect(jsonPath("$.pagingMetadata.pageSize").value(2))
+                .andExpect(jsonPath("$.pagingMetadata.totalCount").doesNotExist())
+                .andExpect(
+                        jsonPath("$.pagingMetadata.nextPageToken")
+                                .value(
+                                        UserPageToken.after(users.get(1), "email", SortOrder.ASC)
+                                                .encode()));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserListWithLastPageToken() throws Exception {
+        UserPageToken token = UserPageToken.after(createMockUser(), "email", SortOrder.ASC);
+
+        when(userQueryService.getUsersAfter(
+                        UserSearchCriteria.builder().build(), token, 51))
+                .thenReturn(views(List.of(createMockUser())));
+
+        mockMvc.perform(get("/api/v1/users").queryParam("pageToken", token.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.pagingMetadata.nextPageToken").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserListWithInvalidPageToken() throws Exception {
+        mockMvc.perform(get("/api/v1/users").queryParam("pageToken", "not-a-token"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -508,13 +972,13 @@ class UsersApiDelegateImplTest {
 
         String roleNamesString = roleNameOne + "," + roleNameTwo;
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(
                                 UserSearchCriteria.builder()
                                         .roleNames(List.of(roleNameOne, roleNameTwo))
                                         .build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(get("/api/v1/users").param("roleNames", roleNamesString))
                 .andExpect(status().isOk())
@@ -554,7 +1018,7 @@ class UsersApiDelegateImplTest {
 
         String roleNamesString = roleNameOne + "," + roleNameTwo;
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(
                                 UserSearchCriteria.builder()
                                         .email(userOne.getEmail())
@@ -562,7 +1026,7 @@ class UsersApiDelegateImplTest {
                                         .roleNames(List.of(roleNameOne, roleNameTwo))
                                         .build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(
                         get("/api/v1/users")
@@ -608,14 +1072,14 @@ class UsersApiDelegateImplTest {
 
         String roleNamesString = roleNameOne + "," + roleNameTwo;
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(
                                 UserSearchCriteria.builder()
                                         .email(userOne.getEmail())
                                         .roleNames(List.of(roleNameOne, roleNameTwo))
                                         .build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(
                         get("/api/v1/users")
@@ -716,10 +1180,10 @@ class UsersApiDelegateImplTest {
         List<UserEntity> users = List.of(user, deletedUser);
         Page<UserEntity> userPage = new PageImpl<>(users);
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(UserSearchCriteria.builder().includeDeleted(true).build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(get("/api/v1/users").param("includeDeleted", String.valueOf(true)))
                 .andExpect(status().isOk())
@@ -764,16 +1228,33 @@ class UsersApiDelegateImplTest {
         List<UserEntity> users = List.of(user);
         Page<UserEntity> userPage = new PageImpl<>(users);
 
-        when(userService.getUsersBySearchCriteria(
+        when(userQueryService.getUsers(
                         eq(UserSearchCriteria.builder().includeDeleted(false).build()),
                         any(Pageable.class)))
-                .thenReturn(userPage);
+                .thenReturn(views(userPage));
 
         mockMvc.perform(get("/api/v1/users").param("includeDeleted", String.valueOf(false)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.users.length()").value(1));
     }
 
+    private static UserView view(UserEntity user) {
+        return new UserView(
+                MapperUtils.mapUserEntityToUserDto(user), user.getCreatedAt(), user.getVersion());
+    }
+
+    private static List<UserView> views(List<UserEntity> users) {
+        return users.stream().map(UsersApiDelegateImplTest::view).collect(Collectors.toList());
+    }
+
+    private static Page<UserView> views(Page<UserEntity> users) {
+        return users.map(UsersApiDelegateImplTest::view);
+    }
+
+    private static Slice<UserView> views(Slice<UserEntity> users) {
+        return users.map(UsersApiDelegateImplTest::view);
+    }
+
     private UserPreferenceEntity createUserPreference() {
         UserPreferenceEntity userPreference = new UserPreferenceEntity();
         UserEntity user = createMockUser();
@@ -789,4 +1270,10 @@ class UsersApiDelegateImplTest {
         userPreferenceDTO.setPreferredLanguage(language);
         return userPreferenceDTO;
     }
+
+    private static String encode(String identityProvider) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(identityProvider.getBytes(UTF_8));
+    }
 }
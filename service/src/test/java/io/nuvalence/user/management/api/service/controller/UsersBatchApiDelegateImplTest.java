@@ -0,0 +1,157 @@
+package io.nuvalence.user.management.api.service.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.generated.models.UserCreationRequest;
+import io.nuvalence.user.management.api.service.service.UserCreationResult;
+import io.nuvalence.user.management.api.service.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class UsersBatchApiDelegateImplTest {
+    @Autowired private MockMvc mockMvc;
+
+    @MockBean private UserService userService;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setup() {
+        when(authorizationHandler.isAllowed(any(), (Class<?>) any())).thenReturn(true);
+    }
+
+    @Test
+    @WithMockUser
+    void addUsersReportsPerItemResults() throws Exception {
+        final UserEntity created = createUserEntity("EXT-1");
+        when(userService.createUsers(any()))
+                .thenReturn(
+                        List.of(
+                                UserCreationResult.created(created),
+                                UserCreationResult.conflict(
+                                        createUserEntity("EXT-1"),
+                                        UserService.DUPLICATE_IDENTITY_MESSAGE)));
+
+        mockMvc.perform(
+                        post("/api/v1/users:batch")
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                List.of(
+                                                        createUserRequest("EXT-1"),
+                                                        createUserRequest("EXT-1"))))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.createdCount").value(1))
+                .andExpect(jsonPath("$.conflictCount").value(1))
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].status").value("created"))
+                .andExpect(jsonPath("$.results[0].user.id").value(created.getId().toString()))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("conflict"))
+                .andExpect(
+                        jsonPath("$.results[1].error")
+                                .value(UserService.DUPLICATE_IDENTITY_MESSAGE));
+    }
+
+    @Test
+    @WithMockUser
+    void addUsersRejectsInvalidItems() throws Exception {
+        final UserCreationRequest invalid = createUserRequest("EXT-2").email(null);
+
+        mockMvc.perform(
+                        post("/api/v1/users:batch")
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                List.of(createUserRequest("EXT-1"), invalid)))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(
+                        jsonPath("$.messages[0]")
+                                .value("'addUsers.userCreationRequest[1].email': must not be null"));
+
+        verify(userService, never()).createUsers(any());
+    }
+
+    @Test
+    @WithMockUser
+    void addUsersRejectsEmptyAndOversizedBatches() throws Exception {
+        final List<UserCreationRequest> oversized = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            oversized.add(createUserRequest("EXT-" + i));
+        }
+
+        for (List<UserCreationRequest> body : List.of(List.<UserCreationRequest>of(), oversized)) {
+            mockMvc.perform(
+                            post("/api/v1/users:batch")
+                                    .content(objectMapper.writeValueAsString(body))
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(userService, never()).createUsers(any());
+    }
+
+    @Test
+    @WithMockUser
+    void addUsersForbidden() throws Exception {
+        when(authorizationHandler.isAllowed("create", UserEntity.class)).thenReturn(false);
+
+        mockMvc.perform(
+                        post("/api/v1/users:batch")
+                                .content(
+                                        objectMapper.writeValueAsString(
+                                                List.of(createUserRequest("EXT-1"))))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+    }
+
+    private UserCreationRequest createUserRequest(String externalId) {
+        return new UserCreationRequest()
+                .email(externalId + "@example.com")
+                .externalId(externalId)
+                .identityProvider("idp")
+                .userType("agency");
+    }
+
+    private UserEntity createUserEntity(String externalId) {
+        final UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setEmail(externalId + "@example.com");
+        user.setExternalId(externalId);
+        user.setIdentityProvider("idp");
+        user.setUserType(UserType.AGENCY);
+        user.setCreatedAt(OffsetDateTime.now());
+        return user;
+    }
+}
@@ -0,0 +1,158 @@
+package io.nuvalence.user.management.api.service.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+
+/**
+ * Routes between two in-memory H2 databases, one standing in for the primary and one for a
+ * replica, and checks which of them served each transaction.
+ */
+class ReplicaRoutingDataSourceTest {
+    private static final String PRIMARY = "ROUTING_PRIMARY";
+    private static final String REPLICA = "ROUTING_REPLICA";
+    private static final Duration READ_YOUR_WRITES_WINDOW = Duration.ofSeconds(10);
+
+    private final AtomicBoolean replicaDown = new AtomicBoolean();
+    private final AtomicLong nanos = new AtomicLong();
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        final DataSource replica =
+                new DelegatingDataSource(h2(REPLICA)) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        if (replicaDown.get()) {
+                            throw new SQLException("Connection refused");
+                        }
+                        return super.getConnection();
+                    }
+                };
+        routingDataSource =
+                new ReplicaRoutingDataSource(
+                        h2(PRIMARY),
+                        Map.of("replica-1", replica),
+                        Duration.ofSeconds(10),
+                        Duration.ofSeconds(1),
+                        READ_YOUR_WRITES_WINDOW,
+                        (Ticker) nanos::get);
+
+        final LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(routingDataSource);
+        final DataSourceTransactionManager transactionManager =
+                new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToTheReplica() {
+        assertEquals(REPLICA, readOnly.execute(status -> database()));
+        assertEquals(PRIMARY, readWrite.execute(status -> database()));
+        assertEquals(PRIMARY, database());
+    }
+
+    @Test
+    void fallsBackToThePrimaryWhileTheReplicaIsUnhealthy() {
+        replicaDown.set(true);
+
+        assertEquals(PRIMARY, readOnly.execute(status -> database()));
+        assertEquals(0, routingDataSource.getHealthyReplicaCount());
+
+        routingDataSource.checkReplicas();
+        assertEquals(0, routingDataSource.getHealthyReplicaCount());
+
+        replicaDown.set(false);
+        routingDataSource.checkReplicas();
+
+        assertEquals(1, routingDataSource.getHealthyReplicaCount());
+        assertEquals(REPLICA, readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void readsOwnWritesFromThePrimary() {
+        authenticate("writer");
+        readWrite.execute(status -> database());
+
+        assertEquals(PRIMARY, readOnly.execute(status -> database()));
+
+        authenticate("someone-else");
+        assertEquals(REPLICA, readOnly.execute(status -> database()));
+
+        authenticate("writer");
+        nanos.addAndGet(READ_YOUR_WRITES_WINDOW.plusSeconds(1).toNanos());
+        assertEquals(REPLICA, readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinReadsToThePrimary() {
+        authenticate("writer");
+        readWrite.executeWithoutResult(
+                status -> {
+                    database();
+                    status.setRollbackOnly();
+                });
+
+        assertEquals(REPLICA, readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void connectionsWithCredentialsComeFromThePrimary() {
+        final String database =
+                readOnly.execute(
+                        status -> {
+                            try (Connection connection =
+                                    routingDataSource.getConnection("sa", "")) {
+                                return connection.getCatalog();
+                            } catch (SQLException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        });
+
+        assertEquals(PRIMARY, database);
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static void authenticate(String name) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(name, null, List.of()));
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,159 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdatePermissionDTO;
+import io.nuvalence.user.management.api.service.generated.models.PermissionDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Registers application roles against the test database and checks that only the permissions
+ * that differ from the stored ones are written.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+class ApplicationRoleRegistrationTest {
+    private static final String APPLICATION = "registration-app";
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private ApplicationService applicationService;
+
+    @Autowired private PermissionService permissionService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update(
+                "DELETE FROM application_permission WHERE application_id IN"
+                        + " (SELECT id FROM application WHERE name = ?)",
+                APPLICATION);
+        jdbcTemplate.update(
+                "DELETE FROM permission WHERE application_id IN"
+                        + " (SELECT id FROM application WHERE name = ?)",
+                APPLICATION);
+        jdbcTemplate.update("DELETE FROM application WHERE name = ?", APPLICATION);
+    }
+
+    @Test
+    void registersOnlyWhatChanged() {
+        applicationService.setApplicationRoles(
+                APPLICATION, List.of(role("reg:view", "View"), role("reg:edit", "Edit")));
+
+        assertEquals(Map.of("reg:view", true, "reg:edit", true), permissions());
+        assertEquals(
+                2,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM application_permission ap"
+                                + " JOIN application a ON a.id = ap.application_id"
+                                + " WHERE a.name = ?",
+                        Integer.class,
+                        APPLICATION));
+        final long registered = lastChange();
+
+        // Repeating the registration writes nothing.
+        applicationService.setApplicationRoles(
+                APPLICATION, List.of(role("reg:edit", "Edit"), role("reg:view", "View")));
+        assertEquals(registered, lastChange());
+
+        applicationService.setApplicationRoles(
+                APPLICATION, List.of(role("reg:view", "View all"), role("reg:audit", "Audit")));
+
+        assertEquals(Map.of("reg:view", true, "reg:edit", false, "reg:audit", true), permissions());
+        assertEquals(
+                "View all",
+                jdbcTemplate.queryForObject(
+                        "SELECT description FROM permission WHERE application_role = 'reg:view'",
+                        String.class));
+        assertEquals(
+                List.of("CREATED", "UPDATED", "UPDATED"),
+                jdbcTemplate
+                        .queryForList(
+                                "SELECT operation FROM change_outbox WHERE id > ?",
+                                String.class,
+                                registered)
+                        .stream()
+                        .sorted()
+                        .collect(Collectors.toList()));
+
+        applicationService.setApplicationRoles(
+                APPLICATION, List.of(role("reg:view", "View all"), role("reg:edit", "Edit")));
+
+        assertEquals(Map.of("reg:view", true, "reg:edit", true, "reg:audit", false), permissions());
+    }
+
+    @Test
+    void directEditsForceTheNextRegistration() {
+        final List<PermissionDTO> roles = List.of(role("reg:view", "View"));
+        applicationService.setApplicationRoles(APPLICATION, roles);
+        final UUID permissionId =
+                jdbcTemplate.queryForObject(
+                        "SELECT id FROM permission WHERE application_role = 'reg:view'",
+                        UUID.class);
+
+        permissionService.updatePermission(
+                permissionId,
+                new CreateOrUpdatePermissionDTO()
+                        .applicationRole("reg:view")
+                        .name("reg:view")
+                        .description("Edited"));
+        assertNull(
+                jdbcTemplate.queryForObject(
+                        "SELECT roles_hash FROM application WHERE name = ?",
+                        String.class,
+                        APPLICATION));
+
+        applicationService.setApplicationRoles(APPLICATION, roles);
+
+        assertEquals(
+                "View",
+                jdbcTemplate.queryForObject(
+                        "SELECT description FROM permission WHERE id = ?",
+                        String.class,
+                        permissionId));
+    }
+
+    private Map<String, Boolean> permissions() {
+        return jdbcTemplate
+                .queryForList(
+                        "SELECT p.application_role, p.active FROM permission p"
+                                + " JOIN application a ON a.id = p.application_id"
+                                + " WHERE a.name = ?",
+                        APPLICATION)
+                .stream()
+                .collect(
+                        Collectors.toMap(
+                                row -> (String) row.get("application_role"),
+                                row -> (Boolean) row.get("active")));
+    }
+
+    private long lastChange() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM change_outbox", Long.class);
+    }
+
+    private static PermissionDTO role(String applicationRole, String description) {
+        return new PermissionDTO()
+                .applicationRole(applicationRole)
+                .name(applicationRole)
+                .description(description)
+                .group("registration");
+    }
+}
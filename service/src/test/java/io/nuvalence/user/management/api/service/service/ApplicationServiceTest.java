@@ -2,14 +2,20 @@ package io.nuvalence.user.management.api.service.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import io.nuvalence.user.management.api.service.entity.LanguageEntity;
-import io.nuvalence.user.management.api.service.entity.PermissionEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
 import io.nuvalence.user.management.api.service.generated.models.PermissionDTO;
 import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import io.nuvalence.user.management.api.service.repository.ApplicationRoleChanges;
+import io.nuvalence.user.management.api.service.repository.ApplicationRoleRegistrationRepository;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +26,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -37,7 +45,15 @@ public class ApplicationServiceTest {
 
     @Mock private ApplicationRepository applicationRepository;
 
-    @Captor private ArgumentCaptor<ApplicationEntity> captor;
+    @Mock private ApplicationRoleRegistrationRepository applicationRoleRegistrationRepository;
+
+    @Mock private RoleCatalogService roleCatalogService;
+
+    @Mock private ChangeFeedService changeFeedService;
+
+    @Captor private ArgumentCaptor<String> hashCaptor;
+
+    @Captor private ArgumentCaptor<Collection<PermissionDTO>> rolesCaptor;
 
     @InjectMocks private ApplicationService applicationService;
 
@@ -59,56 +75,57 @@ public class ApplicationServiceTest {
     }
 
     @Test
-    void setApplicationRoles() {
-        ApplicationEntity application = new ApplicationEntity();
-        application.setId(UUID.randomUUID());
-        application.setName("application-0");
-        application.setDisplayName("My Application");
-        application.setPermissions(createPermissions());
-
-        when(applicationRepository.getApplicationByName(application.getName()))
-                .thenReturn(Optional.of(application));
-
-        // Update the application to only use half of the permissions. The rest should be inactive.
-        List<PermissionDTO> permissions = new ArrayList<>();
-        for (int i = 0; i < application.getPermissions().size(); i++) {
-            PermissionEntity even = application.getPermissions().get(i);
-
-            if (i % 2 == 0) {
-                PermissionDTO permissionDTO =
-                        new PermissionDTO()
-                                .name(even.getName())
-                                .id(even.getId())
-                                .description(even.getDescription())
-                                .applicationRole(even.getApplicationRole())
-                                .group(even.getGroup());
-
-                permissions.add(permissionDTO);
-            }
-        }
-
-        applicationService.setApplicationRoles(application.getName(), permissions);
-
-        verify(applicationRepository).save(captor.capture());
-
-        ApplicationEntity savedApp = captor.getValue();
-        assertEquals(application.getName(), savedApp.getName());
-        assertEquals(application.getDisplayName(), savedApp.getDisplayName());
-
-        Set<String> expectedActive =
-                permissions.stream()
+    void setApplicationRoles_appliesChangedRegistrationsOnce() {
+        final List<PermissionDTO> permissions = createPermissionDtos();
+        when(applicationRepository.findRolesHashByName("application-0"))
+                .thenReturn(Optional.empty());
+        final UUID created = UUID.randomUUID();
+        final UUID updated = UUID.randomUUID();
+        when(applicationRoleRegistrationRepository.register(
+                        eq("application-0"), any(), hashCaptor.capture()))
+                .thenReturn(new ApplicationRoleChanges(List.of(created), List.of(updated)));
+
+        applicationService.setApplicationRoles("application-0", permissions);
+
+        verify(applicationRoleRegistrationRepository)
+                .register(eq("application-0"), rolesCaptor.capture(), any());
+        assertEquals(
+                List.of("um:role-name-0", "um:role-name-1", "um:role-name-2"),
+                rolesCaptor.getValue().stream()
                         .map(PermissionDTO::getApplicationRole)
-                        .collect(Collectors.toUnmodifiableSet());
-
-        assertEquals(application.getPermissions().size(), savedApp.getPermissions().size());
-
-        Set<String> foundActive =
-                savedApp.getPermissions().stream()
-                        .filter(permission -> permission.isActive())
-                        .map(PermissionEntity::getApplicationRole)
-                        .collect(Collectors.toUnmodifiableSet());
+                        .collect(Collectors.toList()));
+        verify(changeFeedService)
+                .record(ChangeEntityType.PERMISSION, created, ChangeOperation.CREATED);
+        verify(changeFeedService)
+                .record(ChangeEntityType.PERMISSION, updated, ChangeOperation.UPDATED);
+        verify(roleCatalogService).invalidate();
+
+        // The same roles in another order are the same registration.
+        when(applicationRepository.findRolesHashByName("application-0"))
+                .thenReturn(Optional.of(hashCaptor.getValue()));
+        final List<PermissionDTO> reordered = new ArrayList<>(permissions);
+        Collections.reverse(reordered);
+        applicationService.setApplicationRoles("application-0", reordered);
+
+        verify(applicationRoleRegistrationRepository, times(1)).register(any(), any(), any());
+        verify(roleCatalogService, times(1)).invalidate();
+    }
 
-        assertEquals(expectedActive, foundActive);
+    @Test
+    void setApplicationRoles_hashesTheContentOfEveryRole() {
+        when(applicationRepository.findRolesHashByName(any())).thenReturn(Optional.empty());
+        when(applicationRoleRegistrationRepository.register(any(), any(), hashCaptor.capture()))
+                .thenReturn(new ApplicationRoleChanges(List.of(), List.of()));
+
+        final List<PermissionDTO> permissions = createPermissionDtos();
+        applicationService.setApplicationRoles("application-0", permissions);
+        permissions.get(1).setDescription("Changed.");
+        applicationService.setApplicationRoles("application-0", permissions);
+        permissions.get(1).setDescription(null);
+        applicationService.setApplicationRoles("application-0", permissions);
+
+        assertEquals(3, Set.copyOf(hashCaptor.getAllValues()).size());
+        verify(roleCatalogService, never()).invalidate();
     }
 
     @Test
@@ -165,19 +182,16 @@ public class ApplicationServiceTest {
         return List.of(app0, app1, app2);
     }
 
-    private List<PermissionEntity> createPermissions() {
-        List<PermissionEntity> permissions = new ArrayList<>();
-
-        for (int i = 0; i < 10; i++) {
-            PermissionEntity permission = new PermissionEntity();
-
-            permission.setActive(true);
-            permission.setName(String.format("permission-%d", i));
-            permission.setGroup(String.format("group-%d", i % 2));
-            permission.setDescription("Random permission.");
-            permission.setApplicationRole(String.format("um:role-name-%d", i));
+    private List<PermissionDTO> createPermissionDtos() {
+        List<PermissionDTO> permissions = new ArrayList<>();
 
-            permissions.add(permission);
+        for (int i = 0; i < 3; i++) {
+            permissions.add(
+                    new PermissionDTO()
+                            .name(String.format("permission-%d", i))
+                            .group(String.format("group-%d", i % 2))
+                            .description("Random permission.")
+                            .applicationRole(String.format("um:role-name-%d", i)));
         }
 
         return permissions;
@@ -0,0 +1,289 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.ChangeOutboxEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
+import io.nuvalence.user.management.api.service.repository.ChangeOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the change feed against the test database: mutations append to the outbox when their
+ * transactions commit, the relay numbers them in commit order, and long polls wake up once they
+ * are relayed.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+class ChangeFeedServiceTest {
+    private static final UUID ROLE = UUID.randomUUID();
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private ChangeFeedService changeFeedService;
+
+    @Autowired private ChangeOutboxRepository changeOutboxRepository;
+
+    @Autowired private UserService userService;
+
+    @Autowired private UserPreferenceService userPreferenceService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private long cursor;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update(
+                "INSERT INTO role (id, name, description) VALUES (?, 'change-feed-role', '')",
+                ROLE);
+        // Changes rolled back by other tests leave gaps; a fresh change marks where this test
+        // starts reading.
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status ->
+                                changeFeedService.record(
+                                        ChangeEntityType.ROLE, ROLE, ChangeOperation.CREATED));
+        changeFeedService.relay();
+        cursor =
+                jdbcTemplate.queryForObject("SELECT MAX(sequence) FROM change_outbox", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_role WHERE role_id = ?", ROLE);
+        jdbcTemplate.update(
+                "DELETE FROM user_preference WHERE user_id IN"
+                        + " (SELECT id FROM user_table WHERE identity_provider = 'change-feed')");
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'change-feed'");
+        jdbcTemplate.update("DELETE FROM role WHERE id = ?", ROLE);
+        jdbcTemplate.update(
+                "DELETE FROM change_outbox WHERE sequence > ? OR sequence IS NULL", cursor);
+    }
+
+    @Test
+    void mutationsAreRecordedInCommitOrder() {
+        final UUID userId = createUser("FEED-1");
+        userService.assignRoleToUser(userId, ROLE);
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status ->
+                                userPreferenceService.updateUserPreferences(
+                                        new UserPreferenceDTO()
+                                                .preferredLanguage("en")
+                                                .preferredCommunicationMethod("Email"),
+                                        userService.getUserById(userId).orElseThrow()));
+        userService.deleteUser(userId);
+        changeFeedService.relay();
+
+        final List<ChangeOutboxEntity> changes =
+                changeFeedService.getChanges(cursor, 10);
+
+        assertEquals(
+                List.of(
+                        ChangeEntityType.USER + " " + ChangeOperation.CREATED,
+                        ChangeEntityType.USER + " " + ChangeOperation.UPDATED,
+                        ChangeEntityType.USER_PREFERENCE + " " + ChangeOperation.UPDATED,
+                        ChangeEntityType.USER + " " + ChangeOperation.DELETED),
+                changes.stream()
+                        .map(change -> change.getEntityType() + " " + change.getOperation())
+                        .collect(Collectors.toList()));
+        assertTrue(changes.stream().allMatch(change -> change.getEntityId().equals(userId)));
+
+        final long next = changes.get(1).getSequence();
+        assertEquals(
+                changes.subList(2, 4).stream()
+                        .map(ChangeOutboxEntity::getSequence)
+                        .collect(Collectors.toList()),
+                changeFeedService.getChanges(next, 10).stream()
+                        .map(ChangeOutboxEntity::getSequence)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void readsSkipGapsAtOnce() {
+        createUser("FEED-1");
+        createUser("FEED-2");
+        changeFeedService.relay();
+        // A gap is left by a rolled back append or by compaction; nothing can fill it later.
+        jdbcTemplate.update("DELETE FROM change_outbox WHERE sequence = ?", cursor + 1);
+
+        assertEquals(1, changeFeedService.getChanges(cursor, 10).size());
+    }
+
+    @Test
+    void concurrentWritersDoNotWaitForEachOther() throws Exception {
+        final UUID first = UUID.randomUUID();
+        final UUID second = UUID.randomUUID();
+        final CountDownLatch appended = new CountDownLatch(1);
+        final CountDownLatch commit = new CountDownLatch(1);
+        final CompletableFuture<Void> slow =
+                CompletableFuture.runAsync(
+                        () -> recordRoleUpdate(first, awaitBeforeCommit(appended, commit)));
+        assertTrue(appended.await(10, TimeUnit.SECONDS));
+
+        // The second writer commits while the first still holds its uncommitted append.
+        CompletableFuture.runAsync(() -> recordRoleUpdate(second, null))
+                .get(10, TimeUnit.SECONDS);
+        assertFalse(slow.isDone());
+        changeFeedService.relay();
+        assertEquals(List.of(second), entityIds(cursor));
+
+        commit.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+        changeFeedService.relay();
+
+        // Numbered in commit order.
+        assertEquals(List.of(second, first), entityIds(cursor));
+    }
+
+    @Test
+    void longPollReturnsOnceAChangeCommits() throws Exception {
+        final CompletableFuture<List<ChangeOutboxEntity>> poll =
+                changeFeedService.awaitChanges(cursor, 10, Duration.ofSeconds(20));
+        // The caller's thread is released while the poll waits.
+        assertFalse(poll.isDone());
+
+        final UUID userId = createUser("FEED-1");
+
+        final List<ChangeOutboxEntity> changes = poll.get(10, TimeUnit.SECONDS);
+        assertEquals(1, changes.size());
+        assertEquals(userId, changes.get(0).getEntityId());
+    }
+
+    @Test
+    void longPollEndsEmptyAfterTheWait() throws Exception {
+        final CompletableFuture<List<ChangeOutboxEntity>> poll =
+                changeFeedService.awaitChanges(cursor, 10, Duration.ofMillis(200));
+
+        assertTrue(poll.get(10, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void longPollsAtTheSamePositionAreAnsweredWithinTheirLimits() throws Exception {
+        final List<CompletableFuture<List<ChangeOutboxEntity>>> polls =
+                List.of(
+                        changeFeedService.awaitChanges(cursor, 10, Duration.ofSeconds(20)),
+                        changeFeedService.awaitChanges(cursor, 1, Duration.ofSeconds(20)));
+
+        createUser("FEED-1");
+        createUser("FEED-2");
+        changeFeedService.relay();
+
+        // Woken by the first relay, possibly before the second user was committed.
+        final List<ChangeOutboxEntity> first = polls.get(0).get(10, TimeUnit.SECONDS);
+        assertFalse(first.isEmpty());
+        final List<ChangeOutboxEntity> limited = polls.get(1).get(10, TimeUnit.SECONDS);
+        assertEquals(1, limited.size());
+        assertEquals(first.get(0).getSequence(), limited.get(0).getSequence());
+    }
+
+    @Test
+    void compactionRemovesSupersededChangesAndOldDeletions() {
+        final UUID updated = UUID.randomUUID();
+        final UUID deleted = UUID.randomUUID();
+        final OffsetDateTime now = OffsetDateTime.now();
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            append(updated, ChangeOperation.CREATED, now.minusHours(3));
+                            append(updated, ChangeOperation.UPDATED, now.minusHours(2));
+                            append(updated, ChangeOperation.UPDATED, now);
+                            append(deleted, ChangeOperation.DELETED, now.minusDays(8));
+                        });
+        changeFeedService.relay();
+
+        changeFeedService.compact();
+
+        assertEquals(
+                List.of(ChangeOperation.UPDATED.name()),
+                jdbcTemplate.queryForList(
+                        "SELECT operation FROM change_outbox WHERE sequence > ?",
+                        String.class,
+                        cursor));
+    }
+
+    private UUID createUser(String externalId) {
+        final UserEntity user = new UserEntity();
+        user.setExternalId(externalId);
+        user.setIdentityProvider("change-feed");
+        user.setEmail(externalId.toLowerCase() + "@example.com");
+        user.setUserType(UserType.PUBLIC);
+        userService.createUsers(List.of(user));
+        return user.getId();
+    }
+
+    private void append(UUID userId, ChangeOperation operation, OffsetDateTime changedAt) {
+        changeOutboxRepository.appendAll(
+                List.of(
+                        new ChangeOutboxEntity(
+                                0, null, ChangeEntityType.USER, userId, operation, changedAt)));
+    }
+
+    private List<UUID> entityIds(long since) {
+        return changeFeedService.getChanges(since, 10).stream()
+                .map(ChangeOutboxEntity::getEntityId)
+                .collect(Collectors.toList());
+    }
+
+    private void recordRoleUpdate(UUID roleId, TransactionSynchronization synchronization) {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(
+                        status -> {
+                            changeFeedService.record(
+                                    ChangeEntityType.ROLE, roleId, ChangeOperation.UPDATED);
+                            // Registered after the change, so it runs after the append.
+                            if (synchronization != null) {
+                                TransactionSynchronizationManager.registerSynchronization(
+                                        synchronization);
+                            }
+                        });
+    }
+
+    private static TransactionSynchronization awaitBeforeCommit(
+            CountDownLatch appended, CountDownLatch commit) {
+        return new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                appended.countDown();
+                try {
+                    assertTrue(commit.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+}
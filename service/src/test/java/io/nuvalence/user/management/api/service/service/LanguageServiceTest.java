@@ -1,75 +1,110 @@
 package io.nuvalence.user.management.api.service.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.nuvalence.user.management.api.service.entity.LanguageEntity;
 import io.nuvalence.user.management.api.service.repository.LanguageRepository;
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @ExtendWith(MockitoExtension.class)
 class LanguageServiceTest {
     @Mock LanguageRepository languageRepository;
-    @Mock LanguageService languageService;
+
+    private LanguageService languageService;
 
     @BeforeEach
     void setup() {
-        MockitoAnnotations.openMocks(this);
-        languageService = new LanguageService(languageRepository);
+        languageService = new LanguageService(languageRepository, new ObjectMapper());
     }
 
     @Test
     void testGetLanguageByStandardIdWithExistingLanguage() {
+        LanguageEntity expectedLanguage = createLanguageEntity("en", "English");
+        when(languageRepository.findAll(any(Sort.class))).thenReturn(List.of(expectedLanguage));
 
-        LanguageEntity expectedLanguage = createLanguageEntity();
-        when(languageRepository.findByLanguageStandardId(expectedLanguage.getLanguageStandardId()))
-                .thenReturn(Optional.of(expectedLanguage));
-
-        // Call the method under test
         Optional<LanguageEntity> result =
                 languageService.getLanguageByStandardId(expectedLanguage.getLanguageStandardId());
 
-        // Assert that the result is present and matches the expected language entity
-        Assertions.assertEquals(Optional.of(expectedLanguage), result);
-
-        // Verify that the language repository's method was called with the correct standard ID
-        verify(languageRepository, times(1))
-                .findByLanguageStandardId(expectedLanguage.getLanguageStandardId());
+        assertTrue(result.isPresent());
+        assertEquals(expectedLanguage.getId(), result.get().getId());
+        assertNotSame(expectedLanguage, result.get());
     }
 
     @Test
     void getLanguageByStandardIdWithNonExistingLanguage() {
-        // Create a sample standard ID
-        String standardId = "nonExistingLanguage";
-
-        when(languageRepository.findByLanguageStandardId(standardId)).thenReturn(Optional.empty());
+        when(languageRepository.findAll(any(Sort.class)))
+                .thenReturn(List.of(createLanguageEntity("en", "English")));
 
-        // Call the method under test
-        Optional<LanguageEntity> result = languageService.getLanguageByStandardId(standardId);
+        assertTrue(languageService.getLanguageByStandardId("nonExistingLanguage").isEmpty());
+        assertTrue(languageService.getLanguageByStandardId(null).isEmpty());
+    }
 
-        // Assert that the result is empty
-        Assertions.assertTrue(result.isEmpty());
+    @Test
+    void lookupsAreServedFromRegistryUntilRefresh() {
+        when(languageRepository.findAll(any(Sort.class)))
+                .thenReturn(List.of(createLanguageEntity("en", "English")))
+                .thenReturn(
+                        List.of(
+                                createLanguageEntity("en", "English"),
+                                createLanguageEntity("es", "Spanish")));
+
+        LanguageRegistry first = languageService.getRegistry();
+        languageService.getLanguageByStandardId("en");
+        languageService.getLanguages();
+        assertSame(first, languageService.getRegistry());
+        verify(languageRepository, times(1)).findAll(any(Sort.class));
+
+        languageService.refresh();
+
+        assertEquals(2, languageService.getLanguages().size());
+        assertTrue(languageService.getLanguageByStandardId("es").isPresent());
+        assertNotEquals(
+                first.getBody().getEtag(), languageService.getRegistry().getBody().getEtag());
+        verify(languageRepository, times(2)).findAll(any(Sort.class));
+        verifyNoMoreInteractions(languageRepository);
+    }
 
-        // Verify that the language repository's method was called with the correct standard ID
-        verify(languageRepository, times(1)).findByLanguageStandardId(standardId);
+    @Test
+    void registryBodyIsSerializedLanguageList() throws Exception {
+        LanguageEntity language = createLanguageEntity("es", "Spanish");
+        when(languageRepository.findAll(any(Sort.class))).thenReturn(List.of(language));
+
+        LanguageRegistry registry = languageService.getRegistry();
+        byte[] json = new ObjectMapper().writeValueAsBytes(registry.getBody());
+
+        assertEquals(1, registry.getBody().size());
+        assertEquals("es", registry.getBody().get(0).getLanguageStandardId());
+        assertEquals(json.length, registry.getBody().getJsonLength());
+        assertTrue(new String(json, StandardCharsets.UTF_8).contains("\"localName\":\"Spanish\""));
+        assertTrue(registry.getBody().getEtag().startsWith("\""));
     }
 
-    private LanguageEntity createLanguageEntity() {
+    private LanguageEntity createLanguageEntity(String standardId, String name) {
         LanguageEntity language = new LanguageEntity();
         language.setId(UUID.randomUUID());
-        language.setLanguageName("english");
-        language.setLanguageStandardId("en");
-        language.setLanguageName("test");
+        language.setLanguageName(name);
+        language.setLanguageStandardId(standardId);
+        language.setLocalName(name);
         return language;
     }
 }
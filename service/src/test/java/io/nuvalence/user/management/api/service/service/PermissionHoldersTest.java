@@ -0,0 +1,130 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.SortOrder;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pages through the holders of a permission in the test database.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class PermissionHoldersTest {
+    private static final UUID APPLICATION = UUID.randomUUID();
+    private static final UUID PERMISSION = UUID.randomUUID();
+    private static final UUID READER = UUID.randomUUID();
+    private static final UUID AUDITOR = UUID.randomUUID();
+    private static final UUID OTHER = UUID.randomUUID();
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    private UUID holder;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update(
+                "INSERT INTO application (id, name, display_name) VALUES (?, 'holders', 'Holders')",
+                APPLICATION);
+        jdbcTemplate.update(
+                "INSERT INTO permission (id, application_id, application_role, name, description,"
+                        + " permission_group, active)"
+                        + " VALUES (?, ?, 'holders:read', 'holders:read', '', 'holders', true)",
+                PERMISSION,
+                APPLICATION);
+        for (UUID role : List.of(READER, AUDITOR, OTHER)) {
+            jdbcTemplate.update(
+                    "INSERT INTO role (id, name, description) VALUES (?, ?, '')",
+                    role,
+                    "HOLDERS_" + role);
+        }
+        for (UUID role : List.of(READER, AUDITOR)) {
+            jdbcTemplate.update(
+                    "INSERT INTO role_permission (role_id, permission_id) VALUES (?, ?)",
+                    role,
+                    PERMISSION);
+        }
+
+        // Holding the permission through two roles still lists the user once.
+        holder = createUser("HOLDER-1", READER, AUDITOR);
+        createUser("HOLDER-2", AUDITOR);
+        createUser("HOLDER-3", READER);
+        createUser("OTHER-1", OTHER);
+        userService.deleteUser(createUser("DELETED-1", READER));
+        // Holders are read with JDBC, which does not flush the deletion on its own.
+        entityManager.flush();
+    }
+
+    @Test
+    void pagesThroughHoldersInIdOrder() {
+        final List<UUID> seen = new ArrayList<>();
+        UserPageToken pageToken = null;
+        List<UserEntity> page;
+        do {
+            page = userService.getUsersWithPermissionAfter(PERMISSION, pageToken, 2);
+            page.forEach(user -> seen.add(user.getId()));
+            if (!page.isEmpty()) {
+                pageToken =
+                        UserPageToken.after(page.get(page.size() - 1), "id", SortOrder.ASC);
+            }
+        } while (page.size() == 2);
+
+        assertEquals(
+                jdbcTemplate.queryForList(
+                        "SELECT id FROM user_table WHERE external_id LIKE 'HOLDER-%' ORDER BY id",
+                        UUID.class),
+                seen);
+    }
+
+    @Test
+    void rejectsTokensOfOtherOrders() {
+        final UserEntity user = userService.getUserById(holder).orElseThrow();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        userService.getUsersWithPermissionAfter(
+                                PERMISSION, UserPageToken.after(user, "email", SortOrder.ASC), 2));
+    }
+
+    private UUID createUser(String externalId, UUID... roles) {
+        final UserEntity user = new UserEntity();
+        user.setExternalId(externalId);
+        user.setIdentityProvider("permission-holders");
+        user.setEmail(externalId.toLowerCase() + "@example.com");
+        user.setUserType(UserType.PUBLIC);
+        userService.createUsers(List.of(user));
+        for (UUID role : roles) {
+            userService.assignRoleToUser(user.getId(), role);
+        }
+
+        return user.getId();
+    }
+}
@@ -9,6 +9,8 @@ import io.nuvalence.user.management.api.service.config.exception.BusinessLogicEx
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import io.nuvalence.user.management.api.service.entity.PermissionEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
 import io.nuvalence.user.management.api.service.generated.models.CreateOrUpdatePermissionDTO;
 import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
 import io.nuvalence.user.management.api.service.repository.PermissionRepository;
@@ -34,6 +36,10 @@ class PermissionServiceTest {
 
     @Mock private ApplicationService applicationService;
 
+    @Mock private RoleCatalogService roleCatalogService;
+
+    @Mock private ChangeFeedService changeFeedService;
+
     @Captor private ArgumentCaptor<PermissionEntity> permissionCaptor;
 
     @Captor private ArgumentCaptor<UUID> idCaptor;
@@ -47,6 +53,7 @@ class PermissionServiceTest {
         permissionModel.setApplication(application.getId());
 
         when(applicationService.getApplicationById(any())).thenReturn(Optional.of(application));
+        when(permissionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         permissionService.addPermission(permissionModel);
 
@@ -55,6 +62,11 @@ class PermissionServiceTest {
         assertTrue(savedPermission.getName().equalsIgnoreCase(permissionModel.getName()));
         assertEquals(savedPermission.getName(), permissionModel.getName());
         assertEquals(savedPermission.getDescription(), permissionModel.getDescription());
+        verify(changeFeedService)
+                .record(
+                        ChangeEntityType.PERMISSION,
+                        savedPermission.getId(),
+                        ChangeOperation.CREATED);
     }
 
     @Test
@@ -0,0 +1,206 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
+import io.nuvalence.user.management.api.service.entity.PermissionEntity;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.repository.ApplicationRepository;
+import io.nuvalence.user.management.api.service.repository.PermissionRepository;
+import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@ExtendWith(MockitoExtension.class)
+class RoleCatalogServiceTest {
+
+    @Mock private RoleRepository roleRepository;
+
+    @Mock private PermissionRepository permissionRepository;
+
+    @Mock private ApplicationRepository applicationRepository;
+
+    @InjectMocks private RoleCatalogService roleCatalogService;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void snapshotIsReusedUntilInvalidated() {
+        stubCatalog();
+
+        final RoleCatalog first = roleCatalogService.getSnapshot();
+        final RoleCatalog second = roleCatalogService.getSnapshot();
+        roleCatalogService.invalidate();
+        final RoleCatalog third = roleCatalogService.getSnapshot();
+
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertNotEquals(first.getVersion(), third.getVersion());
+        verify(roleRepository, times(2)).findAllWithPermissions();
+    }
+
+    @Test
+    void snapshotBuiltDuringTransactionIsDiscardedOnCompletion() {
+        stubCatalog();
+        TransactionSynchronizationManager.initSynchronization();
+
+        roleCatalogService.invalidate();
+        final RoleCatalog duringTransaction = roleCatalogService.getSnapshot();
+        for (TransactionSynchronization synchronization :
+                TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        final RoleCatalog afterTransaction = roleCatalogService.getSnapshot();
+
+        assertNotSame(duringTransaction, afterTransaction);
+        verify(roleRepository, times(2)).findAllWithPermissions();
+    }
+
+    @Test
+    void readersAreServedThePreviousSnapshotDuringARebuild() throws Exception {
+        final RoleEntity role = stubCatalog();
+        final RoleCatalog first = roleCatalogService.getSnapshot();
+        final CountDownLatch building = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(roleRepository.findAllWithPermissions())
+                .thenAnswer(
+                        invocation -> {
+                            building.countDown();
+                            release.await();
+                            return List.of(role);
+                        });
+
+        roleCatalogService.invalidate();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<RoleCatalog> rebuilt = executor.submit(roleCatalogService::getSnapshot);
+            assertTrue(building.await(5, TimeUnit.SECONDS));
+
+            assertSame(first, roleCatalogService.getSnapshot());
+
+            release.countDown();
+            assertNotSame(first, rebuilt.get(5, TimeUnit.SECONDS));
+            assertSame(rebuilt.get(), roleCatalogService.getSnapshot());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        verify(roleRepository, times(2)).findAllWithPermissions();
+    }
+
+    @Test
+    void concurrentFirstReadsBuildOnce() throws Exception {
+        final RoleEntity role = stubCatalog();
+        final CountDownLatch release = new CountDownLatch(1);
+        when(roleRepository.findAllWithPermissions())
+                .thenAnswer(
+                        invocation -> {
+                            release.await();
+                            return List.of(role);
+                        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<RoleCatalog>> reads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                reads.add(executor.submit(roleCatalogService::getSnapshot));
+            }
+            release.countDown();
+
+            final RoleCatalog first = reads.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<RoleCatalog> read : reads) {
+                assertSame(first, read.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        verify(roleRepository, times(1)).findAllWithPermissions();
+    }
+
+    @Test
+    void snapshotResolvesRolesAndPermissions() {
+        final RoleEntity role = stubCatalog();
+
+        final RoleCatalog catalog = roleCatalogService.getSnapshot();
+        final Set<String> permissions =
+                catalog.getRole(role.getId()).orElseThrow().getPermissionIds().stream()
+                        .map(id -> catalog.getPermissions().get(id).getApplicationRole())
+                        .collect(Collectors.toSet());
+
+        assertEquals(Set.of("um:reader", "um:writer"), permissions);
+        assertEquals(role.getId(), catalog.getRoleByName("ADMIN").orElseThrow().getId());
+        assertTrue(catalog.getRole(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void roleEntitiesAreDetachedCopies() {
+        final RoleEntity role = stubCatalog();
+
+        final RoleCatalog catalog = roleCatalogService.getSnapshot();
+        final RoleCatalog.RoleEntry entry = catalog.getRole(role.getId()).orElseThrow();
+        final RoleEntity first = catalog.toRoleEntity(entry);
+        first.getPermissions().clear();
+        final RoleEntity second = catalog.toRoleEntity(entry);
+
+        assertEquals("ADMIN", second.getName());
+        assertEquals(2, second.getPermissions().size());
+        assertEquals("um", second.getPermissions().get(0).getApplication().getName());
+    }
+
+    private RoleEntity stubCatalog() {
+        final ApplicationEntity application =
+                new ApplicationEntity(UUID.randomUUID(), "User Management", "um", List.of());
+        final PermissionEntity reader = createPermission(application, "um:reader");
+        final PermissionEntity writer = createPermission(application, "um:writer");
+        final RoleEntity role =
+                new RoleEntity(
+                        UUID.randomUUID(), "ADMIN", "Administrator", null, List.of(reader, writer));
+
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of(role));
+        when(permissionRepository.findAll()).thenReturn(List.of(reader, writer));
+        when(applicationRepository.findAll()).thenReturn(List.of(application));
+
+        return role;
+    }
+
+    private PermissionEntity createPermission(ApplicationEntity application, String role) {
+        final PermissionEntity permission = new PermissionEntity();
+        permission.setId(UUID.randomUUID());
+        permission.setApplication(application);
+        permission.setApplicationId(application.getId());
+        permission.setApplicationRole(role);
+        permission.setName(role);
+        permission.setActive(true);
+        return permission;
+    }
+}
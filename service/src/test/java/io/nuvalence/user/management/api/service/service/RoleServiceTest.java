@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import io.nuvalence.user.management.api.service.config.exception.BusinessLogicException;
@@ -12,9 +13,14 @@ import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoun
 import io.nuvalence.user.management.api.service.entity.ApplicationEntity;
 import io.nuvalence.user.management.api.service.entity.PermissionEntity;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
+import io.nuvalence.user.management.api.service.generated.models.DesiredRole;
 import io.nuvalence.user.management.api.service.generated.models.RoleUpsertRequest;
 import io.nuvalence.user.management.api.service.repository.PermissionRepository;
 import io.nuvalence.user.management.api.service.repository.RoleRepository;
+import io.nuvalence.user.management.api.service.repository.RoleSyncRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.function.Executable;
@@ -37,6 +43,16 @@ class RoleServiceTest {
 
     @Mock private PermissionRepository permissionRepository;
 
+    @Mock private RoleCatalogService roleCatalogService;
+
+    @Mock private UserProfileCache userProfileCache;
+
+    @Mock private UserRepository userRepository;
+
+    @Mock private ChangeFeedService changeFeedService;
+
+    @Mock private RoleSyncRepository roleSyncRepository;
+
     @InjectMocks private RoleService roleService;
 
     @Captor private ArgumentCaptor<RoleEntity> roleCaptor;
@@ -53,6 +69,7 @@ class RoleServiceTest {
         perm.setApplicationId(applicationEntity.getId());
 
         when(permissionRepository.findAllByApplicationRole(any())).thenReturn(List.of(perm));
+        when(roleRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         RoleUpsertRequest roleCreationRequest = createRoleCreationRequest();
         roleService.upsertRole(roleCreationRequest);
@@ -61,6 +78,9 @@ class RoleServiceTest {
         RoleEntity roleCaptured = roleCaptor.getValue();
 
         assertEquals(roleCreationRequest.getName(), roleCaptured.getName());
+        verify(roleCatalogService).invalidate();
+        verify(changeFeedService)
+                .record(ChangeEntityType.ROLE, roleCaptured.getId(), ChangeOperation.CREATED);
     }
 
     @Test
@@ -106,6 +126,8 @@ class RoleServiceTest {
         RoleEntity updatedRole = roleCaptor.getValue();
 
         assertNotNull(updatedRole);
+        verify(userRepository).incrementVersionOfRoleMembers(roleEntity.getId());
+        verify(userProfileCache).evictAll();
     }
 
     @Test
@@ -155,6 +177,7 @@ class RoleServiceTest {
 
         roleService.deleteRoleById(role.getId(), "default_resource");
 
+        verify(userRepository).incrementVersionOfRoleMembers(role.getId());
         verify(roleRepository).delete(role);
     }
 
@@ -165,6 +188,48 @@ class RoleServiceTest {
         assertThrowsWithMessage(() -> roleService.deleteRoleById(role.getId(), "default_resource"));
     }
 
+    // Sync roles tests
+    @Test
+    void syncRoles_fails_ifARoleIsDeclaredTwice() {
+        final List<DesiredRole> roles =
+                List.of(
+                        new DesiredRole().name("auditor").description("").permissions(List.of()),
+                        new DesiredRole().name("AUDITOR").description("").permissions(List.of()));
+
+        Exception exception =
+                assertThrows(
+                        IllegalArgumentException.class, () -> roleService.syncRoles(roles, false));
+
+        assertEquals("The role 'AUDITOR' is declared twice.", exception.getMessage());
+        verifyNoInteractions(roleSyncRepository);
+    }
+
+    @Test
+    void syncRoles_fails_listingEveryMissingPermission() {
+        PermissionEntity permission = createPermissionEntity();
+        permission.setApplicationRole("um:reader");
+        when(permissionRepository.findAllByApplicationRole(any())).thenReturn(List.of(permission));
+        final List<DesiredRole> roles =
+                List.of(
+                        new DesiredRole()
+                                .name("reader")
+                                .description("Reader")
+                                .permissions(List.of("um:reader", "um:writer")),
+                        new DesiredRole()
+                                .name("auditor")
+                                .description("Auditor")
+                                .permissions(List.of("um:auditor")));
+
+        Exception exception =
+                assertThrows(
+                        BusinessLogicException.class, () -> roleService.syncRoles(roles, false));
+
+        assertEquals(
+                "The provided permissions um:auditor, um:writer are invalid.",
+                exception.getMessage());
+        verifyNoInteractions(roleSyncRepository);
+    }
+
     private void assertThrowsWithMessage(Executable executable) {
         Throwable thrownException =
                 assertThrows(
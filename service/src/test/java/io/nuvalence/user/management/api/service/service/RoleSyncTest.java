@@ -0,0 +1,167 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.generated.models.DesiredRole;
+import io.nuvalence.user.management.api.service.repository.RoleSyncPlan;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Syncs roles against the test database. A sync deletes every role it does not declare, so each
+ * test runs in a transaction that is rolled back.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RoleSyncTest {
+    private static final UUID APPLICATION = UUID.randomUUID();
+    private static final UUID READ = UUID.randomUUID();
+    private static final UUID WRITE = UUID.randomUUID();
+    private static final UUID KEPT = UUID.randomUUID();
+    private static final UUID EXTENDED = UUID.randomUUID();
+    private static final UUID DROPPED = UUID.randomUUID();
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private RoleService roleService;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private UUID member;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update(
+                "INSERT INTO application (id, name, display_name) VALUES (?, 'sync', 'Sync')",
+                APPLICATION);
+        for (UUID permission : List.of(READ, WRITE)) {
+            final String applicationRole = permission.equals(READ) ? "sync:read" : "sync:write";
+            jdbcTemplate.update(
+                    "INSERT INTO permission (id, application_id, application_role, name,"
+                            + " description, permission_group, active)"
+                            + " VALUES (?, ?, ?, ?, '', 'sync', true)",
+                    permission,
+                    APPLICATION,
+                    applicationRole,
+                    applicationRole);
+        }
+        for (Map.Entry<UUID, String> role :
+                Map.of(KEPT, "SYNC_KEPT", EXTENDED, "SYNC_EXTENDED", DROPPED, "SYNC_DROPPED")
+                        .entrySet()) {
+            jdbcTemplate.update(
+                    "INSERT INTO role (id, name, description) VALUES (?, ?, 'Synced')",
+                    role.getKey(),
+                    role.getValue());
+            jdbcTemplate.update(
+                    "INSERT INTO role_permission (role_id, permission_id) VALUES (?, ?)",
+                    role.getKey(),
+                    READ);
+        }
+
+        final UserEntity user = new UserEntity();
+        user.setExternalId("SYNC-1");
+        user.setIdentityProvider("role-sync");
+        user.setEmail("sync-1@example.com");
+        user.setUserType(UserType.PUBLIC);
+        userService.createUsers(List.of(user));
+        member = user.getId();
+        userService.assignRoleToUser(member, DROPPED);
+    }
+
+    @Test
+    void dryRunReportsWithoutWriting() {
+        final RoleSyncPlan plan = roleService.syncRoles(declaredRoles(), true);
+
+        assertEquals(List.of("SYNC_CREATED"), List.copyOf(plan.getCreatedRoles().keySet()));
+        assertEquals(List.of("SYNC_EXTENDED"), List.copyOf(plan.getUpdatedRoles().keySet()));
+        assertTrue(plan.getDeletedRoles().containsKey("SYNC_DROPPED"));
+        assertEquals(1, plan.getUnchangedCount());
+        assertEquals(List.of(), roleNames("SYNC_CREATED"));
+        assertEquals(List.of("SYNC_DROPPED"), roleNames("SYNC_DROPPED"));
+    }
+
+    @Test
+    void syncAppliesTheDiffOnce() {
+        final long version = version();
+
+        final RoleSyncPlan plan = roleService.syncRoles(declaredRoles(), false);
+
+        assertEquals(List.of("SYNC_CREATED"), List.copyOf(plan.getCreatedRoles().keySet()));
+        assertEquals(List.of("SYNC_EXTENDED"), List.copyOf(plan.getUpdatedRoles().keySet()));
+        assertTrue(plan.getDeletedRoles().containsKey("SYNC_DROPPED"));
+        assertEquals(List.of(), roleNames("SYNC_DROPPED"));
+        assertEquals(
+                0,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_role WHERE user_id = ?", Integer.class, member));
+        assertEquals(version + 1, version());
+        assertEquals(
+                List.of(
+                        "SYNC_CREATED sync:write",
+                        "SYNC_EXTENDED sync:read",
+                        "SYNC_EXTENDED sync:write",
+                        "SYNC_KEPT sync:read"),
+                jdbcTemplate.queryForList(
+                        "SELECT r.name || ' ' || p.application_role FROM role r"
+                                + " JOIN role_permission rp ON rp.role_id = r.id"
+                                + " JOIN permission p ON p.id = rp.permission_id"
+                                + " WHERE r.name LIKE 'SYNC_%' ORDER BY 1",
+                        String.class));
+        assertEquals(
+                "Created",
+                jdbcTemplate.queryForObject(
+                        "SELECT description FROM role WHERE name = 'SYNC_CREATED'",
+                        String.class));
+
+        final RoleSyncPlan repeated = roleService.syncRoles(declaredRoles(), false);
+
+        assertTrue(repeated.isEmpty());
+        assertEquals(3, repeated.getUnchangedCount());
+    }
+
+    private List<DesiredRole> declaredRoles() {
+        return List.of(
+                new DesiredRole()
+                        .name("sync_kept")
+                        .description("Synced")
+                        .permissions(List.of("sync:read")),
+                new DesiredRole()
+                        .name("sync_extended")
+                        .description("Synced")
+                        .permissions(List.of("sync:read", "sync:write")),
+                new DesiredRole()
+                        .name("sync_created")
+                        .description("Created")
+                        .permissions(List.of("sync:write")));
+    }
+
+    private List<String> roleNames(String name) {
+        return jdbcTemplate.queryForList(
+                "SELECT name FROM role WHERE name = ?", String.class, name);
+    }
+
+    private long version() {
+        return jdbcTemplate.queryForObject(
+                "SELECT version FROM user_table WHERE id = ?", Long.class, member);
+    }
+}
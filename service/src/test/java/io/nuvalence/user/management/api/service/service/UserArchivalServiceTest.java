@@ -0,0 +1,206 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.RoleEntity;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the archival job against H2 with a small chunk size, and checks that searches including
+ * deleted users still find archived users.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(
+        properties = {
+            "users.archive.enabled=false",
+            "users.archive.chunk-size=2",
+            "users.archive.pause=PT0S"
+        })
+@ActiveProfiles("test")
+class UserArchivalServiceTest {
+    private static final UUID ROLE_ID = UUID.randomUUID();
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserArchivalService userArchivalService;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private UUID expiredId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update(
+                "INSERT INTO role (id, name, description) VALUES (?, 'archive-role', '')",
+                ROLE_ID);
+
+        final List<UUID> ids =
+                userService
+                        .createUsers(
+                                List.of(user("EXPIRED"), user("RECENT"), user("ACTIVE")))
+                        .stream()
+                        .map(result -> result.getUser().getId())
+                        .collect(Collectors.toList());
+        expiredId = ids.get(0);
+
+        markDeleted(expiredId, OffsetDateTime.now().minusDays(40));
+        markDeleted(ids.get(1), OffsetDateTime.now().minusDays(1));
+        jdbcTemplate.update(
+                "INSERT INTO user_role (user_id, role_id) VALUES (?, ?)", expiredId, ROLE_ID);
+        jdbcTemplate.update(
+                "INSERT INTO user_preference"
+                        + " (user_id, preferred_language, preferred_communication_method)"
+                        + " VALUES (?, 'es', 'sms')",
+                expiredId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_table_archive WHERE identity_provider = 'archive'");
+        jdbcTemplate.update(
+                "DELETE FROM user_role WHERE user_id IN"
+                        + " (SELECT id FROM user_table WHERE identity_provider = 'archive')");
+        jdbcTemplate.update(
+                "DELETE FROM user_preference WHERE user_id IN"
+                        + " (SELECT id FROM user_table WHERE identity_provider = 'archive')");
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'archive'");
+        jdbcTemplate.update("DELETE FROM role WHERE name = 'archive-role'");
+    }
+
+    @Test
+    void movesExpiredUsersWithRolesAndPreferencesToTheArchive() {
+        assertEquals(1, userArchivalService.archiveDeletedUsers());
+
+        assertEquals(
+                List.of("ACTIVE", "RECENT"),
+                jdbcTemplate.queryForList(
+                        "SELECT external_id FROM user_table WHERE identity_provider = 'archive'"
+                                + " ORDER BY external_id",
+                        String.class));
+        assertEquals(0, count("SELECT COUNT(*) FROM user_role WHERE user_id = ?"));
+        assertEquals(0, count("SELECT COUNT(*) FROM user_preference WHERE user_id = ?"));
+        assertEquals(
+                1,
+                count(
+                        "SELECT COUNT(*) FROM user_table_archive WHERE id = ?"
+                                + " AND preferred_language = 'es'"
+                                + " AND preferred_communication_method = 'sms'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM user_role_archive WHERE user_id = ?"));
+
+        assertEquals(0, userArchivalService.archiveDeletedUsers());
+    }
+
+    @Test
+    void archivesInChunksUntilNoCandidatesAreLeft() {
+        final List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            users.add(user("EXPIRED-" + i));
+        }
+        userService
+                .createUsers(users)
+                .forEach(
+                        result ->
+                                markDeleted(
+                                        result.getUser().getId(),
+                                        OffsetDateTime.now().minusDays(31)));
+
+        assertEquals(5, userArchivalService.archiveDeletedUsers());
+        assertEquals(
+                5,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_table_archive"
+                                + " WHERE identity_provider = 'archive'",
+                        Integer.class));
+    }
+
+    @Test
+    void searchesIncludingDeletedUsersFindArchivedUsers() {
+        userArchivalService.archiveDeletedUsers();
+
+        final List<UserEntity> all =
+                userService
+                        .getUsersBySearchCriteria(
+                                UserSearchCriteria.builder()
+                                        .identityProvider("archive")
+                                        .includeDeleted(true)
+                                        .build(),
+                                PageRequest.of(0, 10, Sort.by("externalId")))
+                        .getContent();
+        assertEquals(
+                List.of("ACTIVE", "EXPIRED", "RECENT"),
+                all.stream().map(UserEntity::getExternalId).collect(Collectors.toList()));
+
+        final UserEntity archived = all.get(1);
+        assertTrue(archived.isDeleted());
+        assertEquals(
+                List.of("archive-role"),
+                archived.getRoles().stream().map(RoleEntity::getName).collect(Collectors.toList()));
+        assertEquals("es", archived.getUserPreference().getPreferredLanguage());
+
+        assertEquals(
+                List.of(expiredId),
+                userService
+                        .getUsersBySearchCriteria(
+                                UserSearchCriteria.builder()
+                                        .roleNames(List.of("archive-role"))
+                                        .includeDeleted(true)
+                                        .build(),
+                                PageRequest.of(0, 10))
+                        .map(UserEntity::getId)
+                        .getContent());
+        assertEquals(
+                List.of("ACTIVE"),
+                userService
+                        .getUsersBySearchCriteria(
+                                UserSearchCriteria.builder().identityProvider("archive").build(),
+                                PageRequest.of(0, 10))
+                        .map(UserEntity::getExternalId)
+                        .getContent());
+        assertFalse(userService.getUserById(expiredId).isPresent());
+    }
+
+    private static UserEntity user(String externalId) {
+        final UserEntity user = new UserEntity();
+        user.setExternalId(externalId);
+        user.setIdentityProvider("archive");
+        user.setEmail(externalId + "@example.com");
+        user.setUserType(UserType.PUBLIC);
+        return user;
+    }
+
+    private void markDeleted(UUID userId, OffsetDateTime deletedOn) {
+        jdbcTemplate.update(
+                "UPDATE user_table SET deleted = true, deleted_on = ? WHERE id = ?",
+                Timestamp.from(deletedOn.toInstant()),
+                userId);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, expiredId);
+    }
+}
@@ -0,0 +1,142 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * Compares creating users one request at a time, each in its own transaction, with the batched
+ * bulk path, and checks that the bulk path stores complete rows. The paths are compared by the
+ * number of statements sent to the database rather than by elapsed time, which varies from run to
+ * run.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(UserBatchCreationBenchmarkTest.StatementCounter.class)
+class UserBatchCreationBenchmarkTest {
+    private static final int USERS = 1_000;
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'benchmark'");
+    }
+
+    @Test
+    void batchedCreationSendsFewerStatementsThanOneAtATime() {
+        STATEMENTS.set(0);
+        users("SINGLE", USERS).forEach(userService::createUser);
+        final int singleStatements = STATEMENTS.get();
+
+        STATEMENTS.set(0);
+        final List<UserCreationResult> results = userService.createUsers(users("BATCH", USERS));
+        final int batchStatements = STATEMENTS.get();
+
+        assertTrue(results.stream().allMatch(UserCreationResult::isCreated));
+        assertEquals(
+                USERS,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_table WHERE external_id LIKE 'BATCH-%'"
+                                + " AND full_name = 'First Last'",
+                        Integer.class));
+        assertTrue(
+                singleStatements >= USERS,
+                "One at a time sent " + singleStatements + " statements");
+        assertTrue(
+                batchStatements * 10 <= USERS,
+                "Batched creation sent " + batchStatements + " statements");
+    }
+
+    private List<UserEntity> users(String prefix, int count) {
+        final List<UserEntity> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final UserEntity user = new UserEntity();
+            user.setExternalId(prefix + "-" + i);
+            user.setIdentityProvider("benchmark");
+            user.setEmail(prefix.toLowerCase() + "-" + i + "@example.com");
+            user.setFirstName("First");
+            user.setLastName("Last");
+            user.setUserType(UserType.AGENCY);
+            users.add(user);
+        }
+
+        return users;
+    }
+
+    /**
+     * Wraps the data source so each call that sends statements to the database (an execute or an
+     * executeBatch) is counted once. Imported rather than annotated, so component scanning in
+     * other tests does not pick it up.
+     */
+    static class StatementCounter implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource ? proxy(DataSource.class, bean) : bean;
+        }
+
+        private static <T> T proxy(Class<T> type, Object target) {
+            return type.cast(
+                    Proxy.newProxyInstance(
+                            type.getClassLoader(),
+                            new Class<?>[] {type},
+                            (proxy, method, args) -> {
+                                final Object result;
+                                try {
+                                    result = method.invoke(target, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+
+                                if (method.getName().startsWith("execute")) {
+                                    STATEMENTS.incrementAndGet();
+                                }
+                                if (result instanceof Connection) {
+                                    return proxy(Connection.class, result);
+                                }
+                                if (result instanceof CallableStatement) {
+                                    return proxy(CallableStatement.class, result);
+                                }
+                                if (result instanceof PreparedStatement) {
+                                    return proxy(PreparedStatement.class, result);
+                                }
+                                if (result instanceof Statement) {
+                                    return proxy(Statement.class, result);
+                                }
+                                return result;
+                            }));
+        }
+    }
+}
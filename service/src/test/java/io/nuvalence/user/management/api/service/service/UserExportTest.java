@@ -0,0 +1,97 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checks that exports read users in bounded, id-ordered chunks and release each chunk before the
+ * next one is loaded.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+class UserExportTest {
+    private static final int USERS = 1_050;
+    private static final int CHUNK_SIZE = 100;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        final List<UserEntity> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            final UserEntity user = new UserEntity();
+            user.setExternalId("EXPORT-" + i);
+            user.setIdentityProvider("export");
+            user.setEmail("export-" + i + "@example.com");
+            user.setFirstName("First");
+            user.setLastName("Last");
+            user.setUserType(UserType.PUBLIC);
+            users.add(user);
+        }
+        userService.createUsers(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'export'");
+    }
+
+    @Test
+    void exportsEveryMatchingUserInIdOrderedChunks() {
+        final List<Integer> chunkSizes = new ArrayList<>();
+        final List<UUID> ids = new ArrayList<>();
+        final List<UserEntity> previousChunk = new ArrayList<>();
+
+        userService.exportUsers(
+                UserSearchCriteria.builder().identityProvider("export").build(),
+                CHUNK_SIZE,
+                users -> {
+                    previousChunk.forEach(
+                            user ->
+                                    assertFalse(
+                                            entityManager.contains(user),
+                                            "Previous chunk is still managed"));
+                    chunkSizes.add(users.size());
+                    users.forEach(user -> ids.add(user.getId()));
+                    previousChunk.clear();
+                    previousChunk.addAll(users);
+                });
+
+        assertEquals(USERS, ids.size());
+        assertEquals(USERS / CHUNK_SIZE + 1, chunkSizes.size());
+        assertTrue(chunkSizes.stream().allMatch(size -> size <= CHUNK_SIZE));
+        assertEquals(
+                jdbcTemplate.queryForList(
+                        "SELECT id FROM user_table WHERE identity_provider = 'export' ORDER BY id",
+                        UUID.class),
+                ids);
+    }
+}
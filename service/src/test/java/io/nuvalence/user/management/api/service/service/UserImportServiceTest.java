@@ -0,0 +1,294 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserImportError;
+import io.nuvalence.user.management.api.service.entity.UserImportJobEntity;
+import io.nuvalence.user.management.api.service.enums.UserImportFormat;
+import io.nuvalence.user.management.api.service.enums.UserImportStatus;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.repository.UserImportJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Runs user imports against H2, which stages chunks with batched inserts instead of COPY. The
+ * chunk size is small so that every import spans several chunks.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "users.import.chunk-size=2")
+@ActiveProfiles("test")
+class UserImportServiceTest {
+    private static final UUID ADMIN_ROLE = UUID.randomUUID();
+    private static final UUID CLERK_ROLE = UUID.randomUUID();
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserImportService userImportService;
+
+    @Autowired private UserImportJobRepository userImportJobRepository;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update(
+                "INSERT INTO role (id, name, description)"
+                        + " VALUES (?, 'import-admin', ''), (?, 'import-clerk', '')",
+                ADMIN_ROLE,
+                CLERK_ROLE);
+
+        final UserEntity existing = new UserEntity();
+        existing.setExternalId("EXISTING");
+        existing.setIdentityProvider("import");
+        existing.setEmail("existing@example.com");
+        existing.setUserType(UserType.AGENCY);
+        userService.createUsers(List.of(existing));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update(
+                "DELETE FROM user_role WHERE user_id IN"
+                        + " (SELECT id FROM user_table WHERE identity_provider = 'import')");
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'import'");
+        jdbcTemplate.update("DELETE FROM role WHERE name LIKE 'import-%'");
+        userImportJobRepository.deleteAll();
+    }
+
+    @Test
+    void importsCsvUsersAndRoleMemberships() throws Exception {
+        final String csv =
+                "externalId,identityProvider,email,firstName,lastName,userType,roles\n"
+                        + "A,import,a@example.com,Ann,\"O'Neil, Jr\",agency,"
+                        + "import-admin;import-clerk\n"
+                        + "B,import,b@example.com,Bob,Stone,public,\n"
+                        + "A,import,a2@example.com,Ann,Again,agency,import-clerk\n"
+                        + "EXISTING,import,existing@example.com,,,agency,import-admin\n"
+                        + "C,import,,Cat,Lee,robot,\n"
+                        + "D,import,d@example.com,Dan,Ray,public,import-missing\n";
+
+        final UserImportJobEntity job = runImport(csv, UserImportFormat.CSV);
+
+        assertEquals(UserImportStatus.COMPLETED, job.getStatus());
+        assertEquals(6, job.getProcessedRecords());
+        assertEquals(3, job.getImportedUsers());
+        assertEquals(2, job.getSkippedUsers());
+        assertEquals(3, job.getImportedRoles());
+        assertEquals(2, job.getErrorCount());
+        assertNotNull(job.getStartedAt());
+        assertNotNull(job.getFinishedAt());
+        assertEquals(
+                List.of(
+                        "5: missing email; userType must be agency or public",
+                        "6: Role does not exist: import-missing"),
+                job.getErrors().stream()
+                        .map(error -> error.getRecordNumber() + ": " + error.getMessage())
+                        .collect(Collectors.toList()));
+
+        assertEquals("a@example.com", queryEmail("A"));
+        assertEquals(
+                "O'Neil, Jr",
+                jdbcTemplate.queryForObject(
+                        "SELECT last_name FROM user_table WHERE external_id = 'A'", String.class));
+        assertEquals(Set.of("import-admin", "import-clerk"), queryRoles("A"));
+        assertEquals(Set.of("import-admin"), queryRoles("EXISTING"));
+        assertEquals(Set.of(), queryRoles("B"));
+        assertEquals(List.of("CREATED"), queryChanges("A"));
+        assertEquals(List.of("CREATED", "UPDATED"), queryChanges("EXISTING"));
+    }
+
+    @Test
+    void importsNdjsonAndSkipsUsersOnRerun() throws Exception {
+        final String ndjson =
+                "{\"externalId\":\"N1\",\"identityProvider\":\"import\","
+                        + "\"email\":\"n1@example.com\",\"userType\":\"public\","
+                        + "\"roles\":[\"import-clerk\"]}\n"
+                        + "\n"
+                        + "{\"externalId\":\"N2\",\"identityProvider\":\"import\","
+                        + "\"email\":\"n2@example.com\",\"userType\":\"agency\",\"extra\":1}\n"
+                        + "{\"externalId\":\"N3\",\"identityProvider\":\"import\","
+                        + "\"email\":\"n3@example.com\",\"userType\":\"agency\","
+                        + "\"roles\":{\"name\":\"import-admin\"}}\n";
+
+        final UserImportJobEntity first = runImport(ndjson, UserImportFormat.NDJSON);
+        final UserImportJobEntity second = runImport(ndjson, UserImportFormat.NDJSON);
+
+        assertEquals(UserImportStatus.COMPLETED, first.getStatus());
+        assertEquals(2, first.getImportedUsers());
+        assertEquals(1, first.getImportedRoles());
+        assertEquals(1, first.getErrorCount());
+        assertEquals("roles must be a list of role names", first.getErrors().get(0).getMessage());
+        assertEquals(Set.of("import-clerk"), queryRoles("N1"));
+
+        assertEquals(0, second.getImportedUsers());
+        assertEquals(2, second.getSkippedUsers());
+        assertEquals(0, second.getImportedRoles());
+    }
+
+    @Test
+    void failsJobOnUnparseableFile() throws Exception {
+        final String ndjson =
+                "{\"externalId\":\"P1\",\"identityProvider\":\"import\","
+                        + "\"email\":\"p1@example.com\",\"userType\":\"public\"}\n"
+                        + "{\"externalId\": oops}\n";
+
+        final UserImportJobEntity job = runImport(ndjson, UserImportFormat.NDJSON);
+
+        assertEquals(UserImportStatus.FAILED, job.getStatus());
+        assertNotNull(job.getFailureMessage());
+        assertNotNull(job.getFinishedAt());
+        assertNull(queryEmail("P1"));
+    }
+
+    @Test
+    void reportsOnlyTheFirstErrors() throws Exception {
+        final StringBuilder csv = new StringBuilder("externalId,identityProvider,email,userType\n");
+        for (int i = 0; i < 150; i++) {
+            csv.append("E").append(i).append(",import,,agency\n");
+        }
+
+        final UserImportJobEntity job = runImport(csv.toString(), UserImportFormat.CSV);
+
+        assertEquals(150, job.getErrorCount());
+        assertEquals(100, job.getErrors().size());
+        assertEquals(1, job.getErrors().get(0).getRecordNumber());
+        assertTrue(
+                job.getErrors().stream()
+                        .map(UserImportError::getMessage)
+                        .allMatch("missing email"::equals));
+    }
+
+    @Test
+    void failsOnlyActiveJobsNotHeardFromSinceCutoff() {
+        final OffsetDateTime now = OffsetDateTime.now();
+        final OffsetDateTime cutoff = now.minusMinutes(5);
+        final UUID staleRunning =
+                saveJob(UserImportStatus.RUNNING, now.minusHours(1), now.minusMinutes(10));
+        final UUID staleQueued = saveJob(UserImportStatus.QUEUED, now.minusMinutes(10), null);
+        final UUID liveRunning =
+                saveJob(UserImportStatus.RUNNING, now.minusHours(1), now.minusMinutes(1));
+        final UUID oldCompleted =
+                saveJob(UserImportStatus.COMPLETED, now.minusHours(1), now.minusHours(1));
+
+        assertEquals(2, userImportService.failAbandonedJobs(cutoff));
+
+        for (UUID id : List.of(staleRunning, staleQueued)) {
+            final UserImportJobEntity job = userImportService.getJob(id).orElseThrow();
+            assertEquals(UserImportStatus.FAILED, job.getStatus());
+            assertTrue(job.getFailureMessage().startsWith("The instance running this import"));
+            assertNotNull(job.getFinishedAt());
+        }
+        assertEquals(
+                UserImportStatus.RUNNING,
+                userImportService.getJob(liveRunning).orElseThrow().getStatus());
+        assertEquals(
+                UserImportStatus.COMPLETED,
+                userImportService.getJob(oldCompleted).orElseThrow().getStatus());
+    }
+
+    @Test
+    void heartbeatKeepsFinishedImportsIntact() throws Exception {
+        final UserImportJobEntity job =
+                runImport(
+                        "externalId,identityProvider,email,userType\n"
+                                + "H1,import,h1@example.com,agency\n",
+                        UserImportFormat.CSV);
+
+        userImportService.heartbeatOnSchedule();
+
+        assertNotNull(job.getHeartbeatAt());
+        assertEquals(
+                UserImportStatus.COMPLETED,
+                userImportService.getJob(job.getId()).orElseThrow().getStatus());
+    }
+
+    private UserImportJobEntity runImport(String content, UserImportFormat format)
+            throws Exception {
+        final UserImportJobEntity queued =
+                userImportService.startImport(
+                        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                        format);
+
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            final UserImportJobEntity job =
+                    userImportService.getJob(queued.getId()).orElseThrow();
+            if (job.getStatus() == UserImportStatus.COMPLETED
+                    || job.getStatus() == UserImportStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+
+        throw new AssertionError("Import did not finish in time");
+    }
+
+    private UUID saveJob(
+            UserImportStatus status, OffsetDateTime createdAt, OffsetDateTime heartbeatAt) {
+        final UserImportJobEntity job = new UserImportJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setStatus(status);
+        job.setFormat(UserImportFormat.CSV);
+        job.setCreatedAt(createdAt);
+        job.setHeartbeatAt(heartbeatAt);
+
+        return userImportJobRepository.save(job).getId();
+    }
+
+    private String queryEmail(String externalId) {
+        return jdbcTemplate
+                .queryForList(
+                        "SELECT email FROM user_table WHERE identity_provider = 'import'"
+                                + " AND external_id = ?",
+                        String.class,
+                        externalId)
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private List<String> queryChanges(String externalId) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.operation FROM change_outbox c"
+                        + " JOIN user_table u ON u.id = c.entity_id"
+                        + " WHERE c.entity_type = 'USER' AND u.identity_provider = 'import'"
+                        + " AND u.external_id = ? ORDER BY c.id",
+                String.class,
+                externalId);
+    }
+
+    private Set<String> queryRoles(String externalId) {
+        return Set.copyOf(
+                jdbcTemplate.queryForList(
+                        "SELECT r.name FROM user_role ur"
+                                + " JOIN role r ON r.id = ur.role_id"
+                                + " JOIN user_table u ON u.id = ur.user_id"
+                                + " WHERE u.identity_provider = 'import' AND u.external_id = ?",
+                        String.class,
+                        externalId));
+    }
+}
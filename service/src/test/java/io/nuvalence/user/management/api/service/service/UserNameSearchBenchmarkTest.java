@@ -0,0 +1,135 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks that each branch of the name filter built by {@link UserSearchCriteria} is served by an
+ * index: {@code search_name LIKE ? OR lower(email) LIKE ? OR lower(last_name) LIKE ?}.
+ *
+ * <p>The search_name branch is checked on every database by growing the user table by an order
+ * of magnitude and comparing the rows the lookup reads. The lower(email) and lower(last_name)
+ * branches, and the combined predicate, are backed by PostgreSQL expression indexes; H2 has no
+ * expression indexes and does not combine indexes across an OR, so those checks only run when the
+ * suite runs against PostgreSQL.</p>
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class UserNameSearchBenchmarkTest {
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+    private static final String SEARCH_NAME_BRANCH = "search_name LIKE 'homer s%'";
+    private static final String EMAIL_BRANCH = "lower(email) LIKE 'homer s%'";
+    private static final String LAST_NAME_BRANCH = "lower(last_name) LIKE 's%'";
+    private static final String INSERT =
+            "INSERT INTO user_table (id, external_id, email, first_name, last_name, created_at,"
+                    + " identity_provider, user_type, deleted) VALUES (?, ?, ?, ?, ?, ?,"
+                    + " 'benchmark', 'agency', false)";
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchNameBranchDoesNotGrowWithTable() {
+        assumeTrue(!isPostgres(), "H2 only reports scan counts");
+        insertUsers(0, 1_000);
+        insertUser(-1, "Homer", "Simpson");
+        final long smallTableScan = scanCount(SEARCH_NAME_BRANCH);
+
+        insertUsers(1_000, 10_000);
+        final long largeTableScan = scanCount(SEARCH_NAME_BRANCH);
+
+        assertTrue(smallTableScan <= 2, "Lookup scanned " + smallTableScan + " rows");
+        assertEquals(smallTableScan, largeTableScan);
+    }
+
+    @Test
+    void everyBranchUsesItsIndexOnPostgres() {
+        assumeTrue(isPostgres(), "Expression indexes exist on PostgreSQL only");
+        insertUsers(0, 10_000);
+        jdbcTemplate.execute("ANALYZE user_table");
+
+        assertTrue(plan(SEARCH_NAME_BRANCH).contains("ix_user_table_search_name"));
+        assertTrue(plan(EMAIL_BRANCH).contains("ix_user_table_lower_email"));
+        assertTrue(plan(LAST_NAME_BRANCH).contains("ix_user_table_lower_last_name"));
+
+        final String combined =
+                plan(SEARCH_NAME_BRANCH + " OR " + EMAIL_BRANCH + " OR " + LAST_NAME_BRANCH);
+        assertFalse(combined.contains("Seq Scan"), combined);
+    }
+
+    private boolean isPostgres() {
+        return jdbcTemplate.execute(
+                (Connection connection) ->
+                        "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+    }
+
+    private String plan(String predicate) {
+        return String.join(
+                "\n",
+                jdbcTemplate.queryForList(
+                        "EXPLAIN SELECT id FROM user_table WHERE deleted = false AND ("
+                                + predicate
+                                + ")",
+                        String.class));
+    }
+
+    private long scanCount(String predicate) {
+        final String plan =
+                jdbcTemplate.queryForObject(
+                        "EXPLAIN ANALYZE SELECT id FROM user_table WHERE " + predicate,
+                        String.class);
+        final Matcher matcher = SCAN_COUNT.matcher(plan);
+        assertTrue(matcher.find(), plan);
+
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private void insertUsers(int from, int to) {
+        final List<Object[]> rows = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            rows.add(row(i, "First" + i, "Last" + i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    private void insertUser(int index, String firstName, String lastName) {
+        jdbcTemplate.update(INSERT, row(index, firstName, lastName));
+    }
+
+    private Object[] row(int index, String firstName, String lastName) {
+        return new Object[] {
+            UUID.randomUUID(),
+            "BENCH-" + index,
+            "bench-" + index + "@example.com",
+            firstName,
+            lastName,
+            Timestamp.from(Instant.now())
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.SortOrder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+class UserPageTokenTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        UserEntity user = createUser();
+
+        UserPageToken token = UserPageToken.after(user, "email", SortOrder.DESC);
+        UserPageToken decoded = UserPageToken.decode(token.encode());
+
+        assertEquals(token, decoded);
+        assertEquals(user.getId(), decoded.getId());
+        assertEquals("a|b@example.com", decoded.getValue());
+        assertFalse(decoded.isAscending());
+    }
+
+    @Test
+    void nullNameIsEncodedAsEmptyString() {
+        UserEntity user = createUser();
+        user.setFirstName(null);
+
+        UserPageToken token = UserPageToken.after(user, "firstName", SortOrder.ASC);
+
+        assertEquals("", UserPageToken.decode(token.encode()).getTypedValue());
+        assertTrue(token.isAscending());
+    }
+
+    @Test
+    void createdAtIsDecodedAsOffsetDateTime() {
+        UserEntity user = createUser();
+
+        UserPageToken token = UserPageToken.after(user, "createdAt", SortOrder.ASC);
+
+        assertEquals(user.getCreatedAt(), UserPageToken.decode(token.encode()).getTypedValue());
+    }
+
+    @Test
+    void idSortUsesIdAsValue() {
+        UserEntity user = createUser();
+
+        UserPageToken token = UserPageToken.after(user, "id", SortOrder.ASC);
+
+        assertEquals(user.getId(), token.getTypedValue());
+    }
+
+    @Test
+    void unsupportedSortFieldIsRejected() {
+        UserEntity user = createUser();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> UserPageToken.after(user, "phoneNumber", SortOrder.ASC));
+        assertFalse(UserPageToken.isSupportedSortField("phoneNumber"));
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        String missingParts =
+                Base64.getUrlEncoder().encodeToString("email|ASC".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> UserPageToken.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> UserPageToken.decode(missingParts));
+    }
+
+    private UserEntity createUser() {
+        UserEntity user = new UserEntity();
+        user.setId(UUID.randomUUID());
+        user.setEmail("a|b@example.com");
+        user.setFirstName("Homer");
+        user.setLastName("Simpson");
+        user.setExternalId("EXT-00001");
+        user.setCreatedAt(OffsetDateTime.parse("2023-10-01T12:30:45.123456Z"));
+        return user;
+    }
+}
@@ -13,6 +13,7 @@ import io.nuvalence.user.management.api.service.entity.UserEntity;
 import io.nuvalence.user.management.api.service.entity.UserPreferenceEntity;
 import io.nuvalence.user.management.api.service.generated.models.UserPreferenceDTO;
 import io.nuvalence.user.management.api.service.repository.UserPreferencesRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +33,9 @@ class UserPreferenceServiceTest {
 
     @InjectMocks UserPreferenceService userPreferenceService;
     @Mock LanguageService languageService;
+    @Mock UserProfileCache userProfileCache;
+    @Mock UserRepository userRepository;
+    @Mock ChangeFeedService changeFeedService;
 
     @Test
     void getUserPreferencesWithExistingPreferences() {
@@ -88,6 +92,8 @@ class UserPreferenceServiceTest {
         // during runtime
         assertEquals(user.getId(), entity.getUserId());
         verify(userPreferencesRepository, times(1)).save(any(UserPreferenceEntity.class));
+        verify(userRepository).incrementVersion(user.getId());
+        verify(userProfileCache).evict(user.getId());
     }
 
     @Test
@@ -0,0 +1,133 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.nuvalence.user.management.api.service.entity.UserView;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class UserProfileCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final UUID userId = UUID.randomUUID();
+
+    private UserProfileCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new UserProfileCache(true, Duration.ofMinutes(1), 100, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        final UserView first = cache.get(userId, this::load).orElseThrow();
+        final UserView second = cache.get(userId, this::load).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void doesNotCacheMissingUsers() {
+        final Function<UUID, Optional<UserView>> missing =
+                id -> {
+                    loads.incrementAndGet();
+                    return Optional.empty();
+                };
+
+        assertTrue(cache.get(userId, missing).isEmpty());
+        assertTrue(cache.get(userId, missing).isEmpty());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictionReloadsTheProfile() {
+        cache.get(userId, this::load);
+        cache.evict(userId);
+        cache.get(userId, this::load);
+        cache.evictAll();
+        cache.get(userId, this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void doesNotCacheAProfileLoadedWhileTheUserWasChanged() {
+        cache.get(
+                userId,
+                id -> {
+                    final Optional<UserView> profile = load(id);
+                    cache.evict(id);
+                    return profile;
+                });
+        cache.get(userId, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictsAgainWhenTheTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(userId);
+        // Read inside the writing transaction, before the write is committed.
+        cache.get(userId, this::load);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(
+                        synchronization ->
+                                synchronization.afterCompletion(
+                                        TransactionSynchronization.STATUS_COMMITTED));
+        cache.get(userId, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadsEveryTimeWhenDisabled() {
+        cache = new UserProfileCache(false, Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+
+        cache.get(userId, this::load);
+        cache.get(userId, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<UserView> load(UUID id) {
+        loads.incrementAndGet();
+        return Optional.of(new UserView(new UserDTO().id(id), OffsetDateTime.now(), 0));
+    }
+
+    private double gets(String result) {
+        return meterRegistry
+                .get("cache.gets")
+                .tag("cache", UserProfileCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,202 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.entity.UserView;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.generated.models.AssignedRoleDTO;
+import io.nuvalence.user.management.api.service.generated.models.UserDTO;
+import io.nuvalence.user.management.api.service.mapper.MapperUtils;
+import io.nuvalence.user.management.api.service.repository.UserArchiveRepository;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Checks that the projections {@link UserQueryService} reads match what the entity read path maps
+ * for the same rows, and that the entity read path runs without dirty-checking snapshots. The
+ * allocation comparison of the two paths is the {@code UserReadPathBenchmark} JMH benchmark.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+class UserReadPathTest {
+    private static final int USERS = 200;
+    private static final UUID ROLE_A = UUID.randomUUID();
+    private static final UUID ROLE_B = UUID.randomUUID();
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserService userService;
+
+    @Autowired private UserQueryService userQueryService;
+
+    @Autowired private UserRepository userRepository;
+
+    @Autowired private UserArchiveRepository userArchiveRepository;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    private final UserSearchCriteria criteria =
+            UserSearchCriteria.builder().identityProvider("read-bench").build();
+    private final Pageable page = PageRequest.of(0, 100, Sort.by("email"));
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update(
+                "INSERT INTO role (id, name, description)"
+                        + " VALUES (?, 'read-bench-a', 'A'), (?, 'read-bench-b', 'B')",
+                ROLE_A,
+                ROLE_B);
+
+        final List<UserEntity> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            final UserEntity user = new UserEntity();
+            user.setExternalId("READ-BENCH-" + i);
+            user.setIdentityProvider("read-bench");
+            user.setEmail("read-bench-" + i + "@example.com");
+            user.setFirstName("First" + i);
+            user.setLastName(i % 2 == 0 ? "Last" + i : null);
+            user.setUserType(i % 3 == 0 ? UserType.AGENCY : UserType.PUBLIC);
+            users.add(user);
+        }
+        userService.createUsers(users);
+        jdbcTemplate.update(
+                "INSERT INTO user_role (user_id, role_id)"
+                        + " SELECT u.id, r.id FROM user_table u CROSS JOIN role r"
+                        + " WHERE u.identity_provider = 'read-bench'"
+                        + " AND r.name LIKE 'read-bench-%'");
+        jdbcTemplate.update(
+                "INSERT INTO user_preference"
+                        + " (user_id, preferred_language, preferred_communication_method)"
+                        + " SELECT id, 'en', 'email' FROM user_table"
+                        + " WHERE identity_provider = 'read-bench'"
+                        + " AND email <> 'read-bench-1@example.com'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        final String users = "(SELECT id FROM user_table WHERE identity_provider = 'read-bench')";
+        jdbcTemplate.update("DELETE FROM user_role WHERE user_id IN " + users);
+        jdbcTemplate.update("DELETE FROM user_preference WHERE user_id IN " + users);
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'read-bench'");
+        jdbcTemplate.update(
+                "DELETE FROM user_table_archive WHERE identity_provider = 'read-bench'");
+        jdbcTemplate.update("DELETE FROM role WHERE name LIKE 'read-bench-%'");
+    }
+
+    @Test
+    void readOnlySearchLoadsUsersWithoutSnapshots() {
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(
+                status -> {
+                    final Session session = entityManager.unwrap(Session.class);
+                    final List<UserEntity> users =
+                            userService.getUsersBySearchCriteria(criteria, page).getContent();
+
+                    assertEquals(100, users.size());
+                    users.forEach(user -> assertTrue(session.isReadOnly(user)));
+                });
+    }
+
+    @Test
+    void projectedPageMatchesTheEntityPage() {
+        final Page<UserView> projected = userQueryService.getUsers(criteria, page);
+        final Page<UserEntity> loaded = userService.getUsersBySearchCriteria(criteria, page);
+
+        assertEquals(loaded.getTotalElements(), projected.getTotalElements());
+        assertEquals(
+                loaded.getContent().stream()
+                        .map(UserReadPathTest::mapEntity)
+                        .collect(Collectors.toList()),
+                projected.getContent().stream()
+                        .map(view -> sortRoles(view.getUser()))
+                        .collect(Collectors.toList()));
+        for (int i = 0; i < loaded.getNumberOfElements(); i++) {
+            final UserEntity entity = loaded.getContent().get(i);
+            final UserView view = projected.getContent().get(i);
+            assertEquals(entity.getCreatedAt(), view.getCreatedAt());
+            assertEquals(entity.getVersion(), view.getVersion());
+        }
+    }
+
+    @Test
+    void projectedUserWithoutPreferencesHasNone() {
+        final UUID id =
+                jdbcTemplate.queryForObject(
+                        "SELECT id FROM user_table WHERE email = 'read-bench-1@example.com'",
+                        UUID.class);
+
+        final UserDTO user = userQueryService.getUser(id).orElseThrow().getUser();
+
+        assertNull(user.getPreferences());
+        assertEquals("First1", user.getDisplayName());
+        assertEquals(2, user.getAssignedRoles().size());
+    }
+
+    @Test
+    void projectedArchivedUserMatchesTheArchivedEntity() {
+        final UUID id =
+                jdbcTemplate.queryForObject(
+                        "SELECT id FROM user_table WHERE email = 'read-bench-2@example.com'",
+                        UUID.class);
+        final OffsetDateTime deletedOn = OffsetDateTime.parse("2000-01-01T00:00:00Z");
+        jdbcTemplate.update(
+                "UPDATE user_table SET deleted = true, deleted_on = ? WHERE id = ?",
+                Timestamp.from(deletedOn.toInstant()),
+                id);
+        assertEquals(
+                1,
+                userArchiveRepository.archiveChunk(
+                        deletedOn.plusSeconds(1), 10, OffsetDateTime.now()));
+
+        final UserView projected = userQueryService.getUser(id).orElseThrow();
+        final UserEntity archived = userRepository.findAllLoaded(List.of(id)).get(0);
+
+        assertTrue(projected.getUser().getDeleted());
+        assertEquals(mapEntity(archived), sortRoles(projected.getUser()));
+    }
+
+    private static UserDTO mapEntity(UserEntity user) {
+        return sortRoles(MapperUtils.mapUserEntityToUserDto(user));
+    }
+
+    private static UserDTO sortRoles(UserDTO user) {
+        user.getAssignedRoles().sort(Comparator.comparing(AssignedRoleDTO::getRoleName));
+        return user;
+    }
+}
@@ -0,0 +1,126 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Many threads assign and re-assign roles to the same user at once. Every assignment must survive
+ * and none may fail on a duplicate row.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class UserRoleAssignmentContentionTest {
+    private static final int THREADS = 16;
+    private static final int ROLES = 40;
+    private static final int ROUNDS = 3;
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserService userService;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final UUID userId = UUID.randomUUID();
+    private final List<UUID> roleIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update(
+                "INSERT INTO user_table (id, external_id, email, created_at, identity_provider,"
+                        + " user_type, deleted) VALUES (?, 'CONTENTION', 'contention@example.com',"
+                        + " ?, 'benchmark', 'agency', false)",
+                userId,
+                Timestamp.from(Instant.now()));
+        for (int i = 0; i < ROLES; i++) {
+            final UUID roleId = UUID.randomUUID();
+            jdbcTemplate.update(
+                    "INSERT INTO role (id, name, description) VALUES (?, ?, 'contention')",
+                    roleId,
+                    "CONTENTION_" + i);
+            roleIds.add(roleId);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_role WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM role WHERE description = 'contention'");
+        jdbcTemplate.update("DELETE FROM user_table WHERE id = ?", userId);
+    }
+
+    @Test
+    void concurrentAssignmentsToOneUserAreNotLost() throws Exception {
+        // Each thread walks the role list from a different offset, several times over, so every
+        // role is assigned concurrently by several threads and repeatedly.
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final int offset = thread;
+            tasks.add(
+                    () -> {
+                        for (int i = 0; i < ROLES * ROUNDS; i++) {
+                            userService.assignRoleToUser(
+                                    userId, roleIds.get((offset + i) % ROLES));
+                        }
+                        return null;
+                    });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final long start = System.nanoTime();
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+
+        final int assignments = THREADS * ROLES * ROUNDS;
+        log.info(
+                "{} threads made {} assignments to one user at {} assignments/s",
+                THREADS,
+                assignments,
+                assignments * 1_000_000_000L / elapsedNanos);
+
+        assertEquals(
+                ROLES,
+                jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM user_role WHERE user_id = ?", Integer.class, userId));
+
+        userService.removeRoleFromUser(userId, UUID.fromString(roleIds.get(0).toString()));
+        assertTrue(
+                jdbcTemplate
+                        .queryForList(
+                                "SELECT role_id FROM user_role WHERE user_id = ?",
+                                UUID.class,
+                                userId)
+                        .stream()
+                        .noneMatch(roleIds.get(0)::equals));
+    }
+}
@@ -1,15 +1,29 @@
 package io.nuvalence.user.management.api.service.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.cerbos.QueryPlanSpecification;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesExpression;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilter;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesFilterKind;
+import io.nuvalence.user.management.api.service.cerbos.models.PlanResourcesOperand;
+import io.nuvalence.user.management.api.service.entity.UserAccessResourceTranslator;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.SortOrder;
 import io.nuvalence.user.management.api.service.enums.UserType;
 import io.nuvalence.user.management.api.service.repository.RoleRepository;
 import io.nuvalence.user.management.api.service.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,11 +34,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @ExtendWith(SpringExtension.class)
@@ -37,6 +56,7 @@ class UserSearchCriteriaTest {
 
     @Autowired private UserRepository repository;
     @Autowired private RoleRepository roleRepository;
+    @PersistenceContext private EntityManager entityManager;
 
     private Pageable defaultPageable;
     private UserEntity user1;
@@ -260,6 +280,264 @@ class UserSearchCriteriaTest {
         assertEquals(3, results.getTotalElements());
     }
 
+    @Test
+    void findPageMatchesSpecificationSearch() {
+        final UserSearchCriteria criteria =
+                UserSearchCriteria.builder().roleIds(List.of(role1.getId().toString())).build();
+
+        final Page<UserEntity> expected = repository.findAll(criteria, defaultPageable);
+        final Page<UserEntity> results = repository.findPage(criteria, defaultPageable);
+
+        assertEquals(expected.getTotalElements(), results.getTotalElements());
+        assertEquals(ids(expected.getContent()), ids(results.getContent()));
+    }
+
+    @Test
+    void findPageLoadsAssociationsInFixedNumberOfStatements() {
+        entityManager.flush();
+        entityManager.clear();
+
+        final Statistics statistics =
+                entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            final Page<UserEntity> results =
+                    repository.findPage(
+                            UserSearchCriteria.builder().includeDeleted(true).build(),
+                            defaultPageable);
+            for (UserEntity user : results) {
+                assertEquals(1, user.getRoles().size());
+                assertFalse(Hibernate.isInitialized(user.getRoles().get(0).getPermissions()));
+                assertNull(user.getUserPreference());
+            }
+
+            assertEquals(4, results.getNumberOfElements());
+            // id query, then users with roles and preferences. The count query is skipped because
+            // the first page is not full.
+            assertEquals(2, statistics.getPrepareStatementCount());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void findsOnlyTheActiveUserForAnIdentity() {
+        final UserEntity found =
+                repository
+                        .findActiveByIdentityLoaded(
+                                user1.getIdentityProvider(), user1.getExternalId())
+                        .orElseThrow();
+
+        assertEquals(user1.getId(), found.getId());
+        assertTrue(Hibernate.isInitialized(found.getRoles()));
+        assertTrue(
+                repository
+                        .findActiveByIdentityLoaded(
+                                user4.getIdentityProvider(), user4.getExternalId())
+                        .isEmpty());
+    }
+
+    @Test
+    void keysetPagingWalksAllUsersInSortOrder() {
+        final UserSearchCriteria criteria = UserSearchCriteria.builder().build();
+        final List<UserEntity> firstPage =
+                repository.findAll(criteria, PageRequest.of(0, 2, Sort.by("email").ascending()))
+                        .getContent();
+
+        final UserPageToken token = UserPageToken.after(firstPage.get(1), "email", SortOrder.ASC);
+        final List<UserEntity> secondPage = repository.findAllAfter(criteria, token, 2);
+
+        assertEquals(List.of(user3.getId(), user1.getId()), ids(firstPage));
+        assertEquals(List.of(user2.getId()), ids(secondPage));
+    }
+
+    @Test
+    void keysetPagingDescendingByLastName() {
+        final UserSearchCriteria criteria =
+                UserSearchCriteria.builder().includeDeleted(true).build();
+        final UserPageToken token = UserPageToken.after(user4, "lastName", SortOrder.DESC);
+
+        final List<UserEntity> results = repository.findAllAfter(criteria, token, 10);
+
+        assertEquals(3, results.size());
+        for (UserEntity user : results) {
+            assertEquals(LAST_NAME, user.getLastName());
+        }
+    }
+
+    @Test
+    void keysetPagingListsHoldersOfSeveralFilteredRolesOnce() {
+        user1.setRoles(new ArrayList<>(List.of(role1, role2)));
+        repository.save(user1);
+        final UserSearchCriteria criteria =
+                UserSearchCriteria.builder()
+                        .roleIds(List.of(role1.getId().toString(), role2.getId().toString()))
+                        .build();
+        final UserPageToken token = UserPageToken.after(user3, "email", SortOrder.ASC);
+
+        // user1 holds both roles; a page of two must still reach user2.
+        final List<UserEntity> results = repository.findAllAfter(criteria, token, 2);
+
+        assertEquals(List.of(user1.getId(), user2.getId()), ids(results));
+    }
+
+    @Test
+    void pageTokenOfAnOffsetPageContinuesAfterTiedSortKeys() {
+        final UserSearchCriteria criteria = UserSearchCriteria.builder().build();
+        final List<UserEntity> firstPage =
+                repository
+                        .findPage(criteria, PageRequest.of(0, 2, Sort.by("lastName").ascending()))
+                        .getContent();
+
+        final List<UserEntity> rest =
+                repository.findAllAfter(
+                        criteria,
+                        UserPageToken.after(firstPage.get(1), "lastName", SortOrder.ASC),
+                        10);
+
+        final List<UUID> all = new ArrayList<>(ids(firstPage));
+        all.addAll(ids(rest));
+        assertEquals(
+                Set.of(user1.getId(), user2.getId(), user3.getId()), new HashSet<>(all));
+        assertEquals(3, all.size());
+    }
+
+    @Test
+    void sliceReportsNextPageWithoutCounting() {
+        final UserSearchCriteria criteria = UserSearchCriteria.builder().build();
+
+        final Slice<UserEntity> first =
+                repository.findSlice(criteria, PageRequest.of(0, 2, Sort.by("email").ascending()));
+        final Slice<UserEntity> last =
+                repository.findSlice(criteria, PageRequest.of(1, 2, Sort.by("email").ascending()));
+
+        assertEquals(List.of(user3.getId(), user1.getId()), ids(first.getContent()));
+        assertTrue(first.hasNext());
+        assertEquals(List.of(user2.getId()), ids(last.getContent()));
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void queryPlanRestrictsPagesAndTotalCount() {
+        final UserSearchCriteria criteria =
+                UserSearchCriteria.builder()
+                        .authorization(
+                                plan(
+                                        expression(
+                                                "or",
+                                                expression(
+                                                        "in",
+                                                        variable("id"),
+                                                        value(
+                                                                List.of(
+                                                                        user1.getId().toString(),
+                                                                        user3.getId().toString()))),
+                                                expression(
+                                                        "eq",
+                                                        value("public"),
+                                                        variable("userType")))))
+                        .build();
+
+        final Page<UserEntity> results =
+                repository.findPage(criteria, PageRequest.of(0, 2, Sort.by("email")));
+
+        assertEquals(3, results.getTotalElements());
+        assertEquals(List.of(user3.getId(), user1.getId()), ids(results.getContent()));
+        assertTrue(criteria.hasFilters());
+    }
+
+    @Test
+    void queryPlanAppliesToArchiveSearches() {
+        final PlanResourcesOperand hasMiddleName =
+                expression("ne", variable("middleName"), value(null));
+        final UserSearchCriteria criteria =
+                UserSearchCriteria.builder()
+                        .includeDeleted(true)
+                        .authorization(
+                                plan(expression("and", variable("deleted"), hasMiddleName)))
+                        .build();
+
+        final Page<UserEntity> results = repository.findPage(criteria, defaultPageable);
+
+        assertEquals(List.of(user4.getId()), ids(results.getContent()));
+    }
+
+    @Test
+    void queryPlanNegationsKeepUsersWithoutTheAttribute() {
+        final UserEntity noMiddleName =
+                repository.save(
+                        createNewUser(
+                                "Bart",
+                                null,
+                                LAST_NAME,
+                                "888-888-888",
+                                "bsimpson@springfieldelementary.edu",
+                                "EXT-00005",
+                                "springfield-elementary",
+                                UserType.PUBLIC,
+                                false,
+                                List.of(role2)));
+        final Set<UUID> expected = Set.of(user2.getId(), user3.getId(), noMiddleName.getId());
+        final List<PlanResourcesOperand> conditions =
+                List.of(
+                        expression("ne", variable("middleName"), value("Jay")),
+                        expression(
+                                "not", expression("eq", value("Jay"), variable("middleName"))),
+                        expression(
+                                "not",
+                                expression("in", variable("middleName"), value(List.of("Jay")))));
+
+        for (PlanResourcesOperand condition : conditions) {
+            final UserSearchCriteria criteria =
+                    UserSearchCriteria.builder().authorization(plan(condition)).build();
+
+            final Page<UserEntity> results = repository.findPage(criteria, defaultPageable);
+
+            assertEquals(expected, new HashSet<>(ids(results.getContent())));
+        }
+    }
+
+    @Test
+    void estimateCountIsUnavailableOutsidePostgres() {
+        assertTrue(repository.estimateCount(false).isEmpty());
+    }
+
+    private static QueryPlanSpecification<UserEntity> plan(PlanResourcesOperand condition) {
+        return QueryPlanSpecification.of(
+                PlanResourcesFilter.builder()
+                        .kind(PlanResourcesFilterKind.KIND_CONDITIONAL)
+                        .condition(condition)
+                        .build(),
+                UserEntity.class,
+                UserAccessResourceTranslator.QUERYABLE_ATTRIBUTES);
+    }
+
+    private static PlanResourcesOperand expression(
+            String operator, PlanResourcesOperand... operands) {
+        return PlanResourcesOperand.builder()
+                .expression(
+                        PlanResourcesExpression.builder()
+                                .operator(operator)
+                                .operands(List.of(operands))
+                                .build())
+                .build();
+    }
+
+    private static PlanResourcesOperand variable(String attribute) {
+        return PlanResourcesOperand.builder()
+                .variable("request.resource.attr." + attribute)
+                .build();
+    }
+
+    private static PlanResourcesOperand value(Object value) {
+        return PlanResourcesOperand.builder().value(value).build();
+    }
+
+    private List<UUID> ids(List<UserEntity> users) {
+        return users.stream().map(UserEntity::getId).collect(Collectors.toList());
+    }
+
     private UserEntity createNewUser(
             final String firstName,
             final String middleName,
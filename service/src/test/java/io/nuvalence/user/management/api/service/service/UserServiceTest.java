@@ -2,7 +2,9 @@ package io.nuvalence.user.management.api.service.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -11,6 +13,8 @@ import io.nuvalence.user.management.api.service.config.exception.BusinessLogicEx
 import io.nuvalence.user.management.api.service.config.exception.ResourceNotFoundException;
 import io.nuvalence.user.management.api.service.entity.RoleEntity;
 import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.ChangeEntityType;
+import io.nuvalence.user.management.api.service.enums.ChangeOperation;
 import io.nuvalence.user.management.api.service.generated.models.RoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserRoleDTO;
 import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
@@ -24,6 +28,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -35,7 +40,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @ExtendWith(MockitoExtension.class)
 @SuppressWarnings({"checkstyle:ClassFanOutComplexity", "checkstyle:ClassDataAbstractionCoupling"})
@@ -45,6 +52,10 @@ class UserServiceTest {
 
     @Mock private RoleRepository roleRepository;
 
+    @Mock private UserProfileCache userProfileCache;
+
+    @Mock private ChangeFeedService changeFeedService;
+
     @InjectMocks private UserService userService;
 
     @Captor private ArgumentCaptor<UserEntity> userCaptor;
@@ -63,10 +74,60 @@ class UserServiceTest {
         user.setLastName("Simpson");
         user.setPhoneNumber("555-555-5555");
         user.setExternalId("EXT00001");
+        user.setId(UUID.randomUUID());
+        when(userRepository.save(user)).thenReturn(user);
 
         userService.createUser(user);
 
         verify(userRepository).save(user);
+        verify(changeFeedService)
+                .record(ChangeEntityType.USER, user.getId(), ChangeOperation.CREATED);
+    }
+
+    @Test
+    void createUsers_reports_existing_and_repeated_identities_as_conflicts() {
+        final UserEntity existing = createNewUser("idp", "EXT00001");
+        final UserEntity fresh = createNewUser("idp", "EXT00002");
+        final UserEntity repeated = createNewUser("idp", "EXT00002");
+        final UserEntity otherProvider = createNewUser("other-idp", "EXT00001");
+        when(userRepository.findActiveExternalIds("idp", Set.of("EXT00001", "EXT00002")))
+                .thenReturn(Set.of("EXT00001"));
+        when(userRepository.findActiveExternalIds("other-idp", Set.of("EXT00001")))
+                .thenReturn(Set.of());
+        when(userRepository.insertAll(any())).thenAnswer(invocation -> insertedIds(invocation));
+
+        final List<UserCreationResult> results =
+                userService.createUsers(List.of(existing, fresh, repeated, otherProvider));
+
+        assertEquals(4, results.size());
+        assertFalse(results.get(0).isCreated());
+        assertTrue(results.get(1).isCreated());
+        assertFalse(results.get(2).isCreated());
+        assertTrue(results.get(3).isCreated());
+        assertEquals(UserService.DUPLICATE_IDENTITY_MESSAGE, results.get(2).getConflict());
+        assertNotNull(fresh.getId());
+        assertNotNull(fresh.getCreatedAt());
+        assertNull(repeated.getId());
+        verify(userRepository).insertAll(List.of(fresh, otherProvider));
+    }
+
+    @Test
+    void createUsers_reports_users_created_concurrently_as_conflicts() {
+        final UserEntity raced = createNewUser("idp", "EXT00001");
+        final UserEntity fresh = createNewUser("idp", "EXT00002");
+        when(userRepository.findActiveExternalIds("idp", Set.of("EXT00001", "EXT00002")))
+                .thenReturn(Set.of());
+        // Another request creates EXT00001 between the check and the insert, which skips it.
+        when(userRepository.insertAll(List.of(raced, fresh)))
+                .thenAnswer(invocation -> Set.of(fresh.getId()));
+
+        final List<UserCreationResult> results = userService.createUsers(List.of(raced, fresh));
+
+        assertFalse(results.get(0).isCreated());
+        assertEquals(UserService.DUPLICATE_IDENTITY_MESSAGE, results.get(0).getConflict());
+        assertNull(raced.getId());
+        assertTrue(results.get(1).isCreated());
+        verify(changeFeedService).recordUsers(List.of(fresh.getId()), ChangeOperation.CREATED);
     }
 
     // Update user tests.
@@ -99,15 +160,15 @@ class UserServiceTest {
 
         // Fake the UserEntity return when save is called in the userService.updateUser(...)
         // function
-        when(userRepository.save(isA(UserEntity.class))).thenReturn(newUserEntity);
+        when(userRepository.saveAndFlush(isA(UserEntity.class))).thenReturn(newUserEntity);
 
         // Make the update request
         UserEntity res = userService.updateUserById(originalUserEntity.getId(), updateRequest);
 
         assertNotNull(res);
 
-        verify(userRepository)
-                .save(userCaptor.capture()); // userRepository should have been asked to save once
+        // userRepository should have been asked to save once
+        verify(userRepository).saveAndFlush(userCaptor.capture());
         UserEntity savedEntity = userCaptor.getValue(); // Capture what it was sent to save
 
         // Validate that the UserEntity submitted to userRepository.save and the returned user
@@ -131,10 +192,10 @@ class UserServiceTest {
         // Test changing only the user's first name
         updateRequest.setFirstName(newFirstName);
         expectedUserEntity.setFirstName(newFirstName);
-        when(userRepository.save(isA(UserEntity.class))).thenReturn(expectedUserEntity);
+        when(userRepository.saveAndFlush(isA(UserEntity.class))).thenReturn(expectedUserEntity);
 
         UserEntity res = userService.updateUserById(originalUserEntity.getId(), updateRequest);
-        verify(userRepository, times(1)).save(userCaptor.capture());
+        verify(userRepository, times(1)).saveAndFlush(userCaptor.capture());
 
         validateUserUpdate(originalUserEntity, updateRequest, res);
         expectedUserEntity.setFirstName(originalUserEntity.getFirstName()); // Reset for next test
@@ -148,7 +209,7 @@ class UserServiceTest {
         res = userService.updateUserById(originalUserEntity.getId(), updateRequest);
         assertNotNull(res);
 
-        verify(userRepository, times(2)).save(userCaptor.capture()); // 2x now
+        verify(userRepository, times(2)).saveAndFlush(userCaptor.capture()); // 2x now
         validateUserUpdate(originalUserEntity, updateRequest, res);
 
         expectedUserEntity.setEmail(originalUserEntity.getEmail()); // Reset for next test
@@ -159,7 +220,7 @@ class UserServiceTest {
                 testExternalId); // User repo return is automatically updated via reference
 
         res = userService.updateUserById(originalUserEntity.getId(), updateRequest);
-        verify(userRepository, times(3)).save(userCaptor.capture()); // 3x now
+        verify(userRepository, times(3)).saveAndFlush(userCaptor.capture()); // 3x now
         validateUserUpdate(originalUserEntity, updateRequest, res);
 
         // Test submitting the existing email and external id, but a changed display name
@@ -172,7 +233,7 @@ class UserServiceTest {
         expectedUserEntity.setExternalId(originalUserEntity.getExternalId());
 
         res = userService.updateUserById(originalUserEntity.getId(), updateRequest);
-        verify(userRepository, times(4)).save(userCaptor.capture()); // 4x now
+        verify(userRepository, times(4)).saveAndFlush(userCaptor.capture()); // 4x now
         validateUserUpdate(originalUserEntity, updateRequest, res);
     }
 
@@ -191,13 +252,13 @@ class UserServiceTest {
 
         // Fake the UserEntity return when save is called in the userService.updateUser(...)
         // function
-        when(userRepository.save(isA(UserEntity.class))).thenReturn(newUserEntity);
+        when(userRepository.saveAndFlush(isA(UserEntity.class))).thenReturn(newUserEntity);
 
         // Make the update request
         UserEntity res = userService.updateUserById(originalUserEntity.getId(), updateRequest);
 
-        verify(userRepository)
-                .save(userCaptor.capture()); // userRepository should have been asked to save once
+        // userRepository should have been asked to save once
+        verify(userRepository).saveAndFlush(userCaptor.capture());
 
         // Validate that the UserEntity submitted to userRepository.save and the returned user
         // are correct
@@ -227,7 +288,7 @@ class UserServiceTest {
                 () -> userService.updateUserById(originalUserEntity.getId(), updateRequest));
 
         // Make sure the user was never updated in the repository
-        verify(userRepository, times(0)).save(any());
+        verify(userRepository, times(0)).saveAndFlush(any());
     }
     // Delete User Tests.
 
@@ -245,18 +306,19 @@ class UserServiceTest {
     @Test
     void assignRoleToUser_assignsRoleIfValid() {
         UserRoleDTO userRole = createUserRoleDto();
-        Optional<UserEntity> userEntity = Optional.of(createUserEntity());
-        Optional<RoleEntity> roleEntity = Optional.of(createRoleEntity());
 
-        when(userRepository.findById(userEntity.get().getId())).thenReturn(userEntity);
-        when(roleRepository.findById(roleEntity.get().getId())).thenReturn(roleEntity);
+        when(userRepository.existsById(userRole.getUserId())).thenReturn(true);
+        when(roleRepository.existsById(userRole.getRoleId())).thenReturn(true);
 
         userService.assignRoleToUser(userRole.getUserId(), userRole.getRoleId());
 
-        verify(userRepository).save(userCaptor.capture());
-        UserEntity capturedUser = userCaptor.getValue();
-        assertEquals(1, capturedUser.getRoles().size());
-        assertEquals(roleEntity.get().getName(), capturedUser.getRoles().get(0).getName());
+        verify(userRepository).addRole(userRole.getUserId(), userRole.getRoleId());
+        verify(userRepository).incrementVersion(userRole.getUserId());
+        verify(userProfileCache).evict(userRole.getUserId());
+        verify(changeFeedService)
+                .record(ChangeEntityType.USER, userRole.getUserId(), ChangeOperation.UPDATED);
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -272,37 +334,34 @@ class UserServiceTest {
     @Test
     void assignRoleToUser_fails_ifRoleDoesNotExist() {
         UserRoleDTO userRole = createUserRoleDto();
-        Optional<UserEntity> userEntity = Optional.of(createUserEntity());
 
-        when(userRepository.findById(userEntity.get().getId())).thenReturn(userEntity);
+        when(userRepository.existsById(userRole.getUserId())).thenReturn(true);
 
         assertThrowsWithMessage(
                 ResourceNotFoundException.class,
                 "Role with ID '" + userRole.getRoleId() + "' not found.",
                 () -> userService.assignRoleToUser(userRole.getUserId(), userRole.getRoleId()));
+        verify(userRepository, never()).addRole(any(), any());
     }
 
     // Remove Role from User Tests
     @Test
     void removeRoleToUser_assignsRoleIfValid() {
         UserRoleDTO userRole = createUserRoleDto();
+        // Equal but not identical ids, as when they are parsed from separate requests.
+        UUID userId = UUID.fromString(userRole.getUserId().toString());
+        UUID roleId = UUID.fromString(userRole.getRoleId().toString());
 
-        Optional<RoleEntity> roleEntity = Optional.of(createRoleEntity());
-        roleEntity.get().setId(userRole.getRoleId());
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(roleRepository.existsById(roleId)).thenReturn(true);
+        when(userRepository.removeRole(userRole.getUserId(), userRole.getRoleId()))
+                .thenReturn(true);
 
-        UserEntity user = createUserEntity();
-        user.setRoles(List.of(roleEntity.get()));
-        Optional<UserEntity> userEntity = Optional.of(user);
+        userService.removeRoleFromUser(userId, roleId);
 
-        when(userRepository.findById(user.getId())).thenReturn(userEntity);
-        when(roleRepository.findById(roleEntity.get().getId())).thenReturn(roleEntity);
-
-        userService.removeRoleFromUser(userRole.getUserId(), userRole.getRoleId());
-
-        verify(userRepository).save(userCaptor.capture());
-        UserEntity capturedUser = userCaptor.getValue();
-
-        assertEquals(0, capturedUser.getRoles().size());
+        verify(userRepository).removeRole(userId, roleId);
+        verify(userRepository).incrementVersion(userId);
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -318,11 +377,9 @@ class UserServiceTest {
     @Test
     void removeRoleToUser_fails_ifRoleDoesNotExist() {
         UserRoleDTO userRole = createUserRoleDto();
-        UserEntity user = createUserEntity();
-        Optional<RoleEntity> roleEntity = Optional.of(createRoleEntity());
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(roleRepository.findById(roleEntity.get().getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(userRole.getUserId())).thenReturn(true);
+        when(roleRepository.existsById(userRole.getRoleId())).thenReturn(false);
 
         assertThrowsWithMessage(
                 ResourceNotFoundException.class,
@@ -333,11 +390,9 @@ class UserServiceTest {
     @Test
     void removeRoleToUser_fails_ifRoleIsNotAssignedToUser() {
         UserRoleDTO userRole = createUserRoleDto();
-        Optional<UserEntity> userEntity = Optional.of(createUserEntity());
-        Optional<RoleEntity> roleEntity = Optional.of(createRoleEntity());
 
-        when(userRepository.findById(userEntity.get().getId())).thenReturn(userEntity);
-        when(roleRepository.findById(roleEntity.get().getId())).thenReturn(roleEntity);
+        when(userRepository.existsById(userRole.getUserId())).thenReturn(true);
+        when(roleRepository.existsById(userRole.getRoleId())).thenReturn(true);
 
         assertThrowsWithMessage(
                 BusinessLogicException.class,
@@ -405,6 +460,9 @@ class UserServiceTest {
         userService.deleteUser(user.getId());
         verify(userRepository, times(1)).findById(user.getId());
         verify(userRepository, times(1)).save(user);
+        verify(userProfileCache).evict(user.getId());
+        verify(changeFeedService)
+                .record(ChangeEntityType.USER, user.getId(), ChangeOperation.DELETED);
     }
 
     @Test
@@ -422,22 +480,6 @@ class UserServiceTest {
         // verify(userRepository, never()).delete(any());
     }
 
-    @Test
-    void removeRoleFromUserWithEmptyRoles() {
-        RoleEntity role = createRoleEntity();
-        role.setId(UUID.randomUUID());
-        UserEntity user = createUserEntity();
-        user.setRoles(null);
-
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(roleRepository.findById(role.getId())).thenReturn(Optional.of(role));
-
-        assertThrowsWithMessage(
-                BusinessLogicException.class,
-                null, // You can leave the expected message as null or customize it as needed
-                () -> userService.removeRoleFromUser(user.getId(), role.getId()));
-    }
-
     @Test
     void updateUserFailWithMissingUserId() {
         UserEntity user = createUserEntity();
@@ -484,6 +526,32 @@ class UserServiceTest {
         assertTrue(result);
     }
 
+    @Test
+    void isDuplicateExternalUserException_True_for_active_identity_index() {
+        ConstraintViolationException constraintViolationException =
+                new ConstraintViolationException(
+                        "message", new SQLException(), "sql", "ux_user_table_active_identity");
+
+        assertTrue(userService.isDuplicateExternalUserException(constraintViolationException));
+    }
+
+    @Test
+    void estimateUserCount_uses_statistics_for_unfiltered_search() {
+        when(userRepository.estimateCount(false)).thenReturn(Optional.of(42L));
+
+        assertEquals(
+                Optional.of(42L),
+                userService.estimateUserCount(UserSearchCriteria.builder().build()));
+    }
+
+    @Test
+    void estimateUserCount_is_empty_for_filtered_search() {
+        UserSearchCriteria criteria = UserSearchCriteria.builder().email(testEmail).build();
+
+        assertTrue(userService.estimateUserCount(criteria).isEmpty());
+        verify(userRepository, times(0)).estimateCount(anyBoolean());
+    }
+
     // Helper methods
 
     private RoleDTO createRoleDto() {
@@ -515,6 +583,20 @@ class UserServiceTest {
         return userEntity;
     }
 
+    @SuppressWarnings("unchecked")
+    private static Set<UUID> insertedIds(InvocationOnMock invocation) {
+        return ((List<UserEntity>) invocation.getArgument(0))
+                .stream().map(UserEntity::getId).collect(Collectors.toSet());
+    }
+
+    private UserEntity createNewUser(String identityProvider, String externalId) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setEmail(externalId + "@theIsland.com");
+        userEntity.setIdentityProvider(identityProvider);
+        userEntity.setExternalId(externalId);
+        return userEntity;
+    }
+
     private UserRoleDTO createUserRoleDto() {
         UserRoleDTO userRoleDto = new UserRoleDTO();
         userRoleDto.setRoleId(createRoleDto().getId());
@@ -0,0 +1,125 @@
+package io.nuvalence.user.management.api.service.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.nuvalence.auth.access.AuthorizationHandler;
+import io.nuvalence.user.management.api.service.entity.UserEntity;
+import io.nuvalence.user.management.api.service.enums.UserType;
+import io.nuvalence.user.management.api.service.generated.models.UserUpdateRequest;
+import io.nuvalence.user.management.api.service.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checks that every change to a user's profile moves the version its ETag is derived from, and
+ * that updates are conditioned on the version the user was loaded with.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+class UserVersioningTest {
+    private static final UUID ROLE = UUID.randomUUID();
+
+    @MockBean private AuthorizationHandler authorizationHandler;
+
+    @Autowired private UserService userService;
+
+    @Autowired private UserRepository userRepository;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update(
+                "INSERT INTO role (id, name, description) VALUES (?, 'versioning-role', '')",
+                ROLE);
+
+        final UserEntity user = new UserEntity();
+        user.setExternalId("VERSIONED");
+        user.setIdentityProvider("versioning");
+        user.setEmail("versioned@example.com");
+        user.setUserType(UserType.PUBLIC);
+        userService.createUsers(List.of(user));
+        userId = user.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_role WHERE role_id = ?", ROLE);
+        jdbcTemplate.update("DELETE FROM user_table WHERE identity_provider = 'versioning'");
+        jdbcTemplate.update("DELETE FROM role WHERE id = ?", ROLE);
+    }
+
+    @Test
+    void profileChangesIncrementTheVersion() {
+        assertEquals(0, version());
+
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        final UserEntity updated =
+                transaction.execute(
+                        status ->
+                                userService.updateUser(
+                                        userService.getUserByIdLoaded(userId).orElseThrow(),
+                                        new UserUpdateRequest().firstName("Ada")));
+        assertEquals(1, updated.getVersion());
+        assertEquals(1, version());
+
+        userService.assignRoleToUser(userId, ROLE);
+        assertEquals(2, version());
+
+        transaction.executeWithoutResult(
+                status -> userRepository.incrementVersionOfRoleMembers(ROLE));
+        assertEquals(3, version());
+
+        userService.removeRoleFromUser(userId, ROLE);
+        assertEquals(4, version());
+    }
+
+    @Test
+    void updateFailsWhenTheUserChangedAfterItWasLoaded() {
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        final TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThrows(
+                ObjectOptimisticLockingFailureException.class,
+                () ->
+                        transaction.executeWithoutResult(
+                                status -> {
+                                    final UserEntity loaded =
+                                            userService.getUserByIdLoaded(userId).orElseThrow();
+                                    concurrent.executeWithoutResult(
+                                            inner -> userService.assignRoleToUser(userId, ROLE));
+
+                                    userService.updateUser(
+                                            loaded, new UserUpdateRequest().firstName("Ada"));
+                                }));
+
+        assertEquals(1, version());
+    }
+
+    private long version() {
+        return jdbcTemplate.queryForObject(
+                "SELECT version FROM user_table WHERE id = ?", Long.class, userId);
+    }
+}